@@ -1,11 +1,14 @@
 package com.ufomap.api;
 
+import com.ufomap.api.config.NativeRuntimeHints;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.ImportRuntimeHints;
 
 @SpringBootApplication
+@ImportRuntimeHints(NativeRuntimeHints.class)
 public class UfoSightingApiApplication {
 
     private static final Logger logger = LoggerFactory.getLogger(UfoSightingApiApplication.class);
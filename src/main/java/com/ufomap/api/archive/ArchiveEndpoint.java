@@ -0,0 +1,86 @@
+package com.ufomap.api.archive;
+
+import com.ufomap.api.dto.ArchiveSegmentDTO;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.InvalidEndpointRequestException;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * {@code /actuator/archive}: the segments of the cold tier, and {@code POST /actuator/archive} with
+ * {@code {"action": "archive"}} to archive every old enough sighting now, or
+ * {@code {"action": "restore", "segment": "<name>"}} to move a segment back into the table.
+ */
+@Component
+@Endpoint(id = "archive")
+@RequiredArgsConstructor
+public class ArchiveEndpoint {
+
+    private final SightingArchive archive;
+    private final SightingArchiver archiver;
+
+    @ReadOperation
+    public List<ArchiveSegmentDTO> segments() {
+        return archive.getSegments().stream()
+                .map(ArchiveEndpoint::toDTO)
+                .toList();
+    }
+
+    /**
+     * @param action  {@code archive} or {@code restore}.
+     * @param segment The segment to restore; ignored when archiving.
+     * @return The segments after the action.
+     */
+    @WriteOperation
+    public List<ArchiveSegmentDTO> control(String action, @Nullable String segment) {
+        try {
+            switch (action) {
+                case "archive" -> archiver.archiveAll();
+                case "restore" -> {
+                    if (segment == null) {
+                        throw new InvalidEndpointRequestException(
+                                "Missing segment", "segment is required to restore");
+                    }
+                    archiver.restore(segment);
+                }
+                default -> throw new InvalidEndpointRequestException(
+                        "Unknown action: " + action, "action must be archive or restore");
+            }
+        } catch (IllegalArgumentException | IllegalStateException e) {
+            throw new InvalidEndpointRequestException(e.getMessage(), e.getMessage());
+        }
+        return segments();
+    }
+
+    private static ArchiveSegmentDTO toDTO(SightingArchive.Entry entry) {
+        ArchiveSegment segment = entry.segment();
+        long compressedBytes;
+        try {
+            compressedBytes = segment.getCompressedBytes();
+        } catch (IOException e) {
+            // Renamed or removed since the last scan
+            compressedBytes = -1;
+        }
+        boolean located = !Double.isNaN(segment.getMinLatitude());
+        return ArchiveSegmentDTO.builder()
+                .name(entry.name())
+                .state(entry.state())
+                .rows(segment.getRowCount())
+                .compressedBytes(compressedBytes)
+                .minId(segment.getMinId())
+                .maxId(segment.getMaxId())
+                .minDateTime(segment.getMinDateTime())
+                .maxDateTime(segment.getMaxDateTime())
+                .minLatitude(located ? segment.getMinLatitude() : null)
+                .maxLatitude(located ? segment.getMaxLatitude() : null)
+                .minLongitude(located ? segment.getMinLongitude() : null)
+                .maxLongitude(located ? segment.getMaxLongitude() : null)
+                .build();
+    }
+}
@@ -0,0 +1,331 @@
+package com.ufomap.api.archive;
+
+import com.ufomap.api.model.Sighting;
+import com.ufomap.api.model.SightingDerivedColumns;
+import com.ufomap.api.snapshot.SightingSnapshot;
+import com.ufomap.api.snapshot.SnapshotWriter;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * One immutable archive segment file: a fixed-size header with the segment's zone maps, followed by
+ * a deflate-compressed {@link com.ufomap.api.snapshot.SnapshotFormat} body holding its sightings.
+ * <pre>
+ * int    magic ("UFOA"), int version, int rowCount
+ * long   minId, maxId
+ * long   minDateTime, maxDateTime   (epoch micros; Long.MIN_VALUE if no row has one)
+ * double minLatitude, maxLatitude, minLongitude, maxLongitude   (NaN if no row has coordinates)
+ * int    body length (uncompressed)
+ * long   minDurationSeconds, maxDurationSeconds   (Long.MIN_VALUE if no row has one; version 2)
+ * int    word count, long[] words   (a {@link ValueFilter} over shape, city, state and country; version 2)
+ * ...    deflated snapshot
+ * </pre>
+ * Only the header is read when a segment is registered, so queries can skip segments by id,
+ * date, coordinates, duration or filter values without decompressing them. Version 1 segments
+ * have no duration zone map or value filter and are never skipped on those.
+ */
+public final class ArchiveSegment {
+
+    static final int MAGIC = 0x55464F41; // "UFOA"
+    static final int VERSION = 2;
+    // Version 1 header; version 2 continues with the duration zone map and the value filter
+    static final int HEADER_BYTES = 3 * Integer.BYTES + 4 * Long.BYTES + 4 * Double.BYTES + Integer.BYTES;
+    private static final int DURATION_BYTES = 2 * Long.BYTES;
+
+    private final Path path;
+    private final int rowCount;
+    private final long minId;
+    private final long maxId;
+    private final long minDateTime;
+    private final long maxDateTime;
+    private final double minLatitude;
+    private final double maxLatitude;
+    private final double minLongitude;
+    private final double maxLongitude;
+    private final int bodyLength;
+    private final long minDurationSeconds;
+    private final long maxDurationSeconds;
+    private final ValueFilter valueFilter; // Null for version 1 segments
+    private final long bodyOffset;
+
+    private ArchiveSegment(Path path, ByteBuffer header, FileChannel channel) throws IOException {
+        if (header.getInt() != MAGIC) {
+            throw new IllegalStateException("Not an archive segment: " + path);
+        }
+        int version = header.getInt();
+        if (version > VERSION) {
+            throw new IllegalStateException("Archive segment " + path + " has version " + version
+                    + "; this build reads up to version " + VERSION);
+        }
+        this.path = path;
+        this.rowCount = header.getInt();
+        this.minId = header.getLong();
+        this.maxId = header.getLong();
+        this.minDateTime = header.getLong();
+        this.maxDateTime = header.getLong();
+        this.minLatitude = header.getDouble();
+        this.maxLatitude = header.getDouble();
+        this.minLongitude = header.getDouble();
+        this.maxLongitude = header.getDouble();
+        this.bodyLength = header.getInt();
+        if (version < 2) {
+            this.minDurationSeconds = Long.MIN_VALUE;
+            this.maxDurationSeconds = Long.MIN_VALUE;
+            this.valueFilter = null;
+            this.bodyOffset = HEADER_BYTES;
+            return;
+        }
+        ByteBuffer extension = read(channel, path, DURATION_BYTES + Integer.BYTES);
+        this.minDurationSeconds = extension.getLong();
+        this.maxDurationSeconds = extension.getLong();
+        int words = extension.getInt();
+        ByteBuffer filter = ByteBuffer.allocate(Integer.BYTES + words * Long.BYTES).putInt(words);
+        filter.put(read(channel, path, words * Long.BYTES)).flip();
+        this.valueFilter = ValueFilter.read(filter);
+        this.bodyOffset = channel.position();
+    }
+
+    /**
+     * Reads the header of the segment at {@code path}.
+     */
+    public static ArchiveSegment open(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            return new ArchiveSegment(path, read(channel, path, HEADER_BYTES), channel);
+        }
+    }
+
+    private static ByteBuffer read(FileChannel channel, Path path, int bytes) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(bytes);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer) < 0) {
+                throw new IllegalStateException("Truncated archive segment: " + path);
+            }
+        }
+        return buffer.flip();
+    }
+
+    /**
+     * Writes sightings (in ascending id order) as a segment file and forces it to disk.
+     * The caller makes it visible by renaming it.
+     */
+    public static void write(List<Sighting> sightings, Path target) throws IOException {
+        SnapshotWriter writer = new SnapshotWriter();
+        ZoneMap zoneMap = new ZoneMap();
+        for (Sighting sighting : sightings) {
+            writer.add(sighting);
+            zoneMap.add(sighting);
+        }
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        writer.write(body);
+
+        try (FileChannel channel = FileChannel.open(target, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+            OutputStream file = Channels.newOutputStream(channel);
+            DataOutputStream out = new DataOutputStream(file);
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(sightings.size());
+            out.writeLong(sightings.isEmpty() ? 0 : sightings.get(0).getId());
+            out.writeLong(sightings.isEmpty() ? 0 : sightings.get(sightings.size() - 1).getId());
+            out.writeLong(zoneMap.minDateTime);
+            out.writeLong(zoneMap.maxDateTime);
+            out.writeDouble(zoneMap.minLatitude);
+            out.writeDouble(zoneMap.maxLatitude);
+            out.writeDouble(zoneMap.minLongitude);
+            out.writeDouble(zoneMap.maxLongitude);
+            out.writeInt(body.size());
+            out.writeLong(zoneMap.minDurationSeconds);
+            out.writeLong(zoneMap.maxDurationSeconds);
+            ValueFilter filter = ValueFilter.of(zoneMap.values);
+            ByteBuffer filterBytes = ByteBuffer.allocate(filter.serializedBytes());
+            filter.write(filterBytes);
+            out.write(filterBytes.array());
+            Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION);
+            try {
+                DeflaterOutputStream compressed = new DeflaterOutputStream(out, deflater, 1 << 16);
+                body.writeTo(compressed);
+                compressed.finish();
+            } finally {
+                deflater.end();
+            }
+            out.flush();
+            channel.force(true);
+        }
+    }
+
+    /**
+     * Decompresses the body. The result is independent of the file, which may be renamed or deleted.
+     */
+    public SightingSnapshot load() throws IOException {
+        byte[] body = new byte[bodyLength];
+        try (InputStream file = Files.newInputStream(path)) {
+            file.skipNBytes(bodyOffset);
+            try (DataInputStream in = new DataInputStream(new InflaterInputStream(new BufferedInputStream(file, 1 << 16)))) {
+                in.readFully(body);
+            }
+        }
+        return SightingSnapshot.wrap(path, ByteBuffer.wrap(body));
+    }
+
+    public Path getPath() {
+        return path;
+    }
+
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    public long getMinId() {
+        return minId;
+    }
+
+    public long getMaxId() {
+        return maxId;
+    }
+
+    public LocalDateTime getMinDateTime() {
+        return toDateTime(minDateTime);
+    }
+
+    public LocalDateTime getMaxDateTime() {
+        return toDateTime(maxDateTime);
+    }
+
+    public double getMinLatitude() {
+        return minLatitude;
+    }
+
+    public double getMaxLatitude() {
+        return maxLatitude;
+    }
+
+    public double getMinLongitude() {
+        return minLongitude;
+    }
+
+    public double getMaxLongitude() {
+        return maxLongitude;
+    }
+
+    /**
+     * Size of the decompressed body, which is what a cached segment holds in memory.
+     */
+    public int getUncompressedBytes() {
+        return bodyLength;
+    }
+
+    public long getCompressedBytes() throws IOException {
+        return Files.size(path);
+    }
+
+    public boolean mayContainId(long id) {
+        return id >= minId && id <= maxId;
+    }
+
+    /**
+     * Whether any sighting of the segment may lie in the box; false when no row has coordinates.
+     */
+    public boolean mayOverlap(double north, double south, double east, double west) {
+        return !Double.isNaN(minLatitude)
+                && minLatitude <= north && maxLatitude >= south
+                && minLongitude <= east && maxLongitude >= west;
+    }
+
+    /**
+     * Whether any sighting of the segment may match the equality and duration filters (null
+     * filters match everything); false when it certainly holds none.
+     */
+    public boolean mayMatch(String shape, String city, String country, String state,
+                            Long minDuration, Long maxDuration) {
+        if (valueFilter == null) {
+            return true;
+        }
+        if (!mayHold(ValueFilter.SHAPE, shape) || !mayHold(ValueFilter.CITY, city)
+                || !mayHold(ValueFilter.COUNTRY, country) || !mayHold(ValueFilter.STATE, state)) {
+            return false;
+        }
+        if (minDuration == null && maxDuration == null) {
+            return true;
+        }
+        // Rows without a parseable duration never match a duration bound
+        return minDurationSeconds != Long.MIN_VALUE
+                && (minDuration == null || maxDurationSeconds >= minDuration)
+                && (maxDuration == null || minDurationSeconds <= maxDuration);
+    }
+
+    private boolean mayHold(String field, String value) {
+        return value == null || valueFilter.mightContain(ValueFilter.key(field, value));
+    }
+
+    private static LocalDateTime toDateTime(long epochMicros) {
+        if (epochMicros == Long.MIN_VALUE) {
+            return null;
+        }
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(epochMicros, 1_000_000),
+                (int) Math.floorMod(epochMicros, 1_000_000) * 1_000, ZoneOffset.UTC);
+    }
+
+    // Min/max over the non-null values of each column, and the distinct filterable values
+    private static final class ZoneMap {
+        final Set<String> values = new HashSet<>();
+        long minDurationSeconds = Long.MIN_VALUE;
+        long maxDurationSeconds = Long.MIN_VALUE;
+        long minDateTime = Long.MIN_VALUE;
+        long maxDateTime = Long.MIN_VALUE;
+        double minLatitude = Double.NaN;
+        double maxLatitude = Double.NaN;
+        double minLongitude = Double.NaN;
+        double maxLongitude = Double.NaN;
+
+        void add(Sighting sighting) {
+            addValue(ValueFilter.SHAPE, sighting.getShape());
+            addValue(ValueFilter.CITY, sighting.getCity());
+            addValue(ValueFilter.STATE, sighting.getState());
+            addValue(ValueFilter.COUNTRY, sighting.getCountry());
+            Long durationSeconds = SightingDerivedColumns.durationSeconds(sighting.getDuration());
+            if (durationSeconds != null) {
+                minDurationSeconds = minDurationSeconds == Long.MIN_VALUE
+                        ? durationSeconds : Math.min(minDurationSeconds, durationSeconds);
+                maxDurationSeconds = maxDurationSeconds == Long.MIN_VALUE
+                        ? durationSeconds : Math.max(maxDurationSeconds, durationSeconds);
+            }
+            if (sighting.getDateTime() != null) {
+                LocalDateTime dateTime = sighting.getDateTime();
+                long micros = dateTime.toEpochSecond(ZoneOffset.UTC) * 1_000_000 + dateTime.getNano() / 1_000;
+                minDateTime = minDateTime == Long.MIN_VALUE ? micros : Math.min(minDateTime, micros);
+                maxDateTime = maxDateTime == Long.MIN_VALUE ? micros : Math.max(maxDateTime, micros);
+            }
+            if (sighting.getLatitude() != null && sighting.getLongitude() != null) {
+                minLatitude = Double.isNaN(minLatitude) ? sighting.getLatitude() : Math.min(minLatitude, sighting.getLatitude());
+                maxLatitude = Double.isNaN(maxLatitude) ? sighting.getLatitude() : Math.max(maxLatitude, sighting.getLatitude());
+                minLongitude = Double.isNaN(minLongitude) ? sighting.getLongitude() : Math.min(minLongitude, sighting.getLongitude());
+                maxLongitude = Double.isNaN(maxLongitude) ? sighting.getLongitude() : Math.max(maxLongitude, sighting.getLongitude());
+            }
+        }
+
+        private void addValue(String field, String value) {
+            if (value != null) {
+                values.add(ValueFilter.key(field, value));
+            }
+        }
+    }
+}
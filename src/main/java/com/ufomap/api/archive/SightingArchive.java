@@ -0,0 +1,459 @@
+package com.ufomap.api.archive;
+
+import com.ufomap.api.model.Sighting;
+import com.ufomap.api.model.SubmissionStatus;
+import com.ufomap.api.repository.SightingFields;
+import com.ufomap.api.repository.SightingIndexRow;
+import com.ufomap.api.repository.SightingPoint;
+import com.ufomap.api.snapshot.SightingSnapshot;
+import com.ufomap.api.snapshot.SnapshotSightingReadSource;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.LongConsumer;
+
+/**
+ * The cold tier: immutable {@link ArchiveSegment} files in {@code ufomap.archive.path} holding
+ * sightings moved out of the {@code sightings} table by {@link SightingArchiver}.
+ * <p>
+ * A segment's state is its file extension, so a rename is an atomic state change:
+ * <ul>
+ *   <li>{@code .tmp} - being written; never read, removed by recovery.</li>
+ *   <li>{@code .archiving} - written, and its rows are being deleted from the table in a transaction
+ *       that may not have committed yet. Read, with database rows taking precedence.</li>
+ *   <li>{@code .seg} - archived; its rows exist only here.</li>
+ *   <li>{@code .restoring} - its rows are being inserted back into the table. Read, with database
+ *       rows taking precedence, until the file is deleted.</li>
+ * </ul>
+ * Only segment headers are kept in memory; queries skip segments by their zone maps and value
+ * filters, and the bodies they do read are decompressed on demand into an LRU cache bounded by
+ * {@code cached-bytes}.
+ * The directory is rescanned every {@code refresh-interval}, so instances sharing it pick up each
+ * other's segments.
+ */
+@Component
+public class SightingArchive {
+
+    public enum State {
+        ARCHIVING(".archiving"),
+        ARCHIVED(".seg"),
+        RESTORING(".restoring");
+
+        private final String extension;
+
+        State(String extension) {
+            this.extension = extension;
+        }
+
+        public String getExtension() {
+            return extension;
+        }
+    }
+
+    /**
+     * A readable segment: its name (the file name without extension), state and header.
+     */
+    public record Entry(String name, State state, ArchiveSegment segment) {
+    }
+
+    static final String TEMP_EXTENSION = ".tmp";
+
+    private static final Logger logger = LoggerFactory.getLogger(SightingArchive.class);
+
+    private final Path directory;
+    private final boolean enabled;
+    private final long cachedBytes;
+    // Access-ordered; guarded by its own monitor, which is never held while decompressing
+    private final LinkedHashMap<String, Cached> loaded = new LinkedHashMap<>(16, 0.75f, true);
+    private long loadedBytes;
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "archive-refresh");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    // Copy-on-write, sorted by name; replaced under the monitor
+    private volatile List<Entry> entries = List.of();
+
+    public SightingArchive(@Value("${ufomap.archive.path:archive}") String directory,
+                           @Value("${ufomap.archive.enabled:true}") boolean enabled,
+                           @Value("${ufomap.archive.cached-bytes:268435456}") long cachedBytes,
+                           @Value("${ufomap.archive.refresh-interval:PT1M}") Duration refreshInterval) throws IOException {
+        this.directory = Path.of(directory).toAbsolutePath();
+        this.enabled = enabled;
+        this.cachedBytes = cachedBytes;
+        if (enabled) {
+            Files.createDirectories(this.directory);
+            refresh();
+            long interval = Math.max(1, refreshInterval.toMillis());
+            scheduler.scheduleWithFixedDelay(this::refreshQuietly, interval, interval, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public boolean isEmpty() {
+        return entries.isEmpty();
+    }
+
+    public List<Entry> getSegments() {
+        return entries;
+    }
+
+    public Path getDirectory() {
+        return directory;
+    }
+
+    public Optional<Sighting> findById(long id) {
+        for (Entry entry : entries) {
+            if (entry.segment().mayContainId(id)) {
+                Optional<Sighting> sighting = reader(entry).findById(id);
+                if (sighting.isPresent()) {
+                    return sighting;
+                }
+            }
+        }
+        return Optional.empty();
+    }
+
+    public List<Sighting> findAllById(Collection<Long> ids) {
+        List<Sighting> sightings = new ArrayList<>();
+        for (Long id : ids) {
+            findById(id).ifPresent(sightings::add);
+        }
+        return sightings;
+    }
+
+    /**
+     * The first {@code top.getPageSize()} archived matches in {@code top}'s order (see
+     * {@link SightingFields#comparator}), and the total number of archived matches.
+     */
+    public Page<Sighting> findWithFilters(String shape, String city, String country, String state, String searchText,
+                                          Long minDuration, Long maxDuration, Pageable top) {
+        return topOf(matching(shape, city, country, state, minDuration, maxDuration), top, reader -> reader.findWithFilters(shape, city, country, state, searchText,
+                minDuration, maxDuration, top));
+    }
+
+    /**
+     * Like {@link #findWithFilters}, for a bounding box; segments outside the box are skipped by their zone maps.
+     */
+    public Page<Sighting> findInBounds(Double north, Double south, Double east, Double west, Pageable top) {
+        return topOf(overlapping(north, south, east, west), top,
+                reader -> reader.findInBounds(north, south, east, west, top));
+    }
+
+    /**
+     * The first {@code limit} archived points in the box, ordered by id.
+     */
+    public List<SightingPoint> findPointsInBounds(Double north, Double south, Double east, Double west, int limit) {
+        List<SightingPoint> points = new ArrayList<>();
+        for (Entry entry : overlapping(north, south, east, west)) {
+            points.addAll(reader(entry).findPointsInBounds(north, south, east, west, PageRequest.of(0, limit)));
+        }
+        points.sort(Comparator.comparing(SightingPoint::getId));
+        return points.size() > limit ? new ArrayList<>(points.subList(0, limit)) : points;
+    }
+
+    public void forEachIdWithFilters(String shape, String city, String country, String state, String searchText,
+                                     Long minDuration, Long maxDuration, LongConsumer consumer) {
+        for (Entry entry : matching(shape, city, country, state, minDuration, maxDuration)) {
+            reader(entry).forEachIdWithFilters(shape, city, country, state, searchText, minDuration, maxDuration,
+                    consumer);
+        }
+    }
+
+    /**
+     * Feeds every archived sighting's indexed columns to {@code consumer}, e.g. to build the bitmap index.
+     */
+    public void forEachIndexRow(Consumer<SightingIndexRow> consumer) {
+        for (Entry entry : entries) {
+            SightingSnapshot snapshot = load(entry);
+            for (int row = 0; row < snapshot.getRowCount(); row++) {
+                consumer.accept(new IndexRow((Long) snapshot.value(row, "id"), (String) snapshot.value(row, "shape"),
+                        (String) snapshot.value(row, "country"), (String) snapshot.value(row, "state"),
+                        (SubmissionStatus) snapshot.value(row, "submissionStatus")));
+            }
+        }
+    }
+
+    /**
+     * Decompresses a segment without caching it.
+     */
+    public SightingSnapshot load(Entry entry) {
+        try {
+            return entry.segment().load();
+        } catch (NoSuchFileException e) {
+            // Renamed since the entry was read (state change): retry with the current file
+            return current(entry.name())
+                    .filter(moved -> !moved.segment().getPath().equals(entry.segment().getPath()))
+                    .map(this::load)
+                    .orElseThrow(() -> new UncheckedIOException(e));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Rescans the directory. Files in the {@code .tmp} state are ignored.
+     */
+    public synchronized void refresh() throws IOException {
+        Map<Path, ArchiveSegment> known = new LinkedHashMap<>();
+        for (Entry entry : entries) {
+            known.put(entry.segment().getPath(), entry.segment());
+        }
+        Map<String, Entry> scanned = new TreeMap<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory)) {
+            for (Path file : files) {
+                String fileName = file.getFileName().toString();
+                for (State state : State.values()) {
+                    if (fileName.endsWith(state.getExtension())) {
+                        String name = fileName.substring(0, fileName.length() - state.getExtension().length());
+                        ArchiveSegment segment = known.get(file);
+                        if (segment == null) {
+                            try {
+                                segment = ArchiveSegment.open(file);
+                            } catch (NoSuchFileException e) {
+                                continue; // renamed while scanning; picked up on the next refresh
+                            }
+                        }
+                        scanned.put(name, new Entry(name, state, segment));
+                    }
+                }
+            }
+        }
+        setEntries(new ArrayList<>(scanned.values()));
+    }
+
+    /**
+     * Moves a segment to another state by renaming its file, and forces the rename to disk.
+     */
+    synchronized Entry transition(Entry entry, State state) throws IOException {
+        return move(entry.segment().getPath(), entry.name(), state);
+    }
+
+    /**
+     * Makes a newly written {@code .tmp} file readable in {@code state}.
+     */
+    synchronized Entry publish(String name, State state) throws IOException {
+        return move(directory.resolve(name + TEMP_EXTENSION), name, state);
+    }
+
+    /**
+     * Deletes a segment file and forgets it.
+     */
+    synchronized void remove(Entry entry) throws IOException {
+        Files.deleteIfExists(entry.segment().getPath());
+        syncDirectory();
+        List<Entry> updated = new ArrayList<>(entries);
+        updated.removeIf(e -> e.name().equals(entry.name()));
+        setEntries(updated);
+        synchronized (loaded) {
+            evict(entry.name());
+        }
+    }
+
+    Optional<Entry> current(String name) {
+        return entries.stream().filter(entry -> entry.name().equals(name)).findFirst();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+    }
+
+    private Entry move(Path source, String name, State state) throws IOException {
+        Path target = directory.resolve(name + state.getExtension());
+        Files.move(source, target, StandardCopyOption.ATOMIC_MOVE);
+        syncDirectory();
+        Entry moved = new Entry(name, state, ArchiveSegment.open(target));
+        List<Entry> updated = new ArrayList<>(entries);
+        updated.removeIf(e -> e.name().equals(name));
+        updated.add(moved);
+        updated.sort(Comparator.comparing(Entry::name));
+        setEntries(updated);
+        return moved;
+    }
+
+    private void setEntries(List<Entry> updated) {
+        entries = List.copyOf(updated);
+        synchronized (loaded) {
+            List.copyOf(loaded.keySet()).stream()
+                    .filter(name -> updated.stream().noneMatch(entry -> entry.name().equals(name)))
+                    .forEach(this::evict);
+        }
+    }
+
+    private void refreshQuietly() {
+        try {
+            refresh();
+        } catch (IOException | RuntimeException e) {
+            logger.warn("Archive directory rescan failed", e);
+        }
+    }
+
+    private List<Entry> overlapping(Double north, Double south, Double east, Double west) {
+        return entries.stream()
+                .filter(entry -> entry.segment().mayOverlap(north, south, east, west))
+                .toList();
+    }
+
+    private List<Entry> matching(String shape, String city, String country, String state,
+                                 Long minDuration, Long maxDuration) {
+        return entries.stream()
+                .filter(entry -> entry.segment().mayMatch(shape, city, country, state, minDuration, maxDuration))
+                .toList();
+    }
+
+    /**
+     * The cached reader of a segment. The first caller decompresses it outside the cache monitor;
+     * concurrent callers for the same segment wait on its future, others are not blocked.
+     */
+    private SnapshotSightingReadSource reader(Entry entry) {
+        Cached cached;
+        boolean loading = false;
+        synchronized (loaded) {
+            cached = loaded.get(entry.name());
+            if (cached == null) {
+                cached = new Cached(entry.segment().getUncompressedBytes(), new CompletableFuture<>());
+                loaded.put(entry.name(), cached);
+                loadedBytes += cached.bytes();
+                loading = true;
+                evictOverLimit(entry.name());
+            }
+        }
+        if (loading) {
+            try {
+                cached.reader().complete(new SnapshotSightingReadSource(load(entry)));
+            } catch (RuntimeException | Error e) {
+                synchronized (loaded) {
+                    if (loaded.get(entry.name()) == cached) {
+                        evict(entry.name());
+                    }
+                }
+                cached.reader().completeExceptionally(e);
+                throw e;
+            }
+        }
+        try {
+            return cached.reader().join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    // Drops least recently used segments until the cache fits, keeping the one just added
+    private void evictOverLimit(String keep) {
+        Iterator<Map.Entry<String, Cached>> eldest = loaded.entrySet().iterator();
+        while (loadedBytes > cachedBytes && eldest.hasNext()) {
+            Map.Entry<String, Cached> next = eldest.next();
+            if (!next.getKey().equals(keep)) {
+                loadedBytes -= next.getValue().bytes();
+                eldest.remove();
+            }
+        }
+    }
+
+    private void evict(String name) {
+        Cached cached = loaded.remove(name);
+        if (cached != null) {
+            loadedBytes -= cached.bytes();
+        }
+    }
+
+    // Each segment returns its own first top.getPageSize() matches; the global ones are among them
+    private Page<Sighting> topOf(List<Entry> candidates, Pageable top,
+                                 Function<SnapshotSightingReadSource, Page<Sighting>> query) {
+        List<Sighting> matches = new ArrayList<>();
+        long total = 0;
+        for (Entry entry : candidates) {
+            Page<Sighting> page = query.apply(reader(entry));
+            matches.addAll(page.getContent());
+            total += page.getTotalElements();
+        }
+        Sort sort = top.getSort();
+        matches.sort(SightingFields.comparator(sort));
+        if (top.isPaged() && matches.size() > top.getPageSize()) {
+            matches = new ArrayList<>(matches.subList(0, top.getPageSize()));
+        }
+        return new PageImpl<>(matches, top, total);
+    }
+
+    private void syncDirectory() throws IOException {
+        try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (IOException e) {
+            logger.debug("Could not fsync archive directory {}", directory, e);
+        }
+    }
+
+    private record Cached(int bytes, CompletableFuture<SnapshotSightingReadSource> reader) {
+    }
+
+    private record IndexRow(Long id, String shape, String country, String state,
+                            SubmissionStatus submissionStatus) implements SightingIndexRow {
+
+        @Override
+        public Long getId() {
+            return id;
+        }
+
+        @Override
+        public String getShape() {
+            return shape;
+        }
+
+        @Override
+        public String getCountry() {
+            return country;
+        }
+
+        @Override
+        public String getState() {
+            return state;
+        }
+
+        @Override
+        public SubmissionStatus getSubmissionStatus() {
+            return submissionStatus;
+        }
+    }
+}
@@ -0,0 +1,318 @@
+package com.ufomap.api.archive;
+
+import com.ufomap.api.model.Sighting;
+import com.ufomap.api.model.SightingDerivedColumns;
+import com.ufomap.api.model.SubmissionStatus;
+import com.ufomap.api.repository.SightingRepository;
+import com.ufomap.api.snapshot.SightingSnapshot;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.Period;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Moves old approved sightings from the {@code sightings} table into {@link SightingArchive}
+ * segments, and back.
+ * <p>
+ * Archiving a segment locks its rows, writes the segment as {@code .tmp}, renames it to
+ * {@code .archiving} and deletes the rows, all in one transaction; after commit the segment is
+ * renamed to {@code .seg}. Restoring renames a segment to {@code .restoring}, inserts its rows back
+ * (with their ids) in one transaction and deletes the file after commit. Reads see every row in the
+ * table, the archive or both (and prefer the table) at every step, so both operations run online.
+ * <p>
+ * After a crash, the first id of each {@code .archiving} or {@code .restoring} segment tells which
+ * way its transaction went: recovery finishes the rename or drops the file, and removes leftover
+ * {@code .tmp} files. All of this runs under a transaction-scoped advisory lock, so instances
+ * sharing the archive directory never act on each other's segments in flight.
+ */
+@Component
+public class SightingArchiver {
+
+    private static final Logger logger = LoggerFactory.getLogger(SightingArchiver.class);
+
+    // pg_advisory_xact_lock key shared by every instance ("UFOA")
+    private static final long LOCK_KEY = 0x55464F41L;
+    private static final int BATCH_SIZE = 1000;
+
+    private static final String INSERT = "INSERT INTO sightings (id, date_time, city, state, country, shape, duration, "
+            + "summary, posted, latitude, longitude, submitted_by, submission_date, user_submitted, submission_status, "
+            + "duration_seconds, posted_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final int[] INSERT_TYPES = {Types.BIGINT, Types.TIMESTAMP, Types.VARCHAR, Types.VARCHAR,
+            Types.VARCHAR, Types.VARCHAR, Types.VARCHAR, Types.VARCHAR, Types.VARCHAR, Types.DOUBLE, Types.DOUBLE,
+            Types.VARCHAR, Types.TIMESTAMP, Types.BOOLEAN, Types.VARCHAR, Types.BIGINT, Types.TIMESTAMP};
+
+    private final SightingArchive archive;
+    private final SightingRepository sightingRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final Period minAge;
+    private final int segmentRows;
+    private final boolean scheduled;
+    private final Duration interval;
+
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "archiver");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public SightingArchiver(SightingArchive archive,
+                            SightingRepository sightingRepository,
+                            JdbcTemplate jdbcTemplate,
+                            TransactionTemplate transactionTemplate,
+                            @Value("${ufomap.archive.min-age:P3Y}") Period minAge,
+                            @Value("${ufomap.archive.segment-rows:20000}") int segmentRows,
+                            @Value("${ufomap.archive.schedule-enabled:false}") boolean scheduled,
+                            @Value("${ufomap.archive.interval:PT1H}") Duration interval) {
+        this.archive = archive;
+        this.sightingRepository = sightingRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.minAge = minAge;
+        this.segmentRows = segmentRows;
+        this.scheduled = scheduled;
+        this.interval = interval;
+    }
+
+    @PostConstruct
+    public void recover() {
+        if (!archive.isEnabled()) {
+            return;
+        }
+        transactionTemplate.executeWithoutResult(tx -> {
+            lock();
+            try {
+                deleteTempFiles();
+                for (SightingArchive.Entry entry : archive.getSegments()) {
+                    if (entry.state() != SightingArchive.State.ARCHIVED) {
+                        resolve(entry);
+                    }
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        if (scheduled) {
+            long period = interval.toMillis();
+            scheduler.scheduleWithFixedDelay(this::archiveAllQuietly, period, period, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+    }
+
+    /**
+     * Archives segments until no sighting is old enough.
+     *
+     * @return The segments written.
+     */
+    public List<SightingArchive.Entry> archiveAll() {
+        List<SightingArchive.Entry> written = new ArrayList<>();
+        Optional<SightingArchive.Entry> entry;
+        while ((entry = archiveSegment()).isPresent()) {
+            written.add(entry.get());
+        }
+        return written;
+    }
+
+    /**
+     * Moves up to {@code segment-rows} approved sightings older than {@code min-age} into a new segment.
+     *
+     * @return The new segment, or empty if no sighting is old enough.
+     */
+    public synchronized Optional<SightingArchive.Entry> archiveSegment() {
+        requireEnabled();
+        LocalDateTime before = LocalDateTime.now().minus(minAge);
+        SightingArchive.Entry[] published = new SightingArchive.Entry[1];
+        Optional<SightingArchive.Entry> archiving;
+        try {
+            archiving = transactionTemplate.execute(tx -> {
+                lock();
+                List<Sighting> sightings = sightingRepository.findArchivableForUpdate(
+                        SubmissionStatus.APPROVED, before, PageRequest.of(0, segmentRows));
+                if (sightings.isEmpty()) {
+                    return Optional.empty();
+                }
+                String name = String.format(Locale.ROOT, "segment-%019d-%019d",
+                        sightings.get(0).getId(), sightings.get(sightings.size() - 1).getId());
+                Path temp = archive.getDirectory().resolve(name + SightingArchive.TEMP_EXTENSION);
+                try {
+                    ArchiveSegment.write(sightings, temp);
+                    published[0] = archive.publish(name, SightingArchive.State.ARCHIVING);
+                } catch (IOException e) {
+                    deleteQuietly(temp);
+                    throw new UncheckedIOException(e);
+                }
+                List<Long> ids = sightings.stream().map(Sighting::getId).toList();
+                for (int from = 0; from < ids.size(); from += BATCH_SIZE) {
+                    sightingRepository.deleteAllByIdInBatch(ids.subList(from, Math.min(from + BATCH_SIZE, ids.size())));
+                }
+                return Optional.of(published[0]);
+            });
+        } catch (RuntimeException e) {
+            // Normally rolled back, but a failed commit may have gone through: check
+            settle(published[0], e);
+            throw e;
+        }
+        if (archiving.isEmpty()) {
+            return archiving;
+        }
+        SightingArchive.Entry entry = archiving.get();
+        try {
+            entry = archive.transition(entry, SightingArchive.State.ARCHIVED);
+        } catch (IOException e) {
+            // Committed: reads are already correct, and recovery completes the rename
+            logger.warn("Could not finish archiving segment {}", entry.name(), e);
+        }
+        logger.info("Archived {} sightings (ids {}-{}) to {}", entry.segment().getRowCount(),
+                entry.segment().getMinId(), entry.segment().getMaxId(), entry.segment().getPath());
+        return Optional.of(entry);
+    }
+
+    /**
+     * Moves the sightings of an archived segment back into the table, with their original ids.
+     *
+     * @throws IllegalArgumentException if there is no archived segment with that name.
+     */
+    public synchronized void restore(String name) {
+        requireEnabled();
+        SightingArchive.Entry archived = archive.current(name)
+                .filter(entry -> entry.state() == SightingArchive.State.ARCHIVED)
+                .orElseThrow(() -> new IllegalArgumentException("No archived segment named " + name));
+        SightingArchive.Entry[] restoring = new SightingArchive.Entry[1];
+        try {
+            transactionTemplate.executeWithoutResult(tx -> {
+                lock();
+                try {
+                    restoring[0] = archive.transition(archived, SightingArchive.State.RESTORING);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                insert(archive.load(restoring[0]));
+            });
+        } catch (RuntimeException e) {
+            settle(restoring[0], e);
+            throw e;
+        }
+        try {
+            archive.remove(restoring[0]);
+        } catch (IOException e) {
+            logger.warn("Could not delete restored segment {}", name, e);
+        }
+        logger.info("Restored {} sightings from segment {}", restoring[0].segment().getRowCount(), name);
+    }
+
+    private void insert(SightingSnapshot snapshot) {
+        List<Object[]> batch = new ArrayList<>(BATCH_SIZE);
+        for (int row = 0; row < snapshot.getRowCount(); row++) {
+            Sighting sighting = snapshot.toSighting(row);
+            SightingDerivedColumns.apply(sighting);
+            batch.add(new Object[]{sighting.getId(), timestamp(sighting.getDateTime()), sighting.getCity(),
+                    sighting.getState(), sighting.getCountry(), sighting.getShape(), sighting.getDuration(),
+                    sighting.getSummary(), sighting.getPosted(), sighting.getLatitude(), sighting.getLongitude(),
+                    sighting.getSubmittedBy(), timestamp(sighting.getSubmissionDate()), sighting.isUserSubmitted(),
+                    sighting.getSubmissionStatus() == null ? null : sighting.getSubmissionStatus().getStatus(),
+                    sighting.getDurationSeconds(), timestamp(sighting.getPostedAt())});
+            if (batch.size() == BATCH_SIZE) {
+                jdbcTemplate.batchUpdate(INSERT, batch, INSERT_TYPES);
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT, batch, INSERT_TYPES);
+        }
+    }
+
+    // Both transactions move all of a segment's rows at once, so its first row tells where they are
+    private void resolve(SightingArchive.Entry entry) throws IOException {
+        if (sightingRepository.existsById(entry.segment().getMinId())) {
+            archive.remove(entry);
+            logger.info("Archive segment {} was left {}; its rows are in the table, file removed",
+                    entry.name(), entry.state());
+        } else {
+            archive.transition(entry, SightingArchive.State.ARCHIVED);
+            logger.info("Archive segment {} was left {}; its rows are archived", entry.name(), entry.state());
+        }
+    }
+
+    private void deleteTempFiles() throws IOException {
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(archive.getDirectory(),
+                "*" + SightingArchive.TEMP_EXTENSION)) {
+            for (Path file : files) {
+                logger.info("Deleting incomplete archive segment {}", file);
+                Files.deleteIfExists(file);
+            }
+        }
+    }
+
+    private void settle(SightingArchive.Entry entry, RuntimeException failure) {
+        if (entry == null) {
+            return;
+        }
+        try {
+            resolve(archive.current(entry.name()).orElse(entry));
+        } catch (IOException | RuntimeException e) {
+            failure.addSuppressed(e);
+            logger.warn("Could not settle archive segment {}; recovery will on the next start", entry.name(), e);
+        }
+    }
+
+    private static void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            logger.warn("Could not delete {}", file, e);
+        }
+    }
+
+    private void archiveAllQuietly() {
+        try {
+            List<SightingArchive.Entry> written = archiveAll();
+            if (!written.isEmpty()) {
+                logger.info("Scheduled archiving wrote {} segments", written.size());
+            }
+        } catch (RuntimeException e) {
+            logger.error("Scheduled archiving failed", e);
+        }
+    }
+
+    private void lock() {
+        jdbcTemplate.query("SELECT pg_advisory_xact_lock(?)", rs -> { }, LOCK_KEY);
+    }
+
+    private void requireEnabled() {
+        if (!archive.isEnabled()) {
+            throw new IllegalStateException("The archive is disabled");
+        }
+    }
+
+    private static Timestamp timestamp(LocalDateTime dateTime) {
+        return dateTime == null ? null : Timestamp.valueOf(dateTime);
+    }
+}
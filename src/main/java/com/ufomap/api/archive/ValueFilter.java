@@ -0,0 +1,103 @@
+package com.ufomap.api.archive;
+
+import java.nio.ByteBuffer;
+import java.util.Collection;
+import java.util.Locale;
+
+/**
+ * Bloom filter over the lowercase shape, city, state and country values of one segment, stored in
+ * its header so equality filters can skip segments without decompressing them. About 1% of the
+ * values a segment does not hold still pass.
+ */
+final class ValueFilter {
+
+    static final String SHAPE = "shape";
+    static final String CITY = "city";
+    static final String STATE = "state";
+    static final String COUNTRY = "country";
+
+    private static final int HASHES = 4;
+    private static final int BITS_PER_VALUE = 10;
+
+    private final long[] words;
+    private final long bits;
+
+    private ValueFilter(long[] words) {
+        this.words = words;
+        this.bits = (long) words.length * Long.SIZE;
+    }
+
+    static ValueFilter of(Collection<String> keys) {
+        long[] words = new long[Math.max(1, (keys.size() * BITS_PER_VALUE + Long.SIZE - 1) / Long.SIZE)];
+        ValueFilter filter = new ValueFilter(words);
+        for (String key : keys) {
+            filter.add(key);
+        }
+        return filter;
+    }
+
+    static ValueFilter read(ByteBuffer in) {
+        long[] words = new long[in.getInt()];
+        for (int i = 0; i < words.length; i++) {
+            words[i] = in.getLong();
+        }
+        return new ValueFilter(words);
+    }
+
+    /**
+     * Key of a column value; matching is case-insensitive, like the repository's filters.
+     */
+    static String key(String field, String value) {
+        return field + '\0' + value.toLowerCase(Locale.ROOT);
+    }
+
+    int serializedBytes() {
+        return Integer.BYTES + words.length * Long.BYTES;
+    }
+
+    void write(ByteBuffer out) {
+        out.putInt(words.length);
+        for (long word : words) {
+            out.putLong(word);
+        }
+    }
+
+    boolean mightContain(String key) {
+        long hash = hash(key);
+        for (int i = 0; i < HASHES; i++) {
+            long bit = bit(hash, i);
+            if ((words[(int) (bit >>> 6)] & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void add(String key) {
+        long hash = hash(key);
+        for (int i = 0; i < HASHES; i++) {
+            long bit = bit(hash, i);
+            words[(int) (bit >>> 6)] |= 1L << bit;
+        }
+    }
+
+    // Double hashing: the i-th probe is h1 + i * h2
+    private long bit(long hash, int i) {
+        long h1 = hash & 0xFFFFFFFFL;
+        long h2 = (hash >>> 32) | 1;
+        return Math.floorMod(h1 + i * h2, bits);
+    }
+
+    // 64-bit FNV-1a over the UTF-16 code units, with a final mix
+    private static long hash(String key) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < key.length(); i++) {
+            hash ^= key.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
@@ -0,0 +1,63 @@
+package com.ufomap.api.backfill;
+
+import com.ufomap.api.dto.BackfillProgressDTO;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.InvalidEndpointRequestException;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * {@code /actuator/backfill}: progress of the background backfill jobs, and
+ * {@code POST /actuator/backfill/{job}} with {@code {"action": "start" | "pause"}} to control one.
+ */
+@Component
+@Endpoint(id = "backfill")
+@RequiredArgsConstructor
+public class BackfillEndpoint {
+
+    private final BackfillRunner backfillRunner;
+
+    @ReadOperation
+    public List<BackfillProgressDTO> jobs() {
+        return backfillRunner.getJobNames().stream()
+                .map(backfillRunner::getProgress)
+                .toList();
+    }
+
+    /**
+     * @param job The job name.
+     * @return The job's progress, or null (404) for an unknown job.
+     */
+    @ReadOperation
+    public BackfillProgressDTO job(@Selector String job) {
+        if (!backfillRunner.getJobNames().contains(job)) {
+            return null;
+        }
+        return backfillRunner.getProgress(job);
+    }
+
+    /**
+     * @param job    The job name.
+     * @param action {@code start} (or resume) or {@code pause}.
+     * @return The job's progress after the action.
+     */
+    @WriteOperation
+    public BackfillProgressDTO control(@Selector String job, String action) {
+        try {
+            switch (action) {
+                case "start" -> backfillRunner.start(job);
+                case "pause" -> backfillRunner.pause(job);
+                default -> throw new InvalidEndpointRequestException(
+                        "Unknown action: " + action, "action must be start or pause");
+            }
+        } catch (IllegalArgumentException | IllegalStateException e) {
+            throw new InvalidEndpointRequestException(e.getMessage(), e.getMessage());
+        }
+        return backfillRunner.getProgress(job);
+    }
+}
@@ -0,0 +1,31 @@
+package com.ufomap.api.backfill;
+
+/**
+ * A resumable pass over the {@code sightings} table in id order, run by {@link BackfillRunner}.
+ * Implementations must be idempotent per chunk: after a crash the last uncommitted chunk is redone.
+ */
+public interface BackfillJob {
+
+    /**
+     * Unique job name; the key of the job's checkpoint and its actuator selector.
+     */
+    String getName();
+
+    /**
+     * Processes up to {@code chunkSize} sightings with an id greater than {@code afterId}, in id order.
+     * Runs inside the runner's transaction, which also saves the checkpoint.
+     *
+     * @param afterId   Last id processed by the previous chunk (0 to start from the beginning).
+     * @param chunkSize Maximum number of rows to read.
+     * @return What was done; fewer rows than {@code chunkSize} means the table is exhausted.
+     */
+    Chunk processChunk(long afterId, int chunkSize);
+
+    /**
+     * @param rows    Rows read.
+     * @param updated Rows actually written (unchanged rows are skipped).
+     * @param lastId  Highest id read, or the previous {@code afterId} if none.
+     */
+    record Chunk(int rows, int updated, long lastId) {
+    }
+}
@@ -0,0 +1,317 @@
+package com.ufomap.api.backfill;
+
+import com.ufomap.api.dto.BackfillProgressDTO;
+import com.ufomap.api.model.BackfillCheckpoint;
+import com.ufomap.api.repository.BackfillCheckpointRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs {@link BackfillJob}s on a single background thread, one chunk per transaction.
+ * <p>
+ * Each chunk commits together with the job's {@link BackfillCheckpoint}, so a job interrupted by a
+ * shutdown or crash resumes after its last committed chunk; jobs still marked running are resumed
+ * once the application is ready, and jobs listed in {@code auto-start} are started if they never ran.
+ * Every instance does so, but a job only runs while its instance holds the job's PostgreSQL advisory
+ * lock, so one instance runs it and the others return at once.
+ * <p>
+ * The runner throttles itself on the latency of its own chunks, which rises when the database is
+ * busy: the chunk size is steered towards {@code target-chunk-latency}, and after every chunk it
+ * pauses long enough to keep the database busy with backfill work at most {@code duty-cycle}
+ * of the time.
+ */
+@Component
+public class BackfillRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(BackfillRunner.class);
+
+    // First key of the two-key pg_try_advisory_lock ("UFOB"); the second is the job name's hash
+    private static final int LOCK_CLASS = 0x55464F42;
+
+    private final Map<String, BackfillJob> jobs = new LinkedHashMap<>();
+    private final BackfillCheckpointRepository checkpointRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final JdbcTemplate jdbcTemplate;
+    private final boolean enabled;
+    private final List<String> autoStart;
+    private final int initialChunkSize;
+    private final int minChunkSize;
+    private final int maxChunkSize;
+    private final long targetChunkNanos;
+    private final double dutyCycle;
+    private final long maxPauseNanos;
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "backfill");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final Map<String, RunState> running = new ConcurrentHashMap<>();
+    private volatile boolean shuttingDown;
+
+    public BackfillRunner(List<BackfillJob> jobs,
+                          BackfillCheckpointRepository checkpointRepository,
+                          TransactionTemplate transactionTemplate,
+                          JdbcTemplate jdbcTemplate,
+                          @Value("${ufomap.backfill.enabled:true}") boolean enabled,
+                          @Value("${ufomap.backfill.auto-start:}") List<String> autoStart,
+                          @Value("${ufomap.backfill.initial-chunk-size:500}") int initialChunkSize,
+                          @Value("${ufomap.backfill.min-chunk-size:50}") int minChunkSize,
+                          @Value("${ufomap.backfill.max-chunk-size:5000}") int maxChunkSize,
+                          @Value("${ufomap.backfill.target-chunk-latency:PT0.25S}") Duration targetChunkLatency,
+                          @Value("${ufomap.backfill.duty-cycle:0.25}") double dutyCycle,
+                          @Value("${ufomap.backfill.max-pause:PT10S}") Duration maxPause) {
+        if (dutyCycle <= 0 || dutyCycle > 1) {
+            throw new IllegalArgumentException("ufomap.backfill.duty-cycle must be in (0, 1]");
+        }
+        for (BackfillJob job : jobs) {
+            this.jobs.put(job.getName(), job);
+        }
+        this.checkpointRepository = checkpointRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.jdbcTemplate = jdbcTemplate;
+        this.enabled = enabled;
+        this.autoStart = autoStart;
+        this.initialChunkSize = initialChunkSize;
+        this.minChunkSize = minChunkSize;
+        this.maxChunkSize = maxChunkSize;
+        this.targetChunkNanos = targetChunkLatency.toNanos();
+        this.dutyCycle = dutyCycle;
+        this.maxPauseNanos = maxPause.toNanos();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void resume() {
+        if (!enabled) {
+            return;
+        }
+        for (String name : jobs.keySet()) {
+            Optional<BackfillCheckpoint> checkpoint = checkpointRepository.findById(name);
+            boolean interrupted = checkpoint.map(c -> c.getStatus() == BackfillCheckpoint.Status.RUNNING).orElse(false);
+            if (interrupted || (checkpoint.isEmpty() && autoStart.contains(name))) {
+                start(name);
+            }
+        }
+    }
+
+    public List<String> getJobNames() {
+        return List.copyOf(jobs.keySet());
+    }
+
+    /**
+     * Starts a job, or resumes it from its checkpoint; a completed or failed job starts over.
+     * Jobs run one at a time, in the order they are started.
+     *
+     * @return false if the job is already running.
+     */
+    public synchronized boolean start(String name) {
+        BackfillJob job = job(name);
+        if (!enabled) {
+            throw new IllegalStateException("Backfill jobs are disabled");
+        }
+        if (running.containsKey(name)) {
+            return false;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        BackfillCheckpoint checkpoint = checkpointRepository.findById(name)
+                .filter(c -> c.getStatus() == BackfillCheckpoint.Status.RUNNING
+                        || c.getStatus() == BackfillCheckpoint.Status.PAUSED)
+                .orElseGet(() -> BackfillCheckpoint.builder().jobName(name).startedAt(now).build());
+        checkpoint.setStatus(BackfillCheckpoint.Status.RUNNING);
+        checkpoint.setUpdatedAt(now);
+        checkpoint.setCompletedAt(null);
+        checkpoint.setLastError(null);
+        checkpoint = checkpointRepository.save(checkpoint);
+
+        RunState state = new RunState(initialChunkSize);
+        running.put(name, state);
+        BackfillCheckpoint initial = checkpoint;
+        executor.execute(() -> run(job, initial, state));
+        logger.info("Backfill job {} started after id {}", name, checkpoint.getLastId());
+        return true;
+    }
+
+    /**
+     * Asks a running job to stop after its current chunk; {@link #start} resumes it.
+     *
+     * @return false if the job is not running.
+     */
+    public boolean pause(String name) {
+        job(name);
+        RunState state = running.get(name);
+        if (state == null) {
+            return false;
+        }
+        state.pauseRequested = true;
+        return true;
+    }
+
+    public BackfillProgressDTO getProgress(String name) {
+        job(name);
+        if (!enabled) {
+            return BackfillProgressDTO.builder().job(name).build();
+        }
+        Long maxId = jdbcTemplate.queryForObject("SELECT MAX(id) FROM sightings", Long.class);
+        BackfillProgressDTO.BackfillProgressDTOBuilder progress = BackfillProgressDTO.builder()
+                .job(name)
+                .maxId(maxId != null ? maxId : 0);
+        checkpointRepository.findById(name).ifPresent(checkpoint -> progress
+                .status(checkpoint.getStatus())
+                .lastId(checkpoint.getLastId())
+                .percentComplete(checkpoint.getStatus() == BackfillCheckpoint.Status.COMPLETED ? 100.0
+                        : maxId == null || maxId == 0 ? 0.0
+                        : Math.min(100.0, 100.0 * checkpoint.getLastId() / maxId))
+                .rowsProcessed(checkpoint.getRowsProcessed())
+                .rowsUpdated(checkpoint.getRowsUpdated())
+                .startedAt(checkpoint.getStartedAt())
+                .updatedAt(checkpoint.getUpdatedAt())
+                .completedAt(checkpoint.getCompletedAt())
+                .lastError(checkpoint.getLastError()));
+        RunState state = running.get(name);
+        if (state != null) {
+            progress.chunkSize(state.chunkSize)
+                    .lastChunkMillis(TimeUnit.NANOSECONDS.toMillis(state.lastChunkNanos))
+                    .pauseMillis(TimeUnit.NANOSECONDS.toMillis(state.pauseNanos));
+        }
+        return progress.build();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        // Checkpoints stay RUNNING, so the jobs resume on the next start
+        shuttingDown = true;
+        executor.shutdownNow();
+    }
+
+    private BackfillJob job(String name) {
+        BackfillJob job = jobs.get(name);
+        if (job == null) {
+            throw new IllegalArgumentException("Unknown backfill job: " + name + ". Jobs: " + jobs.keySet());
+        }
+        return job;
+    }
+
+    // Holds the job's session lock on a dedicated connection for the whole run
+    private void run(BackfillJob job, BackfillCheckpoint initial, RunState state) {
+        try (Connection connection = jdbcTemplate.getDataSource().getConnection()) {
+            if (!advisoryLock(connection, "pg_try_advisory_lock", job.getName())) {
+                logger.info("Backfill job {} is running on another instance", job.getName());
+                return;
+            }
+            try {
+                runChunks(job, initial, state);
+            } finally {
+                advisoryLock(connection, "pg_advisory_unlock", job.getName());
+            }
+        } catch (SQLException e) {
+            if (!shuttingDown) {
+                logger.error("Backfill job {} could not take its lock", job.getName(), e);
+            }
+        } finally {
+            running.remove(job.getName());
+        }
+    }
+
+    private static boolean advisoryLock(Connection connection, String function, String jobName) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement("SELECT " + function + "(?, ?)")) {
+            statement.setInt(1, LOCK_CLASS);
+            statement.setInt(2, jobName.hashCode());
+            try (ResultSet result = statement.executeQuery()) {
+                return result.next() && result.getBoolean(1);
+            }
+        }
+    }
+
+    private void runChunks(BackfillJob job, BackfillCheckpoint initial, RunState state) {
+        BackfillCheckpoint checkpoint = initial;
+        try {
+            while (!state.pauseRequested && !shuttingDown) {
+                BackfillCheckpoint current = checkpoint;
+                int chunkSize = state.chunkSize;
+                long started = System.nanoTime();
+                // The chunk's writes and the checkpoint commit together
+                checkpoint = transactionTemplate.execute(tx -> {
+                    BackfillJob.Chunk chunk = job.processChunk(current.getLastId(), chunkSize);
+                    current.setLastId(chunk.lastId());
+                    current.setRowsProcessed(current.getRowsProcessed() + chunk.rows());
+                    current.setRowsUpdated(current.getRowsUpdated() + chunk.updated());
+                    current.setUpdatedAt(LocalDateTime.now());
+                    if (chunk.rows() < chunkSize) {
+                        current.setStatus(BackfillCheckpoint.Status.COMPLETED);
+                        current.setCompletedAt(current.getUpdatedAt());
+                    }
+                    return checkpointRepository.save(current);
+                });
+                if (checkpoint.getStatus() == BackfillCheckpoint.Status.COMPLETED) {
+                    logger.info("Backfill job {} completed: {} rows read, {} updated",
+                            job.getName(), checkpoint.getRowsProcessed(), checkpoint.getRowsUpdated());
+                    return;
+                }
+                throttle(state, System.nanoTime() - started);
+            }
+            if (state.pauseRequested) {
+                checkpoint.setStatus(BackfillCheckpoint.Status.PAUSED);
+                checkpoint.setUpdatedAt(LocalDateTime.now());
+                checkpointRepository.save(checkpoint);
+                logger.info("Backfill job {} paused after id {}", job.getName(), checkpoint.getLastId());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (RuntimeException e) {
+            if (shuttingDown) {
+                return;
+            }
+            logger.error("Backfill job {} failed after id {}", job.getName(), checkpoint.getLastId(), e);
+            checkpoint.setStatus(BackfillCheckpoint.Status.FAILED);
+            String message = String.valueOf(e.getMessage());
+            checkpoint.setLastError(message.substring(0, Math.min(500, message.length())));
+            checkpoint.setUpdatedAt(LocalDateTime.now());
+            checkpointRepository.save(checkpoint);
+        }
+    }
+
+    // Steer the chunk size towards the target latency, then pause in proportion to the work just done
+    private void throttle(RunState state, long elapsedNanos) throws InterruptedException {
+        double ratio = (double) elapsedNanos / targetChunkNanos;
+        int next = ratio > 1
+                ? (int) (state.chunkSize / ratio)
+                : state.chunkSize + Math.max(1, state.chunkSize / 4);
+        state.chunkSize = Math.max(minChunkSize, Math.min(maxChunkSize, next));
+        state.lastChunkNanos = elapsedNanos;
+        state.pauseNanos = Math.min(maxPauseNanos, (long) (elapsedNanos * (1 - dutyCycle) / dutyCycle));
+        TimeUnit.NANOSECONDS.sleep(state.pauseNanos);
+    }
+
+    private static final class RunState {
+        volatile int chunkSize;
+        volatile long lastChunkNanos;
+        volatile long pauseNanos;
+        volatile boolean pauseRequested;
+
+        RunState(int chunkSize) {
+            this.chunkSize = chunkSize;
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.ufomap.api.backfill;
+
+import com.ufomap.api.model.SightingDerivedColumns;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Fills in the typed columns derived by {@link SightingDerivedColumns} (duration in seconds and
+ * posted timestamp) for rows written before they existed, or written by tools that bypass the
+ * entity, such as bulk COPY loads.
+ * <p>
+ * Reads only the source and derived columns, and rewrites only the rows whose derived values differ,
+ * with one JDBC batch per chunk. An update only applies if the source columns still hold the values
+ * that were read, so a concurrent edit is never overwritten with values derived from the old text.
+ */
+@Component
+@RequiredArgsConstructor
+public class DerivedColumnsBackfillJob implements BackfillJob {
+
+    static final String NAME = "derived-columns";
+
+    private static final String SELECT = "SELECT id, duration, posted, duration_seconds, posted_at "
+            + "FROM sightings WHERE id > ? ORDER BY id LIMIT ?";
+
+    private static final String UPDATE = "UPDATE sightings SET duration_seconds = ?, posted_at = ? "
+            + "WHERE id = ? AND duration IS NOT DISTINCT FROM ? AND posted IS NOT DISTINCT FROM ?";
+
+    private static final int[] UPDATE_TYPES = {Types.BIGINT, Types.TIMESTAMP, Types.BIGINT,
+            Types.VARCHAR, Types.VARCHAR};
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public Chunk processChunk(long afterId, int chunkSize) {
+        List<Object[]> updates = new ArrayList<>();
+        long[] lastId = {afterId};
+        int[] rows = {0};
+        jdbcTemplate.query(SELECT, rs -> {
+            long id = rs.getLong("id");
+            String duration = rs.getString("duration");
+            String posted = rs.getString("posted");
+            Long durationSeconds = SightingDerivedColumns.durationSeconds(duration);
+            LocalDateTime postedAt = SightingDerivedColumns.postedAt(posted);
+
+            boolean changed = !Objects.equals(durationSeconds, rs.getObject("duration_seconds", Long.class))
+                    || !Objects.equals(postedAt, rs.getObject("posted_at", LocalDateTime.class));
+            if (changed) {
+                updates.add(new Object[]{durationSeconds, postedAt != null ? Timestamp.valueOf(postedAt) : null,
+                        id, duration, posted});
+            }
+            lastId[0] = id;
+            rows[0]++;
+        }, afterId, chunkSize);
+
+        if (!updates.isEmpty()) {
+            jdbcTemplate.batchUpdate(UPDATE, updates, UPDATE_TYPES);
+        }
+        return new Chunk(rows[0], updates.size(), lastId[0]);
+    }
+}
@@ -0,0 +1,30 @@
+package com.ufomap.api.cache;
+
+import java.nio.ByteBuffer;
+
+/**
+ * A serialized response body kept off-heap in each supported content encoding.
+ * The buffers are never mutated after construction; readers work on {@code duplicate()}s.
+ *
+ * @param contentType The negotiated Content-Type of the original response.
+ * @param identity    The uncompressed body.
+ * @param gzip        The body compressed with gzip.
+ * @param deflate     The body compressed with zlib deflate.
+ * @param region      The bounding box the response covers, or {@code null} if it is not bounded
+ *                    (any change invalidates it).
+ */
+record CachedResponse(String contentType, ByteBuffer identity, ByteBuffer gzip, ByteBuffer deflate, Region region) {
+
+    record Region(double north, double south, double east, double west) {
+
+        boolean contains(Double latitude, Double longitude) {
+            return latitude != null && longitude != null
+                    && latitude >= south && latitude <= north
+                    && longitude >= west && longitude <= east;
+        }
+    }
+
+    long sizeInBytes() {
+        return identity.capacity() + gzip.capacity() + deflate.capacity();
+    }
+}
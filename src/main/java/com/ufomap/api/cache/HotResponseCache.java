@@ -0,0 +1,177 @@
+package com.ufomap.api.cache;
+
+import com.ufomap.api.dto.SightingDTO;
+import com.ufomap.api.event.SightingChangedEvent;
+import com.ufomap.api.event.SightingsResyncEvent;
+import com.ufomap.api.event.SightingsStatusChangedEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * LRU cache of pre-serialized, pre-compressed response bodies for the hot read endpoints,
+ * keyed by the normalized request (see {@link HotResponseCacheFilter}).
+ * <p>
+ * Entries are dropped when a {@link SightingChangedEvent} touches the region they cover.
+ * A generation counter makes sure a response computed before an invalidation is never stored after it.
+ */
+@Component
+public class HotResponseCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(HotResponseCache.class);
+
+    private final int maxEntries;
+    private final AtomicLong generation = new AtomicLong();
+    private final LinkedHashMap<String, CachedResponse> entries;
+    private long totalBytes;
+
+    public HotResponseCache(@Value("${ufomap.response-cache.max-entries:256}") int maxEntries) {
+        this.maxEntries = maxEntries;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true);
+    }
+
+    public long currentGeneration() {
+        return generation.get();
+    }
+
+    public synchronized CachedResponse get(String key) {
+        return entries.get(key);
+    }
+
+    /**
+     * Compresses and stores a body, unless the cache was invalidated since {@code generationAtStart}.
+     */
+    public void put(String key, String contentType, byte[] body, CachedResponse.Region region, long generationAtStart) {
+        CachedResponse response = new CachedResponse(contentType,
+                toDirectBuffer(body), toDirectBuffer(gzip(body)), toDirectBuffer(deflate(body)), region);
+
+        synchronized (this) {
+            if (generation.get() != generationAtStart) {
+                return; // A write happened while this response was being built
+            }
+            CachedResponse replaced = entries.put(key, response);
+            if (replaced != null) {
+                totalBytes -= replaced.sizeInBytes();
+            }
+            totalBytes += response.sizeInBytes();
+
+            Iterator<CachedResponse> eldest = entries.values().iterator();
+            while (entries.size() > maxEntries && eldest.hasNext()) {
+                totalBytes -= eldest.next().sizeInBytes();
+                eldest.remove();
+            }
+        }
+    }
+
+    public synchronized void clear() {
+        generation.incrementAndGet();
+        entries.clear();
+        totalBytes = 0;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public synchronized long sizeInBytes() {
+        return totalBytes;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true) // After commit, so a miss cannot re-cache the old rows
+    public void onSightingChanged(SightingChangedEvent event) {
+        invalidate(event.previous(), event.current());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true) // After the bulk UPDATE has committed
+    public void onSightingsStatusChanged(SightingsStatusChangedEvent event) {
+        clear(); // Positions are unknown without loading the rows; bulk moderation is rare enough
+    }
+
+    @EventListener(SightingsResyncEvent.class)
+    public void onResync() {
+        clear();
+    }
+
+    /**
+     * Drops every entry whose region contains one of the given sightings (before and after the
+     * change), plus all unbounded entries.
+     */
+    public synchronized void invalidate(SightingDTO... sightings) {
+        generation.incrementAndGet();
+        int removed = 0;
+        Iterator<Map.Entry<String, CachedResponse>> iterator = entries.entrySet().iterator();
+        while (iterator.hasNext()) {
+            CachedResponse response = iterator.next().getValue();
+            if (intersects(response.region(), sightings)) {
+                totalBytes -= response.sizeInBytes();
+                iterator.remove();
+                removed++;
+            }
+        }
+        if (removed > 0) {
+            logger.debug("Invalidated {} cached responses", removed);
+        }
+    }
+
+    private static boolean intersects(CachedResponse.Region region, SightingDTO... sightings) {
+        if (region == null) {
+            return true;
+        }
+        for (SightingDTO sighting : sightings) {
+            if (sighting != null && region.contains(sighting.getLatitude(), sighting.getLongitude())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static ByteBuffer toDirectBuffer(byte[] bytes) {
+        ByteBuffer buffer = ByteBuffer.allocateDirect(bytes.length);
+        buffer.put(bytes).flip();
+        return buffer.asReadOnlyBuffer();
+    }
+
+    // Entries are compressed once and served many times, so both encodings use the best ratio
+
+    private static byte[] gzip(byte[] body) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(body.length / 4 + 64);
+        try (OutputStream gzip = new GZIPOutputStream(out) {
+            {
+                def.setLevel(Deflater.BEST_COMPRESSION);
+            }
+        }) {
+            gzip.write(body);
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to gzip response body", e);
+        }
+        return out.toByteArray();
+    }
+
+    private static byte[] deflate(byte[] body) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(body.length / 4 + 64);
+        Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION);
+        try (OutputStream deflate = new DeflaterOutputStream(out, deflater)) {
+            deflate.write(body);
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to deflate response body", e);
+        } finally {
+            deflater.end();
+        }
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,253 @@
+package com.ufomap.api.cache;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Serves the hot read endpoints ({@code GET /api/sightings} and {@code /api/sightings/bounds})
+ * from {@link HotResponseCache}. On a hit the stored body is written straight from its direct
+ * buffer in the best encoding the client accepts, skipping the query, the DTO mapping and
+ * Jackson entirely. On a miss the response is captured, sent as usual and then cached.
+ * <p>
+ * Only JSON responses with status 200 are cached, and only clients whose {@code Accept} header
+ * prefers JSON (or accepts anything) are served from the cache; binary formats and errors always go through.
+ */
+@Component
+public class HotResponseCacheFilter extends OncePerRequestFilter {
+
+    private static final String ALL_SIGHTINGS = "/api/sightings";
+    private static final String BOUNDS = "/api/sightings/bounds";
+    private static final String GZIP = "gzip";
+    private static final String DEFLATE = "deflate";
+
+    private final HotResponseCache cache;
+    private final boolean enabled;
+    private final int maxBodyBytes;
+
+    public HotResponseCacheFilter(HotResponseCache cache,
+                                  @Value("${ufomap.response-cache.enabled:true}") boolean enabled,
+                                  @Value("${ufomap.response-cache.max-body-bytes:1048576}") int maxBodyBytes) {
+        this.cache = cache;
+        this.enabled = enabled;
+        this.maxBodyBytes = maxBodyBytes;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        if (!enabled || !HttpMethod.GET.matches(request.getMethod())) {
+            return true;
+        }
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        return !ALL_SIGHTINGS.equals(path) && !BOUNDS.equals(path);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        // Whether a response is cached, and how it is encoded, depends on both headers; shared
+        // caches must know that for misses and uncached formats too, not only for hits
+        response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT + ", " + HttpHeaders.ACCEPT_ENCODING);
+        if (!prefersJson(request.getHeader(HttpHeaders.ACCEPT))) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        String key = normalizedKey(request);
+        CachedResponse cached = cache.get(key);
+        if (cached != null) {
+            writeCached(request, response, cached);
+            return;
+        }
+
+        long generation = cache.currentGeneration();
+        ContentCachingResponseWrapper wrapper = new ContentCachingResponseWrapper(response);
+        chain.doFilter(request, wrapper);
+
+        String contentType = wrapper.getContentType();
+        byte[] body = wrapper.getContentAsByteArray();
+        if (wrapper.getStatus() == HttpServletResponse.SC_OK
+                && contentType != null && contentType.startsWith(MediaType.APPLICATION_JSON_VALUE)
+                && body.length <= maxBodyBytes) {
+            cache.put(key, contentType, body, region(request), generation);
+        }
+        wrapper.copyBodyToResponse();
+    }
+
+    private void writeCached(HttpServletRequest request, HttpServletResponse response, CachedResponse cached)
+            throws IOException {
+        String encoding = preferredEncoding(request.getHeader(HttpHeaders.ACCEPT_ENCODING));
+        ByteBuffer body = cached.identity();
+        if (GZIP.equals(encoding)) {
+            body = cached.gzip();
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, GZIP);
+        } else if (DEFLATE.equals(encoding)) {
+            body = cached.deflate();
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, DEFLATE);
+        }
+
+        body = body.duplicate(); // Independent position, shared off-heap bytes
+        response.setStatus(HttpServletResponse.SC_OK);
+        response.setContentType(cached.contentType());
+        response.setContentLength(body.remaining());
+
+        WritableByteChannel channel = Channels.newChannel(response.getOutputStream());
+        while (body.hasRemaining()) {
+            channel.write(body);
+        }
+        response.flushBuffer();
+    }
+
+    /**
+     * Whether the most preferred type in {@code accept} (highest quality, then most specific) is
+     * {@code application/json} or the any-type wildcard, which the cached JSON satisfies. Anything more
+     * specific, like {@code application/cbor} listed next to the wildcard, must be negotiated by the controller.
+     */
+    static boolean prefersJson(String accept) {
+        if (accept == null || accept.isBlank()) {
+            return true;
+        }
+        List<MediaType> types;
+        try {
+            types = MediaType.parseMediaTypes(accept);
+        } catch (InvalidMediaTypeException e) {
+            return false; // Let the controller reject it
+        }
+        MediaType preferred = null;
+        for (MediaType type : types) {
+            double quality = type.getQualityValue();
+            if (quality == 0 && type.equalsTypeAndSubtype(MediaType.APPLICATION_JSON)) {
+                return false; // Refused explicitly, whatever the wildcards say
+            }
+            if (quality > 0 && (preferred == null || quality > preferred.getQualityValue()
+                    || quality == preferred.getQualityValue() && specificity(type) > specificity(preferred))) {
+                preferred = type;
+            }
+        }
+        return preferred != null && (preferred.equalsTypeAndSubtype(MediaType.APPLICATION_JSON)
+                || preferred.equalsTypeAndSubtype(MediaType.ALL));
+    }
+
+    private static int specificity(MediaType type) {
+        return type.isWildcardType() ? 0 : type.isWildcardSubtype() ? 1 : 2;
+    }
+
+    /**
+     * The stored encoding to send for {@code acceptEncoding}: {@code gzip}, {@code deflate}, or
+     * {@code null} for identity. Codings with {@code q=0} are refused; of the others the highest
+     * quality wins, preferring gzip, then deflate, then identity on ties. Identity only wins when
+     * explicitly preferred, since compression is free for cached bodies.
+     */
+    static String preferredEncoding(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return null;
+        }
+        double gzip = -1;
+        double deflate = -1;
+        double identity = -1;
+        double any = -1;
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.split(";");
+            String name = parts[0].trim().toLowerCase(Locale.ROOT);
+            double quality = quality(parts);
+            switch (name) {
+                case GZIP -> gzip = quality;
+                case DEFLATE -> deflate = quality;
+                case "identity" -> identity = quality;
+                case "*" -> any = quality;
+                default -> { }
+            }
+        }
+        gzip = gzip >= 0 ? gzip : Math.max(any, 0);
+        deflate = deflate >= 0 ? deflate : Math.max(any, 0);
+        identity = identity >= 0 ? identity : 0;
+        if (gzip > 0 && gzip >= deflate && gzip >= identity) {
+            return GZIP;
+        }
+        if (deflate > 0 && deflate >= identity) {
+            return DEFLATE;
+        }
+        return null;
+    }
+
+    // The q parameter of a coding, 1 if absent and 0 if malformed
+    private static double quality(String[] parts) {
+        for (int i = 1; i < parts.length; i++) {
+            String parameter = parts[i].trim();
+            if (parameter.startsWith("q=") || parameter.startsWith("Q=")) {
+                try {
+                    double quality = Double.parseDouble(parameter.substring(2).trim());
+                    return quality >= 0 && quality <= 1 ? quality : 0;
+                } catch (NumberFormatException e) {
+                    return 0;
+                }
+            }
+        }
+        return 1;
+    }
+
+    /**
+     * Path plus the sorted query parameters, with coordinates in canonical form, so
+     * {@code ?west=-110&north=40.0} and {@code ?north=40&west=-110.0} share an entry.
+     */
+    static String normalizedKey(HttpServletRequest request) {
+        StringBuilder key = new StringBuilder(request.getRequestURI());
+        Map<String, String[]> parameters = new TreeMap<>(request.getParameterMap());
+        char separator = '?';
+        for (Map.Entry<String, String[]> parameter : parameters.entrySet()) {
+            String[] values = parameter.getValue().clone();
+            if (isCoordinate(parameter.getKey())) {
+                for (int i = 0; i < values.length; i++) {
+                    values[i] = canonicalNumber(values[i]);
+                }
+            }
+            Arrays.sort(values);
+            key.append(separator).append(parameter.getKey()).append('=').append(String.join(",", values));
+            separator = '&';
+        }
+        return key.toString();
+    }
+
+    private static CachedResponse.Region region(HttpServletRequest request) {
+        try {
+            return new CachedResponse.Region(
+                    Double.parseDouble(request.getParameter("north")),
+                    Double.parseDouble(request.getParameter("south")),
+                    Double.parseDouble(request.getParameter("east")),
+                    Double.parseDouble(request.getParameter("west")));
+        } catch (NullPointerException | NumberFormatException e) {
+            return null; // Unbounded: invalidated by every change
+        }
+    }
+
+    private static boolean isCoordinate(String name) {
+        return name.equals("north") || name.equals("south") || name.equals("east") || name.equals("west");
+    }
+
+    private static String canonicalNumber(String value) {
+        try {
+            return Double.toString(Double.parseDouble(value));
+        } catch (NumberFormatException e) {
+            return value;
+        }
+    }
+}
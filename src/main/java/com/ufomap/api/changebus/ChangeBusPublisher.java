@@ -0,0 +1,165 @@
+package com.ufomap.api.changebus;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ufomap.api.event.SightingChangedEvent;
+import com.ufomap.api.event.SightingsStatusChangedEvent;
+import com.ufomap.api.model.SightingChange;
+import com.ufomap.api.repository.SightingChangeRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Sending side of the cross-instance change bus.
+ * <p>
+ * Every local sighting change is appended to the {@code sighting_changes} change log, inside the
+ * writing transaction when there is one. After commit, a {@code NOTIFY} on {@link #CHANNEL} tells the
+ * other instances to catch up. Notifications are coalesced: a burst of writes within
+ * {@code notify-delay} produces a single notification carrying this instance's id and latest
+ * sequence number. The change log is pruned after {@code retention}.
+ */
+@Component
+@ConditionalOnProperty(prefix = "ufomap.change-bus", name = "enabled", havingValue = "true")
+public class ChangeBusPublisher {
+
+    static final String CHANNEL = "sighting_changes";
+
+    private static final Logger logger = LoggerFactory.getLogger(ChangeBusPublisher.class);
+
+    private final SightingChangeRepository changeRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final String nodeId;
+    private final Duration notifyDelay;
+    private final Duration retention;
+
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "change-bus-notify");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final AtomicBoolean notifyPending = new AtomicBoolean();
+    private final AtomicLong lastWrittenSeq = new AtomicLong();
+
+    public ChangeBusPublisher(SightingChangeRepository changeRepository,
+                              JdbcTemplate jdbcTemplate,
+                              ObjectMapper objectMapper,
+                              @Value("${ufomap.change-bus.node-id:}") String nodeId,
+                              @Value("${ufomap.change-bus.notify-delay:PT0.05S}") Duration notifyDelay,
+                              @Value("${ufomap.change-bus.retention:P1D}") Duration retention) {
+        this.changeRepository = changeRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+        this.nodeId = nodeId.isBlank() ? UUID.randomUUID().toString() : nodeId;
+        this.notifyDelay = notifyDelay;
+        this.retention = retention;
+        long purgeInterval = Math.max(1, Math.min(retention.toMinutes(), 60));
+        scheduler.scheduleWithFixedDelay(this::purge, purgeInterval, purgeInterval, TimeUnit.MINUTES);
+    }
+
+    /**
+     * Identifies this instance in change log rows and notifications.
+     */
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    @EventListener // Runs in the service's writing transaction, so the change and its log row commit together
+    public void onSightingChanged(SightingChangedEvent event) {
+        if (event.remote()) {
+            return;
+        }
+        append(SightingChange.Kind.valueOf(event.type().name()), event.sightingId(),
+                ChangePayload.single(event.previous(), event.current()));
+    }
+
+    @EventListener
+    public void onSightingsStatusChanged(SightingsStatusChangedEvent event) {
+        if (event.remote() || event.sightingIds().isEmpty()) {
+            return;
+        }
+        append(SightingChange.Kind.BULK_STATUS_CHANGED, null, ChangePayload.bulk(event.sightingIds(), event.status()));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void afterSightingChanged(SightingChangedEvent event) {
+        if (!event.remote()) {
+            requestNotify();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void afterSightingsStatusChanged(SightingsStatusChangedEvent event) {
+        if (!event.remote()) {
+            requestNotify();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+    }
+
+    private void append(SightingChange.Kind kind, Long sightingId, ChangePayload payload) {
+        String json;
+        try {
+            json = objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize change of sighting " + sightingId, e);
+        }
+        SightingChange change = changeRepository.save(SightingChange.builder()
+                .origin(nodeId)
+                .kind(kind)
+                .sightingId(sightingId)
+                .payload(json)
+                .createdAt(LocalDateTime.now())
+                .build());
+        lastWrittenSeq.accumulateAndGet(change.getSeq(), Math::max);
+    }
+
+    private void requestNotify() {
+        if (notifyPending.compareAndSet(false, true)) {
+            scheduler.schedule(this::notifyListeners, notifyDelay.toMillis(), TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void notifyListeners() {
+        notifyPending.set(false);
+        String payload = nodeId + ":" + lastWrittenSeq.get();
+        try {
+            jdbcTemplate.query("SELECT pg_notify(?, ?)", (RowCallbackHandler) resultSet -> { }, CHANNEL, payload);
+        } catch (DataAccessException e) {
+            // Not fatal: subscribers also poll the change log periodically
+            logger.warn("Could not send change notification {}: {}", payload, e.getMessage());
+        }
+    }
+
+    private void purge() {
+        try {
+            int deleted = changeRepository.deleteOlderThan(LocalDateTime.now().minus(retention));
+            if (deleted > 0) {
+                logger.debug("Pruned {} change log rows", deleted);
+            }
+        } catch (DataAccessException e) {
+            logger.warn("Could not prune the change log: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,336 @@
+package com.ufomap.api.changebus;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ufomap.api.event.SightingChangedEvent;
+import com.ufomap.api.event.SightingsResyncEvent;
+import com.ufomap.api.event.SightingsStatusChangedEvent;
+import com.ufomap.api.model.SightingChange;
+import com.ufomap.api.repository.SightingChangeRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.aot.hint.annotation.RegisterReflectionForBinding;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Receiving side of the cross-instance change bus.
+ * <p>
+ * Holds one dedicated connection (outside the pool) that {@code LISTEN}s on
+ * {@link ChangeBusPublisher#CHANNEL}. On a notification from another instance, and every
+ * {@code poll-interval} in any case, it reads the change log after the last sequence number it
+ * applied and republishes each change locally as a {@link SightingChangedEvent} or
+ * {@link SightingsStatusChangedEvent} with {@code remote} set, so caches and indexes update exactly
+ * as for local writes.
+ * <p>
+ * Catch-up is by sequence number, so notifications missed while reconnecting are harmless.
+ * Sequence numbers can commit out of order; skipped numbers are looked for again until
+ * {@code gap-timeout} (after which their transaction is assumed rolled back). If the change log
+ * was pruned past the last applied change, a {@link SightingsResyncEvent} is published instead.
+ * The starting sequence number is read before the indexes first scan the database, so changes
+ * committed during that scan are applied too.
+ * <p>
+ * Any failure (database down, pool exhausted, a failing listener) closes the connection; it is
+ * reopened after {@code reconnect-delay} and catch-up resumes where it left off.
+ * <p>
+ * The code is written against JDBC; the PostgreSQL driver's notification API is reached
+ * reflectively, as the driver is only a runtime dependency.
+ */
+@Component
+@ConditionalOnProperty(prefix = "ufomap.change-bus", name = "enabled", havingValue = "true")
+@RegisterReflectionForBinding(ChangePayload.class) // Read with Jackson; needed by the native image
+public class ChangeBusSubscriber {
+
+    private static final Logger logger = LoggerFactory.getLogger(ChangeBusSubscriber.class);
+
+    private static final int MAX_GAPS = 1000;
+    private static final List<Long> NO_GAPS = List.of(-1L); // An empty IN list is not valid SQL
+
+    private final SightingChangeRepository changeRepository;
+    private final ChangeBusPublisher publisher;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ObjectMapper objectMapper;
+    private final DataSourceProperties dataSourceProperties;
+    private final Duration pollInterval;
+    private final Duration gapTimeout;
+    private final Duration reconnectDelay;
+    private final int batchSize;
+
+    // Only touched by the listener thread
+    private long lastSeq;
+    private final Map<Long, Long> gapDeadlines = new HashMap<>();
+
+    private volatile boolean running;
+    private Thread listenerThread;
+
+    public ChangeBusSubscriber(SightingChangeRepository changeRepository,
+                               ChangeBusPublisher publisher,
+                               ApplicationEventPublisher eventPublisher,
+                               ObjectMapper objectMapper,
+                               DataSourceProperties dataSourceProperties,
+                               @Value("${ufomap.change-bus.poll-interval:PT10S}") Duration pollInterval,
+                               @Value("${ufomap.change-bus.gap-timeout:PT1M}") Duration gapTimeout,
+                               @Value("${ufomap.change-bus.reconnect-delay:PT5S}") Duration reconnectDelay,
+                               @Value("${ufomap.change-bus.batch-size:500}") int batchSize) {
+        this.changeRepository = changeRepository;
+        this.publisher = publisher;
+        this.eventPublisher = eventPublisher;
+        this.objectMapper = objectMapper;
+        this.dataSourceProperties = dataSourceProperties;
+        this.pollInterval = pollInterval;
+        this.gapTimeout = gapTimeout;
+        this.reconnectDelay = reconnectDelay;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Reads the starting point before the indexes scan the database at {@link ApplicationReadyEvent}:
+     * changes committed from then on are applied after the scan, even if it already saw them.
+     */
+    @PostConstruct
+    public void init() {
+        long maxSeq = changeRepository.findMaxSeq();
+        resumeFrom(maxSeq, changeRepository.findSeqsAfter(Math.max(0, maxSeq - MAX_GAPS)));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        running = true;
+        listenerThread = new Thread(this::listen, "change-bus-listener");
+        listenerThread.setDaemon(true);
+        listenerThread.start();
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        if (listenerThread != null) {
+            listenerThread.interrupt();
+        }
+    }
+
+    /**
+     * Changes up to {@code seq} are already reflected in memory; later ones are applied.
+     */
+    void resumeFrom(long seq) {
+        resumeFrom(seq, List.of());
+    }
+
+    /**
+     * Like {@link #resumeFrom(long)}, but sequence numbers below {@code seq} missing from
+     * {@code committed} belong to transactions still in flight, and are applied when they commit.
+     * Numbers below the oldest committed one were pruned, not skipped.
+     *
+     * @param committed The committed sequence numbers within {@value #MAX_GAPS} below {@code seq},
+     *                  in order.
+     */
+    void resumeFrom(long seq, List<Long> committed) {
+        lastSeq = seq;
+        gapDeadlines.clear();
+        if (committed.isEmpty()) {
+            return;
+        }
+        long deadline = System.nanoTime() + gapTimeout.toNanos();
+        Set<Long> seen = new HashSet<>(committed);
+        for (long gap = committed.get(0) + 1; gap < seq; gap++) {
+            if (!seen.contains(gap)) {
+                gapDeadlines.put(gap, deadline);
+            }
+        }
+    }
+
+    Set<Long> getGaps() {
+        return gapDeadlines.keySet();
+    }
+
+    long getLastSeq() {
+        return lastSeq;
+    }
+
+    private void listen() {
+        boolean reconnecting = false;
+        while (running) {
+            try (Connection connection = connect()) {
+                Notifications notifications = new Notifications(connection);
+                logger.info("Listening for sighting changes as {} from sequence {}", publisher.getNodeId(), lastSeq);
+                connected(reconnecting);
+                reconnecting = true;
+
+                while (running) {
+                    List<String> received = notifications.await(pollInterval);
+                    if (!received.isEmpty() && fromThisNodeOnly(received)) {
+                        continue;
+                    }
+                    catchUp(); // On a notification from another instance, or periodically on timeout
+                }
+            } catch (SQLException | RuntimeException e) {
+                // Whatever failed, this thread must survive: it is the only one applying remote changes
+                if (!running) {
+                    return;
+                }
+                logger.warn("Change bus failed, reconnecting in {} ms: {}", reconnectDelay.toMillis(), e.toString());
+                try {
+                    Thread.sleep(reconnectDelay.toMillis());
+                } catch (InterruptedException interrupted) {
+                    return;
+                }
+            }
+        }
+    }
+
+    // The dedicated LISTEN connection, outside the pool
+    Connection connect() throws SQLException {
+        return DriverManager.getConnection(dataSourceProperties.determineUrl(),
+                dataSourceProperties.determineUsername(), dataSourceProperties.determinePassword());
+    }
+
+    /**
+     * Runs once the connection is listening: anything committed while disconnected (or before
+     * the first connection) is read from the change log, as its notifications were missed.
+     */
+    void connected(boolean reconnecting) {
+        if (reconnecting) {
+            resyncIfPruned();
+        }
+        catchUp();
+    }
+
+    boolean fromThisNodeOnly(List<String> notifications) {
+        String prefix = publisher.getNodeId() + ":";
+        for (String notification : notifications) {
+            if (!notification.startsWith(prefix)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Rows between the last applied change and the oldest retained one were pruned while disconnected
+    private void resyncIfPruned() {
+        long minSeq = changeRepository.findMinSeq();
+        if (minSeq > lastSeq + 1) {
+            logger.warn("Change log was pruned past sequence {}; rebuilding in-memory state", lastSeq);
+            // Read before the rebuild scans, and only moved to once it succeeded; otherwise retried
+            long maxSeq = changeRepository.findMaxSeq();
+            List<Long> committed = changeRepository.findSeqsAfter(Math.max(0, maxSeq - MAX_GAPS));
+            eventPublisher.publishEvent(new SightingsResyncEvent());
+            resumeFrom(maxSeq, committed);
+        }
+    }
+
+    void catchUp() {
+        long now = System.nanoTime();
+        gapDeadlines.values().removeIf(deadline -> deadline - now < 0);
+
+        List<SightingChange> batch;
+        do {
+            Collection<Long> gaps = gapDeadlines.isEmpty() ? NO_GAPS : new ArrayList<>(gapDeadlines.keySet());
+            batch = changeRepository.findChanges(lastSeq, gaps, PageRequest.of(0, batchSize));
+            for (SightingChange change : batch) {
+                long seq = change.getSeq();
+                if (gapDeadlines.remove(seq) == null) {
+                    recordGaps(lastSeq, seq, now);
+                    lastSeq = seq;
+                }
+                if (!publisher.getNodeId().equals(change.getOrigin())) {
+                    apply(change);
+                }
+            }
+        } while (batch.size() == batchSize);
+    }
+
+    private void recordGaps(long fromSeq, long toSeq, long now) {
+        long deadline = now + gapTimeout.toNanos();
+        for (long seq = fromSeq + 1; seq < toSeq && gapDeadlines.size() < MAX_GAPS; seq++) {
+            gapDeadlines.put(seq, deadline);
+        }
+    }
+
+    private void apply(SightingChange change) {
+        try {
+            ChangePayload payload = objectMapper.readValue(change.getPayload(), ChangePayload.class);
+            if (change.getKind() == SightingChange.Kind.BULK_STATUS_CHANGED) {
+                eventPublisher.publishEvent(new SightingsStatusChangedEvent(payload.ids(), payload.status(), true));
+            } else {
+                SightingChangedEvent.Type type = SightingChangedEvent.Type.valueOf(change.getKind().name());
+                eventPublisher.publishEvent(new SightingChangedEvent(type, payload.previous(), payload.current(), true));
+            }
+        } catch (JsonProcessingException | RuntimeException e) {
+            // One bad row must not stall the bus
+            logger.error("Could not apply change {} of sighting {}", change.getSeq(), change.getSightingId(), e);
+        }
+    }
+
+    /**
+     * {@code LISTEN}s on a connection and waits for notifications, through the PostgreSQL driver's
+     * {@code PGConnection} and {@code PGNotification} interfaces.
+     */
+    private static final class Notifications {
+        private final Object pgConnection;
+        private final Method getNotifications;
+        private final Method getParameter;
+
+        Notifications(Connection connection) throws SQLException {
+            try {
+                ClassLoader classLoader = connection.getClass().getClassLoader();
+                Class<?> pgConnectionType = Class.forName("org.postgresql.PGConnection", false, classLoader);
+                this.pgConnection = connection.unwrap(pgConnectionType);
+                this.getNotifications = pgConnectionType.getMethod("getNotifications", int.class);
+                this.getParameter = Class.forName("org.postgresql.PGNotification", false, classLoader)
+                        .getMethod("getParameter");
+            } catch (ReflectiveOperationException e) {
+                throw new SQLException("The change bus needs the PostgreSQL JDBC driver", e);
+            }
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("LISTEN " + ChangeBusPublisher.CHANNEL);
+            }
+        }
+
+        /**
+         * Payloads of the notifications received within {@code timeout}; empty if none arrived.
+         */
+        List<String> await(Duration timeout) throws SQLException {
+            try {
+                Object[] notifications = (Object[]) getNotifications.invoke(pgConnection, (int) timeout.toMillis());
+                if (notifications == null) {
+                    return List.of();
+                }
+                List<String> payloads = new ArrayList<>(notifications.length);
+                for (Object notification : notifications) {
+                    payloads.add((String) getParameter.invoke(notification));
+                }
+                return payloads;
+            } catch (InvocationTargetException e) {
+                if (e.getCause() instanceof SQLException sqlException) {
+                    throw sqlException;
+                }
+                throw new SQLException("Could not read notifications", e.getCause());
+            } catch (IllegalAccessException e) {
+                throw new SQLException("Could not read notifications", e);
+            }
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.ufomap.api.changebus;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.ufomap.api.dto.SightingDTO;
+import com.ufomap.api.model.SubmissionStatus;
+
+import java.util.List;
+
+/**
+ * JSON payload of a {@code sighting_changes} row: the before/after state of a single change, or
+ * the ids and new status of a bulk status change.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+record ChangePayload(SightingDTO previous, SightingDTO current, List<Long> ids, SubmissionStatus status) {
+
+    static ChangePayload single(SightingDTO previous, SightingDTO current) {
+        return new ChangePayload(previous, current, null, null);
+    }
+
+    static ChangePayload bulk(List<Long> ids, SubmissionStatus status) {
+        return new ChangePayload(null, null, ids, status);
+    }
+}
@@ -0,0 +1,70 @@
+package com.ufomap.api.config;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.ufomap.api.dto.SightingDTO;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Map;
+
+/**
+ * ObjectMappers for the compact binary response formats (Smile and CBOR).
+ * Unlike the JSON mapper, these write {@link LocalDateTime} fields of {@link SightingDTO}
+ * as epoch seconds (UTC, matching {@code spring.jackson.time-zone}) instead of pattern strings.
+ */
+public final class BinaryObjectMappers {
+
+    // Target type to mixin; also read by NativeRuntimeHints, so the hints follow what is applied
+    static final Map<Class<?>, Class<?>> MIXINS = Map.of(SightingDTO.class, EpochSecondsSightingMixin.class);
+
+    private BinaryObjectMappers() {
+    }
+
+    public static ObjectMapper smile() {
+        return configure(Jackson2ObjectMapperBuilder.smile()).build();
+    }
+
+    public static ObjectMapper cbor() {
+        return configure(Jackson2ObjectMapperBuilder.cbor()).build();
+    }
+
+    private static Jackson2ObjectMapperBuilder configure(Jackson2ObjectMapperBuilder builder) {
+        return builder.mixIns(MIXINS);
+    }
+
+    // Overrides the @JsonFormat pattern declared on SightingDTO
+    abstract static class EpochSecondsSightingMixin {
+
+        @JsonSerialize(using = EpochSecondsSerializer.class)
+        @JsonDeserialize(using = EpochSecondsDeserializer.class)
+        private LocalDateTime dateTime;
+
+        @JsonSerialize(using = EpochSecondsSerializer.class)
+        @JsonDeserialize(using = EpochSecondsDeserializer.class)
+        private LocalDateTime submissionDate;
+    }
+
+    static class EpochSecondsSerializer extends JsonSerializer<LocalDateTime> {
+        @Override
+        public void serialize(LocalDateTime value, JsonGenerator gen, SerializerProvider serializers) throws IOException {
+            gen.writeNumber(value.toEpochSecond(ZoneOffset.UTC));
+        }
+    }
+
+    static class EpochSecondsDeserializer extends JsonDeserializer<LocalDateTime> {
+        @Override
+        public LocalDateTime deserialize(JsonParser parser, DeserializationContext context) throws IOException {
+            return LocalDateTime.ofEpochSecond(parser.getLongValue(), 0, ZoneOffset.UTC);
+        }
+    }
+}
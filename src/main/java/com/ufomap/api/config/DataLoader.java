@@ -3,7 +3,9 @@ package com.ufomap.api.config;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.ufomap.api.archive.SightingArchive;
 import com.ufomap.api.model.Sighting;
+import com.ufomap.api.model.SubmissionStatus;
 import com.ufomap.api.repository.SightingRepository;
 import com.ufomap.api.service.SightingService; // Make sure SightingService is imported if used
 import jakarta.annotation.PostConstruct;
@@ -23,7 +25,7 @@ import java.util.Map;
 
 @Configuration
 @RequiredArgsConstructor // This will create a constructor for SightingRepository AND SightingService
-@Profile("!prod") // Don't run in production
+@Profile("!prod & !snapshot & !sharded") // Don't run in production, without a database or on shards
 // Load sighting DATA from database
 public class DataLoader {
 
@@ -31,6 +33,7 @@ public class DataLoader {
 
     private final SightingRepository sightingRepository;
     private final SightingService sightingService; // This field will be included in the @RequiredArgsConstructor
+    private final SightingArchive archive; // Archived sightings count as existing data
 
     @Value("classpath:data/sightings.json")
     private Resource sightingsResource;
@@ -38,7 +41,8 @@ public class DataLoader {
     @PostConstruct
     public void loadData() {
         // sightingService is not currently used in this method, but the field is initialized.
-        if (sightingRepository.count() > 0) {
+        // Runs on every startup: an existence check stays cheap however large the table is
+        if (sightingRepository.existsByIdNotNull() || !archive.isEmpty()) {
             logger.info("Database already contains data, skipping data load");
             return;
         }
@@ -92,8 +96,8 @@ public class DataLoader {
                             }
                             sighting.setSubmissionStatus(
                                     data.get("submissionStatus") != null ?
-                                            data.get("submissionStatus").toString() :
-                                            "approved" // Default if not present
+                                            SubmissionStatus.fromString(data.get("submissionStatus").toString()) :
+                                            SubmissionStatus.APPROVED // Default if not present
                             );
                             return sighting;
                         } catch (Exception e) {
@@ -112,4 +116,4 @@ public class DataLoader {
             logger.error("Failed to load initial sightings data: {}", e.getMessage(), e);
         }
     }
-}
\ No newline at end of file
+}
\ No newline at end of file
@@ -0,0 +1,58 @@
+package com.ufomap.api.config;
+
+import com.ufomap.api.dto.ArchiveSegmentDTO;
+import com.ufomap.api.dto.BackfillProgressDTO;
+import com.ufomap.api.dto.BulkStatusUpdateRequest;
+import com.ufomap.api.dto.BulkStatusUpdateResultDTO;
+import com.ufomap.api.dto.FacetedSightingsDTO;
+import com.ufomap.api.dto.SightingDTO;
+import com.ufomap.api.dto.SightingPointsDTO;
+import com.ufomap.api.dto.SuggestionDTO;
+import com.ufomap.api.model.Sighting;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+/**
+ * Reflection and resource hints for the AOT and native-image builds ({@code aot} and
+ * {@code native} Maven profiles). Controller signatures are covered by Spring itself; this adds
+ * what is only reached through Jackson at runtime: the DTOs inside {@code Page} responses and
+ * change-bus payloads, Spring Data's page types, the binary mappers' mixin and (de)serializers,
+ * the Lombok builders, the sample data read by {@link DataLoader}, and the PostgreSQL driver's
+ * notification API, which the change bus calls reflectively.
+ */
+public class NativeRuntimeHints implements RuntimeHintsRegistrar {
+
+    @Override
+    public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+        new BindingReflectionHintsRegistrar().registerReflectionHints(hints.reflection(),
+                Sighting.class, SightingDTO.class, FacetedSightingsDTO.class, SightingPointsDTO.class,
+                SuggestionDTO.class, BulkStatusUpdateRequest.class, BulkStatusUpdateResultDTO.class,
+                BackfillProgressDTO.class, ArchiveSegmentDTO.class,
+                PageImpl.class, PageRequest.class, Sort.class, Sort.Order.class);
+
+        hints.reflection()
+                .registerType(Sighting.SightingBuilder.class,
+                        MemberCategory.INVOKE_DECLARED_CONSTRUCTORS, MemberCategory.INVOKE_PUBLIC_METHODS)
+                .registerType(SightingDTO.SightingDTOBuilder.class,
+                        MemberCategory.INVOKE_DECLARED_CONSTRUCTORS, MemberCategory.INVOKE_PUBLIC_METHODS)
+                .registerType(BinaryObjectMappers.EpochSecondsSerializer.class,
+                        MemberCategory.INVOKE_DECLARED_CONSTRUCTORS)
+                .registerType(BinaryObjectMappers.EpochSecondsDeserializer.class,
+                        MemberCategory.INVOKE_DECLARED_CONSTRUCTORS);
+        // Jackson reads the mixin's field annotations and matches them to the target's fields
+        BinaryObjectMappers.MIXINS.forEach((target, mixin) -> hints.reflection()
+                .registerType(mixin, MemberCategory.DECLARED_FIELDS)
+                .registerType(target, MemberCategory.DECLARED_FIELDS));
+
+        hints.reflection()
+                .registerTypeIfPresent(classLoader, "org.postgresql.PGConnection", MemberCategory.INVOKE_PUBLIC_METHODS)
+                .registerTypeIfPresent(classLoader, "org.postgresql.PGNotification", MemberCategory.INVOKE_PUBLIC_METHODS);
+
+        hints.resources().registerPattern("data/*.json");
+    }
+}
@@ -0,0 +1,63 @@
+package com.ufomap.api.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Support for the Class Data Sharing training run of the {@code cds} Maven profile. With
+ * {@code ufomap.startup.training-run=true} the application sends a few read requests to itself
+ * once it is ready, so the classes of the request path are loaded too, and then exits; the JVM
+ * writes the classes loaded so far to the archive named by {@code -XX:ArchiveClassesAtExit}.
+ */
+@Component
+public class TrainingRun {
+
+    private static final Logger logger = LoggerFactory.getLogger(TrainingRun.class);
+
+    private static final List<String> WARM_UP_PATHS = List.of(
+            "/api/sightings?size=20",
+            "/api/sightings/1",
+            "/api/sightings/filter?shape=light&size=20",
+            "/api/sightings/bounds?north=50&south=25&east=-65&west=-125&size=20",
+            "/api/sightings/bounds/points?north=50&south=25&east=-65&west=-125");
+
+    private final boolean enabled;
+
+    public TrainingRun(@Value("${ufomap.startup.training-run:false}") boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    @EventListener
+    public void onReady(ApplicationReadyEvent event) {
+        if (!enabled) {
+            return;
+        }
+        String port = event.getApplicationContext().getEnvironment().getProperty("local.server.port", "8080");
+        HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+        for (String path : WARM_UP_PATHS) {
+            try {
+                HttpResponse<Void> response = client.send(
+                        HttpRequest.newBuilder(URI.create("http://localhost:" + port + path)).build(),
+                        HttpResponse.BodyHandlers.discarding());
+                logger.info("Training request {} returned {}", path, response.statusCode());
+            } catch (Exception e) {
+                // The archive is still written; it just covers fewer classes
+                logger.warn("Training request {} failed: {}", path, e.getMessage());
+            }
+        }
+        logger.info("Training run complete, exiting");
+        System.exit(SpringApplication.exit(event.getApplicationContext()));
+    }
+}
@@ -0,0 +1,43 @@
+package com.ufomap.api.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+/**
+ * Serves the binary formats with {@link BinaryObjectMappers}, so every endpoint negotiates on the
+ * {@code Accept} / {@code Content-Type} headers:
+ * {@code application/x-jackson-smile} and {@code application/cbor}.
+ * <p>
+ * Spring already registers default Smile and CBOR converters when the dataformats are on the
+ * classpath, and the first matching converter wins, so those are replaced in place rather than
+ * followed by ours. JSON keeps its position and remains the default.
+ */
+@Configuration
+public class WebConfig implements WebMvcConfigurer {
+
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        replace(converters, MappingJackson2SmileHttpMessageConverter.class,
+                new MappingJackson2SmileHttpMessageConverter(BinaryObjectMappers.smile()));
+        replace(converters, MappingJackson2CborHttpMessageConverter.class,
+                new MappingJackson2CborHttpMessageConverter(BinaryObjectMappers.cbor()));
+    }
+
+    // Puts the converter where the first one of its type was and drops the others; appends it if there was none
+    private static void replace(List<HttpMessageConverter<?>> converters,
+                                Class<?> type, HttpMessageConverter<?> converter) {
+        int index = -1;
+        for (int i = converters.size() - 1; i >= 0; i--) {
+            if (type.isInstance(converters.get(i))) {
+                converters.remove(i);
+                index = i;
+            }
+        }
+        converters.add(index < 0 ? converters.size() : index, converter);
+    }
+}
@@ -0,0 +1,34 @@
+package com.ufomap.api.controller;
+
+import com.ufomap.api.security.JwtTokenService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/auth")
+@RequiredArgsConstructor
+public class AuthController {
+
+    private final JwtTokenService tokenService;
+
+    /**
+     * Exchanges HTTP Basic credentials for a bearer token; a bearer token is not accepted here.
+     * Send the token as {@code Authorization: Bearer <token>} on subsequent requests.
+     * @param authentication The user authenticated by HTTP Basic.
+     * @return The access token and its lifetime in seconds.
+     */
+    @PostMapping("/token")
+    public ResponseEntity<Map<String, Object>> issueToken(Authentication authentication) {
+        return ResponseEntity.ok(Map.of(
+                "access_token", tokenService.issueToken(authentication),
+                "token_type", "Bearer",
+                "expires_in", tokenService.getTokenTtl().toSeconds()
+        ));
+    }
+}
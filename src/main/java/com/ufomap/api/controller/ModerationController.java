@@ -0,0 +1,64 @@
+package com.ufomap.api.controller;
+
+import com.ufomap.api.dto.BulkStatusUpdateRequest;
+import com.ufomap.api.dto.BulkStatusUpdateResultDTO;
+import com.ufomap.api.dto.SightingDTO;
+import com.ufomap.api.service.ModerationService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.security.Principal;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/moderation")
+@Profile("!sharded") // Like ModerationService
+@RequiredArgsConstructor
+public class ModerationController {
+
+    private final ModerationService moderationService;
+
+    /**
+     * Claims a batch of pending sightings for the authenticated moderator.
+     * @param batchSize Maximum number of sightings to claim (1-500).
+     * @param leaseSeconds How long the claim is held before others may take the sightings.
+     * @param principal The authenticated moderator.
+     * @return The claimed sightings, oldest submission first.
+     */
+    @PostMapping("/claims")
+    public ResponseEntity<List<SightingDTO>> claimBatch(
+            @RequestParam(defaultValue = "20") int batchSize,
+            @RequestParam(defaultValue = "900") long leaseSeconds,
+            Principal principal) {
+        return ResponseEntity.ok(moderationService.claimBatch(
+                principal.getName(), batchSize, Duration.ofSeconds(leaseSeconds)));
+    }
+
+    /**
+     * Releases all pending sightings claimed by the authenticated moderator.
+     * @param principal The authenticated moderator.
+     * @return The number of released sightings.
+     */
+    @DeleteMapping("/claims")
+    public ResponseEntity<Map<String, Integer>> releaseClaims(Principal principal) {
+        return ResponseEntity.ok(Map.of("released", moderationService.releaseClaims(principal.getName())));
+    }
+
+    /**
+     * Approves or rejects many sightings in one request, by ids or by filter.
+     * Sightings claimed by another moderator are left unchanged.
+     * @param request The new status and the sightings it applies to.
+     * @param principal The authenticated moderator.
+     * @return The number of updated sightings, and of those skipped as claimed by others.
+     */
+    @PatchMapping("/status")
+    public ResponseEntity<BulkStatusUpdateResultDTO> updateStatus(@Valid @RequestBody BulkStatusUpdateRequest request,
+                                                                  Principal principal) {
+        return ResponseEntity.ok(moderationService.updateStatus(request, principal.getName()));
+    }
+}
@@ -1,15 +1,27 @@
 package com.ufomap.api.controller;
 
+import com.ufomap.api.dto.FacetedSightingsDTO;
+import com.ufomap.api.dto.HotspotDTO;
 import com.ufomap.api.dto.SightingDTO;
-import com.ufomap.api.model.SubmissionStatus; // Import your enum
+import com.ufomap.api.dto.SightingPointsDTO;
+import com.ufomap.api.dto.SuggestionDTO;
+import com.ufomap.api.hotspot.HotspotAlertStream;
+import com.ufomap.api.model.SubmissionStatus;
 import com.ufomap.api.service.SightingService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable; // Correct import for Pageable
+import org.springframework.data.web.PageableDefault;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.security.Principal;
+import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/sightings")
@@ -17,6 +29,7 @@ import org.springframework.web.bind.annotation.*;
 public class SightingController {
 
     private final SightingService sightingService;
+    private final HotspotAlertStream hotspotAlerts;
 
     /**
      * Retrieves all sightings with pagination.
@@ -28,6 +41,19 @@ public class SightingController {
         return ResponseEntity.ok(sightingService.getAllSightings(pageable));
     }
 
+    /**
+     * Retrieves only the requested fields of all sightings, e.g. {@code ?fields=id,latitude,longitude,shape}.
+     * @param fields The SightingDTO properties to return.
+     * @param pageable Pagination information (page, size, sort).
+     * @return A page of field maps.
+     */
+    @GetMapping(params = "fields")
+    public ResponseEntity<Page<Map<String, Object>>> getAllSightingFields(
+            @RequestParam List<String> fields,
+            Pageable pageable) {
+        return ResponseEntity.ok(sightingService.getAllSightingFields(fields, pageable));
+    }
+
     /**
      * Retrieves a specific sighting by its ID.
      * @param id The ID of the sighting.
@@ -38,6 +64,19 @@ public class SightingController {
         return ResponseEntity.ok(sightingService.getSightingById(id));
     }
 
+    /**
+     * Retrieves only the requested fields of a specific sighting.
+     * @param id The ID of the sighting.
+     * @param fields The SightingDTO properties to return.
+     * @return The field map if found, or 404 if not.
+     */
+    @GetMapping(value = "/{id}", params = "fields")
+    public ResponseEntity<Map<String, Object>> getSightingFieldsById(
+            @PathVariable Long id,
+            @RequestParam List<String> fields) {
+        return ResponseEntity.ok(sightingService.getSightingFieldsById(fields, id));
+    }
+
     /**
      * Retrieves sightings based on various filter criteria with pagination.
      * @param shape Optional shape filter.
@@ -45,6 +84,8 @@ public class SightingController {
      * @param country Optional country filter.
      * @param state Optional state filter.
      * @param searchText Optional free-text search across multiple fields.
+     * @param minDuration Optional minimum duration in seconds, inclusive.
+     * @param maxDuration Optional maximum duration in seconds, inclusive.
      * @param pageable Pagination information.
      * @return A page of SightingDTOs matching the filters.
      */
@@ -55,9 +96,55 @@ public class SightingController {
             @RequestParam(required = false) String country,
             @RequestParam(required = false) String state,
             @RequestParam(required = false) String searchText,
+            @RequestParam(required = false) Long minDuration,
+            @RequestParam(required = false) Long maxDuration,
             Pageable pageable) {
         return ResponseEntity.ok(sightingService.getSightingsWithFilters(
-                shape, city, country, state, searchText, pageable));
+                shape, city, country, state, searchText, minDuration, maxDuration, pageable));
+    }
+
+    /**
+     * Same as {@link #getSightingsWithFilters}, with {@code facets=true}: also returns the number of
+     * matching sightings per shape, country and state, computed over all matches in the same pass.
+     * @return The page of SightingDTOs and the facet counts.
+     */
+    @GetMapping(value = "/filter", params = {"facets=true", "!fields"})
+    public ResponseEntity<FacetedSightingsDTO> getSightingsWithFacets(
+            @RequestParam(required = false) String shape,
+            @RequestParam(required = false) String city,
+            @RequestParam(required = false) String country,
+            @RequestParam(required = false) String state,
+            @RequestParam(required = false) String searchText,
+            @RequestParam(required = false) Long minDuration,
+            @RequestParam(required = false) Long maxDuration,
+            Pageable pageable) {
+        return ResponseEntity.ok(sightingService.getSightingsWithFacets(
+                shape, city, country, state, searchText, minDuration, maxDuration, pageable));
+    }
+
+    /**
+     * Retrieves only the requested fields of the sightings matching the filter criteria.
+     * Facets are not available with a field projection; {@code facets=true} is rejected with 400.
+     * @param fields The SightingDTO properties to return.
+     * @see #getSightingsWithFilters
+     */
+    @GetMapping(value = "/filter", params = "fields")
+    public ResponseEntity<Page<Map<String, Object>>> getSightingFieldsWithFilters(
+            @RequestParam List<String> fields,
+            @RequestParam(defaultValue = "false") boolean facets,
+            @RequestParam(required = false) String shape,
+            @RequestParam(required = false) String city,
+            @RequestParam(required = false) String country,
+            @RequestParam(required = false) String state,
+            @RequestParam(required = false) String searchText,
+            @RequestParam(required = false) Long minDuration,
+            @RequestParam(required = false) Long maxDuration,
+            Pageable pageable) {
+        if (facets) {
+            throw new IllegalArgumentException("facets cannot be combined with fields");
+        }
+        return ResponseEntity.ok(sightingService.getSightingFieldsWithFilters(
+                fields, shape, city, country, state, searchText, minDuration, maxDuration, pageable));
     }
 
     /**
@@ -79,6 +166,83 @@ public class SightingController {
         return ResponseEntity.ok(sightingService.getSightingsInBounds(north, south, east, west, pageable));
     }
 
+    /**
+     * Retrieves only the requested fields of the sightings within a bounding box.
+     * @param fields The SightingDTO properties to return.
+     * @see #getSightingsInBounds
+     */
+    @GetMapping(value = "/bounds", params = "fields")
+    public ResponseEntity<Page<Map<String, Object>>> getSightingFieldsInBounds(
+            @RequestParam List<String> fields,
+            @RequestParam Double north,
+            @RequestParam Double south,
+            @RequestParam Double east,
+            @RequestParam Double west,
+            Pageable pageable) {
+        return ResponseEntity.ok(sightingService.getSightingFieldsInBounds(fields, north, south, east, west, pageable));
+    }
+
+    /**
+     * Retrieves only the map markers (id, coordinates, shape) within a bounding box,
+     * in the columnar, delta-encoded points format. Best combined with
+     * {@code Accept: application/x-jackson-smile} or {@code application/cbor}.
+     * @param north The northern latitude boundary.
+     * @param south The southern latitude boundary.
+     * @param east The eastern longitude boundary.
+     * @param west The western longitude boundary.
+     * @param pageable Pagination information (page, size); points are ordered by id.
+     * @return The points within the bounds.
+     */
+    @GetMapping("/bounds/points")
+    public ResponseEntity<SightingPointsDTO> getSightingPointsInBounds(
+            @RequestParam Double north,
+            @RequestParam Double south,
+            @RequestParam Double east,
+            @RequestParam Double west,
+            @PageableDefault(size = 2000) Pageable pageable) {
+        return ResponseEntity.ok(sightingService.getSightingPointsInBounds(north, south, east, west, pageable));
+    }
+
+    /**
+     * Suggests values for the search box as the user types.
+     * Served from an in-memory index, so it is safe to call on every keystroke.
+     * @param field The field to complete: city, state, country or shape.
+     * @param prefix The text typed so far (case-insensitive); empty returns the most common values.
+     * @param limit The maximum number of suggestions (1-50).
+     * @return Matching values with their sighting counts, most common first.
+     */
+    @GetMapping("/suggest")
+    public ResponseEntity<List<SuggestionDTO>> suggest(
+            @RequestParam String field,
+            @RequestParam(defaultValue = "") String prefix,
+            @RequestParam(defaultValue = "10") int limit) {
+        return ResponseEntity.ok(sightingService.suggest(field, prefix, limit));
+    }
+
+    /**
+     * Retrieves the areas with a current burst of reports, detected from incoming sightings.
+     * @param limit The maximum number of hotspots (1-100).
+     * @return Geohash cells with their window count and baseline, highest score first.
+     */
+    @GetMapping("/hotspots")
+    public ResponseEntity<List<HotspotDTO>> getHotspots(@RequestParam(defaultValue = "20") int limit) {
+        return ResponseEntity.ok(sightingService.getHotspots(limit));
+    }
+
+    /**
+     * Streams hotspot alerts as server-sent events: {@code hotspot} when an area starts a burst
+     * (sent first for each current hotspot) and {@code hotspot-ended} when it ends.
+     * @param principal The authenticated user; each user may hold a limited number of streams.
+     * @return The event stream, 429 if the user's stream limit is reached, or 503 if the server's is.
+     */
+    @GetMapping(value = "/hotspots/alerts", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamHotspotAlerts(Principal principal) {
+        return hotspotAlerts.subscribe(principal.getName(), sightingService.getHotspots(100))
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.status(hotspotAlerts.isFull()
+                        ? HttpStatus.SERVICE_UNAVAILABLE : HttpStatus.TOO_MANY_REQUESTS).build());
+    }
+
     /**
      * Creates a new sighting.
      * @param sightingDTO The SightingDTO to create.
@@ -99,8 +263,7 @@ public class SightingController {
     @PatchMapping("/{id}/status")
     public ResponseEntity<SightingDTO> updateSightingStatus(
             @PathVariable Long id,
-            @RequestParam SubmissionStatus status) { // Use the enum type directly
-        // Assuming SightingService.updateSightingStatus expects the enum or its string representation
-        return ResponseEntity.ok(sightingService.updateSightingStatus(id, status.getStatus())); // or status.toString() or just status if service expects enum
+            @RequestParam SubmissionStatus status) {
+        return ResponseEntity.ok(sightingService.updateSightingStatus(id, status));
     }
-}
\ No newline at end of file
+}
\ No newline at end of file
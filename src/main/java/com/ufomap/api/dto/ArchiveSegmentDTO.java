@@ -0,0 +1,41 @@
+package com.ufomap.api.dto;
+
+import com.ufomap.api.archive.SightingArchive;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ArchiveSegmentDTO {
+
+    private String name;
+
+    private SightingArchive.State state;
+
+    private int rows;
+
+    private long compressedBytes;
+
+    // Zone maps: the range of each column over the segment's rows
+    private long minId;
+
+    private long maxId;
+
+    private LocalDateTime minDateTime;
+
+    private LocalDateTime maxDateTime;
+
+    private Double minLatitude;
+
+    private Double maxLatitude;
+
+    private Double minLongitude;
+
+    private Double maxLongitude;
+}
@@ -0,0 +1,47 @@
+package com.ufomap.api.dto;
+
+import com.ufomap.api.model.BackfillCheckpoint;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BackfillProgressDTO {
+
+    private String job;
+
+    // Null until the job has been started once
+    private BackfillCheckpoint.Status status;
+
+    private long lastId;
+
+    // Current highest sighting id; lastId / maxId approximates the fraction done
+    private long maxId;
+
+    private double percentComplete;
+
+    private long rowsProcessed;
+
+    private long rowsUpdated;
+
+    // Current throttle state, while running
+    private int chunkSize;
+
+    private long lastChunkMillis;
+
+    private long pauseMillis;
+
+    private LocalDateTime startedAt;
+
+    private LocalDateTime updatedAt;
+
+    private LocalDateTime completedAt;
+
+    private String lastError;
+}
@@ -0,0 +1,47 @@
+package com.ufomap.api.dto;
+
+import com.ufomap.api.model.SubmissionStatus;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Sets the status of many sightings at once: either the listed {@code ids}, or every sighting
+ * matching the filter fields (same semantics as {@code /api/sightings/filter}).
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkStatusUpdateRequest {
+
+    @NotNull
+    private SubmissionStatus status;
+
+    /**
+     * If set, only sightings currently in this status are changed (typically {@code pending}).
+     */
+    private SubmissionStatus fromStatus;
+
+    @Size(max = 10000)
+    private List<Long> ids;
+
+    private String shape;
+
+    private String city;
+
+    private String country;
+
+    private String state;
+
+    private String searchText;
+
+    public boolean hasFilter() {
+        return shape != null || city != null || country != null || state != null || searchText != null;
+    }
+}
@@ -0,0 +1,19 @@
+package com.ufomap.api.dto;
+
+import com.ufomap.api.model.SubmissionStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkStatusUpdateResultDTO {
+
+    private int updated;
+
+    private SubmissionStatus status;
+
+    // Matching sightings left unchanged because another moderator holds an unexpired claim on them
+    private int claimedByOthers;
+}
@@ -0,0 +1,24 @@
+package com.ufomap.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.domain.Page;
+
+import java.util.Map;
+
+/**
+ * A page of filter results plus facet counts over the whole (unpaged) result set:
+ * facet name ({@code shape}, {@code country}, {@code state}) to value to number of matching sightings.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class FacetedSightingsDTO {
+
+    private Page<SightingDTO> results;
+
+    private Map<String, Map<String, Integer>> facets;
+}
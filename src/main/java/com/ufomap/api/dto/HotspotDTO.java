@@ -0,0 +1,36 @@
+package com.ufomap.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class HotspotDTO {
+
+    private String geohash;
+
+    // Bounds of the geohash cell, usable as /api/sightings/bounds parameters
+    private double north;
+
+    private double south;
+
+    private double east;
+
+    private double west;
+
+    // Reports in the current window, and how many the cell's baseline predicts
+    private long count;
+
+    private double expected;
+
+    // Standard deviations above the expected count (Poisson)
+    private double score;
+
+    private LocalDateTime since;
+}
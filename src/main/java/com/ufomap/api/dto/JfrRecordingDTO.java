@@ -0,0 +1,36 @@
+package com.ufomap.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class JfrRecordingDTO {
+
+    private long id;
+
+    private String name;
+
+    // NEW, DELAYED, RUNNING, STOPPED or CLOSED
+    private String state;
+
+    private Instant startTime;
+
+    private Instant stopTime;
+
+    // Requested length; null for the continuous recording
+    private Long durationSeconds;
+
+    // Ring-buffer limits of the continuous recording
+    private Long maxAgeSeconds;
+
+    private long maxSizeBytes;
+
+    private long sizeBytes;
+}
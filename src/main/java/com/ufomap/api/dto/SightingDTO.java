@@ -1,6 +1,7 @@
 package com.ufomap.api.dto;
 
 import com.fasterxml.jackson.annotation.JsonFormat;
+import com.ufomap.api.model.SubmissionStatus;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -54,5 +55,5 @@ public class SightingDTO {
 
     private boolean isUserSubmitted;
 
-    private String submissionStatus;
-}
\ No newline at end of file
+    private SubmissionStatus submissionStatus;
+}
\ No newline at end of file
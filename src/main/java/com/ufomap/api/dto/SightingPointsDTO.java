@@ -0,0 +1,38 @@
+package com.ufomap.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Columnar "points-only" projection for map rendering.
+ * <p>
+ * Row {@code i} is ({@code ids[i]}, {@code latitudes[i]}, {@code longitudes[i]}, {@code shapes[shapeIndexes[i]]}).
+ * {@code ids}, {@code latitudes} and {@code longitudes} are delta-encoded: each value is the
+ * difference to the previous row (the first is absolute). Coordinates are fixed-point integers;
+ * divide the running sum by {@code coordinateScale} to get degrees. Rows without a shape have
+ * shape index {@code -1}.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SightingPointsDTO {
+
+    private int count;
+
+    private int coordinateScale;
+
+    private long[] ids;
+
+    private int[] latitudes;
+
+    private int[] longitudes;
+
+    private List<String> shapes;
+
+    private int[] shapeIndexes;
+}
@@ -0,0 +1,30 @@
+package com.ufomap.api.event;
+
+import com.ufomap.api.dto.SightingDTO;
+
+/**
+ * Published by {@code SightingService} after a sighting is created or modified, so in-memory
+ * state derived from sightings (caches, indexes) can be invalidated or updated.
+ * Changes made by other API instances are republished locally with {@code remote} set.
+ *
+ * @param type     What kind of change happened.
+ * @param previous The sighting before the change, or {@code null} when it was created.
+ * @param current  The sighting after the change.
+ * @param remote   Whether the change was made by another instance (received via the change bus).
+ */
+public record SightingChangedEvent(Type type, SightingDTO previous, SightingDTO current, boolean remote) {
+
+    public enum Type {
+        CREATED,
+        UPDATED,
+        STATUS_CHANGED
+    }
+
+    public SightingChangedEvent(Type type, SightingDTO previous, SightingDTO current) {
+        this(type, previous, current, false);
+    }
+
+    public Long sightingId() {
+        return current.getId();
+    }
+}
@@ -0,0 +1,9 @@
+package com.ufomap.api.event;
+
+/**
+ * Published when this instance may have missed changes made by other instances (e.g. it was
+ * disconnected from the change bus for longer than the change log is kept), so in-memory state
+ * derived from sightings must be rebuilt from the database.
+ */
+public record SightingsResyncEvent() {
+}
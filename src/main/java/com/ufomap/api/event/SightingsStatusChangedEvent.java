@@ -0,0 +1,20 @@
+package com.ufomap.api.event;
+
+import com.ufomap.api.model.SubmissionStatus;
+
+import java.util.List;
+
+/**
+ * Published after a set-based status update (moderation bulk approve/reject), which changes
+ * many rows without loading them, so no per-sighting {@link SightingChangedEvent} is available.
+ *
+ * @param sightingIds The sightings whose status was set.
+ * @param status      Their new status.
+ * @param remote      Whether the update was made by another instance (received via the change bus).
+ */
+public record SightingsStatusChangedEvent(List<Long> sightingIds, SubmissionStatus status, boolean remote) {
+
+    public SightingsStatusChangedEvent(List<Long> sightingIds, SubmissionStatus status) {
+        this(sightingIds, status, false);
+    }
+}
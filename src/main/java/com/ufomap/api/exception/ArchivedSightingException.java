@@ -0,0 +1,10 @@
+package com.ufomap.api.exception;
+
+/**
+ * Thrown for writes to a sighting that exists only in an archive segment.
+ */
+public class ArchivedSightingException extends RuntimeException {
+    public ArchivedSightingException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,10 @@
+package com.ufomap.api.exception;
+
+/**
+ * Thrown for writes while the API serves sightings from a read-only snapshot.
+ */
+public class ReadOnlyModeException extends RuntimeException {
+    public ReadOnlyModeException(String message) {
+        super(message);
+    }
+}
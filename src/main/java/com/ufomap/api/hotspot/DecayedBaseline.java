@@ -0,0 +1,133 @@
+package com.ufomap.api.hotspot;
+
+import java.util.Arrays;
+
+/**
+ * Long-run event rate per cell, in events per bucket: an exponentially weighted moving average
+ * over buckets, with a configurable half-life. Buckets without events decay a cell lazily, so only
+ * cells that have had events are stored. Primitive open addressing of fixed capacity; when it is
+ * three quarters full, all but the quarter of cells with the highest rates are dropped (a dropped
+ * cell starts again at 0).
+ * <p>
+ * Not lock-free: it is only updated by the detector's evaluation thread (and when seeding), so
+ * methods simply synchronize.
+ */
+public class DecayedBaseline {
+
+    private final double decay;
+    private final int capacity;
+    private int[] keys; // cell + 1, 0 if free
+    private double[] rates;
+    private long[] epochs;
+    private int size;
+
+    /**
+     * @param halfLifeBuckets Buckets after which an event's weight is halved.
+     * @param capacity        Cells kept (a power of two).
+     */
+    public DecayedBaseline(double halfLifeBuckets, int capacity) {
+        if (halfLifeBuckets <= 0 || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("Half-life must be positive and capacity a power of two");
+        }
+        this.decay = Math.pow(0.5, 1 / halfLifeBuckets);
+        this.capacity = capacity;
+        this.keys = new int[capacity];
+        this.rates = new double[capacity];
+        this.epochs = new long[capacity];
+    }
+
+    /**
+     * Folds the count of a finished bucket into the cell's average. Buckets must be folded in order.
+     */
+    public synchronized void fold(int cell, long count, long epoch) {
+        int index = indexOf(cell, true);
+        // Decay over the empty buckets since the last update, then take this bucket in
+        double rate = decayed(index, epoch - 1);
+        rates[index] = decay * rate + (1 - decay) * count;
+        epochs[index] = epoch;
+    }
+
+    /**
+     * Adds a known long-run rate to the cell, e.g. from historical data.
+     */
+    public synchronized void seed(int cell, double ratePerBucket, long epoch) {
+        int index = indexOf(cell, true);
+        rates[index] = decayed(index, epoch) + ratePerBucket;
+        epochs[index] = epoch;
+    }
+
+    /**
+     * The cell's average events per bucket as of the given bucket; 0 for unknown cells.
+     */
+    public synchronized double rate(int cell, long epoch) {
+        int index = indexOf(cell, false);
+        return index < 0 ? 0 : decayed(index, epoch);
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    private double decayed(int index, long epoch) {
+        long elapsed = epoch - epochs[index];
+        return elapsed <= 0 ? rates[index] : rates[index] * Math.pow(decay, elapsed);
+    }
+
+    // The cell's index, inserting it (with rate 0) if asked; -1 if absent and not inserted
+    private int indexOf(int cell, boolean insert) {
+        int hash = cell * 0x9E3779B9;
+        int index = (hash ^ hash >>> 16) & (capacity - 1);
+        while (keys[index] != 0) {
+            if (keys[index] == cell + 1) {
+                return index;
+            }
+            index = (index + 1) & (capacity - 1);
+        }
+        if (!insert) {
+            return -1;
+        }
+        if (size + 1 > capacity * 3 / 4) {
+            prune();
+            return indexOf(cell, true);
+        }
+        keys[index] = cell + 1;
+        rates[index] = 0;
+        epochs[index] = Long.MIN_VALUE / 2;
+        size++;
+        return index;
+    }
+
+    // Keeps the capacity / 4 cells with the highest rates, compared as of the latest update
+    private void prune() {
+        long latest = Long.MIN_VALUE;
+        for (int i = 0; i < capacity; i++) {
+            if (keys[i] != 0) {
+                latest = Math.max(latest, epochs[i]);
+            }
+        }
+        double[] current = new double[size];
+        int n = 0;
+        for (int i = 0; i < capacity; i++) {
+            if (keys[i] != 0) {
+                current[n++] = decayed(i, latest);
+            }
+        }
+        Arrays.sort(current);
+        double cutoff = current[n - capacity / 4];
+
+        int[] oldKeys = keys;
+        double[] oldRates = rates;
+        long[] oldEpochs = epochs;
+        keys = new int[capacity];
+        rates = new double[capacity];
+        epochs = new long[capacity];
+        size = 0;
+        for (int i = 0; i < capacity && size < capacity / 4; i++) {
+            if (oldKeys[i] != 0 && oldRates[i] * Math.pow(decay, latest - oldEpochs[i]) >= cutoff) {
+                int index = indexOf(oldKeys[i] - 1, true);
+                rates[index] = oldRates[i];
+                epochs[index] = oldEpochs[i];
+            }
+        }
+    }
+}
@@ -0,0 +1,181 @@
+package com.ufomap.api.hotspot;
+
+import com.ufomap.api.dto.HotspotDTO;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Server-sent event subscribers to hotspot alerts. Events are {@code hotspot} when a cell becomes
+ * a hotspot and {@code hotspot-ended} when it stops being one, both with a {@link HotspotDTO};
+ * a new subscriber first receives a {@code hotspot} event per current hotspot.
+ * <p>
+ * Publishing only queues: each subscriber has a queue of {@code queue-size} events, drained by one
+ * of {@code sender-threads} threads, so a slow connection never holds up the detector or the other
+ * subscribers. Subscribers whose queue overflows or whose connection fails are dropped.
+ */
+@Component
+public class HotspotAlertStream {
+
+    public static final String STARTED = "hotspot";
+    public static final String ENDED = "hotspot-ended";
+
+    private static final Logger logger = LoggerFactory.getLogger(HotspotAlertStream.class);
+
+    private final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+    private final int maxSubscribers;
+    private final int maxPerClient;
+    private final int queueSize;
+    private final long timeoutMillis;
+    private final ExecutorService senders;
+
+    public HotspotAlertStream(@Value("${ufomap.hotspots.alerts.max-subscribers:100}") int maxSubscribers,
+                              @Value("${ufomap.hotspots.alerts.max-per-client:3}") int maxPerClient,
+                              @Value("${ufomap.hotspots.alerts.queue-size:256}") int queueSize,
+                              @Value("${ufomap.hotspots.alerts.sender-threads:4}") int senderThreads,
+                              @Value("${ufomap.hotspots.alerts.timeout:PT30M}") Duration timeout) {
+        this.maxSubscribers = maxSubscribers;
+        this.maxPerClient = maxPerClient;
+        this.queueSize = queueSize;
+        this.timeoutMillis = timeout.toMillis();
+        this.senders = Executors.newFixedThreadPool(senderThreads, runnable -> {
+            Thread thread = new Thread(runnable, "hotspot-alerts");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        senders.shutdownNow();
+    }
+
+    /**
+     * A new subscription for the given client (the authenticated user), sent the given current
+     * hotspots first.
+     *
+     * @return Empty if there are already {@code max-subscribers} subscribers, or
+     * {@code max-per-client} for this client.
+     */
+    public synchronized Optional<SseEmitter> subscribe(String client, List<HotspotDTO> current) {
+        long ofClient = subscribers.stream().filter(subscriber -> subscriber.client.equals(client)).count();
+        if (isFull() || ofClient >= maxPerClient) {
+            return Optional.empty();
+        }
+        Subscriber subscriber = new Subscriber(client, new SseEmitter(timeoutMillis));
+        subscriber.emitter.onCompletion(() -> subscribers.remove(subscriber));
+        subscriber.emitter.onTimeout(() -> subscribers.remove(subscriber));
+        subscriber.emitter.onError(error -> subscribers.remove(subscriber));
+        subscribers.add(subscriber);
+        current.forEach(hotspot -> subscriber.enqueue(new Alert(STARTED, hotspot)));
+        return Optional.of(subscriber.emitter);
+    }
+
+    /**
+     * Whether the {@code max-subscribers} limit is reached.
+     */
+    public boolean isFull() {
+        return subscribers.size() >= maxSubscribers;
+    }
+
+    public int getSubscriberCount() {
+        return subscribers.size();
+    }
+
+    public void publish(String type, HotspotDTO hotspot) {
+        Alert alert = new Alert(type, hotspot);
+        subscribers.forEach(subscriber -> subscriber.enqueue(alert));
+    }
+
+    /**
+     * Sends a comment to every subscriber, so dead connections are noticed and proxies keep idle ones open.
+     */
+    public void keepAlive() {
+        subscribers.forEach(subscriber -> subscriber.enqueue(Alert.KEEP_ALIVE));
+    }
+
+    private void drop(Subscriber subscriber, Exception cause) {
+        if (subscribers.remove(subscriber)) {
+            logger.debug("Dropping hotspot alert subscriber {}: {}", subscriber.client, cause.getMessage());
+            subscriber.emitter.completeWithError(cause);
+        }
+    }
+
+    // A null type is a keep-alive comment
+    private record Alert(String type, HotspotDTO hotspot) {
+
+        static final Alert KEEP_ALIVE = new Alert(null, null);
+
+        SseEmitter.SseEventBuilder toEvent() {
+            return type == null
+                    ? SseEmitter.event().comment("keep-alive")
+                    : SseEmitter.event().name(type).id(hotspot.getGeohash()).data(hotspot, MediaType.APPLICATION_JSON);
+        }
+    }
+
+    private final class Subscriber {
+
+        final String client;
+        final SseEmitter emitter;
+        final BlockingQueue<Alert> queue = new ArrayBlockingQueue<>(queueSize);
+        // Set while a sender drains the queue, so events go out in order from one thread at a time
+        final AtomicBoolean draining = new AtomicBoolean();
+
+        Subscriber(String client, SseEmitter emitter) {
+            this.client = client;
+            this.emitter = emitter;
+        }
+
+        void enqueue(Alert alert) {
+            if (!queue.offer(alert)) {
+                drop(this, new IOException("More than " + queueSize + " alerts behind"));
+                return;
+            }
+            schedule();
+        }
+
+        void schedule() {
+            if (draining.compareAndSet(false, true)) {
+                try {
+                    senders.execute(this::drain);
+                } catch (RejectedExecutionException e) {
+                    draining.set(false); // Shutting down
+                }
+            }
+        }
+
+        void drain() {
+            try {
+                Alert alert;
+                while ((alert = queue.poll()) != null) {
+                    emitter.send(alert.toEvent());
+                }
+            } catch (IOException | IllegalStateException e) {
+                drop(this, e);
+                return;
+            } finally {
+                draining.set(false);
+            }
+            // An alert queued after the last poll but before draining was cleared found it still set
+            if (!queue.isEmpty()) {
+                schedule();
+            }
+        }
+    }
+}
@@ -0,0 +1,298 @@
+package com.ufomap.api.hotspot;
+
+import com.ufomap.api.dto.HotspotDTO;
+import com.ufomap.api.dto.SightingDTO;
+import com.ufomap.api.event.SightingChangedEvent;
+import com.ufomap.api.event.SightingsStatusChangedEvent;
+import com.ufomap.api.model.SubmissionStatus;
+import com.ufomap.api.repository.SightingReadSource;
+import com.ufomap.api.shard.GeoHash;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Flags "flaps", sudden bursts of reports in one area, as they happen.
+ * <p>
+ * Each counted report adds one to its geohash cell in a {@link WindowedCellCounter}; recording is
+ * a few atomic operations with no locks or allocation, so it runs inline in the request (or change
+ * bus) thread. Every {@code evaluate-interval} a single thread folds finished buckets into the
+ * {@link DecayedBaseline} and compares each active cell's window count to the count its baseline
+ * predicts: a cell is a hotspot when it has at least {@code min-count} reports and is
+ * {@code min-score} standard deviations (Poisson) above the prediction. Changes are pushed to
+ * {@link HotspotAlertStream} subscribers.
+ * <p>
+ * Reports are counted when created, or when approved with {@code count-on=approved}, including
+ * changes made on other instances. Recent stored sightings only seed the baseline, on every
+ * startup: their report times are past, so they never fall into the window.
+ */
+@Component
+@EnableConfigurationProperties(HotspotProperties.class)
+public class HotspotDetector {
+
+    private static final Logger logger = LoggerFactory.getLogger(HotspotDetector.class);
+    private static final int ID_BATCH_SIZE = 1000;
+
+    private final HotspotProperties properties;
+    private final SightingReadSource readSource;
+    private final HotspotAlertStream alerts;
+    private final WindowedCellCounter counter;
+    private final DecayedBaseline baseline;
+    private final int windowBuckets;
+    private final Counter reports;
+    private final Counter dropped;
+
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "hotspot-detector");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    // Only touched by the evaluation thread
+    private final Map<Integer, HotspotDTO> active = new HashMap<>();
+    private long foldedEpoch = Long.MIN_VALUE;
+
+    private volatile List<HotspotDTO> hotspots = List.of();
+
+    public HotspotDetector(HotspotProperties properties,
+                           SightingReadSource readSource,
+                           HotspotAlertStream alerts,
+                           MeterRegistry meterRegistry) {
+        if (properties.getPrecision() < 1 || properties.getPrecision() > 6) {
+            throw new IllegalArgumentException("ufomap.hotspots.precision must be between 1 and 6");
+        }
+        long bucketMillis = properties.getBucket().toMillis();
+        if (bucketMillis < 1 || properties.getWindow().toMillis() < bucketMillis) {
+            throw new IllegalArgumentException("ufomap.hotspots.window must be at least one bucket");
+        }
+        this.properties = properties;
+        this.readSource = readSource;
+        this.alerts = alerts;
+        this.windowBuckets = (int) (properties.getWindow().toMillis() / bucketMillis);
+        // One slot more than the window, so a finished bucket can still be folded into the baseline
+        this.counter = new WindowedCellCounter(windowBuckets + 1, bucketMillis,
+                properties.getCellsPerBucket(), properties.getSketchWidth(), properties.getSketchDepth());
+        this.baseline = new DecayedBaseline(
+                (double) properties.getBaselineHalfLife().toMillis() / bucketMillis, properties.getBaselineCells());
+
+        this.reports = Counter.builder("ufomap.hotspots.reports")
+                .description("Reports counted by the hotspot detector")
+                .register(meterRegistry);
+        this.dropped = Counter.builder("ufomap.hotspots.dropped")
+                .description("Reports dropped because their bucket had already left the window")
+                .register(meterRegistry);
+        Gauge.builder("ufomap.hotspots.active", this, detector -> detector.hotspots.size())
+                .description("Cells currently flagged as hotspots")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        long period = properties.getEvaluateInterval().toMillis();
+        scheduler.scheduleAtFixedRate(this::evaluateQuietly, period, period, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+    }
+
+    /**
+     * The current hotspots, highest score first.
+     */
+    public List<HotspotDTO> getHotspots() {
+        return hotspots;
+    }
+
+    /**
+     * Counts a report at the given coordinates now. Reports without coordinates are ignored.
+     */
+    public void record(Double latitude, Double longitude) {
+        if (!properties.isEnabled() || latitude == null || longitude == null) {
+            return;
+        }
+        int cell = GeoHash.cell(latitude, longitude, properties.getPrecision());
+        if (counter.add(cell, System.currentTimeMillis())) {
+            reports.increment();
+        } else {
+            dropped.increment();
+        }
+    }
+
+    /**
+     * Seeds the baseline from the stored sightings once the application (and any initial data load)
+     * is ready. The baseline is only held in memory, so this runs on every startup, on the evaluation
+     * thread ahead of its next evaluation.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void seedOnStartup() {
+        if (properties.isEnabled()) {
+            scheduler.execute(this::seedQuietly);
+        }
+    }
+
+    /**
+     * Seeds the baseline with the average report rate of each cell over the last
+     * {@code baseline-seed-window}, reading only the locations of the sightings in it.
+     */
+    void seed() {
+        Duration window = properties.getBaselineSeedWindow();
+        Map<Integer, Integer> cells = new HashMap<>();
+        int[] sightings = {0};
+        readSource.forEachLocationSince(LocalDateTime.now().minus(window), (latitude, longitude) -> {
+            cells.merge(GeoHash.cell(latitude, longitude, properties.getPrecision()), 1, Integer::sum);
+            sightings[0]++;
+        });
+        if (cells.isEmpty()) {
+            return;
+        }
+        double buckets = Math.max(1.0, (double) window.toMillis() / counter.getBucketMillis());
+        long epoch = counter.epochOf(System.currentTimeMillis());
+        cells.forEach((cell, count) -> baseline.seed(cell, count / buckets, epoch));
+        logger.info("Hotspot baseline seeded from {} sightings in {} cells", sightings[0], cells.size());
+    }
+
+    // Counted after the transaction commits, so a rolled back report is never counted
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSightingChanged(SightingChangedEvent event) {
+        SightingDTO current = event.current();
+        boolean counted = switch (event.type()) {
+            case CREATED -> properties.getCountOn() == HotspotProperties.CountOn.CREATED
+                    || current.getSubmissionStatus() == SubmissionStatus.APPROVED;
+            case STATUS_CHANGED -> properties.getCountOn() == HotspotProperties.CountOn.APPROVED
+                    && current.getSubmissionStatus() == SubmissionStatus.APPROVED
+                    && (event.previous() == null || event.previous().getSubmissionStatus() != SubmissionStatus.APPROVED);
+            case UPDATED -> false;
+        };
+        if (counted) {
+            record(current.getLatitude(), current.getLongitude());
+        }
+    }
+
+    // Bulk approvals carry only ids; the earlier status is unknown, so already approved rows count again
+    @TransactionalEventListener(fallbackExecution = true) // After the bulk UPDATE has committed
+    public void onSightingsStatusChanged(SightingsStatusChangedEvent event) {
+        if (!properties.isEnabled() || properties.getCountOn() != HotspotProperties.CountOn.APPROVED
+                || event.status() != SubmissionStatus.APPROVED || event.sightingIds().isEmpty()) {
+            return;
+        }
+        // In chunks: a filter-based moderation can exceed the bind parameters one query may have
+        List<Long> ids = event.sightingIds();
+        for (int from = 0; from < ids.size(); from += ID_BATCH_SIZE) {
+            readSource.findAllById(ids.subList(from, Math.min(from + ID_BATCH_SIZE, ids.size())))
+                    .forEach(sighting -> record(sighting.getLatitude(), sighting.getLongitude()));
+        }
+    }
+
+    /**
+     * Folds finished buckets into the baseline, recomputes the hotspots and sends alerts for changes.
+     */
+    void evaluate() {
+        long now = System.currentTimeMillis();
+        long epoch = counter.epochOf(now);
+
+        // Cells with exact counts in the window or the finished bucket just before it. Their baselines
+        // take the same estimate as their window counts (exact, or the sketch in buckets they overflowed)
+        int[] cells = counter.cellsInWindow(now, windowBuckets + 1);
+        for (long finished = Math.max(foldedEpoch + 1, epoch - windowBuckets); finished < epoch; finished++) {
+            for (int cell : cells) {
+                baseline.fold(cell, counter.bucketCount(cell, finished), finished);
+            }
+        }
+        foldedEpoch = epoch - 1;
+
+        List<HotspotDTO> found = new ArrayList<>();
+        Map<Integer, HotspotDTO> stillActive = new HashMap<>();
+        for (int cell : cells) {
+            long count = counter.count(cell, now, windowBuckets);
+            if (count < properties.getMinCount()) {
+                continue;
+            }
+            double expected = Math.max(baseline.rate(cell, epoch) * windowBuckets, properties.getMinExpected());
+            double score = (count - expected) / Math.sqrt(expected);
+            if (score < properties.getMinScore()) {
+                continue;
+            }
+            HotspotDTO previous = active.get(cell);
+            HotspotDTO hotspot = toDTO(cell, count, expected, score,
+                    previous != null ? previous.getSince() : toDateTime(now));
+            found.add(hotspot);
+            stillActive.put(cell, hotspot);
+            if (previous == null) {
+                alerts.publish(HotspotAlertStream.STARTED, hotspot);
+            }
+        }
+        active.forEach((cell, hotspot) -> {
+            if (!stillActive.containsKey(cell)) {
+                alerts.publish(HotspotAlertStream.ENDED, hotspot);
+            }
+        });
+        active.clear();
+        active.putAll(stillActive);
+
+        found.sort(Comparator.comparingDouble(HotspotDTO::getScore).reversed());
+        hotspots = List.copyOf(found);
+        alerts.keepAlive();
+    }
+
+    private void seedQuietly() {
+        try {
+            seed();
+        } catch (RuntimeException e) {
+            logger.error("Seeding the hotspot baseline failed", e);
+        }
+    }
+
+    private void evaluateQuietly() {
+        try {
+            evaluate();
+        } catch (RuntimeException e) {
+            logger.error("Hotspot evaluation failed", e);
+        }
+    }
+
+    private HotspotDTO toDTO(int cell, long count, double expected, double score, LocalDateTime since) {
+        int precision = properties.getPrecision();
+        double[] bounds = GeoHash.bounds(cell, precision);
+        return HotspotDTO.builder()
+                .geohash(GeoHash.toString(cell, precision))
+                .south(bounds[0])
+                .north(bounds[1])
+                .west(bounds[2])
+                .east(bounds[3])
+                .count(count)
+                .expected(Math.round(expected * 100) / 100.0)
+                .score(Math.round(score * 100) / 100.0)
+                .since(since)
+                .build();
+    }
+
+    private static LocalDateTime toDateTime(long millis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(millis), ZoneId.systemDefault());
+    }
+}
@@ -0,0 +1,90 @@
+package com.ufomap.api.hotspot;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Streaming hotspot detection settings ({@code ufomap.hotspots.*}).
+ */
+@Data
+@ConfigurationProperties(prefix = "ufomap.hotspots")
+public class HotspotProperties {
+
+    private boolean enabled = true;
+
+    /**
+     * Geohash length of a cell, 1 to 6 characters (4 is about 39 x 20 km).
+     */
+    private int precision = 4;
+
+    /**
+     * Counting granularity; the window slides by one bucket at a time.
+     */
+    private Duration bucket = Duration.ofMinutes(1);
+
+    /**
+     * Span over which reports are counted and compared to the baseline.
+     */
+    private Duration window = Duration.ofMinutes(15);
+
+    /**
+     * Cells counted exactly per bucket (a power of two); further cells go to the count-min sketch.
+     */
+    private int cellsPerBucket = 4096;
+
+    /**
+     * Counters per count-min sketch row (a power of two).
+     */
+    private int sketchWidth = 4096;
+
+    private int sketchDepth = 4;
+
+    /**
+     * Time after which a bucket's weight in the baseline has halved.
+     */
+    private Duration baselineHalfLife = Duration.ofDays(7);
+
+    /**
+     * Sightings that happened within this time before startup seed the baseline; older ones would
+     * weigh little after four half-lives.
+     */
+    private Duration baselineSeedWindow = Duration.ofDays(28);
+
+    /**
+     * Cells whose baseline is kept (a power of two); the least active are forgotten first.
+     */
+    private int baselineCells = 262144;
+
+    /**
+     * Floor for the expected count of a window, so cells without history need a real burst.
+     */
+    private double minExpected = 1.0;
+
+    /**
+     * Reports a cell needs in the window to be a hotspot.
+     */
+    private long minCount = 5;
+
+    /**
+     * Standard deviations above the expected count a cell needs to be a hotspot.
+     */
+    private double minScore = 4.0;
+
+    /**
+     * When a report is counted: {@code created} (as submitted, including pending ones) or
+     * {@code approved} (once moderation approves it).
+     */
+    private CountOn countOn = CountOn.CREATED;
+
+    /**
+     * How often hotspots are recomputed and alerts sent.
+     */
+    private Duration evaluateInterval = Duration.ofSeconds(10);
+
+    public enum CountOn {
+        CREATED,
+        APPROVED
+    }
+}
@@ -0,0 +1,253 @@
+package com.ufomap.api.hotspot;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Sliding-window event counts per cell (an {@code int} key), lock-free and of fixed size.
+ * <p>
+ * Time is cut into buckets kept in a ring. Each bucket has a small open-addressed table counting
+ * the first cells seen in it exactly; once a cell's probe sequence is full, its events go to the
+ * bucket's count-min sketch instead, so the long tail of rare cells costs no memory beyond the
+ * sketch and is only ever overestimated. All updates are CAS or atomic increments. A bucket slot
+ * is reset by the first writer of a new bucket; events older than the ring are dropped.
+ */
+public class WindowedCellCounter {
+
+    private static final long RESETTING = Long.MIN_VALUE;
+    private static final long EMPTY = Long.MIN_VALUE + 1;
+    private static final int MAX_PROBES = 8;
+    private static final int[] SKETCH_SEEDS = {0x9E3779B9, 0x85EBCA6B, 0xC2B2AE35, 0x27D4EB2F, 0x165667B1, 0xD3A2646C};
+
+    private final int slots;
+    private final long bucketMillis;
+    private final int capacity;
+    private final int sketchWidth;
+    private final int sketchDepth;
+
+    // Bucket epoch held by each slot, RESETTING while it is being cleared
+    private final AtomicLongArray epochs;
+    // Per slot: capacity keys (cell + 1, 0 if free) and their counts
+    private final AtomicIntegerArray keys;
+    private final AtomicIntegerArray counts;
+    // Per slot: sketchDepth rows of sketchWidth counters
+    private final AtomicIntegerArray sketch;
+
+    /**
+     * @param slots        Buckets kept; a window can span at most {@code slots - 1} of them.
+     * @param bucketMillis Length of a bucket.
+     * @param capacity     Cells counted exactly per bucket (a power of two).
+     * @param sketchWidth  Counters per sketch row (a power of two).
+     * @param sketchDepth  Sketch rows, 1 to 6.
+     */
+    public WindowedCellCounter(int slots, long bucketMillis, int capacity, int sketchWidth, int sketchDepth) {
+        if (slots < 2 || bucketMillis < 1) {
+            throw new IllegalArgumentException("At least two buckets of at least 1 ms are required");
+        }
+        if (Integer.bitCount(capacity) != 1 || Integer.bitCount(sketchWidth) != 1) {
+            throw new IllegalArgumentException("Table capacity and sketch width must be powers of two");
+        }
+        if (sketchDepth < 1 || sketchDepth > SKETCH_SEEDS.length) {
+            throw new IllegalArgumentException("Sketch depth must be between 1 and " + SKETCH_SEEDS.length);
+        }
+        this.slots = slots;
+        this.bucketMillis = bucketMillis;
+        this.capacity = capacity;
+        this.sketchWidth = sketchWidth;
+        this.sketchDepth = sketchDepth;
+        this.epochs = new AtomicLongArray(slots);
+        this.keys = new AtomicIntegerArray(slots * capacity);
+        this.counts = new AtomicIntegerArray(slots * capacity);
+        this.sketch = new AtomicIntegerArray(slots * sketchDepth * sketchWidth);
+        for (int slot = 0; slot < slots; slot++) {
+            epochs.set(slot, EMPTY);
+        }
+    }
+
+    public long epochOf(long millis) {
+        return Math.floorDiv(millis, bucketMillis);
+    }
+
+    public long getBucketMillis() {
+        return bucketMillis;
+    }
+
+    /**
+     * Counts one event for the cell at the given time.
+     *
+     * @return {@code false} if the time is older than the buckets kept and the event was dropped.
+     */
+    public boolean add(int cell, long millis) {
+        long epoch = epochOf(millis);
+        int slot = claim(epoch);
+        if (slot < 0) {
+            return false;
+        }
+        int base = slot * capacity;
+        int key = cell + 1;
+        int index = mix(cell) & (capacity - 1);
+        for (int probe = 0; probe < MAX_PROBES; probe++) {
+            int current = keys.get(base + index);
+            if (current == key || (current == 0 && (keys.compareAndSet(base + index, 0, key)
+                    || keys.get(base + index) == key))) {
+                counts.incrementAndGet(base + index);
+                return true;
+            }
+            index = (index + 1) & (capacity - 1);
+        }
+        int sketchBase = slot * sketchDepth * sketchWidth;
+        for (int row = 0; row < sketchDepth; row++) {
+            sketch.incrementAndGet(sketchBase + row * sketchWidth + sketchIndex(cell, row));
+        }
+        return true;
+    }
+
+    /**
+     * Events of the cell in the {@code buckets} buckets ending with the one containing {@code millis}.
+     * Exact for cells in the bucket tables, an overestimate for cells counted by a sketch.
+     */
+    public long count(int cell, long millis, int buckets) {
+        long last = epochOf(millis);
+        long total = 0;
+        for (long epoch = last - Math.min(buckets, slots) + 1; epoch <= last; epoch++) {
+            total += bucketCount(cell, epoch);
+        }
+        return total;
+    }
+
+    /**
+     * Events of the cell in one bucket, or 0 if the bucket is no longer (or not yet) kept.
+     */
+    public long bucketCount(int cell, long epoch) {
+        int slot = (int) Math.floorMod(epoch, (long) slots);
+        if (epochs.get(slot) != epoch) {
+            return 0;
+        }
+        int base = slot * capacity;
+        int key = cell + 1;
+        int index = mix(cell) & (capacity - 1);
+        for (int probe = 0; probe < MAX_PROBES; probe++) {
+            int current = keys.get(base + index);
+            if (current == key) {
+                return counts.get(base + index);
+            }
+            if (current == 0) {
+                return 0;
+            }
+            index = (index + 1) & (capacity - 1);
+        }
+        int sketchBase = slot * sketchDepth * sketchWidth;
+        long estimate = Long.MAX_VALUE;
+        for (int row = 0; row < sketchDepth; row++) {
+            estimate = Math.min(estimate, sketch.get(sketchBase + row * sketchWidth + sketchIndex(cell, row)));
+        }
+        return estimate;
+    }
+
+    /**
+     * Calls {@code visitor} with each cell counted exactly in the bucket (and its count), stopping
+     * when it returns {@code false}. Cells only in the sketch cannot be listed.
+     */
+    public void forEachCell(long epoch, CellVisitor visitor) {
+        int slot = (int) Math.floorMod(epoch, (long) slots);
+        if (epochs.get(slot) != epoch) {
+            return;
+        }
+        int base = slot * capacity;
+        for (int index = 0; index < capacity; index++) {
+            int key = keys.get(base + index);
+            if (key != 0 && !visitor.visit(key - 1, counts.get(base + index))) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * The distinct cells counted exactly in any of the {@code buckets} buckets ending with the one
+     * containing {@code millis}, in ascending order.
+     */
+    public int[] cellsInWindow(long millis, int buckets) {
+        long last = epochOf(millis);
+        int[] cells = new int[16];
+        int size = 0;
+        for (long epoch = last - Math.min(buckets, slots) + 1; epoch <= last; epoch++) {
+            int slot = (int) Math.floorMod(epoch, (long) slots);
+            if (epochs.get(slot) != epoch) {
+                continue;
+            }
+            for (int i = slot * capacity, end = i + capacity; i < end; i++) {
+                int key = keys.get(i);
+                if (key != 0) {
+                    if (size == cells.length) {
+                        cells = Arrays.copyOf(cells, size * 2);
+                    }
+                    cells[size++] = key - 1;
+                }
+            }
+        }
+        Arrays.sort(cells, 0, size);
+        int distinct = 0;
+        for (int i = 0; i < size; i++) {
+            if (distinct == 0 || cells[i] != cells[distinct - 1]) {
+                cells[distinct++] = cells[i];
+            }
+        }
+        return Arrays.copyOf(cells, distinct);
+    }
+
+    // The slot holding the bucket, resetting a slot left over from an older bucket; -1 if the bucket is gone
+    private int claim(long epoch) {
+        int slot = (int) Math.floorMod(epoch, (long) slots);
+        while (true) {
+            long current = epochs.get(slot);
+            if (current == epoch) {
+                return slot;
+            }
+            if (current != RESETTING) {
+                if (current > epoch) {
+                    return -1;
+                }
+                if (epochs.compareAndSet(slot, current, RESETTING)) {
+                    clear(slot);
+                    epochs.set(slot, epoch);
+                    return slot;
+                }
+            }
+            Thread.onSpinWait();
+        }
+    }
+
+    private void clear(int slot) {
+        for (int i = slot * capacity, end = i + capacity; i < end; i++) {
+            keys.set(i, 0);
+            counts.set(i, 0);
+        }
+        for (int i = slot * sketchDepth * sketchWidth, end = i + sketchDepth * sketchWidth; i < end; i++) {
+            sketch.set(i, 0);
+        }
+    }
+
+    private int sketchIndex(int cell, int row) {
+        return mix(cell ^ SKETCH_SEEDS[row]) & (sketchWidth - 1);
+    }
+
+    // Murmur3 finalizer
+    private static int mix(int value) {
+        value ^= value >>> 16;
+        value *= 0x85EBCA6B;
+        value ^= value >>> 13;
+        value *= 0xC2B2AE35;
+        value ^= value >>> 16;
+        return value;
+    }
+
+    @FunctionalInterface
+    public interface CellVisitor {
+
+        /**
+         * @return {@code false} to stop.
+         */
+        boolean visit(int cell, long count);
+    }
+}
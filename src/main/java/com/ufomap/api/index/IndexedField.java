@@ -0,0 +1,45 @@
+package com.ufomap.api.index;
+
+import com.ufomap.api.dto.SightingDTO;
+import com.ufomap.api.model.SubmissionStatus;
+import com.ufomap.api.repository.SightingIndexRow;
+
+import java.util.function.Function;
+
+/**
+ * Low-cardinality sighting fields kept in the {@link SightingBitmapIndex}.
+ */
+public enum IndexedField {
+    SHAPE("shape", SightingIndexRow::getShape, SightingDTO::getShape),
+    COUNTRY("country", SightingIndexRow::getCountry, SightingDTO::getCountry),
+    STATE("state", SightingIndexRow::getState, SightingDTO::getState),
+    SUBMISSION_STATUS("submissionStatus",
+            row -> statusName(row.getSubmissionStatus()),
+            sighting -> statusName(sighting.getSubmissionStatus()));
+
+    private final String facetName;
+    private final Function<SightingIndexRow, String> rowValue;
+    private final Function<SightingDTO, String> dtoValue;
+
+    IndexedField(String facetName, Function<SightingIndexRow, String> rowValue, Function<SightingDTO, String> dtoValue) {
+        this.facetName = facetName;
+        this.rowValue = rowValue;
+        this.dtoValue = dtoValue;
+    }
+
+    public String getFacetName() {
+        return facetName;
+    }
+
+    String valueOf(SightingIndexRow row) {
+        return rowValue.apply(row);
+    }
+
+    String valueOf(SightingDTO sighting) {
+        return dtoValue.apply(sighting);
+    }
+
+    private static String statusName(SubmissionStatus status) {
+        return status == null ? null : status.getStatus();
+    }
+}
@@ -0,0 +1,333 @@
+package com.ufomap.api.index;
+
+import com.ufomap.api.archive.SightingArchive;
+import com.ufomap.api.dto.SightingDTO;
+import com.ufomap.api.event.SightingChangedEvent;
+import com.ufomap.api.event.SightingsResyncEvent;
+import com.ufomap.api.event.SightingsStatusChangedEvent;
+import com.ufomap.api.repository.SightingIndexRow;
+import com.ufomap.api.repository.SightingRepository;
+import org.roaringbitmap.RoaringBitmap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+/**
+ * In-memory compressed bitmap index (RoaringBitmap) over the low-cardinality fields in
+ * {@link IndexedField}: one bitmap of sighting ids per distinct (case-insensitive) value.
+ * <p>
+ * Equality filters on these fields become bitmap ANDs, and facet counts for any result set are
+ * intersection cardinalities, so neither needs a table scan or a GROUP BY.
+ * The index is built once the application is ready and kept current from {@link SightingChangedEvent}s.
+ * Sighting ids are stored as ints; if an id ever exceeds {@code Integer.MAX_VALUE} the index
+ * disables itself and callers fall back to SQL.
+ */
+@Component
+public class SightingBitmapIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(SightingBitmapIndex.class);
+
+    private final SightingRepository sightingRepository;
+    private final SightingArchive archive;
+    private final boolean enabled;
+    private final int batchSize;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+    // Guarded by lock
+    private Bitmaps current = new Bitmaps();
+    // Changes made while a rebuild scans, replayed onto the new bitmaps before they are swapped in; guarded by lock
+    private List<Consumer<Bitmaps>> pending;
+    private volatile boolean ready;
+
+    public SightingBitmapIndex(SightingRepository sightingRepository,
+                               SightingArchive archive,
+                               @Value("${ufomap.bitmap-index.enabled:true}") boolean enabled,
+                               @Value("${ufomap.bitmap-index.batch-size:10000}") int batchSize) {
+        this.sightingRepository = sightingRepository;
+        this.archive = archive;
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Scans the table and the archive into new bitmaps without blocking readers or writers, then
+     * swaps them in. Changes that arrive during the scan are applied to the old bitmaps as usual
+     * and replayed onto the new ones under the write lock, so none is lost.
+     */
+    @EventListener({ApplicationReadyEvent.class, SightingsResyncEvent.class})
+    public void rebuild() {
+        if (!enabled) {
+            return;
+        }
+        rebuildLock.lock();
+        try {
+            long start = System.currentTimeMillis();
+            lock.writeLock().lock();
+            try {
+                pending = new ArrayList<>();
+            } finally {
+                lock.writeLock().unlock();
+            }
+
+            Bitmaps rebuilt = scan();
+
+            lock.writeLock().lock();
+            try {
+                List<Consumer<Bitmaps>> changes = pending;
+                pending = null;
+                if (rebuilt == null) {
+                    ready = false;
+                    return;
+                }
+                changes.forEach(change -> change.accept(rebuilt));
+                current = rebuilt;
+                ready = true;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            logger.info("Bitmap index built: {} sightings, {} ms", rebuilt.allIds.getLongCardinality(),
+                    System.currentTimeMillis() - start);
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    // Null if an id does not fit
+    private Bitmaps scan() {
+        Bitmaps scanned = new Bitmaps();
+        long lastId = 0;
+        List<SightingIndexRow> batch;
+        do {
+            batch = sightingRepository.findIndexRowsAfter(lastId, PageRequest.of(0, batchSize));
+            for (SightingIndexRow row : batch) {
+                if (!scanned.addRow(row)) {
+                    return null;
+                }
+                lastId = row.getId();
+            }
+        } while (batch.size() == batchSize);
+        // Archived sightings are still sightings; the read source merges them back in by id
+        boolean[] fits = {true};
+        archive.forEachIndexRow(row -> fits[0] = fits[0] && scanned.addRow(row));
+        if (!fits[0]) {
+            return null;
+        }
+
+        scanned.allIds.runOptimize();
+        scanned.bitmaps.values().forEach(values -> values.values().forEach(RoaringBitmap::runOptimize));
+        return scanned;
+    }
+
+    /**
+     * Ids of all sightings whose indexed fields equal the given values (case-insensitive);
+     * {@code null} values do not filter.
+     */
+    public RoaringBitmap match(String shape, String country, String state) {
+        Map<IndexedField, String> criteria = new EnumMap<>(IndexedField.class);
+        if (shape != null) {
+            criteria.put(IndexedField.SHAPE, shape);
+        }
+        if (country != null) {
+            criteria.put(IndexedField.COUNTRY, country);
+        }
+        if (state != null) {
+            criteria.put(IndexedField.STATE, state);
+        }
+        return match(criteria);
+    }
+
+    /**
+     * AND of the bitmaps of every criterion.
+     */
+    public RoaringBitmap match(Map<IndexedField, String> criteria) {
+        lock.readLock().lock();
+        try {
+            RoaringBitmap result = current.allIds.clone();
+            for (Map.Entry<IndexedField, String> criterion : criteria.entrySet()) {
+                RoaringBitmap values = current.bitmaps.get(criterion.getKey()).get(normalize(criterion.getValue()));
+                if (values == null) {
+                    return new RoaringBitmap();
+                }
+                result.and(values);
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Counts per distinct value of each requested field within {@code result}, highest count first.
+     * Values that do not occur in the result are omitted.
+     */
+    public Map<String, Map<String, Integer>> facets(RoaringBitmap result, IndexedField... fields) {
+        Map<String, Map<String, Integer>> facets = new LinkedHashMap<>();
+        lock.readLock().lock();
+        try {
+            for (IndexedField field : fields) {
+                Map<String, String> names = current.displayNames.get(field);
+                Map<String, Integer> counts = new LinkedHashMap<>();
+                current.bitmaps.get(field).entrySet().stream()
+                        .map(entry -> Map.entry(names.get(entry.getKey()),
+                                RoaringBitmap.andCardinality(result, entry.getValue())))
+                        .filter(entry -> entry.getValue() > 0)
+                        .sorted(Map.Entry.<String, Integer>comparingByValue().reversed())
+                        .forEachOrdered(entry -> counts.put(entry.getKey(), entry.getValue()));
+                facets.put(field.getFacetName(), counts);
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return facets;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true) // After commit, like the bulk status change
+    public void onSightingChanged(SightingChangedEvent event) {
+        if (!enabled) {
+            return;
+        }
+        apply(event.previous(), event.current());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true) // After the bulk UPDATE has committed
+    public void onSightingsStatusChanged(SightingsStatusChangedEvent event) {
+        if (!enabled || event.sightingIds().isEmpty()) {
+            return;
+        }
+        RoaringBitmap changed = new RoaringBitmap();
+        for (Long id : event.sightingIds()) {
+            if (id <= Integer.MAX_VALUE) {
+                changed.add(id.intValue());
+            }
+        }
+        change(bitmaps -> bitmaps.setStatus(changed, event.status().getStatus()));
+    }
+
+    /**
+     * Moves a sighting from the bitmaps of its previous values to those of its current values.
+     */
+    public void apply(SightingDTO previous, SightingDTO current) {
+        Long sightingId = current != null ? current.getId() : previous.getId();
+        if (sightingId > Integer.MAX_VALUE) {
+            logger.warn("Sighting id {} does not fit the bitmap index; index disabled", sightingId);
+            ready = false;
+            return;
+        }
+        int id = sightingId.intValue();
+        change(bitmaps -> bitmaps.move(id, previous, current));
+    }
+
+    private void change(Consumer<Bitmaps> change) {
+        lock.writeLock().lock();
+        try {
+            change.accept(current);
+            if (pending != null) {
+                pending.add(change);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private static String normalize(String value) {
+        return value.toLowerCase(Locale.ROOT);
+    }
+
+    // One bitmap of ids per distinct value of each field, and the ids of all indexed sightings
+    private static final class Bitmaps {
+        private final Map<IndexedField, Map<String, RoaringBitmap>> bitmaps = new EnumMap<>(IndexedField.class);
+        private final Map<IndexedField, Map<String, String>> displayNames = new EnumMap<>(IndexedField.class);
+        private final RoaringBitmap allIds = new RoaringBitmap();
+
+        Bitmaps() {
+            for (IndexedField field : IndexedField.values()) {
+                bitmaps.put(field, new HashMap<>());
+                displayNames.put(field, new HashMap<>());
+            }
+        }
+
+        boolean addRow(SightingIndexRow row) {
+            if (row.getId() > Integer.MAX_VALUE) {
+                logger.warn("Sighting id {} does not fit the bitmap index; index disabled", row.getId());
+                return false;
+            }
+            int id = row.getId().intValue();
+            allIds.add(id);
+            for (IndexedField field : IndexedField.values()) {
+                add(field, field.valueOf(row), id);
+            }
+            return true;
+        }
+
+        void move(int id, SightingDTO previous, SightingDTO current) {
+            for (IndexedField field : IndexedField.values()) {
+                if (previous != null) {
+                    remove(field, field.valueOf(previous), id);
+                }
+                if (current != null) {
+                    add(field, field.valueOf(current), id);
+                }
+            }
+            if (current != null) {
+                allIds.add(id);
+            } else {
+                allIds.remove(id);
+            }
+        }
+
+        void setStatus(RoaringBitmap ids, String status) {
+            Map<String, RoaringBitmap> statuses = bitmaps.get(IndexedField.SUBMISSION_STATUS);
+            statuses.values().forEach(bitmap -> bitmap.andNot(ids));
+            String key = normalize(status);
+            statuses.computeIfAbsent(key, k -> new RoaringBitmap()).or(ids);
+            displayNames.get(IndexedField.SUBMISSION_STATUS).putIfAbsent(key, status);
+            statuses.entrySet().removeIf(entry -> entry.getValue().isEmpty());
+            displayNames.get(IndexedField.SUBMISSION_STATUS).keySet().retainAll(statuses.keySet());
+        }
+
+        private void add(IndexedField field, String value, int id) {
+            if (value == null) {
+                return;
+            }
+            String key = normalize(value);
+            bitmaps.get(field).computeIfAbsent(key, k -> new RoaringBitmap()).add(id);
+            displayNames.get(field).putIfAbsent(key, value);
+        }
+
+        private void remove(IndexedField field, String value, int id) {
+            if (value == null) {
+                return;
+            }
+            String key = normalize(value);
+            RoaringBitmap bitmap = bitmaps.get(field).get(key);
+            if (bitmap != null) {
+                bitmap.remove(id);
+                if (bitmap.isEmpty()) {
+                    bitmaps.get(field).remove(key);
+                    displayNames.get(field).remove(key);
+                }
+            }
+        }
+    }
+}
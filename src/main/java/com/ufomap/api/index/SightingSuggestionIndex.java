@@ -0,0 +1,143 @@
+package com.ufomap.api.index;
+
+import com.ufomap.api.dto.SightingDTO;
+import com.ufomap.api.dto.SuggestionDTO;
+import com.ufomap.api.event.SightingChangedEvent;
+import com.ufomap.api.event.SightingsResyncEvent;
+import com.ufomap.api.repository.SightingRepository;
+import com.ufomap.api.repository.ValueCount;
+import com.ufomap.api.snapshot.SnapshotSightingReadSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory autocomplete index: one {@link WeightedRadixTrie} per {@link SuggestField} holding
+ * every distinct (case-insensitive) value weighted by its number of sightings.
+ * <p>
+ * Built from GROUP BY counts once the application is ready and kept current from
+ * {@link SightingChangedEvent}s, so serving a suggestion never touches the database. In the
+ * {@code snapshot} profile the counts come from the snapshot instead.
+ */
+@Component
+public class SightingSuggestionIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(SightingSuggestionIndex.class);
+
+    private final SightingRepository sightingRepository;
+    private final SnapshotSightingReadSource snapshotSource;
+    private final boolean enabled;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<SuggestField, WeightedRadixTrie> tries = new EnumMap<>(SuggestField.class);
+    private volatile boolean ready;
+
+    public SightingSuggestionIndex(SightingRepository sightingRepository,
+                                   ObjectProvider<SnapshotSightingReadSource> snapshotSource,
+                                   @Value("${ufomap.suggest-index.enabled:true}") boolean enabled) {
+        this.sightingRepository = sightingRepository;
+        this.snapshotSource = snapshotSource.getIfAvailable();
+        this.enabled = enabled;
+        for (SuggestField field : SuggestField.values()) {
+            tries.put(field, new WeightedRadixTrie());
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    @EventListener({ApplicationReadyEvent.class, SightingsResyncEvent.class})
+    public void rebuild() {
+        if (!enabled) {
+            return;
+        }
+        long start = System.currentTimeMillis();
+        Map<SuggestField, WeightedRadixTrie> rebuilt = new EnumMap<>(SuggestField.class);
+        for (SuggestField field : SuggestField.values()) {
+            WeightedRadixTrie trie = new WeightedRadixTrie();
+            List<ValueCount> counts = snapshotSource != null
+                    ? snapshotSource.countValues(field.parameterName())
+                    : field.loadCounts(sightingRepository);
+            for (ValueCount valueCount : counts) {
+                String value = valueCount.getValue().trim();
+                trie.add(SuggestField.normalize(value), value, valueCount.getCount());
+            }
+            rebuilt.put(field, trie);
+        }
+
+        lock.writeLock().lock();
+        try {
+            tries.putAll(rebuilt);
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        logger.info("Suggestion index built: {} cities, {} states, {} countries, {} shapes, {} ms",
+                rebuilt.get(SuggestField.CITY).size(), rebuilt.get(SuggestField.STATE).size(),
+                rebuilt.get(SuggestField.COUNTRY).size(), rebuilt.get(SuggestField.SHAPE).size(),
+                System.currentTimeMillis() - start);
+    }
+
+    /**
+     * The most frequent values of {@code field} starting with {@code prefix} (case-insensitive),
+     * highest sighting count first. Empty until the index has been built.
+     */
+    public List<SuggestionDTO> suggest(SuggestField field, String prefix, int limit) {
+        if (!ready) {
+            return Collections.emptyList();
+        }
+        String key = prefix == null ? "" : SuggestField.normalize(prefix);
+        lock.readLock().lock();
+        try {
+            return tries.get(field).topK(key, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true) // After commit, so a rolled-back change is never counted
+    public void onSightingChanged(SightingChangedEvent event) {
+        if (!enabled) {
+            return;
+        }
+        apply(event.previous(), event.current());
+    }
+
+    /**
+     * Moves one sighting's weight from its previous values to its current values.
+     */
+    public void apply(SightingDTO previous, SightingDTO current) {
+        lock.writeLock().lock();
+        try {
+            for (SuggestField field : SuggestField.values()) {
+                String before = previous != null ? field.valueOf(previous) : null;
+                String after = current != null ? field.valueOf(current) : null;
+                if (Objects.equals(before, after)) {
+                    continue;
+                }
+                WeightedRadixTrie trie = tries.get(field);
+                if (before != null && !before.isBlank()) {
+                    trie.add(SuggestField.normalize(before), before.trim(), -1);
+                }
+                if (after != null && !after.isBlank()) {
+                    trie.add(SuggestField.normalize(after), after.trim(), 1);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+}
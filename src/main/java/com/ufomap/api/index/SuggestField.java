@@ -0,0 +1,64 @@
+package com.ufomap.api.index;
+
+import com.ufomap.api.dto.SightingDTO;
+import com.ufomap.api.repository.SightingRepository;
+import com.ufomap.api.repository.ValueCount;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.function.Function;
+
+/**
+ * Sighting fields offered by the autocomplete {@link SightingSuggestionIndex}.
+ */
+public enum SuggestField {
+    CITY("city", SightingDTO::getCity, SightingRepository::countByCity),
+    STATE("state", SightingDTO::getState, SightingRepository::countByState),
+    COUNTRY("country", SightingDTO::getCountry, SightingRepository::countByCountry),
+    SHAPE("shape", SightingDTO::getShape, SightingRepository::countByShape);
+
+    private final String parameterName;
+    private final Function<SightingDTO, String> dtoValue;
+    private final Function<SightingRepository, List<ValueCount>> counts;
+
+    SuggestField(String parameterName, Function<SightingDTO, String> dtoValue,
+                 Function<SightingRepository, List<ValueCount>> counts) {
+        this.parameterName = parameterName;
+        this.dtoValue = dtoValue;
+        this.counts = counts;
+    }
+
+    /**
+     * Resolves the {@code field} request parameter.
+     *
+     * @throws IllegalArgumentException if the name is not a suggestable field.
+     */
+    public static SuggestField fromParameter(String name) {
+        for (SuggestField field : values()) {
+            if (field.parameterName.equalsIgnoreCase(name)) {
+                return field;
+            }
+        }
+        throw new IllegalArgumentException("Unknown suggest field: " + name
+                + " (expected city, state, country or shape)");
+    }
+
+    /**
+     * Name of the request parameter value, which is also the sighting property.
+     */
+    String parameterName() {
+        return parameterName;
+    }
+
+    String valueOf(SightingDTO sighting) {
+        return dtoValue.apply(sighting);
+    }
+
+    List<ValueCount> loadCounts(SightingRepository repository) {
+        return counts.apply(repository);
+    }
+
+    static String normalize(String value) {
+        return value.trim().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,219 @@
+package com.ufomap.api.index;
+
+import com.ufomap.api.dto.SuggestionDTO;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Compressed (radix) trie of string values weighted by count, answering "top k values starting
+ * with this prefix" without visiting the whole subtree.
+ * <p>
+ * Each node stores the maximum weight found below it, so a best-first search can emit results in
+ * descending weight order and stop after {@code k}. Edges carry whole label fragments and nodes
+ * with a single child and no value are merged, keeping the node count close to the number of
+ * distinct values. Not thread-safe; callers synchronize.
+ */
+final class WeightedRadixTrie {
+
+    private static final Node[] NO_CHILDREN = new Node[0];
+
+    private static final class Node {
+        String label;
+        Node[] children = NO_CHILDREN; // Sorted by first character of the label
+        long count;
+        String display; // Original spelling of the value ending here
+        long maxWeight;
+
+        Node(String label) {
+            this.label = label;
+        }
+    }
+
+    private record Candidate(long weight, Node node, boolean terminal) {
+    }
+
+    private final Node root = new Node("");
+    private int size;
+
+    /**
+     * Number of distinct values with a positive count.
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * Adds {@code delta} (may be negative) to the count of {@code key}. Values whose count drops
+     * to zero are removed.
+     */
+    void add(String key, String display, long delta) {
+        if (key.isEmpty() || delta == 0) {
+            return;
+        }
+        Deque<Node> path = new ArrayDeque<>();
+        Node node = root;
+        path.push(node);
+        String rest = key;
+        while (!rest.isEmpty()) {
+            int index = childIndex(node, rest.charAt(0));
+            if (index < 0) {
+                if (delta < 0) {
+                    return; // Nothing to decrement
+                }
+                Node leaf = new Node(rest);
+                insertChild(node, -(index + 1), leaf);
+                node = leaf;
+                path.push(node);
+                break;
+            }
+
+            Node child = node.children[index];
+            int common = commonPrefixLength(child.label, rest);
+            if (common < child.label.length()) {
+                if (delta < 0) {
+                    return;
+                }
+                // Split the edge: node -> middle(label[0, common)) -> child(label[common, ...))
+                Node middle = new Node(child.label.substring(0, common));
+                child.label = child.label.substring(common);
+                middle.children = new Node[]{child};
+                middle.maxWeight = child.maxWeight;
+                node.children[index] = middle;
+                child = middle;
+            }
+            node = child;
+            path.push(node);
+            rest = rest.substring(common);
+        }
+
+        long before = node.count;
+        node.count = Math.max(0, node.count + delta);
+        if (before == 0 && node.count > 0) {
+            size++;
+            node.display = display;
+        } else if (before > 0 && node.count == 0) {
+            size--;
+            node.display = null;
+        }
+
+        // Walk back up: drop emptied leaves, merge pass-through nodes, refresh max weights
+        Node below = null;
+        while (!path.isEmpty()) {
+            Node current = path.pop();
+            if (below != null && below.count == 0 && below.children.length == 0) {
+                removeChild(current, below);
+            }
+            if (current != root && current.count == 0 && current.children.length == 1) {
+                Node only = current.children[0];
+                current.label = current.label + only.label;
+                current.children = only.children;
+                current.count = only.count;
+                current.display = only.display;
+            }
+            long max = current.count;
+            for (Node child : current.children) {
+                max = Math.max(max, child.maxWeight);
+            }
+            current.maxWeight = max;
+            below = current;
+        }
+    }
+
+    /**
+     * The {@code limit} values with the highest counts that start with {@code prefix}
+     * (an empty prefix matches everything), highest count first.
+     */
+    List<SuggestionDTO> topK(String prefix, int limit) {
+        Node node = root;
+        String rest = prefix;
+        while (!rest.isEmpty()) {
+            int index = childIndex(node, rest.charAt(0));
+            if (index < 0) {
+                return Collections.emptyList();
+            }
+            Node child = node.children[index];
+            int common = commonPrefixLength(child.label, rest);
+            if (common == rest.length()) {
+                node = child; // The prefix ends on or inside this edge
+                break;
+            }
+            if (common < child.label.length()) {
+                return Collections.emptyList();
+            }
+            node = child;
+            rest = rest.substring(common);
+        }
+
+        List<SuggestionDTO> results = new ArrayList<>(limit);
+        PriorityQueue<Candidate> queue = new PriorityQueue<>(
+                Comparator.comparingLong(Candidate::weight).reversed());
+        if (node.maxWeight > 0) {
+            queue.add(new Candidate(node.maxWeight, node, false));
+        }
+        while (!queue.isEmpty() && results.size() < limit) {
+            Candidate candidate = queue.poll();
+            Node current = candidate.node();
+            if (candidate.terminal()) {
+                results.add(new SuggestionDTO(current.display, current.count));
+                continue;
+            }
+            if (current.count > 0) {
+                queue.add(new Candidate(current.count, current, true));
+            }
+            for (Node child : current.children) {
+                if (child.maxWeight > 0) {
+                    queue.add(new Candidate(child.maxWeight, child, false));
+                }
+            }
+        }
+        return results;
+    }
+
+    private static int childIndex(Node node, char first) {
+        int low = 0;
+        int high = node.children.length - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            char midFirst = node.children[mid].label.charAt(0);
+            if (midFirst < first) {
+                low = mid + 1;
+            } else if (midFirst > first) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -(low + 1);
+    }
+
+    private static void insertChild(Node node, int position, Node child) {
+        Node[] children = new Node[node.children.length + 1];
+        System.arraycopy(node.children, 0, children, 0, position);
+        children[position] = child;
+        System.arraycopy(node.children, position, children, position + 1, node.children.length - position);
+        node.children = children;
+    }
+
+    private static void removeChild(Node node, Node child) {
+        int position = childIndex(node, child.label.charAt(0));
+        Node[] children = new Node[node.children.length - 1];
+        System.arraycopy(node.children, 0, children, 0, position);
+        System.arraycopy(node.children, position + 1, children, position, children.length - position);
+        node.children = children;
+    }
+
+    private static int commonPrefixLength(String a, String b) {
+        int max = Math.min(a.length(), b.length());
+        int i = 0;
+        while (i < max && a.charAt(i) == b.charAt(i)) {
+            i++;
+        }
+        return i;
+    }
+}
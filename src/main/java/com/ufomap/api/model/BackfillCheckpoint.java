@@ -0,0 +1,53 @@
+package com.ufomap.api.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Progress of a background backfill job. Saved in the same transaction as each chunk's writes,
+ * so after a restart the job resumes right after the last committed chunk.
+ */
+@Entity
+@Table(name = "backfill_checkpoints")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BackfillCheckpoint {
+
+    public enum Status {
+        RUNNING,
+        PAUSED,
+        COMPLETED,
+        FAILED
+    }
+
+    @Id
+    @Column(length = 64)
+    private String jobName;
+
+    @Enumerated(EnumType.STRING)
+    @Column(length = 16, nullable = false)
+    private Status status;
+
+    // Highest sighting id processed; the next chunk starts after it
+    private long lastId;
+
+    private long rowsProcessed;
+
+    private long rowsUpdated;
+
+    private LocalDateTime startedAt;
+
+    private LocalDateTime updatedAt;
+
+    private LocalDateTime completedAt;
+
+    @Column(length = 500)
+    private String lastError;
+}
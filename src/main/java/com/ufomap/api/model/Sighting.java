@@ -9,7 +9,11 @@ import lombok.NoArgsConstructor;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "sightings")
+@Table(name = "sightings", indexes = {
+        @Index(name = "idx_sightings_duration_seconds", columnList = "durationSeconds"),
+        @Index(name = "idx_sightings_posted_at", columnList = "postedAt"),
+        @Index(name = "idx_sightings_date_time", columnList = "dateTime, id")
+})
 @Data
 @Builder
 @NoArgsConstructor
@@ -50,5 +54,24 @@ public class Sighting {
 
     private boolean userSubmitted;
 
-    private String submissionStatus; // "pending", "approved", "rejected"
-}
\ No newline at end of file
+    @Convert(converter = SubmissionStatusConverter.class)
+    private SubmissionStatus submissionStatus;
+
+    // Moderation queue lease: who is reviewing this pending sighting, and until when
+    @Column(length = 100)
+    private String claimedBy;
+
+    private LocalDateTime claimExpiresAt;
+
+    // Typed copies of the free-text columns, see SightingDerivedColumns.
+    // Rows written before these existed are filled in by the derived-columns backfill job.
+    private Long durationSeconds;
+
+    private LocalDateTime postedAt;
+
+    @PrePersist
+    @PreUpdate
+    void deriveColumns() {
+        SightingDerivedColumns.apply(this);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,51 @@
+package com.ufomap.api.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Change log (outbox) row for the cross-instance change bus. The sequence number orders changes
+ * and serves as their version; instances catch up by reading rows after the last one they applied.
+ */
+@Entity
+@Table(name = "sighting_changes", indexes = @Index(name = "idx_sighting_changes_created_at", columnList = "createdAt"))
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SightingChange {
+
+    public enum Kind {
+        CREATED,
+        UPDATED,
+        STATUS_CHANGED,
+        BULK_STATUS_CHANGED
+    }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long seq;
+
+    // Instance that made the change; it skips its own rows when catching up
+    @Column(length = 64, nullable = false)
+    private String origin;
+
+    @Enumerated(EnumType.STRING)
+    @Column(length = 32, nullable = false)
+    private Kind kind;
+
+    // Null for bulk changes, whose ids are in the payload
+    private Long sightingId;
+
+    // JSON: previous/current sighting, or ids and status for bulk changes
+    @Column(columnDefinition = "TEXT", nullable = false)
+    private String payload;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+}
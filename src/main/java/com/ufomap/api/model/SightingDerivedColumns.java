@@ -0,0 +1,128 @@
+package com.ufomap.api.model;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeFormatterBuilder;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoField;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Computes the typed columns of a {@link Sighting} that are derived from its free-text ones:
+ * the duration in seconds and the posted timestamp.
+ * New and updated sightings get them from the entity's lifecycle callback; existing rows are
+ * filled in by the {@code derived-columns} backfill job.
+ */
+public final class SightingDerivedColumns {
+
+    private static final Map<String, Double> NUMBER_WORDS = Map.ofEntries(
+            Map.entry("a", 1.0), Map.entry("an", 1.0), Map.entry("one", 1.0), Map.entry("two", 2.0),
+            Map.entry("three", 3.0), Map.entry("four", 4.0), Map.entry("five", 5.0), Map.entry("ten", 10.0),
+            Map.entry("fifteen", 15.0), Map.entry("twenty", 20.0), Map.entry("thirty", 30.0),
+            Map.entry("couple", 2.0), Map.entry("couple of", 2.0), Map.entry("few", 3.0), Map.entry("several", 5.0));
+
+    private static final String NUMBER = "(\\d+(?:\\.\\d+)?|couple of|couple|few|several|fifteen|twenty|thirty"
+            + "|one|two|three|four|five|ten|an|a)";
+
+    // "10 minutes", "5-10 min", "2 to 3 hrs", "a few seconds", "30s"
+    private static final Pattern DURATION = Pattern.compile(
+            "\\b" + NUMBER + "(?:\\s*(?:-|to)\\s*" + NUMBER + ")?\\s*"
+                    + "(seconds?|secs?|s|minutes?|mins?|m|hours?|hrs?|h|days?|d)\\b");
+
+    private static final Pattern HALF_HOUR = Pattern.compile("\\bhalf\\s+(?:an\\s+)?hour\\b");
+
+    private static final List<DateTimeFormatter> POSTED_DATE_TIMES = List.of(
+            DateTimeFormatter.ISO_LOCAL_DATE_TIME,
+            DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm[:ss]", Locale.ROOT));
+
+    // NUFORC-style "4/16/24" dates: two-digit years fall in 1950-2049
+    private static final List<DateTimeFormatter> POSTED_DATES = List.of(
+            DateTimeFormatter.ISO_LOCAL_DATE,
+            DateTimeFormatter.ofPattern("M/d/yyyy", Locale.ROOT),
+            new DateTimeFormatterBuilder()
+                    .appendPattern("M/d/")
+                    .appendValueReduced(ChronoField.YEAR, 2, 2, 1950)
+                    .toFormatter(Locale.ROOT));
+
+    private SightingDerivedColumns() {
+    }
+
+    /**
+     * Sets the derived columns of a sighting from its current free-text values.
+     */
+    public static void apply(Sighting sighting) {
+        sighting.setDurationSeconds(durationSeconds(sighting.getDuration()));
+        sighting.setPostedAt(postedAt(sighting.getPosted()));
+    }
+
+    /**
+     * Parses a free-text duration such as "10 minutes" or "5-10 min" into seconds.
+     * A range counts as its midpoint.
+     *
+     * @return The duration in seconds, or null if no amount with a unit is found.
+     */
+    public static Long durationSeconds(String duration) {
+        if (duration == null || duration.isBlank()) {
+            return null;
+        }
+        String text = duration.toLowerCase(Locale.ROOT);
+        if (HALF_HOUR.matcher(text).find()) {
+            return 1800L;
+        }
+        Matcher matcher = DURATION.matcher(text);
+        if (!matcher.find()) {
+            return null;
+        }
+        double amount = amount(matcher.group(1));
+        if (matcher.group(2) != null) {
+            amount = (amount + amount(matcher.group(2))) / 2;
+        }
+        return Math.round(amount * unitSeconds(matcher.group(3)));
+    }
+
+    /**
+     * Parses the posted text, either an ISO timestamp or a date (taken as the start of that day).
+     *
+     * @return The posted time, or null if the text is in none of the known formats.
+     */
+    public static LocalDateTime postedAt(String posted) {
+        if (posted == null || posted.isBlank()) {
+            return null;
+        }
+        String text = posted.trim();
+        for (DateTimeFormatter formatter : POSTED_DATE_TIMES) {
+            try {
+                return LocalDateTime.parse(text, formatter);
+            } catch (DateTimeParseException ignored) {
+                // try the next format
+            }
+        }
+        for (DateTimeFormatter formatter : POSTED_DATES) {
+            try {
+                return LocalDate.parse(text, formatter).atStartOfDay();
+            } catch (DateTimeParseException ignored) {
+                // try the next format
+            }
+        }
+        return null;
+    }
+
+    private static double amount(String token) {
+        Double word = NUMBER_WORDS.get(token);
+        return word != null ? word : Double.parseDouble(token);
+    }
+
+    private static long unitSeconds(String unit) {
+        return switch (unit.charAt(0)) {
+            case 's' -> 1;
+            case 'm' -> 60;
+            case 'h' -> 3600;
+            default -> 86400;
+        };
+    }
+}
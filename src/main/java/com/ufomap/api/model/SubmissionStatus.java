@@ -1,5 +1,8 @@
 package com.ufomap.api.model;
 
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonValue;
+
 public enum SubmissionStatus {
     PENDING("pending"),
     APPROVED("approved"),
@@ -11,10 +14,12 @@ public enum SubmissionStatus {
         this.status = status;
     }
 
+    @JsonValue // Keeps the lowercase wire format ("pending", "approved", "rejected")
     public String getStatus() {
         return status;
     }
 
+    @JsonCreator
     public static SubmissionStatus fromString(String status) {
         for (SubmissionStatus submissionStatus : SubmissionStatus.values()) {
             if (submissionStatus.status.equalsIgnoreCase(status)) {
@@ -0,0 +1,21 @@
+package com.ufomap.api.model;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+/**
+ * Stores {@link SubmissionStatus} as its lowercase name, the format the column has always used.
+ */
+@Converter
+public class SubmissionStatusConverter implements AttributeConverter<SubmissionStatus, String> {
+
+    @Override
+    public String convertToDatabaseColumn(SubmissionStatus status) {
+        return status == null ? null : status.getStatus();
+    }
+
+    @Override
+    public SubmissionStatus convertToEntityAttribute(String status) {
+        return status == null ? null : SubmissionStatus.fromString(status);
+    }
+}
@@ -0,0 +1,40 @@
+package com.ufomap.api.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+import java.util.function.Supplier;
+import java.util.function.ToIntFunction;
+
+/**
+ * Conversion of a batch of {@link com.ufomap.api.model.Sighting} entities to DTOs.
+ */
+@Name("com.ufomap.DtoConversion")
+@Label("DTO Conversion")
+@Category({"UFO Map", "Service"})
+public class DtoConversionEvent extends Event {
+
+    @Label("Count")
+    int count;
+
+    /**
+     * Runs {@code conversion} as one event; a conversion that throws is recorded with a count of 0.
+     */
+    public static <T> T timed(ToIntFunction<? super T> count, Supplier<T> conversion) {
+        DtoConversionEvent event = new DtoConversionEvent();
+        event.begin();
+        T converted = null;
+        try {
+            converted = conversion.get();
+            return converted;
+        } finally {
+            event.end();
+            if (event.shouldCommit()) {
+                event.count = converted == null ? 0 : count.applyAsInt(converted);
+                event.commit();
+            }
+        }
+    }
+}
@@ -0,0 +1,271 @@
+package com.ufomap.api.profiling;
+
+import com.ufomap.api.dto.JfrRecordingDTO;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.Configuration;
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * JDK Flight Recorder recordings of this instance.
+ * <ul>
+ *   <li>A continuous recording with the low-overhead {@code default} settings, kept as a ring
+ *       buffer of {@code max-age} / {@code max-size}. The custom events are recorded only above
+ *       {@code event-threshold}. {@link #dumpContinuous} writes it to a file, e.g. on an SLO breach.</li>
+ *   <li>On-demand recordings of at most {@code max-duration}, started, stopped and downloaded through
+ *       {@link JfrEndpoint}. They use the {@code profile} settings and record every custom event.</li>
+ * </ul>
+ * Files are written to {@code ufomap.jfr.path}; at most {@code max-dumps} breach dumps are kept.
+ */
+@Component
+public class FlightRecordings {
+
+    private static final Logger logger = LoggerFactory.getLogger(FlightRecordings.class);
+
+    private static final String CONTINUOUS = "continuous";
+    private static final String ON_DEMAND = "on-demand";
+    private static final String BREACH_PREFIX = "slo-breach-";
+    private static final int MAX_ON_DEMAND = 4;
+    private static final DateTimeFormatter FILE_TIME = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss")
+            .withZone(ZoneOffset.UTC);
+    private static final List<Class<? extends jdk.jfr.Event>> EVENTS = List.of(ServiceMethodEvent.class,
+            QueryEvent.class, DtoConversionEvent.class, UpdateHandlerEvent.class);
+
+    private final Path directory;
+    private final boolean continuousEnabled;
+    private final Duration maxAge;
+    private final DataSize maxSize;
+    private final Duration eventThreshold;
+    private final Duration maxDuration;
+    private final Duration minDumpInterval;
+    private final int maxDumps;
+
+    private final Map<Long, Recording> onDemand = new ConcurrentHashMap<>();
+    private final AtomicLong lastDumpNanos = new AtomicLong();
+    private final ExecutorService dumper = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "jfr-dump");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private volatile Recording continuous;
+
+    public FlightRecordings(@Value("${ufomap.jfr.path:jfr}") String directory,
+                            @Value("${ufomap.jfr.continuous.enabled:true}") boolean continuousEnabled,
+                            @Value("${ufomap.jfr.continuous.max-age:PT10M}") Duration maxAge,
+                            @Value("${ufomap.jfr.continuous.max-size:64MB}") DataSize maxSize,
+                            @Value("${ufomap.jfr.continuous.event-threshold:PT0.02S}") Duration eventThreshold,
+                            @Value("${ufomap.jfr.max-duration:PT10M}") Duration maxDuration,
+                            @Value("${ufomap.jfr.slo.min-dump-interval:PT5M}") Duration minDumpInterval,
+                            @Value("${ufomap.jfr.slo.max-dumps:5}") int maxDumps) {
+        this.directory = Path.of(directory).toAbsolutePath();
+        this.continuousEnabled = continuousEnabled;
+        this.maxAge = maxAge;
+        this.maxSize = maxSize;
+        this.eventThreshold = eventThreshold;
+        this.maxDuration = maxDuration;
+        this.minDumpInterval = minDumpInterval;
+        this.maxDumps = maxDumps;
+        // Allows the first breach to be dumped right away
+        this.lastDumpNanos.set(System.nanoTime() - minDumpInterval.toNanos());
+    }
+
+    @PostConstruct
+    public void startContinuous() throws IOException, ParseException {
+        if (!continuousEnabled) {
+            return;
+        }
+        if (!FlightRecorder.isAvailable()) {
+            logger.warn("JDK Flight Recorder is not available; the continuous recording is disabled");
+            return;
+        }
+        Recording recording = new Recording(Configuration.getConfiguration("default"));
+        recording.setName(CONTINUOUS);
+        recording.setToDisk(true);
+        recording.setMaxAge(maxAge);
+        recording.setMaxSize(maxSize.toBytes());
+        for (Class<? extends jdk.jfr.Event> event : EVENTS) {
+            recording.enable(event).withThreshold(eventThreshold);
+        }
+        recording.enable(SloBreachEvent.class);
+        recording.start();
+        continuous = recording;
+        logger.info("Continuous flight recording started (max age {}, max size {})", maxAge, maxSize);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        dumper.shutdownNow();
+        onDemand.values().forEach(Recording::close);
+        if (continuous != null) {
+            continuous.close();
+        }
+    }
+
+    public List<JfrRecordingDTO> getRecordings() {
+        Stream<Recording> continuousRecording = continuous == null ? Stream.empty() : Stream.of(continuous);
+        return Stream.concat(continuousRecording, onDemand.values().stream())
+                .sorted(Comparator.comparingLong(Recording::getId))
+                .map(FlightRecordings::toDTO)
+                .toList();
+    }
+
+    /**
+     * Starts an on-demand recording that stops by itself after {@code duration}.
+     *
+     * @throws IllegalArgumentException if the duration is not positive or longer than {@code max-duration}.
+     * @throws IllegalStateException    if Flight Recorder is not available, or {@value #MAX_ON_DEMAND}
+     *                                  on-demand recordings are kept already.
+     */
+    public synchronized JfrRecordingDTO start(Duration duration) throws IOException, ParseException {
+        if (duration.isNegative() || duration.isZero() || duration.compareTo(maxDuration) > 0) {
+            throw new IllegalArgumentException("duration must be positive and at most " + maxDuration);
+        }
+        if (!FlightRecorder.isAvailable()) {
+            throw new IllegalStateException("JDK Flight Recorder is not available");
+        }
+        if (onDemand.size() >= MAX_ON_DEMAND) {
+            throw new IllegalStateException("Delete one of the " + MAX_ON_DEMAND + " on-demand recordings first");
+        }
+        Recording recording = new Recording(Configuration.getConfiguration("profile"));
+        recording.setName(ON_DEMAND);
+        recording.setToDisk(true);
+        recording.setDuration(duration);
+        EVENTS.forEach(recording::enable);
+        recording.enable(SloBreachEvent.class);
+        // A stopped recording keeps its data until it is deleted
+        recording.start();
+        onDemand.put(recording.getId(), recording);
+        logger.info("On-demand flight recording {} started for {}", recording.getId(), duration);
+        return toDTO(recording);
+    }
+
+    /**
+     * @throws IllegalArgumentException if there is no on-demand recording with that id.
+     */
+    public JfrRecordingDTO stop(long id) {
+        Recording recording = onDemand(id);
+        if (recording.getState() == RecordingState.RUNNING) {
+            recording.stop();
+        }
+        return toDTO(recording);
+    }
+
+    /**
+     * Discards an on-demand recording and its file.
+     *
+     * @throws IllegalArgumentException if there is no on-demand recording with that id.
+     */
+    public void delete(long id) throws IOException {
+        Recording recording = onDemand(id);
+        onDemand.remove(id);
+        recording.close();
+        Files.deleteIfExists(directory.resolve(fileName(recording)));
+    }
+
+    /**
+     * Writes the data recorded so far by a recording (on-demand or continuous) to a file.
+     *
+     * @return The file, or null if there is no recording with that id.
+     */
+    public Path dump(long id) throws IOException {
+        Recording recording = continuous != null && continuous.getId() == id ? continuous : onDemand.get(id);
+        if (recording == null) {
+            return null;
+        }
+        Files.createDirectories(directory);
+        Path file = directory.resolve(fileName(recording));
+        recording.dump(file);
+        return file;
+    }
+
+    /**
+     * Dumps the continuous recording in the background, unless it was dumped less than
+     * {@code min-dump-interval} ago; keeps the newest {@code max-dumps} files.
+     *
+     * @return Whether a dump was scheduled.
+     */
+    public boolean dumpContinuous(String reason) {
+        if (continuous == null) {
+            return false;
+        }
+        long last = lastDumpNanos.get();
+        long now = System.nanoTime();
+        if (now - last < minDumpInterval.toNanos() || !lastDumpNanos.compareAndSet(last, now)) {
+            return false;
+        }
+        dumper.execute(() -> {
+            try {
+                Files.createDirectories(directory);
+                Path file = directory.resolve(BREACH_PREFIX + FILE_TIME.format(Instant.now()) + ".jfr");
+                continuous.dump(file);
+                logger.warn("Dumped the continuous flight recording to {} ({})", file, reason);
+                pruneDumps();
+            } catch (IOException e) {
+                logger.error("Could not dump the continuous flight recording", e);
+            }
+        });
+        return true;
+    }
+
+    private void pruneDumps() throws IOException {
+        List<Path> dumps;
+        try (Stream<Path> files = Files.list(directory)) {
+            dumps = files.filter(file -> file.getFileName().toString().startsWith(BREACH_PREFIX))
+                    .sorted(Comparator.comparing(Path::getFileName).reversed())
+                    .toList();
+        }
+        for (Path old : dumps.subList(Math.min(maxDumps, dumps.size()), dumps.size())) {
+            Files.deleteIfExists(old);
+        }
+    }
+
+    private Recording onDemand(long id) {
+        Recording recording = onDemand.get(id);
+        if (recording == null) {
+            throw new IllegalArgumentException("No on-demand recording with id " + id);
+        }
+        return recording;
+    }
+
+    private static String fileName(Recording recording) {
+        return recording.getName() + "-" + recording.getId() + ".jfr";
+    }
+
+    private static JfrRecordingDTO toDTO(Recording recording) {
+        return JfrRecordingDTO.builder()
+                .id(recording.getId())
+                .name(recording.getName())
+                .state(recording.getState().name())
+                .startTime(recording.getStartTime())
+                .stopTime(recording.getStopTime())
+                .durationSeconds(recording.getDuration() == null ? null : recording.getDuration().toSeconds())
+                .maxAgeSeconds(recording.getMaxAge() == null ? null : recording.getMaxAge().toSeconds())
+                .maxSizeBytes(recording.getMaxSize())
+                .sizeBytes(recording.getSize())
+                .build();
+    }
+}
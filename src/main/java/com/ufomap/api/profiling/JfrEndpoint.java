@@ -0,0 +1,94 @@
+package com.ufomap.api.profiling;
+
+import com.ufomap.api.dto.JfrRecordingDTO;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.InvalidEndpointRequestException;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * {@code /actuator/jfr}: Flight Recorder recordings of this instance.
+ * <ul>
+ *   <li>{@code GET /actuator/jfr} lists the continuous and on-demand recordings.</li>
+ *   <li>{@code POST /actuator/jfr} with {@code {"duration": "PT2M"}} starts an on-demand recording.</li>
+ *   <li>{@code POST /actuator/jfr/{id}} with {@code {"action": "stop"}} stops it early.</li>
+ *   <li>{@code GET /actuator/jfr/{id}} downloads what a recording holds so far, as a {@code .jfr} file.</li>
+ *   <li>{@code DELETE /actuator/jfr/{id}} discards an on-demand recording.</li>
+ * </ul>
+ */
+@Component
+@Endpoint(id = "jfr")
+@RequiredArgsConstructor
+public class JfrEndpoint {
+
+    private static final Duration DEFAULT_DURATION = Duration.ofMinutes(1);
+
+    private final FlightRecordings flightRecordings;
+
+    @ReadOperation
+    public List<JfrRecordingDTO> recordings() {
+        return flightRecordings.getRecordings();
+    }
+
+    /**
+     * @param id The recording id.
+     * @return The recording's data, or null (404) for an unknown id.
+     */
+    @ReadOperation(produces = "application/octet-stream")
+    public Resource download(@Selector long id) throws IOException {
+        Path file = flightRecordings.dump(id);
+        return file == null ? null : new FileSystemResource(file);
+    }
+
+    /**
+     * @param duration How long to record; one minute if not given.
+     * @return The new recording.
+     */
+    @WriteOperation
+    public JfrRecordingDTO start(@Nullable Duration duration) throws IOException, ParseException {
+        try {
+            return flightRecordings.start(duration == null ? DEFAULT_DURATION : duration);
+        } catch (IllegalArgumentException | IllegalStateException e) {
+            throw new InvalidEndpointRequestException(e.getMessage(), e.getMessage());
+        }
+    }
+
+    /**
+     * @param id     The on-demand recording id.
+     * @param action {@code stop}.
+     * @return The recording after the action.
+     */
+    @WriteOperation
+    public JfrRecordingDTO control(@Selector long id, String action) {
+        if (!"stop".equals(action)) {
+            throw new InvalidEndpointRequestException("Unknown action: " + action, "action must be stop");
+        }
+        try {
+            return flightRecordings.stop(id);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidEndpointRequestException(e.getMessage(), e.getMessage());
+        }
+    }
+
+    @DeleteOperation
+    public void delete(@Selector long id) throws IOException {
+        try {
+            flightRecordings.delete(id);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidEndpointRequestException(e.getMessage(), e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package com.ufomap.api.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+import java.util.List;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * A query against the {@link com.ufomap.api.repository.SightingReadSource}: which filters were
+ * set (their names, not their values), how many rows came back and, for pages, the total count.
+ */
+@Name("com.ufomap.Query")
+@Label("Sighting Query")
+@Category({"UFO Map", "Repository"})
+public class QueryEvent extends Event {
+
+    @Label("Source")
+    @Description("SightingReadSource implementation")
+    String source;
+
+    @Label("Operation")
+    String operation;
+
+    @Label("Filters")
+    @Description("Comma-separated names of the filters that were set")
+    String filters;
+
+    @Label("Page Size")
+    @Description("Requested page size, or -1 if unpaged")
+    int pageSize;
+
+    @Label("Rows")
+    int rows;
+
+    @Label("Total")
+    @Description("Total matching rows, or -1 if the query does not count")
+    long total;
+
+    public static <T> Page<T> page(Object source, String operation, String filters, Pageable pageable,
+                                   Supplier<Page<T>> query) {
+        QueryEvent event = new QueryEvent();
+        event.begin();
+        Page<T> page = query.get();
+        event.end();
+        if (event.shouldCommit()) {
+            event.set(source, operation, filters, pageable, page.getNumberOfElements(), page.getTotalElements());
+            event.commit();
+        }
+        return page;
+    }
+
+    public static <T> List<T> list(Object source, String operation, String filters, Pageable pageable,
+                                   Supplier<List<T>> query) {
+        QueryEvent event = new QueryEvent();
+        event.begin();
+        List<T> rows = query.get();
+        event.end();
+        if (event.shouldCommit()) {
+            event.set(source, operation, filters, pageable, rows.size(), -1);
+            event.commit();
+        }
+        return rows;
+    }
+
+    /**
+     * Records a query whose rows are passed to a callback rather than returned.
+     *
+     * @param query Runs the query and returns the number of rows it produced.
+     */
+    public static void scan(Object source, String operation, String filters, LongSupplier query) {
+        QueryEvent event = new QueryEvent();
+        event.begin();
+        long rows = query.getAsLong();
+        event.end();
+        if (event.shouldCommit()) {
+            event.set(source, operation, filters, Pageable.unpaged(), (int) Math.min(Integer.MAX_VALUE, rows), -1);
+            event.commit();
+        }
+    }
+
+    /**
+     * The names of the non-null filters, in order, e.g. {@code "shape,state"}; empty if none is set.
+     *
+     * @param namesAndValues Alternating filter names and values.
+     */
+    public static String filters(Object... namesAndValues) {
+        StringBuilder names = new StringBuilder();
+        for (int i = 0; i < namesAndValues.length; i += 2) {
+            if (namesAndValues[i + 1] != null) {
+                if (names.length() > 0) {
+                    names.append(',');
+                }
+                names.append(namesAndValues[i]);
+            }
+        }
+        return names.toString();
+    }
+
+    private void set(Object source, String operation, String filters, Pageable pageable, int rows, long total) {
+        this.source = source.getClass().getSimpleName();
+        this.operation = operation;
+        this.filters = filters;
+        this.pageSize = pageable.isPaged() ? pageable.getPageSize() : -1;
+        this.rows = rows;
+        this.total = total;
+    }
+}
@@ -0,0 +1,55 @@
+package com.ufomap.api.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+import java.util.function.Supplier;
+import java.util.function.ToIntFunction;
+
+/**
+ * A call to a public {@link com.ufomap.api.service.SightingService} method.
+ */
+@Name("com.ufomap.ServiceMethod")
+@Label("Sighting Service Call")
+@Category({"UFO Map", "Service"})
+public class ServiceMethodEvent extends Event {
+
+    @Label("Method")
+    String method;
+
+    @Label("Rows")
+    @Description("Sightings returned or written")
+    int rows;
+
+    @Label("Failed")
+    @Description("The call threw an exception")
+    boolean failed;
+
+    /**
+     * Runs {@code call} as one event, which is also recorded when the call throws.
+     *
+     * @param rows Counts the sightings in the call's result.
+     */
+    public static <T> T timed(String method, ToIntFunction<? super T> rows, Supplier<T> call) {
+        ServiceMethodEvent event = new ServiceMethodEvent();
+        event.begin();
+        T result = null;
+        boolean completed = false;
+        try {
+            result = call.get();
+            completed = true;
+            return result;
+        } finally {
+            event.end();
+            if (event.shouldCommit()) {
+                event.method = method;
+                event.rows = completed ? rows.applyAsInt(result) : 0;
+                event.failed = !completed;
+                event.commit();
+            }
+        }
+    }
+}
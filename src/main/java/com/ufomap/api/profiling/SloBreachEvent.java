@@ -0,0 +1,34 @@
+package com.ufomap.api.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+/**
+ * A request slower than {@code ufomap.jfr.slo.latency}; committed before the continuous recording
+ * is dumped, so the dump contains the request that triggered it.
+ */
+@Name("com.ufomap.SloBreach")
+@Label("Latency SLO Breach")
+@Category({"UFO Map", "HTTP"})
+public class SloBreachEvent extends Event {
+
+    @Label("Method")
+    public String method;
+
+    @Label("Path")
+    public String path;
+
+    @Label("Status")
+    public int status;
+
+    @Label("Latency")
+    @Timespan(Timespan.MILLISECONDS)
+    public long latency;
+
+    @Label("Threshold")
+    @Timespan(Timespan.MILLISECONDS)
+    public long threshold;
+}
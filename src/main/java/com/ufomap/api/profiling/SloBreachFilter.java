@@ -0,0 +1,77 @@
+package com.ufomap.api.profiling;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Watches the latency of API requests under {@code ufomap.jfr.slo.path-prefix}. A request slower
+ * than {@code ufomap.jfr.slo.latency} is recorded as a {@link SloBreachEvent} and the continuous
+ * flight recording is dumped (at most once per {@code min-dump-interval}), so the minutes leading
+ * up to the breach can be inspected afterwards.
+ * <p>
+ * Runs first in the filter chain, so the measured time includes security and the response cache.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class SloBreachFilter extends OncePerRequestFilter {
+
+    private final FlightRecordings flightRecordings;
+    private final boolean enabled;
+    private final long thresholdNanos;
+    private final String pathPrefix;
+
+    public SloBreachFilter(FlightRecordings flightRecordings,
+                           @Value("${ufomap.jfr.slo.enabled:true}") boolean enabled,
+                           @Value("${ufomap.jfr.slo.latency:PT1S}") Duration latency,
+                           @Value("${ufomap.jfr.slo.path-prefix:/api/sightings}") String pathPrefix) {
+        this.flightRecordings = flightRecordings;
+        this.enabled = enabled;
+        this.thresholdNanos = latency.toNanos();
+        this.pathPrefix = pathPrefix;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled || !path(request).startsWith(pathPrefix);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        long start = System.nanoTime();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            long elapsed = System.nanoTime() - start;
+            if (elapsed > thresholdNanos) {
+                breached(request, response, elapsed);
+            }
+        }
+    }
+
+    private void breached(HttpServletRequest request, HttpServletResponse response, long elapsedNanos) {
+        SloBreachEvent event = new SloBreachEvent();
+        event.method = request.getMethod();
+        event.path = path(request);
+        event.status = response.getStatus();
+        event.latency = TimeUnit.NANOSECONDS.toMillis(elapsedNanos);
+        event.threshold = TimeUnit.NANOSECONDS.toMillis(thresholdNanos);
+        event.commit();
+        flightRecordings.dumpContinuous(event.method + " " + event.path + " took " + event.latency + " ms");
+    }
+
+    private static String path(HttpServletRequest request) {
+        return request.getRequestURI().substring(request.getContextPath().length());
+    }
+}
@@ -0,0 +1,51 @@
+package com.ufomap.api.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * One update processed by {@link com.ufomap.api.sync.UpdateHandler}.
+ */
+@Name("com.ufomap.UpdateHandler")
+@Label("Sync Update")
+@Category({"UFO Map", "Sync"})
+public class UpdateHandlerEvent extends Event {
+
+    @Label("Sighting Id")
+    long sightingId;
+
+    @Label("Source System")
+    String source;
+
+    @Label("Status Changed")
+    boolean statusChanged;
+
+    @Label("Failed")
+    @Description("The update threw an exception")
+    boolean failed;
+
+    /**
+     * Runs {@code update} as one event, which is also recorded when the update throws.
+     */
+    public static void timed(long sightingId, String source, boolean statusChanged, Runnable update) {
+        UpdateHandlerEvent event = new UpdateHandlerEvent();
+        event.begin();
+        boolean completed = false;
+        try {
+            update.run();
+            completed = true;
+        } finally {
+            event.end();
+            if (event.shouldCommit()) {
+                event.sightingId = sightingId;
+                event.source = source;
+                event.statusChanged = statusChanged;
+                event.failed = !completed;
+                event.commit();
+            }
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.ufomap.api.reactive;
+
+import com.ufomap.api.exception.GlobalExceptionHandler;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.annotation.Import;
+import org.springframework.context.annotation.Profile;
+
+/**
+ * Non-blocking (WebFlux + R2DBC) variant of the read API.
+ * Runs as its own application next to the MVC one and only scans the
+ * {@code com.ufomap.api.reactive} package, so none of the JPA beans are created.
+ */
+@SpringBootApplication
+@Import(GlobalExceptionHandler.class)
+@Profile("reactive") // Keeps the MVC application's component scan from picking this up
+public class ReactiveSightingApiApplication {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReactiveSightingApiApplication.class);
+
+    public static void main(String[] args) {
+        logger.info("Starting ReactiveSightingApiApplication...");
+        new SpringApplicationBuilder(ReactiveSightingApiApplication.class)
+                .profiles("reactive")
+                .web(WebApplicationType.REACTIVE)
+                .run(args);
+    }
+}
@@ -0,0 +1,74 @@
+package com.ufomap.api.reactive;
+
+import com.ufomap.api.dto.SightingDTO;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Streaming read endpoints, mapped to the same paths as {@code SightingController}.
+ * With {@code Accept: application/x-ndjson} every sighting is flushed as soon as its row
+ * is read, so map clients can render the first markers before the query completes.
+ */
+@RestController
+@Profile("reactive")
+@RequestMapping("/api/sightings")
+@RequiredArgsConstructor
+public class ReactiveSightingController {
+
+    private final ReactiveSightingService sightingService;
+
+    /**
+     * Streams all sightings, one page at a time.
+     * @param pageable Pagination information (page, size); rows are returned in id order, and a
+     *                 {@code sort} other than {@code id,asc} is rejected with 400.
+     * @return A stream of SightingDTOs.
+     */
+    @GetMapping(produces = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.APPLICATION_JSON_VALUE})
+    public Flux<SightingDTO> getAllSightings(Pageable pageable) {
+        return sightingService.getAllSightings(pageable);
+    }
+
+    /**
+     * Retrieves a specific sighting by its ID.
+     * @param id The ID of the sighting.
+     * @return The SightingDTO if found, or 404 if not.
+     */
+    @GetMapping("/{id}")
+    public Mono<SightingDTO> getSightingById(@PathVariable Long id) {
+        return sightingService.getSightingById(id);
+    }
+
+    /**
+     * Streams sightings matching the filter criteria.
+     * @see com.ufomap.api.controller.SightingController#getSightingsWithFilters
+     */
+    @GetMapping(value = "/filter", produces = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.APPLICATION_JSON_VALUE})
+    public Flux<SightingDTO> getSightingsWithFilters(
+            @RequestParam(required = false) String shape,
+            @RequestParam(required = false) String city,
+            @RequestParam(required = false) String country,
+            @RequestParam(required = false) String state,
+            @RequestParam(required = false) String searchText,
+            Pageable pageable) {
+        return sightingService.getSightingsWithFilters(shape, city, country, state, searchText, pageable);
+    }
+
+    /**
+     * Streams sightings within a geographical bounding box.
+     * @see com.ufomap.api.controller.SightingController#getSightingsInBounds
+     */
+    @GetMapping(value = "/bounds", produces = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.APPLICATION_JSON_VALUE})
+    public Flux<SightingDTO> getSightingsInBounds(
+            @RequestParam Double north,
+            @RequestParam Double south,
+            @RequestParam Double east,
+            @RequestParam Double west,
+            Pageable pageable) {
+        return sightingService.getSightingsInBounds(north, south, east, west, pageable);
+    }
+}
@@ -0,0 +1,60 @@
+package com.ufomap.api.reactive;
+
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.r2dbc.repository.R2dbcRepository;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+
+/**
+ * Reactive counterpart of {@link com.ufomap.api.repository.SightingRepository}.
+ * The queries mirror the JPQL ones so both APIs return the same rows; since string
+ * queries cannot take a {@code Pageable} here, paging is done with LIMIT/OFFSET in id order.
+ */
+@Repository
+public interface ReactiveSightingRepository extends R2dbcRepository<SightingRow, Long> {
+
+    @Query("SELECT * FROM sightings ORDER BY id LIMIT :limit OFFSET :offset")
+    Flux<SightingRow> findPage(@Param("limit") int limit, @Param("offset") long offset);
+
+    /**
+     * Same filter semantics as {@code SightingRepository.findWithFilters}.
+     */
+    @Query("SELECT * FROM sightings WHERE " +
+            "(:shape IS NULL OR LOWER(shape) = LOWER(:shape)) AND " +
+            "(:city IS NULL OR LOWER(city) = LOWER(:city)) AND " +
+            "(:country IS NULL OR LOWER(country) = LOWER(:country)) AND " +
+            "(:state IS NULL OR LOWER(state) = LOWER(:state)) AND " +
+            "(:searchText IS NULL OR (" +
+            "LOWER(city) LIKE LOWER(CONCAT('%', :searchText, '%')) OR " +
+            "LOWER(state) LIKE LOWER(CONCAT('%', :searchText, '%')) OR " +
+            "LOWER(country) LIKE LOWER(CONCAT('%', :searchText, '%')) OR " +
+            "LOWER(summary) LIKE LOWER(CONCAT('%', :searchText, '%')) OR " +
+            "LOWER(shape) LIKE LOWER(CONCAT('%', :searchText, '%'))" +
+            ")) ORDER BY id LIMIT :limit OFFSET :offset")
+    Flux<SightingRow> findWithFilters(
+            @Param("shape") String shape,
+            @Param("city") String city,
+            @Param("country") String country,
+            @Param("state") String state,
+            @Param("searchText") String searchText,
+            @Param("limit") int limit,
+            @Param("offset") long offset
+    );
+
+    /**
+     * Same bounding-box semantics as {@code SightingRepository.findInBounds}.
+     */
+    @Query("SELECT * FROM sightings WHERE " +
+            "latitude BETWEEN :south AND :north AND " +
+            "longitude BETWEEN :west AND :east " +
+            "ORDER BY id LIMIT :limit OFFSET :offset")
+    Flux<SightingRow> findInBounds(
+            @Param("north") Double north,
+            @Param("south") Double south,
+            @Param("east") Double east,
+            @Param("west") Double west,
+            @Param("limit") int limit,
+            @Param("offset") long offset
+    );
+}
@@ -0,0 +1,89 @@
+package com.ufomap.api.reactive;
+
+import com.ufomap.api.dto.SightingDTO;
+import com.ufomap.api.exception.ResourceNotFoundException;
+import com.ufomap.api.model.SubmissionStatus;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Read-only service backing the reactive API. Rows are converted to the same
+ * {@link SightingDTO} contract as {@code SightingService} and emitted as they arrive.
+ */
+@Service
+@Profile("reactive")
+@RequiredArgsConstructor
+public class ReactiveSightingService {
+
+    private final ReactiveSightingRepository sightingRepository;
+
+    public Flux<SightingDTO> getAllSightings(Pageable pageable) {
+        requireIdOrder(pageable);
+        return sightingRepository.findPage(pageable.getPageSize(), pageable.getOffset())
+                .map(this::convertToDTO);
+    }
+
+    public Mono<SightingDTO> getSightingById(Long id) {
+        return sightingRepository.findById(id)
+                .map(this::convertToDTO)
+                .switchIfEmpty(Mono.error(() -> new ResourceNotFoundException("Sighting not found with id: " + id)));
+    }
+
+    public Flux<SightingDTO> getSightingsWithFilters(
+            String shape,
+            String city,
+            String country,
+            String state,
+            String searchText, Pageable pageable) {
+        requireIdOrder(pageable);
+        return sightingRepository.findWithFilters(shape, city, country, state, searchText,
+                        pageable.getPageSize(), pageable.getOffset())
+                .map(this::convertToDTO);
+    }
+
+    public Flux<SightingDTO> getSightingsInBounds(Double north, Double south, Double east, Double west, Pageable pageable) {
+        requireIdOrder(pageable);
+        return sightingRepository.findInBounds(north, south, east, west,
+                        pageable.getPageSize(), pageable.getOffset())
+                .map(this::convertToDTO);
+    }
+
+    /**
+     * The queries stream rows in id order, so any other {@code sort} is rejected rather than ignored.
+     *
+     * @throws IllegalArgumentException if the sort is not empty or ascending by id.
+     */
+    private static void requireIdOrder(Pageable pageable) {
+        Sort sort = pageable.getSort();
+        if (sort.isUnsorted() || sort.equals(Sort.by(Sort.Direction.ASC, "id"))) {
+            return;
+        }
+        throw new IllegalArgumentException("The reactive API returns rows in id order; sort is not supported: " + sort);
+    }
+
+    private SightingDTO convertToDTO(SightingRow row) {
+        return SightingDTO.builder()
+                .id(row.getId())
+                .dateTime(row.getDateTime())
+                .city(row.getCity())
+                .state(row.getState())
+                .country(row.getCountry())
+                .shape(row.getShape())
+                .duration(row.getDuration())
+                .summary(row.getSummary())
+                .posted(row.getPosted())
+                .latitude(row.getLatitude())
+                .longitude(row.getLongitude())
+                .submittedBy(row.getSubmittedBy())
+                .submissionDate(row.getSubmissionDate())
+                .isUserSubmitted(row.isUserSubmitted())
+                .submissionStatus(row.getSubmissionStatus() != null
+                        ? SubmissionStatus.fromString(row.getSubmissionStatus()) : null)
+                .build();
+    }
+}
@@ -0,0 +1,51 @@
+package com.ufomap.api.reactive;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Table;
+
+import java.time.LocalDateTime;
+
+/**
+ * R2DBC mapping of the {@code sightings} table maintained by the JPA {@code Sighting} entity.
+ * Column names follow the same snake_case naming Hibernate uses.
+ */
+@Table("sightings")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SightingRow {
+
+    @Id
+    private Long id;
+
+    private LocalDateTime dateTime;
+
+    private String city;
+
+    private String state;
+
+    private String country;
+
+    private String shape;
+
+    private String duration;
+
+    private String summary;
+
+    private String posted;
+
+    private Double latitude;
+
+    private Double longitude;
+
+    private String submittedBy;
+
+    private LocalDateTime submissionDate;
+
+    private boolean userSubmitted;
+
+    private String submissionStatus;
+}
@@ -0,0 +1,7 @@
+package com.ufomap.api.repository;
+
+import com.ufomap.api.model.BackfillCheckpoint;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface BackfillCheckpointRepository extends JpaRepository<BackfillCheckpoint, String> {
+}
@@ -0,0 +1,242 @@
+package com.ufomap.api.repository;
+
+import com.ufomap.api.archive.SightingArchive;
+import com.ufomap.api.model.Sighting;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.LongConsumer;
+
+/**
+ * Default {@link SightingReadSource}: reads go to {@link SightingRepository}, merged with the
+ * {@link SightingArchive} cold tier. When the archive has no match, the repository query runs
+ * unchanged. Otherwise the first offset + size rows of both tiers are merged in the requested
+ * order (by id if unsorted) and the page is cut from the result; a row present in both tiers
+ * (while a segment is being archived or restored) is taken from the table.
+ */
+@Component
+@Profile("!snapshot & !sharded")
+@RequiredArgsConstructor
+public class DatabaseSightingReadSource implements SightingReadSource {
+
+    private static final int ID_BATCH_SIZE = 10_000;
+
+    private final SightingRepository sightingRepository;
+    private final SightingArchive archive;
+
+    @Override
+    public Page<Sighting> findAll(Pageable pageable) {
+        return merge(pageable, sightingRepository::findAll,
+                top -> archive.findWithFilters(null, null, null, null, null, null, null, top));
+    }
+
+    @Override
+    public Optional<Sighting> findById(Long id) {
+        Optional<Sighting> sighting = sightingRepository.findById(id);
+        return sighting.isPresent() || archive.isEmpty() ? sighting : archive.findById(id);
+    }
+
+    @Override
+    public List<Sighting> findAllById(Iterable<Long> ids) {
+        List<Sighting> sightings = sightingRepository.findAllById(ids);
+        if (archive.isEmpty()) {
+            return sightings;
+        }
+        Set<Long> found = new HashSet<>();
+        sightings.forEach(sighting -> found.add(sighting.getId()));
+        List<Long> missing = new ArrayList<>();
+        ids.forEach(id -> {
+            if (!found.contains(id)) {
+                missing.add(id);
+            }
+        });
+        List<Sighting> all = new ArrayList<>(sightings);
+        all.addAll(archive.findAllById(missing));
+        return all;
+    }
+
+    @Override
+    public Page<Sighting> findWithFilters(String shape, String city, String country, String state,
+                                          String searchText, Long minDuration, Long maxDuration,
+                                          Pageable pageable) {
+        return merge(pageable,
+                page -> sightingRepository.findWithFilters(shape, city, country, state, searchText,
+                        minDuration, maxDuration, page),
+                top -> archive.findWithFilters(shape, city, country, state, searchText, minDuration, maxDuration, top));
+    }
+
+    @Override
+    public void forEachIdWithFilters(String shape, String city, String country, String state,
+                                     String searchText, Long minDuration, Long maxDuration, LongConsumer consumer) {
+        long lastId = 0;
+        List<Long> batch;
+        do {
+            batch = sightingRepository.findIdsWithFiltersAfter(lastId, shape, city, country, state, searchText,
+                    minDuration, maxDuration, PageRequest.of(0, ID_BATCH_SIZE));
+            for (Long id : batch) {
+                consumer.accept(id);
+                lastId = id;
+            }
+        } while (batch.size() == ID_BATCH_SIZE);
+        if (!archive.isEmpty()) {
+            archive.forEachIdWithFilters(shape, city, country, state, searchText, minDuration, maxDuration, consumer);
+        }
+    }
+
+    // Archived sightings are older than ufomap.archive.min-age (years), so only the table is read
+    @Override
+    public void forEachLocationSince(LocalDateTime since, LocationConsumer consumer) {
+        LocalDateTime afterTime = since;
+        long afterId = 0;
+        List<SightingLocation> batch;
+        do {
+            batch = sightingRepository.findLocationsAfter(afterTime, afterId, PageRequest.of(0, ID_BATCH_SIZE));
+            for (SightingLocation location : batch) {
+                if (location.getLatitude() != null && location.getLongitude() != null) {
+                    consumer.accept(location.getLatitude(), location.getLongitude());
+                }
+                afterTime = location.getDateTime();
+                afterId = location.getId();
+            }
+        } while (batch.size() == ID_BATCH_SIZE);
+    }
+
+    @Override
+    public Page<Sighting> findInBounds(Double north, Double south, Double east, Double west, Pageable pageable) {
+        return merge(pageable,
+                page -> sightingRepository.findInBounds(north, south, east, west, page),
+                top -> archive.findInBounds(north, south, east, west, top));
+    }
+
+    @Override
+    public List<SightingPoint> findPointsInBounds(Double north, Double south, Double east, Double west,
+                                                  Pageable pageable) {
+        if (archive.isEmpty()) {
+            return sightingRepository.findPointsInBounds(north, south, east, west, pageable);
+        }
+        int needed = needed(pageable);
+        List<SightingPoint> archived = archive.findPointsInBounds(north, south, east, west, needed);
+        if (archived.isEmpty()) {
+            return sightingRepository.findPointsInBounds(north, south, east, west, pageable);
+        }
+        List<SightingPoint> points = new ArrayList<>(
+                sightingRepository.findPointsInBounds(north, south, east, west, PageRequest.of(0, needed)));
+        Set<Long> hot = new HashSet<>();
+        points.forEach(point -> hot.add(point.getId()));
+        archived.stream().filter(point -> !hot.contains(point.getId())).forEach(points::add);
+        points.sort(Comparator.comparing(SightingPoint::getId));
+        return slice(points, pageable);
+    }
+
+    @Override
+    public Page<Map<String, Object>> findAllFields(List<String> fields, Pageable pageable) {
+        if (archive.isEmpty()) {
+            return sightingRepository.findAllFields(fields, pageable);
+        }
+        List<String> selected = SightingFields.validate(fields);
+        return findAll(pageable).map(sighting -> SightingFields.valuesOf(sighting, selected));
+    }
+
+    @Override
+    public Optional<Map<String, Object>> findFieldsById(List<String> fields, Long id) {
+        Optional<Map<String, Object>> row = sightingRepository.findFieldsById(fields, id);
+        if (row.isPresent() || archive.isEmpty()) {
+            return row;
+        }
+        List<String> selected = SightingFields.validate(fields);
+        return archive.findById(id).map(sighting -> SightingFields.valuesOf(sighting, selected));
+    }
+
+    // With archived matches, whole sightings are merged and then projected
+    @Override
+    public Page<Map<String, Object>> findFieldsWithFilters(List<String> fields, String shape, String city,
+                                                           String country, String state, String searchText,
+                                                           Long minDuration, Long maxDuration,
+                                                           Pageable pageable) {
+        if (archive.isEmpty()) {
+            return sightingRepository.findFieldsWithFilters(fields, shape, city, country, state, searchText,
+                    minDuration, maxDuration, pageable);
+        }
+        List<String> selected = SightingFields.validate(fields);
+        return findWithFilters(shape, city, country, state, searchText, minDuration, maxDuration, pageable)
+                .map(sighting -> SightingFields.valuesOf(sighting, selected));
+    }
+
+    @Override
+    public Page<Map<String, Object>> findFieldsInBounds(List<String> fields, Double north, Double south,
+                                                        Double east, Double west, Pageable pageable) {
+        if (archive.isEmpty()) {
+            return sightingRepository.findFieldsInBounds(fields, north, south, east, west, pageable);
+        }
+        List<String> selected = SightingFields.validate(fields);
+        return findInBounds(north, south, east, west, pageable)
+                .map(sighting -> SightingFields.valuesOf(sighting, selected));
+    }
+
+    @Override
+    public boolean isWritable() {
+        return true;
+    }
+
+    private Page<Sighting> merge(Pageable pageable,
+                                 Function<Pageable, Page<Sighting>> hot,
+                                 Function<Pageable, Page<Sighting>> cold) {
+        if (archive.isEmpty()) {
+            return hot.apply(pageable);
+        }
+        Sort sort = pageable.getSort().isSorted() ? pageable.getSort() : Sort.by("id");
+        Pageable top = PageRequest.of(0, needed(pageable), sort);
+        Page<Sighting> archived = cold.apply(top);
+        if (archived.getTotalElements() == 0) {
+            return hot.apply(pageable);
+        }
+
+        Page<Sighting> current = hot.apply(top);
+        List<Sighting> merged = new ArrayList<>(current.getContent());
+        Set<Long> hotIds = new HashSet<>();
+        merged.forEach(sighting -> hotIds.add(sighting.getId()));
+        long duplicates = 0;
+        for (Sighting sighting : archived.getContent()) {
+            if (hotIds.contains(sighting.getId())) {
+                duplicates++;
+            } else {
+                merged.add(sighting);
+            }
+        }
+        merged.sort(SightingFields.comparator(sort));
+        long total = current.getTotalElements() + archived.getTotalElements() - duplicates;
+        return new PageImpl<>(slice(merged, pageable), pageable, total);
+    }
+
+    // Rows from the start of the result up to the end of the requested page
+    private static int needed(Pageable pageable) {
+        if (pageable.isUnpaged()) {
+            return Integer.MAX_VALUE;
+        }
+        return (int) Math.min(Integer.MAX_VALUE, pageable.getOffset() + pageable.getPageSize());
+    }
+
+    private static <T> List<T> slice(List<T> rows, Pageable pageable) {
+        if (pageable.isUnpaged()) {
+            return rows;
+        }
+        int from = (int) Math.min(pageable.getOffset(), rows.size());
+        int to = Math.min(from + pageable.getPageSize(), rows.size());
+        return new ArrayList<>(rows.subList(from, to));
+    }
+}
@@ -0,0 +1,26 @@
+package com.ufomap.api.repository;
+
+import com.ufomap.api.model.Sighting;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.util.Optional;
+
+@Component
+@Profile("!sharded")
+@RequiredArgsConstructor
+public class JpaSightingStore implements SightingStore {
+
+    private final SightingRepository sightingRepository;
+
+    @Override
+    public Optional<Sighting> findById(Long id) {
+        return sightingRepository.findById(id);
+    }
+
+    @Override
+    public Sighting save(Sighting sighting) {
+        return sightingRepository.save(sighting);
+    }
+}
@@ -0,0 +1,49 @@
+package com.ufomap.api.repository;
+
+import com.ufomap.api.model.SightingChange;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+public interface SightingChangeRepository extends JpaRepository<SightingChange, Long> {
+
+    /**
+     * Change log rows after {@code afterSeq}, plus the listed earlier ones (sequence gaps left by
+     * transactions that had not committed yet), in sequence order.
+     *
+     * @param afterSeq Last sequence number applied.
+     * @param gaps     Missing sequence numbers to look for again; must not be empty.
+     * @param pageable Batch size.
+     */
+    @Query("SELECT c FROM SightingChange c WHERE c.seq > :afterSeq OR c.seq IN :gaps ORDER BY c.seq")
+    List<SightingChange> findChanges(
+            @Param("afterSeq") Long afterSeq,
+            @Param("gaps") Collection<Long> gaps,
+            Pageable pageable
+    );
+
+    @Query("SELECT COALESCE(MAX(c.seq), 0) FROM SightingChange c")
+    long findMaxSeq();
+
+    /**
+     * Committed sequence numbers after {@code afterSeq}; the ones missing below the maximum belong
+     * to transactions still in flight.
+     */
+    @Query("SELECT c.seq FROM SightingChange c WHERE c.seq > :afterSeq ORDER BY c.seq")
+    List<Long> findSeqsAfter(@Param("afterSeq") long afterSeq);
+
+    @Query("SELECT COALESCE(MIN(c.seq), 0) FROM SightingChange c")
+    long findMinSeq();
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM SightingChange c WHERE c.createdAt < :before")
+    int deleteOlderThan(@Param("before") LocalDateTime before);
+}
@@ -0,0 +1,117 @@
+package com.ufomap.api.repository;
+
+import com.ufomap.api.model.Sighting;
+import org.springframework.data.domain.Sort;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The sighting properties that may be requested as a sparse fieldset or used as a sort key.
+ */
+public final class SightingFields {
+
+    public static final Set<String> SELECTABLE = Set.of(
+            "id", "dateTime", "city", "state", "country", "shape", "duration", "summary", "posted",
+            "latitude", "longitude", "submittedBy", "submissionDate", "userSubmitted", "submissionStatus"
+    );
+
+    // SightingDTO's @JsonFormat pattern, so sparse rows render dates like full DTOs
+    private static final DateTimeFormatter DATE_TIME = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss");
+
+    private SightingFields() {
+    }
+
+    /**
+     * Trims and de-duplicates the requested field names, keeping their order.
+     *
+     * @throws IllegalArgumentException if a name is unknown or no field is requested.
+     */
+    public static List<String> validate(List<String> fields) {
+        Set<String> selected = new LinkedHashSet<>();
+        for (String field : fields) {
+            String name = field.trim();
+            if (!SELECTABLE.contains(name)) {
+                throw new IllegalArgumentException("Unknown field: " + name);
+            }
+            selected.add(name);
+        }
+        if (selected.isEmpty()) {
+            throw new IllegalArgumentException("At least one field must be requested");
+        }
+        return new ArrayList<>(selected);
+    }
+
+    /**
+     * Value of one selectable property of a sighting.
+     *
+     * @throws IllegalArgumentException if {@code field} is not selectable.
+     */
+    public static Object value(Sighting sighting, String field) {
+        return switch (field) {
+            case "id" -> sighting.getId();
+            case "dateTime" -> sighting.getDateTime();
+            case "city" -> sighting.getCity();
+            case "state" -> sighting.getState();
+            case "country" -> sighting.getCountry();
+            case "shape" -> sighting.getShape();
+            case "duration" -> sighting.getDuration();
+            case "summary" -> sighting.getSummary();
+            case "posted" -> sighting.getPosted();
+            case "latitude" -> sighting.getLatitude();
+            case "longitude" -> sighting.getLongitude();
+            case "submittedBy" -> sighting.getSubmittedBy();
+            case "submissionDate" -> sighting.getSubmissionDate();
+            case "userSubmitted" -> sighting.isUserSubmitted();
+            case "submissionStatus" -> sighting.getSubmissionStatus();
+            default -> throw new IllegalArgumentException("Unknown field: " + field);
+        };
+    }
+
+    /**
+     * The requested fields of a sighting, in the requested order (as returned by the sparse-fieldset queries).
+     */
+    public static Map<String, Object> valuesOf(Sighting sighting, List<String> fields) {
+        Map<String, Object> values = new LinkedHashMap<>();
+        for (String field : fields) {
+            values.put(field, responseValue(value(sighting, field)));
+        }
+        return values;
+    }
+
+    /**
+     * A field value as it goes into a sparse-fieldset row: dates are formatted as in {@code SightingDTO},
+     * other values are unchanged.
+     */
+    public static Object responseValue(Object value) {
+        return value instanceof LocalDateTime dateTime ? DATE_TIME.format(dateTime) : value;
+    }
+
+    /**
+     * Orders sightings by {@code sort} like PostgreSQL (NULLS LAST ascending, NULLS FIRST descending),
+     * then by id; an unsorted request orders by id.
+     *
+     * @throws IllegalArgumentException if a sort property is not selectable.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public static Comparator<Sighting> comparator(Sort sort) {
+        Comparator<Comparable> keyOrder = Comparator.nullsLast(Comparator.naturalOrder());
+        Comparator<Sighting> comparator = (a, b) -> 0;
+        for (Sort.Order order : sort) {
+            if (!SELECTABLE.contains(order.getProperty())) {
+                throw new IllegalArgumentException("Unknown sort property: " + order.getProperty());
+            }
+            Comparator<Sighting> byKey = Comparator.comparing(
+                    sighting -> (Comparable) value(sighting, order.getProperty()), keyOrder);
+            comparator = comparator.thenComparing(order.isDescending() ? byKey.reversed() : byKey);
+        }
+        return comparator.thenComparing(Sighting::getId);
+    }
+}
@@ -0,0 +1,19 @@
+package com.ufomap.api.repository;
+
+import com.ufomap.api.model.SubmissionStatus;
+
+/**
+ * Interface projection with the low-cardinality columns held in the bitmap index.
+ */
+public interface SightingIndexRow {
+
+    Long getId();
+
+    String getShape();
+
+    String getCountry();
+
+    String getState();
+
+    SubmissionStatus getSubmissionStatus();
+}
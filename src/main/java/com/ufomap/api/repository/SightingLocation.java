@@ -0,0 +1,18 @@
+package com.ufomap.api.repository;
+
+import java.time.LocalDateTime;
+
+/**
+ * Interface projection with a sighting's location and time, used to seed the hotspot baseline.
+ * The id and time also serve as the keyset cursor.
+ */
+public interface SightingLocation {
+
+    Long getId();
+
+    Double getLatitude();
+
+    Double getLongitude();
+
+    LocalDateTime getDateTime();
+}
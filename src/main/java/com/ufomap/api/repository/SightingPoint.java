@@ -0,0 +1,15 @@
+package com.ufomap.api.repository;
+
+/**
+ * Interface projection selecting only what the map needs to draw a marker.
+ */
+public interface SightingPoint {
+
+    Long getId();
+
+    Double getLatitude();
+
+    Double getLongitude();
+
+    String getShape();
+}
@@ -0,0 +1,71 @@
+package com.ufomap.api.repository;
+
+import com.ufomap.api.model.Sighting;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.LongConsumer;
+
+/**
+ * Where {@code SightingService} reads sightings from: the database by default, or a memory-mapped
+ * snapshot file in the {@code snapshot} profile. Filter and bounds semantics are those of
+ * {@link SightingRepository}.
+ */
+public interface SightingReadSource extends SightingRepositoryCustom {
+
+    Page<Sighting> findAll(Pageable pageable);
+
+    Optional<Sighting> findById(Long id);
+
+    List<Sighting> findAllById(Iterable<Long> ids);
+
+    Page<Sighting> findWithFilters(
+            String shape,
+            String city,
+            String country,
+            String state,
+            String searchText,
+            Long minDuration,
+            Long maxDuration,
+            Pageable pageable
+    );
+
+    /**
+     * Feeds the ids of all sightings matching the filters to {@code consumer}, in no particular order
+     * and possibly more than once. Ids are read in batches, so they are never all held in memory.
+     */
+    void forEachIdWithFilters(
+            String shape,
+            String city,
+            String country,
+            String state,
+            String searchText,
+            Long minDuration,
+            Long maxDuration,
+            LongConsumer consumer
+    );
+
+    Page<Sighting> findInBounds(Double north, Double south, Double east, Double west, Pageable pageable);
+
+    List<SightingPoint> findPointsInBounds(Double north, Double south, Double east, Double west, Pageable pageable);
+
+    /**
+     * Feeds the coordinates of all sightings that happened at or after {@code since} and have
+     * coordinates to {@code consumer}, in no particular order. Only the location and time are read,
+     * in batches.
+     */
+    void forEachLocationSince(LocalDateTime since, LocationConsumer consumer);
+
+    /**
+     * Whether sightings can be written; a snapshot is read-only.
+     */
+    boolean isWritable();
+
+    @FunctionalInterface
+    interface LocationConsumer {
+        void accept(double latitude, double longitude);
+    }
+}
@@ -1,17 +1,25 @@
 package com.ufomap.api.repository;
 
 import com.ufomap.api.model.Sighting;
+import com.ufomap.api.model.SubmissionStatus;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Repository
-public interface SightingRepository extends JpaRepository<Sighting, Long> {
+public interface SightingRepository extends JpaRepository<Sighting, Long>, SightingRepositoryCustom {
+
+    // Reads at most one row, unlike count(), which scans the table
+    boolean existsByIdNotNull();
 
     // Simple finders - now case-insensitive
     List<Sighting> findByCountryIgnoreCase(String country);
@@ -26,8 +34,8 @@ public interface SightingRepository extends JpaRepository<Sighting, Long> {
     List<Sighting> findByShapeIgnoreCase(String shape);
     Page<Sighting> findByShapeIgnoreCase(String shape, Pageable pageable);
 
-    List<Sighting> findBySubmissionStatusIgnoreCase(String status);
-    Page<Sighting> findBySubmissionStatusIgnoreCase(String status, Pageable pageable);
+    List<Sighting> findBySubmissionStatus(SubmissionStatus status);
+    Page<Sighting> findBySubmissionStatus(SubmissionStatus status, Pageable pageable);
 
     List<Sighting> findBySubmittedByIgnoreCase(String submittedBy);
     Page<Sighting> findBySubmittedByIgnoreCase(String submittedBy, Pageable pageable);
@@ -43,6 +51,8 @@ public interface SightingRepository extends JpaRepository<Sighting, Long> {
      * @param country    Optional country name (case-insensitive).
      * @param state      Optional state name (case-insensitive).
      * @param searchText Optional text to search within city, state, country, summary, or shape (case-insensitive).
+     * @param minDuration Optional lower bound on the parsed duration, in seconds (inclusive).
+     * @param maxDuration Optional upper bound on the parsed duration, in seconds (inclusive).
      * @param pageable   Pagination information.
      * @return A Page of Sighting objects matching the criteria.
      */
@@ -57,13 +67,17 @@ public interface SightingRepository extends JpaRepository<Sighting, Long> {
             "LOWER(s.country) LIKE LOWER(CONCAT('%', :searchText, '%')) OR " +
             "LOWER(s.summary) LIKE LOWER(CONCAT('%', :searchText, '%')) OR " +
             "LOWER(s.shape) LIKE LOWER(CONCAT('%', :searchText, '%'))" +
-            "))")
+            ")) AND " +
+            "(:minDuration IS NULL OR s.durationSeconds >= :minDuration) AND " +
+            "(:maxDuration IS NULL OR s.durationSeconds <= :maxDuration)")
     Page<Sighting> findWithFilters(
             @Param("shape") String shape,
             @Param("city") String city,
             @Param("country") String country,
             @Param("state") String state,
             @Param("searchText") String searchText,
+            @Param("minDuration") Long minDuration,
+            @Param("maxDuration") Long maxDuration,
             Pageable pageable // Added Pageable
     );
 
@@ -87,4 +101,195 @@ public interface SightingRepository extends JpaRepository<Sighting, Long> {
             @Param("west") Double west,
             Pageable pageable // Added Pageable
     );
-}
\ No newline at end of file
+
+    /**
+     * Finds the map markers (id, coordinates, shape) within a bounding box, ordered by id.
+     * Only those four columns are selected.
+     *
+     * @param north The northern latitude boundary.
+     * @param south The southern latitude boundary.
+     * @param east  The eastern longitude boundary.
+     * @param west  The western longitude boundary.
+     * @param pageable Pagination information (the sort is ignored).
+     * @return The points within the bounds.
+     */
+    @Query("SELECT s.id AS id, s.latitude AS latitude, s.longitude AS longitude, s.shape AS shape " +
+            "FROM Sighting s WHERE " +
+            "s.latitude BETWEEN :south AND :north AND " +
+            "s.longitude BETWEEN :west AND :east " +
+            "ORDER BY s.id")
+    List<SightingPoint> findPointsInBounds(
+            @Param("north") Double north,
+            @Param("south") Double south,
+            @Param("east") Double east,
+            @Param("west") Double west,
+            Pageable pageable
+    );
+
+    /**
+     * Keyset scan of the ids matching the same filters as {@link #findWithFilters}: the next batch in id order.
+     *
+     * @param afterId  Only ids greater than this are returned.
+     * @param pageable Batch size (the sort is ignored).
+     */
+    @Query("SELECT s.id FROM Sighting s WHERE s.id > :afterId AND " +
+            "(:shape IS NULL OR LOWER(s.shape) = LOWER(:shape)) AND " +
+            "(:city IS NULL OR LOWER(s.city) = LOWER(:city)) AND " +
+            "(:country IS NULL OR LOWER(s.country) = LOWER(:country)) AND " +
+            "(:state IS NULL OR LOWER(s.state) = LOWER(:state)) AND " +
+            "(:searchText IS NULL OR (" +
+            "LOWER(s.city) LIKE LOWER(CONCAT('%', :searchText, '%')) OR " +
+            "LOWER(s.state) LIKE LOWER(CONCAT('%', :searchText, '%')) OR " +
+            "LOWER(s.country) LIKE LOWER(CONCAT('%', :searchText, '%')) OR " +
+            "LOWER(s.summary) LIKE LOWER(CONCAT('%', :searchText, '%')) OR " +
+            "LOWER(s.shape) LIKE LOWER(CONCAT('%', :searchText, '%'))" +
+            ")) AND " +
+            "(:minDuration IS NULL OR s.durationSeconds >= :minDuration) AND " +
+            "(:maxDuration IS NULL OR s.durationSeconds <= :maxDuration) " +
+            "ORDER BY s.id")
+    List<Long> findIdsWithFiltersAfter(
+            @Param("afterId") Long afterId,
+            @Param("shape") String shape,
+            @Param("city") String city,
+            @Param("country") String country,
+            @Param("state") String state,
+            @Param("searchText") String searchText,
+            @Param("minDuration") Long minDuration,
+            @Param("maxDuration") Long maxDuration,
+            Pageable pageable
+    );
+
+    /**
+     * Keyset scan of the indexed columns, used to (re)build the in-memory bitmap index.
+     *
+     * @param afterId  Only rows with a greater id are returned.
+     * @param pageable Batch size (the sort is ignored; rows are ordered by id).
+     * @return The next batch of index rows.
+     */
+    @Query("SELECT s.id AS id, s.shape AS shape, s.country AS country, s.state AS state, " +
+            "s.submissionStatus AS submissionStatus " +
+            "FROM Sighting s WHERE s.id > :afterId ORDER BY s.id")
+    List<SightingIndexRow> findIndexRowsAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    /**
+     * Keyset scan of whole sightings in id order, used by the snapshot export.
+     *
+     * @param afterId  Only sightings with a greater id are returned.
+     * @param pageable Batch size.
+     * @return The next batch of sightings.
+     */
+    List<Sighting> findByIdGreaterThanOrderByIdAsc(Long afterId, Pageable pageable);
+
+    /**
+     * Keyset scan of sighting locations since a time, in (dateTime, id) order, used to seed the
+     * hotspot baseline. Reads the date_time index range instead of the table.
+     *
+     * @param afterTime Start of the range, or the time of the last row of the previous batch.
+     * @param afterId   0, or the id of the last row of the previous batch.
+     * @param pageable  Batch size.
+     */
+    @Query("SELECT s.id AS id, s.latitude AS latitude, s.longitude AS longitude, s.dateTime AS dateTime " +
+            "FROM Sighting s WHERE s.dateTime > :afterTime OR (s.dateTime = :afterTime AND s.id > :afterId) " +
+            "ORDER BY s.dateTime, s.id")
+    List<SightingLocation> findLocationsAfter(@Param("afterTime") LocalDateTime afterTime,
+                                              @Param("afterId") Long afterId,
+                                              Pageable pageable);
+
+    // Distinct values with sighting counts, used to build the autocomplete index
+
+    @Query("SELECT s.city AS value, COUNT(s) AS count FROM Sighting s WHERE s.city IS NOT NULL GROUP BY s.city")
+    List<ValueCount> countByCity();
+
+    @Query("SELECT s.state AS value, COUNT(s) AS count FROM Sighting s WHERE s.state IS NOT NULL GROUP BY s.state")
+    List<ValueCount> countByState();
+
+    @Query("SELECT s.country AS value, COUNT(s) AS count FROM Sighting s WHERE s.country IS NOT NULL GROUP BY s.country")
+    List<ValueCount> countByCountry();
+
+    @Query("SELECT s.shape AS value, COUNT(s) AS count FROM Sighting s WHERE s.shape IS NOT NULL GROUP BY s.shape")
+    List<ValueCount> countByShape();
+
+    // Moderation queue
+
+    /**
+     * Locks up to {@code limit} pending sightings that are unclaimed, whose lease has expired,
+     * or that are already claimed by this moderator, oldest submission first.
+     * Rows locked by a concurrent claim are skipped rather than waited for, so two moderators
+     * never receive the same sighting. Must run inside the claiming transaction.
+     */
+    @Query(value = "SELECT id FROM sightings " +
+            "WHERE submission_status = 'pending' " +
+            "AND (claimed_by IS NULL OR claim_expires_at < :now OR claimed_by = :moderator) " +
+            "ORDER BY submission_date NULLS LAST, id " +
+            "LIMIT :limit FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<Long> lockClaimablePendingIds(
+            @Param("moderator") String moderator,
+            @Param("now") LocalDateTime now,
+            @Param("limit") int limit
+    );
+
+    @Modifying
+    @Query("UPDATE Sighting s SET s.claimedBy = :moderator, s.claimExpiresAt = :expiresAt WHERE s.id IN :ids")
+    int claim(
+            @Param("ids") List<Long> ids,
+            @Param("moderator") String moderator,
+            @Param("expiresAt") LocalDateTime expiresAt
+    );
+
+    @Modifying
+    @Query("UPDATE Sighting s SET s.claimedBy = NULL, s.claimExpiresAt = NULL " +
+            "WHERE s.claimedBy = :moderator AND s.submissionStatus = :status")
+    int releaseClaims(@Param("moderator") String moderator, @Param("status") SubmissionStatus status);
+
+    /**
+     * Locks ({@code FOR UPDATE}) those of {@code ids} that a bulk status change by {@code moderator}
+     * may update: unclaimed, claimed by this moderator, or with an expired claim. Must run inside
+     * the updating transaction, so the rows cannot be claimed or change status before the UPDATE.
+     *
+     * @param fromStatus If not null, only sightings currently in this status
+     *                   ({@link SubmissionStatus#getStatus()}) are returned.
+     */
+    @Query(value = "SELECT id FROM sightings " +
+            "WHERE id IN (:ids) AND (CAST(:fromStatus AS varchar) IS NULL OR submission_status = :fromStatus) " +
+            "AND (claimed_by IS NULL OR claim_expires_at < :now OR claimed_by = :moderator) " +
+            "ORDER BY id FOR UPDATE", nativeQuery = true)
+    List<Long> lockUpdatableIds(
+            @Param("ids") List<Long> ids,
+            @Param("fromStatus") String fromStatus,
+            @Param("moderator") String moderator,
+            @Param("now") LocalDateTime now
+    );
+
+    /**
+     * How many of {@code ids} (in {@code fromStatus}, if not null) another moderator holds an unexpired claim on.
+     */
+    @Query(value = "SELECT COUNT(*) FROM sightings " +
+            "WHERE id IN (:ids) AND (CAST(:fromStatus AS varchar) IS NULL OR submission_status = :fromStatus) " +
+            "AND claimed_by <> :moderator AND claim_expires_at >= :now", nativeQuery = true)
+    int countClaimedByOthers(
+            @Param("ids") List<Long> ids,
+            @Param("fromStatus") String fromStatus,
+            @Param("moderator") String moderator,
+            @Param("now") LocalDateTime now
+    );
+
+    /**
+     * Set-based status change; also releases any moderation claim on the rows.
+     */
+    @Modifying
+    @Query("UPDATE Sighting s SET s.submissionStatus = :status, s.claimedBy = NULL, s.claimExpiresAt = NULL " +
+            "WHERE s.id IN :ids")
+    int updateStatus(@Param("ids") List<Long> ids, @Param("status") SubmissionStatus status);
+
+    /**
+     * Sightings in {@code status} that happened before {@code before}, in id order, locked
+     * ({@code FOR UPDATE}) so they cannot change while they are moved to the archive.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM Sighting s WHERE s.submissionStatus = :status AND s.dateTime < :before ORDER BY s.id")
+    List<Sighting> findArchivableForUpdate(
+            @Param("status") SubmissionStatus status,
+            @Param("before") LocalDateTime before,
+            Pageable pageable
+    );
+}
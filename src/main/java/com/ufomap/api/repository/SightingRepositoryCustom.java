@@ -0,0 +1,47 @@
+package com.ufomap.api.repository;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Sparse-fieldset queries: only the requested columns are selected, and each row is
+ * returned as a map of field name to value (in the requested order).
+ * Field names are the {@code SightingDTO} / {@code Sighting} property names.
+ */
+public interface SightingRepositoryCustom {
+
+    Page<Map<String, Object>> findAllFields(List<String> fields, Pageable pageable);
+
+    Optional<Map<String, Object>> findFieldsById(List<String> fields, Long id);
+
+    /**
+     * Same filter semantics as {@link SightingRepository#findWithFilters}.
+     */
+    Page<Map<String, Object>> findFieldsWithFilters(
+            List<String> fields,
+            String shape,
+            String city,
+            String country,
+            String state,
+            String searchText,
+            Long minDuration,
+            Long maxDuration,
+            Pageable pageable
+    );
+
+    /**
+     * Same bounding-box semantics as {@link SightingRepository#findInBounds}.
+     */
+    Page<Map<String, Object>> findFieldsInBounds(
+            List<String> fields,
+            Double north,
+            Double south,
+            Double east,
+            Double west,
+            Pageable pageable
+    );
+}
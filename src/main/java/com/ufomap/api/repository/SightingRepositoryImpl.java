@@ -0,0 +1,164 @@
+package com.ufomap.api.repository;
+
+import com.ufomap.api.model.Sighting;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.data.support.PageableExecutionUtils;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.BiFunction;
+
+/**
+ * Criteria API implementation of {@link SightingRepositoryCustom}.
+ * Builds a tuple query selecting just the requested attributes, so dropping e.g. the
+ * {@code summary} TEXT column also drops it from the SQL.
+ */
+class SightingRepositoryImpl implements SightingRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Page<Map<String, Object>> findAllFields(List<String> fields, Pageable pageable) {
+        return findFields(fields, (cb, root) -> new ArrayList<>(), pageable);
+    }
+
+    @Override
+    public Optional<Map<String, Object>> findFieldsById(List<String> fields, Long id) {
+        List<String> selected = SightingFields.validate(fields);
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<Sighting> root = query.from(Sighting.class);
+        query.multiselect(selections(root, selected)).where(cb.equal(root.get("id"), id));
+
+        return entityManager.createQuery(query).getResultStream()
+                .findFirst()
+                .map(tuple -> toMap(tuple, selected));
+    }
+
+    @Override
+    public Page<Map<String, Object>> findFieldsWithFilters(
+            List<String> fields,
+            String shape,
+            String city,
+            String country,
+            String state,
+            String searchText,
+            Long minDuration,
+            Long maxDuration,
+            Pageable pageable) {
+        return findFields(fields, (cb, root) -> {
+            List<Predicate> predicates = new ArrayList<>();
+            equalsIgnoreCase(cb, root, "shape", shape, predicates);
+            equalsIgnoreCase(cb, root, "city", city, predicates);
+            equalsIgnoreCase(cb, root, "country", country, predicates);
+            equalsIgnoreCase(cb, root, "state", state, predicates);
+            if (searchText != null) {
+                String pattern = "%" + searchText.toLowerCase(Locale.ROOT) + "%";
+                predicates.add(cb.or(
+                        cb.like(cb.lower(root.<String>get("city")), pattern),
+                        cb.like(cb.lower(root.<String>get("state")), pattern),
+                        cb.like(cb.lower(root.<String>get("country")), pattern),
+                        cb.like(cb.lower(root.<String>get("summary")), pattern),
+                        cb.like(cb.lower(root.<String>get("shape")), pattern)
+                ));
+            }
+            if (minDuration != null) {
+                predicates.add(cb.greaterThanOrEqualTo(root.<Long>get("durationSeconds"), minDuration));
+            }
+            if (maxDuration != null) {
+                predicates.add(cb.lessThanOrEqualTo(root.<Long>get("durationSeconds"), maxDuration));
+            }
+            return predicates;
+        }, pageable);
+    }
+
+    @Override
+    public Page<Map<String, Object>> findFieldsInBounds(
+            List<String> fields,
+            Double north,
+            Double south,
+            Double east,
+            Double west,
+            Pageable pageable) {
+        return findFields(fields, (cb, root) -> {
+            List<Predicate> predicates = new ArrayList<>();
+            predicates.add(cb.between(root.<Double>get("latitude"), south, north));
+            predicates.add(cb.between(root.<Double>get("longitude"), west, east));
+            return predicates;
+        }, pageable);
+    }
+
+    private Page<Map<String, Object>> findFields(
+            List<String> fields,
+            BiFunction<CriteriaBuilder, Root<Sighting>, List<Predicate>> filter,
+            Pageable pageable) {
+        List<String> selected = SightingFields.validate(fields);
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<Sighting> root = query.from(Sighting.class);
+        query.multiselect(selections(root, selected))
+                .where(filter.apply(cb, root).toArray(new Predicate[0]));
+        if (pageable.getSort().isSorted()) {
+            query.orderBy(QueryUtils.toOrders(pageable.getSort(), root, cb));
+        }
+
+        TypedQuery<Tuple> typedQuery = entityManager.createQuery(query);
+        if (pageable.isPaged()) {
+            typedQuery.setFirstResult((int) pageable.getOffset());
+            typedQuery.setMaxResults(pageable.getPageSize());
+        }
+        List<Map<String, Object>> content = typedQuery.getResultStream()
+                .map(tuple -> toMap(tuple, selected))
+                .toList();
+
+        return PageableExecutionUtils.getPage(content, pageable, () -> {
+            CriteriaQuery<Long> countQuery = cb.createQuery(Long.class);
+            Root<Sighting> countRoot = countQuery.from(Sighting.class);
+            countQuery.select(cb.count(countRoot))
+                    .where(filter.apply(cb, countRoot).toArray(new Predicate[0]));
+            return entityManager.createQuery(countQuery).getSingleResult();
+        });
+    }
+
+    private static List<Selection<?>> selections(Root<Sighting> root, List<String> fields) {
+        List<Selection<?>> selections = new ArrayList<>(fields.size());
+        for (String field : fields) {
+            selections.add(root.get(field).alias(field));
+        }
+        return selections;
+    }
+
+    private static Map<String, Object> toMap(Tuple tuple, List<String> fields) {
+        Map<String, Object> row = new LinkedHashMap<>();
+        for (String field : fields) {
+            row.put(field, SightingFields.responseValue(tuple.get(field)));
+        }
+        return row;
+    }
+
+    private static void equalsIgnoreCase(CriteriaBuilder cb, Root<Sighting> root, String attribute,
+                                         String value, List<Predicate> predicates) {
+        if (value != null) {
+            Expression<String> column = cb.lower(root.<String>get(attribute));
+            predicates.add(cb.equal(column, value.toLowerCase(Locale.ROOT)));
+        }
+    }
+}
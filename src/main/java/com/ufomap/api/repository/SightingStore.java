@@ -0,0 +1,21 @@
+package com.ufomap.api.repository;
+
+import com.ufomap.api.model.Sighting;
+
+import java.util.Optional;
+
+/**
+ * Where {@link com.ufomap.api.service.SightingService} loads sightings for modification and saves
+ * them: the JPA repository, or the geo-partitioned shards in the {@code sharded} profile.
+ */
+public interface SightingStore {
+
+    Optional<Sighting> findById(Long id);
+
+    /**
+     * Inserts a new sighting (assigning its id) or updates an existing one.
+     *
+     * @return The saved sighting.
+     */
+    Sighting save(Sighting sighting);
+}
@@ -0,0 +1,11 @@
+package com.ufomap.api.repository;
+
+/**
+ * Interface projection for a distinct column value and the number of sightings that have it.
+ */
+public interface ValueCount {
+
+    String getValue();
+
+    Long getCount();
+}
@@ -0,0 +1,59 @@
+package com.ufomap.api.security;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.oauth2.jose.jws.MacAlgorithm;
+import org.springframework.security.oauth2.jwt.JwsHeader;
+import org.springframework.security.oauth2.jwt.JwtClaimsSet;
+import org.springframework.security.oauth2.jwt.JwtEncoder;
+import org.springframework.security.oauth2.jwt.JwtEncoderParameters;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Issues signed bearer tokens for already-authenticated users.
+ */
+@Service
+public class JwtTokenService {
+
+    private final JwtEncoder jwtEncoder;
+    private final Duration tokenTtl;
+    private final String issuer;
+    private final String audience;
+
+    public JwtTokenService(JwtEncoder jwtEncoder,
+                           @Value("${ufomap.security.jwt.ttl:PT1H}") Duration tokenTtl,
+                           @Value("${ufomap.security.jwt.issuer:ufo-sighting-api}") String issuer,
+                           @Value("${ufomap.security.jwt.audience:ufo-sighting-api}") String audience) {
+        this.jwtEncoder = jwtEncoder;
+        this.tokenTtl = tokenTtl;
+        this.issuer = issuer;
+        this.audience = audience;
+    }
+
+    public String issueToken(Authentication authentication) {
+        Instant now = Instant.now();
+        String scope = authentication.getAuthorities().stream()
+                .map(GrantedAuthority::getAuthority)
+                .collect(Collectors.joining(" "));
+        JwtClaimsSet claims = JwtClaimsSet.builder()
+                .issuer(issuer)
+                .audience(List.of(audience))
+                .subject(authentication.getName())
+                .issuedAt(now)
+                .expiresAt(now.plus(tokenTtl))
+                .claim("scope", scope)
+                .build();
+        JwsHeader header = JwsHeader.with(MacAlgorithm.HS256).build();
+        return jwtEncoder.encode(JwtEncoderParameters.from(header, claims)).getTokenValue();
+    }
+
+    public Duration getTokenTtl() {
+        return tokenTtl;
+    }
+}
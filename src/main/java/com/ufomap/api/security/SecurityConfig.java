@@ -1,11 +1,20 @@
 package com.ufomap.api.security;
 
+import com.ufomap.api.profiling.JfrEndpoint;
+import com.ufomap.api.security.ratelimit.RateLimitFilter;
+import com.ufomap.api.security.ratelimit.RateLimitProperties;
+import com.ufomap.api.security.ratelimit.RateLimiterRegistry;
+import org.springframework.boot.actuate.autoconfigure.security.servlet.EndpointRequest;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.Order;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
+import org.springframework.security.oauth2.server.resource.web.authentication.BearerTokenAuthenticationFilter;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.authentication.www.BasicAuthenticationFilter;
 import org.springframework.security.web.util.matcher.AntPathRequestMatcher;
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
@@ -15,25 +24,66 @@ import java.util.Arrays;
 
 @Configuration
 @EnableWebSecurity
+@EnableConfigurationProperties(RateLimitProperties.class)
 public class SecurityConfig {
 
+    /**
+     * {@code /api/auth/**} only accepts HTTP Basic: a token is issued for the user's credentials,
+     * never in exchange for another (possibly stolen) bearer token, which would extend it forever.
+     */
     @Bean
-    public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
+    @Order(1)
+    public SecurityFilterChain tokenIssuingFilterChain(HttpSecurity http,
+                                                       RateLimiterRegistry rateLimiterRegistry,
+                                                       RateLimitProperties rateLimitProperties) throws Exception {
+        http
+                .securityMatcher("/api/auth/**")
+                .cors(cors -> cors.configurationSource(corsConfigurationSource()))
+                .csrf(csrf -> csrf.disable())
+                .authorizeHttpRequests(auth -> auth.anyRequest().authenticated())
+                .httpBasic(httpBasic -> {})
+                .addFilterBefore(new RateLimitFilter(rateLimiterRegistry, rateLimitProperties),
+                        BasicAuthenticationFilter.class)
+                .sessionManagement(session -> session
+                        .sessionCreationPolicy(SessionCreationPolicy.STATELESS)
+                );
+
+        return http.build();
+    }
+
+    @Bean
+    @Order(2)
+    public SecurityFilterChain securityFilterChain(HttpSecurity http,
+                                                   RateLimiterRegistry rateLimiterRegistry,
+                                                   RateLimitProperties rateLimitProperties) throws Exception {
         // Modern Spring Security 6.x configuration
         http
                 .cors(cors -> cors.configurationSource(corsConfigurationSource()))
                 .csrf(csrf -> csrf.disable())
                 .authorizeHttpRequests(auth -> auth
+                        // Recordings hold heap, thread and request details of this instance
+                        .requestMatchers(EndpointRequest.to(JfrEndpoint.class)).hasRole("ADMIN")
                         // Public endpoints
                         .requestMatchers("/api/sightings").permitAll()
                         .requestMatchers("/api/sightings/filter").permitAll()
                         .requestMatchers("/api/sightings/bounds").permitAll()
+                        .requestMatchers("/api/sightings/bounds/points").permitAll()
+                        .requestMatchers("/api/sightings/suggest").permitAll()
+                        .requestMatchers("/api/sightings/hotspots").permitAll()
                         .requestMatchers("/api/sightings/{id}").permitAll()
                         // Secured endpoints
                         .requestMatchers("/api/sightings/{id}/status").authenticated()
+                        // Hotspot alert streams hold a connection each and are capped per user
+                        .requestMatchers("/api/sightings/hotspots/alerts").authenticated()
                         .anyRequest().authenticated()
                 )
+                // Basic still works but costs a BCrypt check per request; clients should use the bearer token
                 .httpBasic(httpBasic -> {})
+                .oauth2ResourceServer(oauth2 -> oauth2.jwt(jwt -> {}))
+                // Throttle and shed load before spending anything on authentication; the bearer token
+                // filter is the first authentication filter in this chain, ahead of Basic
+                .addFilterBefore(new RateLimitFilter(rateLimiterRegistry, rateLimitProperties),
+                        BearerTokenAuthenticationFilter.class)
                 .sessionManagement(session -> session
                         .sessionCreationPolicy(SessionCreationPolicy.STATELESS)
                 );
@@ -52,4 +102,4 @@ public class SecurityConfig {
         source.registerCorsConfiguration("/**", configuration);
         return source;
     }
-}
\ No newline at end of file
+}
\ No newline at end of file
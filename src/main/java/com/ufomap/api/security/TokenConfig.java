@@ -0,0 +1,103 @@
+package com.ufomap.api.security;
+
+import com.nimbusds.jose.jwk.source.ImmutableSecret;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.oauth2.core.DelegatingOAuth2TokenValidator;
+import org.springframework.security.oauth2.jose.jws.MacAlgorithm;
+import org.springframework.security.oauth2.jwt.JwtClaimNames;
+import org.springframework.security.oauth2.jwt.JwtClaimValidator;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtEncoder;
+import org.springframework.security.oauth2.jwt.JwtValidators;
+import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
+import org.springframework.security.oauth2.jwt.NimbusJwtEncoder;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationConverter;
+import org.springframework.security.oauth2.server.resource.authentication.JwtGrantedAuthoritiesConverter;
+import org.springframework.security.provisioning.InMemoryUserDetailsManager;
+
+import javax.crypto.SecretKey;
+import javax.crypto.spec.SecretKeySpec;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * Credentials and bearer-token signing.
+ * <p>
+ * Passwords are BCrypt-hashed, so they are only checked where that cost is acceptable: once per
+ * {@code POST /api/auth/token}. Every other authenticated request presents an HS256-signed
+ * token that is verified locally with the shared secret, without touching the password encoder.
+ * There is no default secret: startup fails unless one is configured (the {@code dev} profile has
+ * a fixed one for local use).
+ */
+@Configuration
+public class TokenConfig {
+
+    private static final int MIN_SECRET_BYTES = 32; // HS256 needs a 256-bit key
+
+    @Bean
+    public SecretKey jwtSigningKey(@Value("${ufomap.security.jwt.secret:}") String base64Secret) {
+        if (base64Secret.isBlank()) {
+            throw new IllegalStateException("ufomap.security.jwt.secret is not set: set UFOMAP_JWT_SECRET "
+                    + "(base64, at least " + MIN_SECRET_BYTES + " bytes), or run locally with the dev profile");
+        }
+        byte[] secret = Base64.getDecoder().decode(base64Secret);
+        if (secret.length < MIN_SECRET_BYTES) {
+            throw new IllegalStateException("ufomap.security.jwt.secret must be at least "
+                    + MIN_SECRET_BYTES + " bytes (base64-encoded)");
+        }
+        return new SecretKeySpec(secret, "HmacSHA256");
+    }
+
+    @Bean
+    public JwtEncoder jwtEncoder(SecretKey jwtSigningKey) {
+        return new NimbusJwtEncoder(new ImmutableSecret<>(jwtSigningKey));
+    }
+
+    // Signature and expiry are not enough: the token must also have been issued by and for this API
+    @Bean
+    public JwtDecoder jwtDecoder(SecretKey jwtSigningKey,
+                                 @Value("${ufomap.security.jwt.issuer:ufo-sighting-api}") String issuer,
+                                 @Value("${ufomap.security.jwt.audience:ufo-sighting-api}") String audience) {
+        NimbusJwtDecoder decoder = NimbusJwtDecoder.withSecretKey(jwtSigningKey)
+                .macAlgorithm(MacAlgorithm.HS256)
+                .build();
+        decoder.setJwtValidator(new DelegatingOAuth2TokenValidator<>(
+                JwtValidators.createDefaultWithIssuer(issuer),
+                new JwtClaimValidator<List<String>>(JwtClaimNames.AUD,
+                        audiences -> audiences != null && audiences.contains(audience))));
+        return decoder;
+    }
+
+    // The scope claim holds the user's authorities as issued (ROLE_ADMIN, ...), so a bearer token
+    // grants the same roles as the HTTP Basic login it was issued for, without a SCOPE_ prefix
+    @Bean
+    public JwtAuthenticationConverter jwtAuthenticationConverter() {
+        JwtGrantedAuthoritiesConverter authorities = new JwtGrantedAuthoritiesConverter();
+        authorities.setAuthorityPrefix("");
+        JwtAuthenticationConverter converter = new JwtAuthenticationConverter();
+        converter.setJwtGrantedAuthoritiesConverter(authorities);
+        return converter;
+    }
+
+    @Bean
+    public PasswordEncoder passwordEncoder() {
+        return new BCryptPasswordEncoder(10);
+    }
+
+    // Declaring a JwtDecoder turns off Boot's default user, so the spring.security.user.* account is defined here
+    @Bean
+    public UserDetailsService userDetailsService(SecurityProperties securityProperties, PasswordEncoder passwordEncoder) {
+        SecurityProperties.User user = securityProperties.getUser();
+        return new InMemoryUserDetailsManager(User.withUsername(user.getName())
+                .password(passwordEncoder.encode(user.getPassword()))
+                .roles(user.getRoles().toArray(new String[0]))
+                .build());
+    }
+}
@@ -0,0 +1,82 @@
+package com.ufomap.api.security.ratelimit;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Global in-flight request limit that adapts to latency (gradient algorithm).
+ * <p>
+ * Every window the average latency is compared to the long-term best ({@code minRtt});
+ * {@code gradient = tolerance * minRtt / avgRtt}, clamped to [0.5, 1]. The new limit is
+ * {@code limit * gradient + sqrt(limit)}, so the limit grows while latency stays flat and
+ * shrinks as soon as requests start queueing (e.g. waiting for database connections).
+ * Acquire/release are lock-free; the recalculation is done by whichever thread wins the window CAS.
+ */
+class AdaptiveConcurrencyLimiter {
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double tolerance;
+    private final long windowNanos;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final LongAdder rttSumNanos = new LongAdder();
+    private final LongAdder rttSamples = new LongAdder();
+    private final AtomicLong nextUpdateNanos;
+    private volatile double limit;
+    private volatile long minRttNanos = Long.MAX_VALUE;
+
+    AdaptiveConcurrencyLimiter(RateLimitProperties.Concurrency settings, long nowNanos) {
+        this.minLimit = settings.getMinLimit();
+        this.maxLimit = settings.getMaxLimit();
+        this.tolerance = settings.getTolerance();
+        this.windowNanos = settings.getWindowMillis() * 1_000_000L;
+        this.limit = settings.getInitialLimit();
+        this.nextUpdateNanos = new AtomicLong(nowNanos + windowNanos);
+    }
+
+    boolean tryAcquire() {
+        if (inFlight.incrementAndGet() > (int) limit) {
+            inFlight.decrementAndGet();
+            return false;
+        }
+        return true;
+    }
+
+    void release(long startNanos, long nowNanos) {
+        inFlight.decrementAndGet();
+        rttSumNanos.add(nowNanos - startNanos);
+        rttSamples.increment();
+
+        long next = nextUpdateNanos.get();
+        if (nowNanos >= next && nextUpdateNanos.compareAndSet(next, nowNanos + windowNanos)) {
+            updateLimit();
+        }
+    }
+
+    private void updateLimit() {
+        long samples = rttSamples.sumThenReset();
+        long sum = rttSumNanos.sumThenReset();
+        if (samples == 0) {
+            return;
+        }
+        long averageRtt = Math.max(1, sum / samples);
+        // Let the baseline drift up slowly so a permanently slower backend is not punished forever
+        long baseline = Math.min(minRttNanos == Long.MAX_VALUE ? averageRtt : minRttNanos + minRttNanos / 100, averageRtt);
+        minRttNanos = baseline;
+
+        double gradient = Math.max(0.5, Math.min(1.0, tolerance * baseline / averageRtt));
+        double current = limit;
+        double next = current * gradient + Math.sqrt(current);
+        limit = Math.max(minLimit, Math.min(maxLimit, next));
+    }
+
+    int getLimit() {
+        return (int) limit;
+    }
+
+    int getInFlight() {
+        return inFlight.get();
+    }
+}
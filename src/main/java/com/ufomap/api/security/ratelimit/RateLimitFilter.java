@@ -0,0 +1,139 @@
+package com.ufomap.api.security.ratelimit;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Admission control for the API, added to the security filter chain ahead of authentication:
+ * <ol>
+ *     <li>Public read endpoints are throttled per client (a known API key, else IP) and endpoint;
+ *     over-limit requests get {@code 429} with {@code Retry-After}. So are requests that cost a
+ *     BCrypt password check ({@code /api/auth/**} and anything sent with Basic credentials), under
+ *     the {@code auth} endpoint, so passwords cannot be guessed at full speed.</li>
+ *     <li>All {@code /api/**} requests pass the global adaptive concurrency limiter; when it is
+ *     full the request is shed with {@code 503} before it can wait on a database connection.</li>
+ * </ol>
+ */
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private static final String API_PREFIX = "/api/";
+    private static final String AUTH = "/api/auth/";
+    private static final String BASIC_PREFIX = "Basic ";
+    private static final String SIGHTINGS = "/api/sightings";
+
+    private final RateLimiterRegistry registry;
+    private final RateLimitProperties properties;
+    private final Map<String, String> clientsByApiKey = new HashMap<>();
+
+    public RateLimitFilter(RateLimiterRegistry registry, RateLimitProperties properties) {
+        this.registry = registry;
+        this.properties = properties;
+        properties.getApiKeys().forEach((client, apiKey) -> clientsByApiKey.put(apiKey, client));
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !properties.isEnabled() || !path(request).startsWith(API_PREFIX);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String endpoint = endpoint(request);
+
+        if (endpoint != null) {
+            long waitNanos = registry.tryAcquire(endpoint, clientKey(request));
+            if (waitNanos > 0) {
+                registry.record(endpoint, "throttled");
+                long retryAfterSeconds = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + 999_999_999L));
+                reject(response, HttpStatus.TOO_MANY_REQUESTS, retryAfterSeconds, "Rate limit exceeded");
+                return;
+            }
+        }
+
+        String metricName = endpoint != null ? endpoint : "other";
+        if (!registry.tryEnter()) {
+            registry.record(metricName, "shed");
+            reject(response, HttpStatus.SERVICE_UNAVAILABLE, 1, "Server is at capacity, please retry");
+            return;
+        }
+
+        registry.record(metricName, "allowed");
+        long start = System.nanoTime();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            registry.exit(start);
+        }
+    }
+
+    /**
+     * Maps public read requests, and requests that check a password, to the endpoint names used in
+     * {@code ufomap.rate-limit.endpoints}; returns {@code null} for everything else (writes and
+     * endpoints authenticated with a bearer token).
+     */
+    static String endpoint(HttpServletRequest request) {
+        String path = path(request);
+        String authorization = request.getHeader(HttpHeaders.AUTHORIZATION);
+        if (path.startsWith(AUTH) || (authorization != null
+                && authorization.regionMatches(true, 0, BASIC_PREFIX, 0, BASIC_PREFIX.length()))) {
+            return "auth";
+        }
+        if (!HttpMethod.GET.matches(request.getMethod())) {
+            return null;
+        }
+        if (path.equals(SIGHTINGS)) {
+            return "list";
+        }
+        if (!path.startsWith(SIGHTINGS + "/")) {
+            return null;
+        }
+        String rest = path.substring(SIGHTINGS.length() + 1);
+        return switch (rest) {
+            case "filter" -> "filter";
+            case "bounds" -> "bounds";
+            case "bounds/points" -> "points";
+            case "suggest" -> "suggest";
+            case "hotspots" -> "hotspots";
+            case "hotspots/alerts" -> "hotspot-alerts";
+            default -> rest.chars().allMatch(Character::isDigit) && !rest.isEmpty() ? "by-id" : null;
+        };
+    }
+
+    // The filter runs before authentication, so a principal is not known yet; a configured API key
+    // is the only client identity that can be trusted here. The address is the client's, not the
+    // load balancer's, as long as server.forward-headers-strategy resolves X-Forwarded-For
+    String clientKey(HttpServletRequest request) {
+        String apiKey = request.getHeader(properties.getApiKeyHeader());
+        String client = apiKey != null ? clientsByApiKey.get(apiKey) : null;
+        return client != null ? "client:" + client : "ip:" + request.getRemoteAddr();
+    }
+
+    private static String path(HttpServletRequest request) {
+        return request.getRequestURI().substring(request.getContextPath().length());
+    }
+
+    private static void reject(HttpServletResponse response, HttpStatus status, long retryAfterSeconds, String message)
+            throws IOException {
+        response.setStatus(status.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        // Same shape as GlobalExceptionHandler's ErrorResponse
+        response.getWriter().write("{\"status\":" + status.value()
+                + ",\"message\":\"" + message + "\""
+                + ",\"timestamp\":\"" + LocalDateTime.now().withNano(0) + "\"}");
+    }
+}
@@ -0,0 +1,93 @@
+package com.ufomap.api.security.ratelimit;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Rate limiting and admission control settings ({@code ufomap.rate-limit.*}).
+ */
+@Data
+@ConfigurationProperties(prefix = "ufomap.rate-limit")
+public class RateLimitProperties {
+
+    private boolean enabled = true;
+
+    /**
+     * Header carrying the client's API key; clients without a known key are keyed by IP address.
+     */
+    private String apiKeyHeader = "X-API-Key";
+
+    /**
+     * Known API keys by client name. Only these give a client its own buckets; an unknown key is
+     * ignored, so rotating made-up keys cannot escape the per-IP limit.
+     */
+    private Map<String, String> apiKeys = new HashMap<>();
+
+    /**
+     * Most client buckets kept; beyond it, new clients share one overflow bucket per endpoint.
+     */
+    private int maxClients = 100_000;
+
+    /**
+     * How often buckets that have refilled completely are dropped.
+     */
+    private Duration sweepInterval = Duration.ofSeconds(30);
+
+    /**
+     * Limit applied to public endpoints without their own entry in {@link #endpoints}.
+     */
+    private Limit defaultLimit = new Limit();
+
+    /**
+     * Per-endpoint limits, keyed by endpoint name: {@code list}, {@code by-id}, {@code filter},
+     * {@code bounds}, {@code points}, {@code suggest}, {@code hotspots}, {@code hotspot-alerts}, and
+     * {@code auth} for requests that check a password.
+     */
+    private Map<String, Limit> endpoints = new HashMap<>();
+
+    private Concurrency concurrency = new Concurrency();
+
+    @Data
+    public static class Limit {
+
+        /**
+         * Requests a client may burst before being throttled.
+         */
+        private int capacity = 50;
+
+        /**
+         * Sustained requests per second per client.
+         */
+        private double refillPerSecond = 10;
+    }
+
+    @Data
+    public static class Concurrency {
+
+        private boolean enabled = true;
+
+        private int initialLimit = 20;
+
+        private int minLimit = 4;
+
+        /**
+         * Upper bound for in-flight requests; keep it close to the Hikari pool size so excess
+         * load is shed with 503 instead of queueing for connections.
+         */
+        private int maxLimit = 40;
+
+        /**
+         * How much slower than the best observed latency requests may get before the limit shrinks.
+         */
+        private double tolerance = 1.5;
+
+        /**
+         * Interval between limit recalculations.
+         */
+        private long windowMillis = 500;
+    }
+}
@@ -0,0 +1,130 @@
+package com.ufomap.api.security.ratelimit;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Holds the per-client token buckets and the global concurrency limiter, and exposes their
+ * state as metrics:
+ * <ul>
+ *     <li>{@code ufomap.ratelimit.requests} (tags: endpoint, outcome = allowed | throttled | shed)</li>
+ *     <li>{@code ufomap.ratelimit.buckets} - active client buckets</li>
+ *     <li>{@code ufomap.ratelimit.overflow} - requests counted against an endpoint's shared
+ *     overflow bucket because {@code max-clients} buckets were already in use</li>
+ *     <li>{@code ufomap.concurrency.limit} / {@code ufomap.concurrency.in-flight}</li>
+ * </ul>
+ */
+@Component
+public class RateLimiterRegistry {
+
+    private static final Logger logger = LoggerFactory.getLogger(RateLimiterRegistry.class);
+
+    private final RateLimitProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final ConcurrentHashMap<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, Counter> counters = new ConcurrentHashMap<>();
+    private final AdaptiveConcurrencyLimiter concurrencyLimiter;
+    private final Counter overflow;
+
+    private final ScheduledExecutorService sweeper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "rate-limit-sweeper");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public RateLimiterRegistry(RateLimitProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        this.concurrencyLimiter = new AdaptiveConcurrencyLimiter(properties.getConcurrency(), System.nanoTime());
+
+        Gauge.builder("ufomap.ratelimit.buckets", buckets, ConcurrentHashMap::size)
+                .description("Active per-client rate limit buckets")
+                .register(meterRegistry);
+        Gauge.builder("ufomap.concurrency.limit", concurrencyLimiter, AdaptiveConcurrencyLimiter::getLimit)
+                .description("Current adaptive limit of concurrent requests")
+                .register(meterRegistry);
+        Gauge.builder("ufomap.concurrency.in-flight", concurrencyLimiter, AdaptiveConcurrencyLimiter::getInFlight)
+                .description("Requests currently being processed")
+                .register(meterRegistry);
+        this.overflow = Counter.builder("ufomap.ratelimit.overflow")
+                .description("Requests throttled through a shared bucket because max-clients was reached")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        long period = properties.getSweepInterval().toMillis();
+        sweeper.scheduleAtFixedRate(this::sweepIdleBuckets, period, period, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        sweeper.shutdownNow();
+    }
+
+    /**
+     * @return 0 if the client may proceed, otherwise the nanoseconds until it may retry.
+     */
+    long tryAcquire(String endpoint, String clientKey) {
+        long now = System.nanoTime();
+        RateLimitProperties.Limit limit = properties.getEndpoints()
+                .getOrDefault(endpoint, properties.getDefaultLimit());
+        String key = endpoint + '|' + clientKey;
+        TokenBucket bucket = buckets.get(key);
+        if (bucket == null) {
+            // Past the cap, new clients share one bucket per endpoint until the sweeper frees room,
+            // so a flood of distinct addresses cannot grow the map without bound
+            if (buckets.size() >= properties.getMaxClients()) {
+                key = endpoint + "|overflow";
+                overflow.increment();
+            }
+            bucket = buckets.computeIfAbsent(key,
+                    ignored -> new TokenBucket(limit.getCapacity(), limit.getRefillPerSecond(), now));
+        }
+        return bucket.tryAcquire(now);
+    }
+
+    boolean tryEnter() {
+        return !properties.getConcurrency().isEnabled() || concurrencyLimiter.tryAcquire();
+    }
+
+    void exit(long startNanos) {
+        if (properties.getConcurrency().isEnabled()) {
+            concurrencyLimiter.release(startNanos, System.nanoTime());
+        }
+    }
+
+    void record(String endpoint, String outcome) {
+        counters.computeIfAbsent(endpoint + '|' + outcome, key -> Counter.builder("ufomap.ratelimit.requests")
+                        .tag("endpoint", endpoint)
+                        .tag("outcome", outcome)
+                        .register(meterRegistry))
+                .increment();
+    }
+
+    int getBucketCount() {
+        return buckets.size();
+    }
+
+    void sweepIdleBuckets() {
+        try {
+            long now = System.nanoTime();
+            int before = buckets.size();
+            buckets.values().removeIf(bucket -> bucket.isIdle(now));
+            logger.debug("Swept {} idle rate limit buckets", before - buckets.size());
+        } catch (RuntimeException e) {
+            logger.error("Rate limit bucket sweep failed", e);
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package com.ufomap.api.service;
+
+import com.ufomap.api.dto.BulkStatusUpdateRequest;
+import com.ufomap.api.dto.BulkStatusUpdateResultDTO;
+import com.ufomap.api.dto.SightingDTO;
+import com.ufomap.api.event.SightingsStatusChangedEvent;
+import com.ufomap.api.model.SubmissionStatus;
+import com.ufomap.api.repository.SightingRepository;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Moderation work queue for pending submissions.
+ * <p>
+ * Moderators claim batches of pending sightings under a time-limited lease; claiming uses
+ * {@code FOR UPDATE SKIP LOCKED}, so concurrent moderators get disjoint batches without blocking
+ * each other. Decisions are applied with set-based UPDATEs instead of one load-and-save per sighting,
+ * and never override another moderator's unexpired claim.
+ * Every operation writes, so all of them fail with {@code 503} while reads come from a read-only source.
+ */
+@Service
+@Profile("!sharded") // Claims and bulk updates run on the coordinator's sightings table
+@RequiredArgsConstructor
+public class ModerationService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ModerationService.class);
+
+    static final int MAX_BATCH_SIZE = 500;
+    static final Duration MAX_LEASE = Duration.ofHours(1);
+    // Keeps the IN lists of the bulk UPDATE well below driver parameter limits, and its transactions short
+    static final int UPDATE_CHUNK_SIZE = 1000;
+
+    private final SightingRepository sightingRepository;
+    private final SightingService sightingService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+
+    /**
+     * Claims up to {@code batchSize} pending sightings for {@code moderator} until the lease expires.
+     * Sightings the moderator already holds are renewed and included.
+     *
+     * @return The claimed sightings, oldest submission first.
+     */
+    @Transactional
+    public List<SightingDTO> claimBatch(String moderator, int batchSize, Duration lease) {
+        sightingService.requireWritable();
+        if (batchSize < 1 || batchSize > MAX_BATCH_SIZE) {
+            throw new IllegalArgumentException("batchSize must be between 1 and " + MAX_BATCH_SIZE);
+        }
+        if (lease.isNegative() || lease.isZero() || lease.compareTo(MAX_LEASE) > 0) {
+            throw new IllegalArgumentException("Lease must be positive and at most " + MAX_LEASE.toMinutes() + " minutes");
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        List<Long> ids = sightingRepository.lockClaimablePendingIds(moderator, now, batchSize);
+        if (ids.isEmpty()) {
+            return Collections.emptyList();
+        }
+        sightingRepository.claim(ids, moderator, now.plus(lease));
+        logger.debug("Moderator {} claimed {} sightings", moderator, ids.size());
+        return sightingService.getSightingsByIds(ids);
+    }
+
+    /**
+     * Gives back all pending sightings claimed by {@code moderator}.
+     *
+     * @return The number of released claims.
+     */
+    @Transactional
+    public int releaseClaims(String moderator) {
+        sightingService.requireWritable();
+        return sightingRepository.releaseClaims(moderator, SubmissionStatus.PENDING);
+    }
+
+    /**
+     * Sets the status of the requested ids, or of every sighting matching the request's filter.
+     * Works in chunks of {@value #UPDATE_CHUNK_SIZE} sightings, each locked, updated and announced in
+     * its own transaction; filter matches are found chunk by chunk with a keyset scan. Sightings that
+     * another moderator holds an unexpired claim on are skipped and counted in the result.
+     * <p>
+     * Chunks that committed stay committed if a later one fails.
+     */
+    public BulkStatusUpdateResultDTO updateStatus(BulkStatusUpdateRequest request, String moderator) {
+        sightingService.requireWritable();
+        boolean byIds = request.getIds() != null && !request.getIds().isEmpty();
+        if (!byIds && !request.hasFilter()) {
+            throw new IllegalArgumentException("Either ids or at least one filter field is required");
+        }
+
+        int updated = 0;
+        int claimedByOthers = 0;
+        long afterId = 0;
+        for (int from = 0; ; from += UPDATE_CHUNK_SIZE) {
+            List<Long> chunk;
+            if (byIds) {
+                if (from >= request.getIds().size()) {
+                    break;
+                }
+                chunk = request.getIds().subList(from, Math.min(from + UPDATE_CHUNK_SIZE, request.getIds().size()));
+            } else {
+                chunk = sightingRepository.findIdsWithFiltersAfter(afterId, request.getShape(), request.getCity(),
+                        request.getCountry(), request.getState(), request.getSearchText(), null, null,
+                        PageRequest.of(0, UPDATE_CHUNK_SIZE));
+                if (chunk.isEmpty()) {
+                    break;
+                }
+                afterId = chunk.get(chunk.size() - 1);
+            }
+            int[] counts = transactionTemplate.execute(tx -> updateChunk(chunk, request, moderator));
+            updated += counts[0];
+            claimedByOthers += counts[1];
+        }
+
+        logger.info("Bulk status update to {} by {}: {} sightings changed, {} skipped as claimed by others",
+                request.getStatus(), moderator, updated, claimedByOthers);
+        return new BulkStatusUpdateResultDTO(updated, request.getStatus(), claimedByOthers);
+    }
+
+    // Returns the number of updated sightings and the number skipped as claimed by another moderator
+    private int[] updateChunk(List<Long> chunk, BulkStatusUpdateRequest request, String moderator) {
+        String fromStatus = request.getFromStatus() != null ? request.getFromStatus().getStatus() : null;
+        LocalDateTime now = LocalDateTime.now();
+        // Locked, so exactly these rows are updated and reported even while others claim or moderate
+        List<Long> ids = sightingRepository.lockUpdatableIds(chunk, fromStatus, moderator, now);
+        int claimedByOthers = sightingRepository.countClaimedByOthers(chunk, fromStatus, moderator, now);
+        if (ids.isEmpty()) {
+            return new int[]{0, claimedByOthers};
+        }
+        sightingRepository.updateStatus(ids, request.getStatus());
+        // Listeners log the change in this transaction and update caches and indexes after it commits
+        eventPublisher.publishEvent(new SightingsStatusChangedEvent(ids, request.getStatus()));
+        return new int[]{ids.size(), claimedByOthers};
+    }
+}
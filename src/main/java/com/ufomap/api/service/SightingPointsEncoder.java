@@ -0,0 +1,73 @@
+package com.ufomap.api.service;
+
+import com.ufomap.api.dto.SightingPointsDTO;
+import com.ufomap.api.repository.SightingPoint;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Builds the delta-encoded, dictionary-encoded {@link SightingPointsDTO}.
+ * Points should be ordered by id so the id deltas stay small.
+ */
+public final class SightingPointsEncoder {
+
+    // 1e-5 degrees is roughly one metre, well below what a marker can show
+    public static final int COORDINATE_SCALE = 100_000;
+
+    private SightingPointsEncoder() {
+    }
+
+    public static SightingPointsDTO encode(List<? extends SightingPoint> points) {
+        int count = points.size();
+        long[] ids = new long[count];
+        int[] latitudes = new int[count];
+        int[] longitudes = new int[count];
+        int[] shapeIndexes = new int[count];
+        List<String> shapes = new ArrayList<>();
+        Map<String, Integer> shapeDictionary = new HashMap<>();
+
+        long previousId = 0;
+        int previousLatitude = 0;
+        int previousLongitude = 0;
+        for (int i = 0; i < count; i++) {
+            SightingPoint point = points.get(i);
+            long id = point.getId();
+            int latitude = toFixedPoint(point.getLatitude());
+            int longitude = toFixedPoint(point.getLongitude());
+
+            ids[i] = id - previousId;
+            latitudes[i] = latitude - previousLatitude;
+            longitudes[i] = longitude - previousLongitude;
+            previousId = id;
+            previousLatitude = latitude;
+            previousLongitude = longitude;
+
+            String shape = point.getShape();
+            if (shape == null) {
+                shapeIndexes[i] = -1;
+            } else {
+                shapeIndexes[i] = shapeDictionary.computeIfAbsent(shape, s -> {
+                    shapes.add(s);
+                    return shapes.size() - 1;
+                });
+            }
+        }
+
+        return SightingPointsDTO.builder()
+                .count(count)
+                .coordinateScale(COORDINATE_SCALE)
+                .ids(ids)
+                .latitudes(latitudes)
+                .longitudes(longitudes)
+                .shapes(shapes)
+                .shapeIndexes(shapeIndexes)
+                .build();
+    }
+
+    private static int toFixedPoint(Double degrees) {
+        return degrees == null ? 0 : (int) Math.round(degrees * COORDINATE_SCALE);
+    }
+}
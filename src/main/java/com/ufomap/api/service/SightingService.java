@@ -1,43 +1,82 @@
 package com.ufomap.api.service;
 
+import com.ufomap.api.dto.FacetedSightingsDTO;
+import com.ufomap.api.dto.HotspotDTO;
 import com.ufomap.api.dto.SightingDTO;
+import com.ufomap.api.dto.SightingPointsDTO;
+import com.ufomap.api.dto.SuggestionDTO;
+import com.ufomap.api.event.SightingChangedEvent;
+import com.ufomap.api.exception.ArchivedSightingException;
+import com.ufomap.api.exception.ReadOnlyModeException;
 import com.ufomap.api.exception.ResourceNotFoundException;
+import com.ufomap.api.hotspot.HotspotDetector;
+import com.ufomap.api.index.IndexedField;
+import com.ufomap.api.index.SightingBitmapIndex;
+import com.ufomap.api.index.SightingSuggestionIndex;
+import com.ufomap.api.index.SuggestField;
 import com.ufomap.api.model.Sighting;
-// import com.ufomap.api.model.SubmissionStatus; // Not directly used as method param here, but good to have if status logic is complex
-import com.ufomap.api.repository.SightingRepository;
+import com.ufomap.api.model.SubmissionStatus;
+import com.ufomap.api.profiling.DtoConversionEvent;
+import com.ufomap.api.profiling.QueryEvent;
+import com.ufomap.api.profiling.ServiceMethodEvent;
+import com.ufomap.api.repository.SightingReadSource;
+import com.ufomap.api.repository.SightingStore;
 import lombok.RequiredArgsConstructor;
+import org.roaringbitmap.PeekableIntIterator;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 // Removed Collectors import as Page.map is used
-// Removed List import as Page is used for paginated results
 
 /**
  * Service class for handling operations related to sightings.
  * This class contains methods for retrieving, creating, and updating sightings,
  * as well as applying filters and geographical bounds to the queries.
+ * <p>
+ * Public methods, read-source queries and DTO conversions are recorded as Flight Recorder events
+ * (see {@link com.ufomap.api.profiling}); they cost next to nothing while no recording is running.
  */
 @Service
 @RequiredArgsConstructor
 public class SightingService {
 
-    private final SightingRepository sightingRepository;
+    private static final int MAX_SUGGESTIONS = 50;
+    private static final int MAX_HOTSPOTS = 100;
+
+    private final SightingStore sightingStore; // Writes: JPA, or the shards in the "sharded" profile
+    private final SightingReadSource readSource; // Database, or a snapshot file in the "snapshot" profile
+    private final ApplicationEventPublisher eventPublisher;
+    private final SightingBitmapIndex bitmapIndex;
+    private final SightingSuggestionIndex suggestionIndex;
+    private final HotspotDetector hotspotDetector;
 
     public Page<SightingDTO> getAllSightings(Pageable pageable) {
-        return sightingRepository.findAll(pageable)
-                .map(this::convertToDTO);
+        return ServiceMethodEvent.timed("getAllSightings", Page::getNumberOfElements, () -> convertToDTOs(
+                QueryEvent.page(readSource, "findAll", "", pageable, () -> readSource.findAll(pageable))));
     }
 
     public SightingDTO getSightingById(Long id) {
-        Sighting sighting = sightingRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Sighting not found with id: " + id));
-        return convertToDTO(sighting);
+        return ServiceMethodEvent.timed("getSightingById", dto -> 1, () -> convertToDTO(readSource.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Sighting not found with id: " + id))));
     }
 
     public Sighting getSightingEntityById(Long id) {
-        return sightingRepository.findById(id)
+        return sightingStore.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Sighting not found with id: " + id));
     }
 
@@ -46,62 +85,306 @@ public class SightingService {
             String city,
             String country,
             String state,
-            String searchText, Pageable pageable) {
-        return sightingRepository.findWithFilters(shape, city, country, state, searchText, pageable)
-                .map(this::convertToDTO);
+            String searchText,
+            Long minDuration,
+            Long maxDuration, Pageable pageable) {
+        validateDurationRange(minDuration, maxDuration);
+        return ServiceMethodEvent.timed("getSightingsWithFilters", Page::getNumberOfElements, () -> {
+            // Filters on indexed fields only: answer from the bitmap index, no SQL scan
+            if (!hasUnindexedFilter(city, searchText, minDuration, maxDuration)
+                    && bitmapIndex.isReady() && isIdOrdered(pageable)) {
+                return pageOfIds(bitmapIndex.match(shape, country, state), pageable);
+            }
+            return convertToDTOs(findWithFilters(shape, city, country, state, searchText,
+                    minDuration, maxDuration, pageable));
+        });
+    }
+
+    /**
+     * Like {@link #getSightingsWithFilters}, plus shape/country/state facet counts over all matches.
+     * Facets need the bitmap index; while it is not ready they are returned empty.
+     */
+    public FacetedSightingsDTO getSightingsWithFacets(
+            String shape,
+            String city,
+            String country,
+            String state,
+            String searchText,
+            Long minDuration,
+            Long maxDuration, Pageable pageable) {
+        if (!bitmapIndex.isReady()) {
+            return FacetedSightingsDTO.builder()
+                    .results(getSightingsWithFilters(shape, city, country, state, searchText,
+                            minDuration, maxDuration, pageable))
+                    .facets(Collections.emptyMap())
+                    .build();
+        }
+
+        validateDurationRange(minDuration, maxDuration);
+        return ServiceMethodEvent.timed("getSightingsWithFacets",
+                faceted -> faceted.getResults().getNumberOfElements(), () -> {
+            RoaringBitmap matches = bitmapIndex.match(shape, country, state);
+            if (hasUnindexedFilter(city, searchText, minDuration, maxDuration)) {
+                // Id-only queries for the non-indexed filters, a batch at a time straight into a bitmap, then intersect
+                RoaringBitmap sqlMatches = new RoaringBitmap();
+                QueryEvent.scan(readSource, "forEachIdWithFilters",
+                        filterNames(shape, city, country, state, searchText, minDuration, maxDuration), () -> {
+                            readSource.forEachIdWithFilters(shape, city, country, state, searchText, minDuration,
+                                    maxDuration, id -> sqlMatches.add((int) id));
+                            return sqlMatches.getLongCardinality();
+                        });
+                matches.and(sqlMatches);
+            }
+
+            Page<SightingDTO> results = isIdOrdered(pageable)
+                    ? pageOfIds(matches, pageable)
+                    : convertToDTOs(findWithFilters(shape, city, country, state, searchText, minDuration, maxDuration,
+                            pageable));
+            return FacetedSightingsDTO.builder()
+                    .results(results)
+                    .facets(bitmapIndex.facets(matches, IndexedField.SHAPE, IndexedField.COUNTRY, IndexedField.STATE))
+                    .build();
+        });
     }
 
     public Page<SightingDTO> getSightingsInBounds(Double north, Double south, Double east, Double west, Pageable pageable) {
-        return sightingRepository.findInBounds(north, south, east, west, pageable)
-                .map(this::convertToDTO);
+        return ServiceMethodEvent.timed("getSightingsInBounds", Page::getNumberOfElements, () -> convertToDTOs(
+                QueryEvent.page(readSource, "findInBounds", "bounds", pageable,
+                        () -> readSource.findInBounds(north, south, east, west, pageable))));
+    }
+
+    // Sparse fieldsets: only the requested columns are selected and serialized
+
+    public Page<Map<String, Object>> getAllSightingFields(List<String> fields, Pageable pageable) {
+        return ServiceMethodEvent.timed("getAllSightingFields", Page::getNumberOfElements,
+                () -> QueryEvent.page(readSource, "findAllFields", "", pageable,
+                        () -> readSource.findAllFields(fields, pageable)));
+    }
+
+    public Map<String, Object> getSightingFieldsById(List<String> fields, Long id) {
+        return ServiceMethodEvent.timed("getSightingFieldsById", row -> 1, () -> readSource.findFieldsById(fields, id)
+                .orElseThrow(() -> new ResourceNotFoundException("Sighting not found with id: " + id)));
+    }
+
+    public Page<Map<String, Object>> getSightingFieldsWithFilters(
+            List<String> fields,
+            String shape,
+            String city,
+            String country,
+            String state,
+            String searchText,
+            Long minDuration,
+            Long maxDuration, Pageable pageable) {
+        validateDurationRange(minDuration, maxDuration);
+        return ServiceMethodEvent.timed("getSightingFieldsWithFilters", Page::getNumberOfElements,
+                () -> QueryEvent.page(readSource, "findFieldsWithFilters",
+                        filterNames(shape, city, country, state, searchText, minDuration, maxDuration), pageable,
+                        () -> readSource.findFieldsWithFilters(fields, shape, city, country, state, searchText,
+                                minDuration, maxDuration, pageable)));
+    }
+
+    public Page<Map<String, Object>> getSightingFieldsInBounds(
+            List<String> fields, Double north, Double south, Double east, Double west, Pageable pageable) {
+        return ServiceMethodEvent.timed("getSightingFieldsInBounds", Page::getNumberOfElements,
+                () -> QueryEvent.page(readSource, "findFieldsInBounds", "bounds", pageable,
+                        () -> readSource.findFieldsInBounds(fields, north, south, east, west, pageable)));
+    }
+
+    /**
+     * Loads several sightings at once, in the order of {@code ids}; unknown ids are skipped.
+     */
+    public List<SightingDTO> getSightingsByIds(List<Long> ids) {
+        return ServiceMethodEvent.timed("getSightingsByIds", List::size, () -> {
+            Map<Long, Sighting> byId = new HashMap<>();
+            findAllById(ids).forEach(sighting -> byId.put(sighting.getId(), sighting));
+            return DtoConversionEvent.timed(List::size, () -> ids.stream()
+                    .map(byId::get)
+                    .filter(Objects::nonNull)
+                    .map(this::convertToDTO)
+                    .toList());
+        });
+    }
+
+    public SightingPointsDTO getSightingPointsInBounds(Double north, Double south, Double east, Double west, Pageable pageable) {
+        // Points are always id-ordered so the id deltas stay small
+        Pageable unsorted = PageRequest.of(pageable.getPageNumber(), pageable.getPageSize());
+        return ServiceMethodEvent.timed("getSightingPointsInBounds", SightingPointsDTO::getCount,
+                () -> SightingPointsEncoder.encode(QueryEvent.list(readSource, "findPointsInBounds", "bounds", unsorted,
+                        () -> readSource.findPointsInBounds(north, south, east, west, unsorted))));
     }
 
+    /**
+     * Autocomplete for the search box, answered from memory only.
+     *
+     * @throws IllegalArgumentException if {@code field} is not city, state, country or shape.
+     */
+    public List<SuggestionDTO> suggest(String field, String prefix, int limit) {
+        if (limit < 1 || limit > MAX_SUGGESTIONS) {
+            throw new IllegalArgumentException("limit must be between 1 and " + MAX_SUGGESTIONS);
+        }
+        return suggestionIndex.suggest(SuggestField.fromParameter(field), prefix, limit);
+    }
+
+    /**
+     * The areas with a current burst of reports, answered from memory only.
+     *
+     * @throws IllegalArgumentException if {@code limit} is not between 1 and 100.
+     */
+    public List<HotspotDTO> getHotspots(int limit) {
+        if (limit < 1 || limit > MAX_HOTSPOTS) {
+            throw new IllegalArgumentException("limit must be between 1 and " + MAX_HOTSPOTS);
+        }
+        List<HotspotDTO> hotspots = hotspotDetector.getHotspots();
+        return hotspots.subList(0, Math.min(limit, hotspots.size()));
+    }
+
+    @Transactional // The sighting and its change log row commit together
     public SightingDTO createSighting(SightingDTO sightingDTO) {
-        sightingDTO.setSubmissionDate(LocalDateTime.now());
-        sightingDTO.setSubmissionStatus("pending"); // Default status for new submissions
-        sightingDTO.setUserSubmitted(true);       // Assuming createSighting is for user submissions
+        requireWritable();
+        return ServiceMethodEvent.timed("createSighting", created -> 1, () -> {
+            sightingDTO.setSubmissionDate(LocalDateTime.now());
+            sightingDTO.setSubmissionStatus(SubmissionStatus.PENDING); // Default status for new submissions
+            sightingDTO.setUserSubmitted(true);       // Assuming createSighting is for user submissions
 
-        Sighting sighting = convertToEntity(sightingDTO);
-        Sighting savedSighting = sightingRepository.save(sighting);
+            Sighting sighting = convertToEntity(sightingDTO);
+            Sighting savedSighting = sightingStore.save(sighting);
 
-        return convertToDTO(savedSighting);
+            SightingDTO created = convertToDTO(savedSighting);
+            eventPublisher.publishEvent(new SightingChangedEvent(SightingChangedEvent.Type.CREATED, null, created));
+            return created;
+        });
     }
 
+    @Transactional
     public SightingDTO updateSighting(Long id, SightingDTO sightingDTO) {
-        Sighting sighting = sightingRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Sighting not found with id: " + id));
+        requireWritable();
+        return ServiceMethodEvent.timed("updateSighting", updated -> 1, () -> {
+            Sighting sighting = sightingStore.findById(id).orElseThrow(() -> notWritable(id));
+            SightingDTO previous = convertToDTO(sighting);
 
-        // Update editable fields from DTO
-        // Be careful about which fields are truly updatable by a generic update method
-        sighting.setDateTime(sightingDTO.getDateTime());
-        sighting.setCity(sightingDTO.getCity());
-        sighting.setState(sightingDTO.getState());
-        sighting.setCountry(sightingDTO.getCountry());
-        sighting.setShape(sightingDTO.getShape());
-        sighting.setDuration(sightingDTO.getDuration());
-        sighting.setSummary(sightingDTO.getSummary());
-        sighting.setPosted(sightingDTO.getPosted()); // Or handle posting logic separately
-        sighting.setLatitude(sightingDTO.getLatitude());
-        sighting.setLongitude(sightingDTO.getLongitude());
-        // Deliberately not updating: id, submittedBy, submissionDate, isUserSubmitted, submissionStatus via this generic method
-        // submissionStatus should be updated via updateSightingStatus
+            // Update editable fields from DTO
+            // Be careful about which fields are truly updatable by a generic update method
+            sighting.setDateTime(sightingDTO.getDateTime());
+            sighting.setCity(sightingDTO.getCity());
+            sighting.setState(sightingDTO.getState());
+            sighting.setCountry(sightingDTO.getCountry());
+            sighting.setShape(sightingDTO.getShape());
+            sighting.setDuration(sightingDTO.getDuration());
+            sighting.setSummary(sightingDTO.getSummary());
+            sighting.setPosted(sightingDTO.getPosted()); // Or handle posting logic separately
+            sighting.setLatitude(sightingDTO.getLatitude());
+            sighting.setLongitude(sightingDTO.getLongitude());
+            // Deliberately not updating: id, submittedBy, submissionDate, isUserSubmitted, submissionStatus via this generic method
+            // submissionStatus should be updated via updateSightingStatus
 
-        Sighting updatedSighting = sightingRepository.save(sighting);
-        return convertToDTO(updatedSighting);
+            Sighting updatedSighting = sightingStore.save(sighting);
+            SightingDTO updated = convertToDTO(updatedSighting);
+            eventPublisher.publishEvent(new SightingChangedEvent(SightingChangedEvent.Type.UPDATED, previous, updated));
+            return updated;
+        });
     }
 
 
-    public SightingDTO updateSightingStatus(Long id, String status) { // Expecting String status from controller
-        Sighting sighting = sightingRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Sighting not found with id: " + id));
+    @Transactional
+    public SightingDTO updateSightingStatus(Long id, SubmissionStatus status) {
+        requireWritable();
+        return ServiceMethodEvent.timed("updateSightingStatus", updated -> 1, () -> {
+            Sighting sighting = sightingStore.findById(id).orElseThrow(() -> notWritable(id));
+            SightingDTO previous = convertToDTO(sighting);
+
+            sighting.setSubmissionStatus(status);
+            // A decision ends any moderation claim on the sighting
+            sighting.setClaimedBy(null);
+            sighting.setClaimExpiresAt(null);
+            Sighting updatedSighting = sightingStore.save(sighting);
+
+            SightingDTO updated = convertToDTO(updatedSighting);
+            eventPublisher.publishEvent(new SightingChangedEvent(SightingChangedEvent.Type.STATUS_CHANGED, previous, updated));
+            return updated;
+        });
+    }
+
+    /**
+     * Rejects writes when sightings are served from a read-only snapshot.
+     *
+     * @throws ReadOnlyModeException if the read source is not writable.
+     */
+    public void requireWritable() {
+        if (!readSource.isWritable()) {
+            throw new ReadOnlyModeException("Sightings are served from a read-only snapshot");
+        }
+    }
+
+    // Archived sightings are readable through the read source but absent from the store
+    private RuntimeException notWritable(Long id) {
+        if (readSource.findById(id).isPresent()) {
+            return new ArchivedSightingException("Sighting " + id + " is archived; restore its segment to modify it");
+        }
+        return new ResourceNotFoundException("Sighting not found with id: " + id);
+    }
 
-        // Optional: Validate if 'status' string is a valid SubmissionStatus
-        // com.ufomap.api.model.SubmissionStatus.fromString(status); // This would throw IllegalArgumentException if invalid
+    // The bitmap index covers shape, country and state only
+    private static boolean hasUnindexedFilter(String city, String searchText, Long minDuration, Long maxDuration) {
+        return city != null || searchText != null || minDuration != null || maxDuration != null;
+    }
+
+    private static void validateDurationRange(Long minDuration, Long maxDuration) {
+        if (minDuration != null && maxDuration != null && minDuration > maxDuration) {
+            throw new IllegalArgumentException("minDuration must not be greater than maxDuration");
+        }
+    }
 
-        sighting.setSubmissionStatus(status);
-        Sighting updatedSighting = sightingRepository.save(sighting);
+    // Bitmap ids are ascending, so they can be paged directly when no other order is requested
+    private static boolean isIdOrdered(Pageable pageable) {
+        Sort sort = pageable.getSort();
+        if (sort.isUnsorted()) {
+            return true;
+        }
+        List<Sort.Order> orders = sort.toList();
+        return orders.size() == 1 && orders.get(0).getProperty().equals("id") && orders.get(0).isAscending();
+    }
+
+    private Page<SightingDTO> pageOfIds(RoaringBitmap ids, Pageable pageable) {
+        long total = ids.getLongCardinality();
+        if (pageable.isUnpaged()) {
+            pageable = Pageable.ofSize(Math.max(1, (int) total));
+        }
+        List<Long> pageIds = new ArrayList<>(pageable.getPageSize());
+        if (pageable.getOffset() < total) {
+            PeekableIntIterator iterator = ids.getIntIterator();
+            iterator.advanceIfNeeded(ids.select((int) pageable.getOffset()));
+            while (iterator.hasNext() && pageIds.size() < pageable.getPageSize()) {
+                pageIds.add((long) iterator.next());
+            }
+        }
+
+        List<Sighting> sightings = findAllById(pageIds).stream()
+                .sorted(Comparator.comparing(Sighting::getId))
+                .toList();
+        return convertToDTOs(new PageImpl<>(sightings, pageable, total));
+    }
+
+    private Page<Sighting> findWithFilters(String shape, String city, String country, String state, String searchText,
+                                           Long minDuration, Long maxDuration, Pageable pageable) {
+        return QueryEvent.page(readSource, "findWithFilters",
+                filterNames(shape, city, country, state, searchText, minDuration, maxDuration), pageable,
+                () -> readSource.findWithFilters(shape, city, country, state, searchText, minDuration, maxDuration,
+                        pageable));
+    }
+
+    private List<Sighting> findAllById(List<Long> ids) {
+        return QueryEvent.list(readSource, "findAllById", "ids", Pageable.ofSize(Math.max(1, ids.size())),
+                () -> readSource.findAllById(ids));
+    }
+
+    private static String filterNames(String shape, String city, String country, String state, String searchText,
+                                      Long minDuration, Long maxDuration) {
+        return QueryEvent.filters("shape", shape, "city", city, "country", country, "state", state,
+                "searchText", searchText, "minDuration", minDuration, "maxDuration", maxDuration);
+    }
 
-        return convertToDTO(updatedSighting);
+    private Page<SightingDTO> convertToDTOs(Page<Sighting> sightings) {
+        return DtoConversionEvent.timed(Page::getNumberOfElements, () -> sightings.map(this::convertToDTO));
     }
 
     // Helper methods for entity-DTO conversion
@@ -144,4 +427,4 @@ public class SightingService {
                 .submissionStatus(dto.getSubmissionStatus())
                 .build();
     }
-}
\ No newline at end of file
+}
\ No newline at end of file
@@ -0,0 +1,102 @@
+package com.ufomap.api.shard;
+
+import java.util.Locale;
+
+/**
+ * Geohash cells at a fixed precision, as integers: the {@code 5 * precision} interleaved bits
+ * (longitude first) of the base-32 geohash string. Cells in integer order follow the Z-order
+ * curve, so a contiguous range of cells covers a compact region.
+ */
+public final class GeoHash {
+
+    private static final String BASE32 = "0123456789bcdefghjkmnpqrstuvwxyz";
+
+    private GeoHash() {
+    }
+
+    /**
+     * The cell containing a point; points on a cell edge belong to the northern / eastern cell.
+     */
+    public static int cell(double latitude, double longitude, int precision) {
+        double south = -90, north = 90, west = -180, east = 180;
+        int cell = 0;
+        for (int bit = 0; bit < 5 * precision; bit++) {
+            cell <<= 1;
+            if (bit % 2 == 0) {
+                double middle = (west + east) / 2;
+                if (longitude >= middle) {
+                    cell |= 1;
+                    west = middle;
+                } else {
+                    east = middle;
+                }
+            } else {
+                double middle = (south + north) / 2;
+                if (latitude >= middle) {
+                    cell |= 1;
+                    south = middle;
+                } else {
+                    north = middle;
+                }
+            }
+        }
+        return cell;
+    }
+
+    /**
+     * @return {@code {south, north, west, east}} of the cell.
+     */
+    public static double[] bounds(int cell, int precision) {
+        double south = -90, north = 90, west = -180, east = 180;
+        int bits = 5 * precision;
+        for (int bit = 0; bit < bits; bit++) {
+            boolean upper = (cell >>> (bits - 1 - bit) & 1) == 1;
+            if (bit % 2 == 0) {
+                double middle = (west + east) / 2;
+                if (upper) {
+                    west = middle;
+                } else {
+                    east = middle;
+                }
+            } else {
+                double middle = (south + north) / 2;
+                if (upper) {
+                    south = middle;
+                } else {
+                    north = middle;
+                }
+            }
+        }
+        return new double[]{south, north, west, east};
+    }
+
+    public static int cellCount(int precision) {
+        return 1 << (5 * precision);
+    }
+
+    /**
+     * Parses a geohash string (case-insensitive) into a cell at its own precision.
+     *
+     * @throws IllegalArgumentException if it contains a character outside the geohash alphabet.
+     */
+    public static int parse(String geohash) {
+        int cell = 0;
+        for (char c : geohash.toLowerCase(Locale.ROOT).toCharArray()) {
+            int value = BASE32.indexOf(c);
+            if (value < 0) {
+                throw new IllegalArgumentException("Not a geohash: " + geohash);
+            }
+            cell = cell << 5 | value;
+        }
+        return cell;
+    }
+
+    public static String toString(int cell, int precision) {
+        char[] chars = new char[precision];
+        for (int i = precision - 1; i >= 0; i--) {
+            chars[i] = BASE32.charAt(cell & 31);
+            cell >>>= 5;
+        }
+        return new String(chars);
+    }
+}
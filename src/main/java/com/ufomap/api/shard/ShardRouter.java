@@ -0,0 +1,122 @@
+package com.ufomap.api.shard;
+
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * Maps geohash cells at the routing precision to shards.
+ * <p>
+ * A shard owns the cells starting with one of its geohash prefixes; a longer prefix takes
+ * precedence over a shorter one, and every cell must be owned by exactly one shard. When no
+ * shard lists prefixes, the cells are split into equal contiguous ranges in Z-order.
+ * Sightings without coordinates live on shard 0.
+ */
+public class ShardRouter {
+
+    private final int precision;
+    private final int shardCount;
+    private final int[] shardOfCell;
+    // {south, north, west, east} of every cell, to find the cells a box overlaps
+    private final double[][] cellBounds;
+
+    /**
+     * @param precision Geohash length used for routing, 1 to 3.
+     * @param prefixes  The geohash prefixes of each shard; all empty for the automatic split.
+     * @throws IllegalArgumentException if the prefixes leave a cell without a shard or give it two.
+     */
+    public ShardRouter(int precision, List<List<String>> prefixes) {
+        if (precision < 1 || precision > 3) {
+            throw new IllegalArgumentException("Routing precision must be between 1 and 3");
+        }
+        if (prefixes.isEmpty()) {
+            throw new IllegalArgumentException("At least one shard is required");
+        }
+        this.precision = precision;
+        this.shardCount = prefixes.size();
+        int cells = GeoHash.cellCount(precision);
+        this.shardOfCell = new int[cells];
+        this.cellBounds = new double[cells][];
+        for (int cell = 0; cell < cells; cell++) {
+            cellBounds[cell] = GeoHash.bounds(cell, precision);
+        }
+
+        if (prefixes.stream().allMatch(List::isEmpty)) {
+            for (int cell = 0; cell < cells; cell++) {
+                shardOfCell[cell] = (int) ((long) cell * shardCount / cells);
+            }
+            return;
+        }
+        int[] ownerLength = new int[cells];
+        for (int shard = 0; shard < shardCount; shard++) {
+            for (String prefix : prefixes.get(shard)) {
+                assign(prefix, shard, ownerLength);
+            }
+        }
+        for (int cell = 0; cell < cells; cell++) {
+            if (ownerLength[cell] == 0) {
+                throw new IllegalArgumentException("No shard owns geohash cell " + GeoHash.toString(cell, precision));
+            }
+        }
+    }
+
+    public int getShardCount() {
+        return shardCount;
+    }
+
+    /**
+     * The shard a sighting with these coordinates is stored on.
+     */
+    public int shardOf(Double latitude, Double longitude) {
+        if (latitude == null || longitude == null) {
+            return 0;
+        }
+        return shardOfCell[GeoHash.cell(latitude, longitude, precision)];
+    }
+
+    /**
+     * The shards owning a cell that overlaps the box (edges included); empty if west > east or south > north.
+     */
+    public BitSet shardsIn(double north, double south, double east, double west) {
+        BitSet shards = new BitSet(shardCount);
+        if (south > north || west > east) {
+            return shards;
+        }
+        for (int cell = 0; cell < cellBounds.length && shards.cardinality() < shardCount; cell++) {
+            double[] bounds = cellBounds[cell];
+            if (bounds[0] <= north && bounds[1] >= south && bounds[2] <= east && bounds[3] >= west) {
+                shards.set(shardOfCell[cell]);
+            }
+        }
+        return shards;
+    }
+
+    /**
+     * Number of routing cells each shard owns.
+     */
+    public int[] cellsPerShard() {
+        int[] counts = new int[shardCount];
+        for (int shard : shardOfCell) {
+            counts[shard]++;
+        }
+        return counts;
+    }
+
+    private void assign(String prefix, int shard, int[] ownerLength) {
+        int length = prefix.length();
+        if (length < 1 || length > precision) {
+            throw new IllegalArgumentException("Geohash prefix '" + prefix + "' must have 1 to " + precision + " characters");
+        }
+        int first = GeoHash.parse(prefix) << (5 * (precision - length));
+        int last = first + GeoHash.cellCount(precision - length);
+        for (int cell = first; cell < last; cell++) {
+            if (ownerLength[cell] == length && shardOfCell[cell] != shard) {
+                throw new IllegalArgumentException("Geohash cell " + GeoHash.toString(cell, precision)
+                        + " is owned by shards " + shardOfCell[cell] + " and " + shard);
+            }
+            if (ownerLength[cell] < length) {
+                ownerLength[cell] = length;
+                shardOfCell[cell] = shard;
+            }
+        }
+    }
+}
@@ -0,0 +1,440 @@
+package com.ufomap.api.shard;
+
+import com.ufomap.api.model.Sighting;
+import com.ufomap.api.model.SubmissionStatus;
+import com.ufomap.api.repository.SightingFields;
+import com.ufomap.api.repository.SightingPoint;
+import com.ufomap.api.repository.SightingReadSource;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.LongConsumer;
+import java.util.stream.Collectors;
+
+/**
+ * {@link SightingReadSource} of the {@code sharded} profile: scatter-gather queries over
+ * {@link SightingShards}.
+ * <p>
+ * Bounding-box queries only go to the shards whose region overlaps the box; filter queries go to
+ * every shard. Each shard returns its first offset + size rows in the requested order (and its
+ * match count); the rows are merged in that order and the page is cut from the result, so deep
+ * pages cost more per shard. Strings are ordered by code point ({@code COLLATE "C"}) so every
+ * shard orders them like the merge does.
+ * <p>
+ * Old copies of sightings being moved between shards ({@code moved_to} set) are left out of every
+ * query, so a sighting is never counted on two shards.
+ */
+@Component
+@Profile("sharded")
+@RequiredArgsConstructor
+public class ShardedSightingReadSource implements SightingReadSource {
+
+    private static final String SELECT = "SELECT " + SightingShards.COLUMNS + " FROM sightings";
+    private static final String SETTLED = "moved_to IS NULL";
+
+    // Sort keys as SQL expressions ordering exactly like SightingFields.comparator
+    private static final Map<String, String> SORT_EXPRESSIONS = Map.ofEntries(
+            Map.entry("id", "id"),
+            Map.entry("dateTime", "date_time"),
+            Map.entry("city", "city COLLATE \"C\""),
+            Map.entry("state", "state COLLATE \"C\""),
+            Map.entry("country", "country COLLATE \"C\""),
+            Map.entry("shape", "shape COLLATE \"C\""),
+            Map.entry("duration", "duration COLLATE \"C\""),
+            Map.entry("summary", "summary COLLATE \"C\""),
+            Map.entry("posted", "posted COLLATE \"C\""),
+            Map.entry("latitude", "latitude"),
+            Map.entry("longitude", "longitude"),
+            Map.entry("submittedBy", "submitted_by COLLATE \"C\""),
+            Map.entry("submissionDate", "submission_date"),
+            Map.entry("userSubmitted", "user_submitted"),
+            Map.entry("submissionStatus", statusOrder()));
+
+    private static final int ID_BATCH_SIZE = 10_000;
+
+    private final SightingShards shards;
+
+    @Override
+    public Page<Sighting> findAll(Pageable pageable) {
+        return query(shards.all(), settled(), pageable);
+    }
+
+    /**
+     * Looks on the shard that assigned the id first, then on the others (the sighting may have
+     * moved, or have been loaded with an id from elsewhere).
+     */
+    @Override
+    public Optional<Sighting> findById(Long id) {
+        int home = shards.shardOfId(id);
+        if (home >= 0) {
+            List<Sighting> found = shards.template(home).query(SELECT + " WHERE id = ? AND " + SETTLED,
+                    SightingShards.SIGHTING_MAPPER, id);
+            if (!found.isEmpty()) {
+                return Optional.of(found.get(0));
+            }
+        }
+        BitSet others = shards.all();
+        if (home >= 0) {
+            others.clear(home);
+        }
+        return shards.scatter(others,
+                        jdbc -> jdbc.query(SELECT + " WHERE id = ? AND " + SETTLED, SightingShards.SIGHTING_MAPPER, id))
+                .stream()
+                .flatMap(List::stream)
+                .findFirst();
+    }
+
+    @Override
+    public List<Sighting> findAllById(Iterable<Long> ids) {
+        Map<Integer, List<Long>> byHome = new HashMap<>();
+        Set<Long> missing = new HashSet<>();
+        for (Long id : ids) {
+            int home = shards.shardOfId(id);
+            if (home >= 0) {
+                byHome.computeIfAbsent(home, shard -> new ArrayList<>()).add(id);
+            }
+            missing.add(id);
+        }
+        BitSet homes = new BitSet();
+        byHome.keySet().forEach(homes::set);
+        List<Sighting> sightings = new ArrayList<>();
+        shards.scatterByShard(homes, shard -> findIn(shards.template(shard), byHome.get(shard)))
+                .forEach(sightings::addAll);
+        sightings.forEach(sighting -> missing.remove(sighting.getId()));
+        if (!missing.isEmpty()) {
+            List<Long> rest = new ArrayList<>(missing);
+            shards.scatter(shards.all(), jdbc -> findIn(jdbc, rest)).stream()
+                    .flatMap(List::stream)
+                    .filter(sighting -> missing.remove(sighting.getId()))
+                    .forEach(sightings::add);
+        }
+        return sightings;
+    }
+
+    @Override
+    public Page<Sighting> findWithFilters(String shape, String city, String country, String state, String searchText,
+                                          Long minDuration, Long maxDuration, Pageable pageable) {
+        return query(shards.all(), filters(shape, city, country, state, searchText, minDuration, maxDuration), pageable);
+    }
+
+    @Override
+    public void forEachIdWithFilters(String shape, String city, String country, String state, String searchText,
+                                     Long minDuration, Long maxDuration, LongConsumer consumer) {
+        shards.scatter(shards.all(), jdbc -> {
+            long lastId = 0;
+            List<Long> batch;
+            do {
+                Where where = filters(shape, city, country, state, searchText, minDuration, maxDuration)
+                        .add("id > ?", lastId);
+                batch = jdbc.queryForList("SELECT id FROM sightings" + where.sql() + " ORDER BY id"
+                        + limit(ID_BATCH_SIZE), Long.class, where.args());
+                synchronized (consumer) { // Shards answer on their own threads
+                    batch.forEach(consumer::accept);
+                }
+                lastId = batch.isEmpty() ? lastId : batch.get(batch.size() - 1);
+            } while (batch.size() == ID_BATCH_SIZE);
+            return null;
+        });
+    }
+
+    @Override
+    public void forEachLocationSince(LocalDateTime since, LocationConsumer consumer) {
+        shards.scatter(shards.all(), jdbc -> {
+            Timestamp afterTime = Timestamp.valueOf(since);
+            long afterId = 0;
+            List<Location> batch;
+            do {
+                Where where = settled().add("(date_time > ? OR (date_time = ? AND id > ?))", afterTime, afterTime, afterId);
+                batch = jdbc.query("SELECT id, latitude, longitude, date_time FROM sightings" + where.sql()
+                                + " ORDER BY date_time, id" + limit(ID_BATCH_SIZE),
+                        (rs, row) -> new Location(rs.getLong("id"), rs.getObject("latitude", Double.class),
+                                rs.getObject("longitude", Double.class), rs.getTimestamp("date_time")),
+                        where.args());
+                synchronized (consumer) { // Shards answer on their own threads
+                    for (Location location : batch) {
+                        if (location.latitude() != null && location.longitude() != null) {
+                            consumer.accept(location.latitude(), location.longitude());
+                        }
+                    }
+                }
+                if (!batch.isEmpty()) {
+                    afterId = batch.get(batch.size() - 1).id();
+                    afterTime = batch.get(batch.size() - 1).dateTime();
+                }
+            } while (batch.size() == ID_BATCH_SIZE);
+            return null;
+        });
+    }
+
+    @Override
+    public Page<Sighting> findInBounds(Double north, Double south, Double east, Double west, Pageable pageable) {
+        return query(shards.shardsIn(north, south, east, west), bounds(north, south, east, west), pageable);
+    }
+
+    @Override
+    public List<SightingPoint> findPointsInBounds(Double north, Double south, Double east, Double west,
+                                                  Pageable pageable) {
+        Where where = bounds(north, south, east, west);
+        int needed = needed(pageable);
+        List<List<Point>> perShard = shards.scatter(shards.shardsIn(north, south, east, west),
+                jdbc -> jdbc.query("SELECT id, latitude, longitude, shape FROM sightings" + where.sql()
+                                + " ORDER BY id" + limit(needed),
+                        (rs, row) -> new Point(rs.getLong("id"), rs.getObject("latitude", Double.class),
+                                rs.getObject("longitude", Double.class), rs.getString("shape")),
+                        where.args()));
+        List<Point> merged = merge(perShard, Comparator.comparing(Point::getId), Point::getId, needed);
+        return new ArrayList<>(slice(merged, pageable));
+    }
+
+    // Sparse fieldsets: whole sightings are merged, then projected
+
+    @Override
+    public Page<Map<String, Object>> findAllFields(List<String> fields, Pageable pageable) {
+        List<String> selected = SightingFields.validate(fields);
+        return findAll(pageable).map(sighting -> SightingFields.valuesOf(sighting, selected));
+    }
+
+    @Override
+    public Optional<Map<String, Object>> findFieldsById(List<String> fields, Long id) {
+        List<String> selected = SightingFields.validate(fields);
+        return findById(id).map(sighting -> SightingFields.valuesOf(sighting, selected));
+    }
+
+    @Override
+    public Page<Map<String, Object>> findFieldsWithFilters(List<String> fields, String shape, String city,
+                                                           String country, String state, String searchText,
+                                                           Long minDuration, Long maxDuration, Pageable pageable) {
+        List<String> selected = SightingFields.validate(fields);
+        return findWithFilters(shape, city, country, state, searchText, minDuration, maxDuration, pageable)
+                .map(sighting -> SightingFields.valuesOf(sighting, selected));
+    }
+
+    @Override
+    public Page<Map<String, Object>> findFieldsInBounds(List<String> fields, Double north, Double south,
+                                                        Double east, Double west, Pageable pageable) {
+        List<String> selected = SightingFields.validate(fields);
+        return findInBounds(north, south, east, west, pageable)
+                .map(sighting -> SightingFields.valuesOf(sighting, selected));
+    }
+
+    @Override
+    public boolean isWritable() {
+        return true;
+    }
+
+    private Page<Sighting> query(BitSet targets, Where where, Pageable pageable) {
+        Sort sort = pageable.getSort();
+        Comparator<Sighting> order = SightingFields.comparator(sort); // Also rejects unknown properties
+        int needed = needed(pageable);
+        String sql = SELECT + where.sql() + " ORDER BY " + orderBy(sort) + limit(needed);
+        List<ShardPage> pages = shards.scatter(targets, jdbc -> new ShardPage(
+                jdbc.query(sql, SightingShards.SIGHTING_MAPPER, where.args()),
+                pageable.isPaged()
+                        ? jdbc.queryForObject("SELECT COUNT(*) FROM sightings" + where.sql(), Long.class, where.args())
+                        : 0));
+
+        List<Sighting> merged = merge(pages.stream().map(ShardPage::rows).toList(), order, Sighting::getId, needed);
+        if (pageable.isUnpaged()) {
+            return new PageImpl<>(merged);
+        }
+        long total = pages.stream().mapToLong(ShardPage::total).sum();
+        return new PageImpl<>(slice(merged, pageable), pageable, total);
+    }
+
+    /**
+     * K-way merge of rows each shard returned in {@code order}, up to {@code limit} rows. A row
+     * found on two shards (loaded there with the same id from elsewhere) is kept once.
+     */
+    private static <T> List<T> merge(List<List<T>> perShard, Comparator<T> order, Function<T, Long> id, int limit) {
+        PriorityQueue<Cursor<T>> heads = new PriorityQueue<>(Math.max(1, perShard.size()),
+                (a, b) -> order.compare(a.head, b.head));
+        for (List<T> rows : perShard) {
+            Iterator<T> iterator = rows.iterator();
+            if (iterator.hasNext()) {
+                heads.add(new Cursor<>(iterator.next(), iterator));
+            }
+        }
+        List<T> merged = new ArrayList<>();
+        Set<Long> seen = new HashSet<>();
+        while (!heads.isEmpty() && merged.size() < limit) {
+            Cursor<T> cursor = heads.poll();
+            if (seen.add(id.apply(cursor.head))) {
+                merged.add(cursor.head);
+            }
+            if (cursor.rest.hasNext()) {
+                cursor.head = cursor.rest.next();
+                heads.add(cursor);
+            }
+        }
+        return merged;
+    }
+
+    private static List<Sighting> findIn(JdbcTemplate jdbc, List<Long> ids) {
+        return jdbc.query(SELECT + " WHERE id = ANY(?) AND " + SETTLED,
+                statement -> setIds(statement, ids), SightingShards.SIGHTING_MAPPER);
+    }
+
+    private static void setIds(PreparedStatement statement, List<Long> ids) throws SQLException {
+        statement.setArray(1, statement.getConnection().createArrayOf("bigint", ids.toArray()));
+    }
+
+    // Same semantics as SightingRepository.findWithFilters
+    private static Where filters(String shape, String city, String country, String state, String searchText,
+                                 Long minDuration, Long maxDuration) {
+        Where where = settled();
+        if (shape != null) {
+            where.add("LOWER(shape) = LOWER(?)", shape);
+        }
+        if (city != null) {
+            where.add("LOWER(city) = LOWER(?)", city);
+        }
+        if (country != null) {
+            where.add("LOWER(country) = LOWER(?)", country);
+        }
+        if (state != null) {
+            where.add("LOWER(state) = LOWER(?)", state);
+        }
+        if (searchText != null) {
+            String pattern = "%" + searchText + "%";
+            where.add("(LOWER(city) LIKE LOWER(?) OR LOWER(state) LIKE LOWER(?) OR LOWER(country) LIKE LOWER(?) "
+                    + "OR LOWER(summary) LIKE LOWER(?) OR LOWER(shape) LIKE LOWER(?))",
+                    pattern, pattern, pattern, pattern, pattern);
+        }
+        if (minDuration != null) {
+            where.add("duration_seconds >= ?", minDuration);
+        }
+        if (maxDuration != null) {
+            where.add("duration_seconds <= ?", maxDuration);
+        }
+        return where;
+    }
+
+    private static Where bounds(Double north, Double south, Double east, Double west) {
+        return settled().add("latitude BETWEEN ? AND ? AND longitude BETWEEN ? AND ?", south, north, west, east);
+    }
+
+    private static Where settled() {
+        return new Where().add(SETTLED);
+    }
+
+    // PostgreSQL's defaults (NULLS LAST ascending, NULLS FIRST descending), then by id
+    private static String orderBy(Sort sort) {
+        StringBuilder orderBy = new StringBuilder();
+        for (Sort.Order order : sort) {
+            orderBy.append(SORT_EXPRESSIONS.get(order.getProperty()))
+                    .append(order.isDescending() ? " DESC NULLS FIRST, " : " ASC NULLS LAST, ");
+        }
+        return orderBy.append("id").toString();
+    }
+
+    // The enum's declaration order, which is how SightingFields.comparator orders statuses
+    private static String statusOrder() {
+        StringBuilder cases = new StringBuilder("CASE submission_status");
+        for (SubmissionStatus status : SubmissionStatus.values()) {
+            cases.append(" WHEN '").append(status.getStatus()).append("' THEN ").append(status.ordinal());
+        }
+        return cases.append(" END").toString();
+    }
+
+    // Rows from the start of the result up to the end of the requested page
+    private static int needed(Pageable pageable) {
+        if (pageable.isUnpaged()) {
+            return Integer.MAX_VALUE;
+        }
+        return (int) Math.min(Integer.MAX_VALUE, pageable.getOffset() + pageable.getPageSize());
+    }
+
+    private static String limit(int needed) {
+        return needed == Integer.MAX_VALUE ? "" : " LIMIT " + needed;
+    }
+
+    private static <T> List<T> slice(List<T> rows, Pageable pageable) {
+        if (pageable.isUnpaged()) {
+            return rows;
+        }
+        int from = (int) Math.min(pageable.getOffset(), rows.size());
+        int to = Math.min(from + pageable.getPageSize(), rows.size());
+        return rows.subList(from, to);
+    }
+
+    // A WHERE clause and its arguments, built from the filters that are set
+    private static final class Where {
+        private final List<String> conditions = new ArrayList<>();
+        private final List<Object> args = new ArrayList<>();
+
+        Where add(String condition, Object... values) {
+            conditions.add(condition);
+            args.addAll(List.of(values));
+            return this;
+        }
+
+        String sql() {
+            return conditions.isEmpty() ? "" : conditions.stream().collect(Collectors.joining(" AND ", " WHERE ", ""));
+        }
+
+        Object[] args() {
+            return args.toArray();
+        }
+    }
+
+    private record ShardPage(List<Sighting> rows, long total) {
+    }
+
+    private static final class Cursor<T> {
+        private T head;
+        private final Iterator<T> rest;
+
+        Cursor(T head, Iterator<T> rest) {
+            this.head = head;
+            this.rest = rest;
+        }
+    }
+
+    private record Location(long id, Double latitude, Double longitude, Timestamp dateTime) {
+    }
+
+    private record Point(Long id, Double latitude, Double longitude, String shape) implements SightingPoint {
+
+        @Override
+        public Long getId() {
+            return id;
+        }
+
+        @Override
+        public Double getLatitude() {
+            return latitude;
+        }
+
+        @Override
+        public Double getLongitude() {
+            return longitude;
+        }
+
+        @Override
+        public String getShape() {
+            return shape;
+        }
+    }
+}
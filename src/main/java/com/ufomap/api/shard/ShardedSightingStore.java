@@ -0,0 +1,194 @@
+package com.ufomap.api.shard;
+
+import com.ufomap.api.model.Sighting;
+import com.ufomap.api.model.SightingDerivedColumns;
+import com.ufomap.api.repository.SightingStore;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link SightingStore} of the {@code sharded} profile: writes go to the shard owning the
+ * sighting's coordinates.
+ * <p>
+ * A new sighting gets an id from that shard's sequence. An update whose new coordinates belong to
+ * another shard moves the row, keeping its id. The shards are separate databases, so the move is
+ * three local transactions, each of which can be repeated:
+ * <ol>
+ *   <li>The old copy is updated to the new values and marked {@code moved_to} the new shard. From
+ *       here on, queries ignore it.</li>
+ *   <li>The new copy is inserted (or overwritten) on the new shard.</li>
+ *   <li>The marked old copy is deleted.</li>
+ * </ol>
+ * Reads never see two copies, so totals count a moving sighting once; between steps 1 and 2 they
+ * see none. A move interrupted after step 1 is completed from the marked row by {@link #findById}
+ * and every {@code move-recovery-interval}.
+ */
+@Component
+@Profile("sharded")
+@RequiredArgsConstructor
+public class ShardedSightingStore implements SightingStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(ShardedSightingStore.class);
+
+    private static final String VALUES = "date_time = ?, city = ?, state = ?, country = ?, shape = ?, "
+            + "duration = ?, summary = ?, posted = ?, latitude = ?, longitude = ?, submitted_by = ?, "
+            + "submission_date = ?, user_submitted = ?, submission_status = ?, claimed_by = ?, "
+            + "claim_expires_at = ?, duration_seconds = ?, posted_at = ?";
+    private static final String PLACEHOLDERS = "?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?";
+    private static final String EXCLUDED_VALUES = VALUES.replaceAll("(\\w+) = \\?", "$1 = EXCLUDED.$1");
+    private static final String INSERT = "INSERT INTO sightings (" + SightingShards.COLUMNS + ") VALUES (?, "
+            + PLACEHOLDERS + ")";
+    private static final RowMapper<Moving> MOVING_MAPPER = (rs, row) ->
+            new Moving(SightingShards.SIGHTING_MAPPER.mapRow(rs, row), rs.getInt("moved_to"));
+
+    private final SightingShards shards;
+    private final ShardedSightingReadSource readSource;
+    private final ShardingProperties properties;
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "shard-move-recovery");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @PostConstruct
+    public void start() {
+        long interval = Math.max(1, properties.getMoveRecoveryInterval().toMillis());
+        scheduler.scheduleWithFixedDelay(this::completeMovesQuietly, 0, interval, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+    }
+
+    /**
+     * Also completes an interrupted move of the sighting, which reads do not see until then.
+     */
+    @Override
+    public Optional<Sighting> findById(Long id) {
+        Optional<Sighting> sighting = readSource.findById(id);
+        if (sighting.isPresent()) {
+            return sighting;
+        }
+        List<Boolean> completed = shards.scatterByShard(shards.all(), shard -> {
+            List<Moving> moving = shards.template(shard).query("SELECT " + SightingShards.COLUMNS
+                    + ", moved_to FROM sightings WHERE id = ? AND moved_to IS NOT NULL", MOVING_MAPPER, id);
+            moving.forEach(row -> completeMove(shard, row));
+            return !moving.isEmpty();
+        });
+        return completed.contains(true) ? readSource.findById(id) : Optional.empty();
+    }
+
+    @Override
+    public Sighting save(Sighting sighting) {
+        SightingDerivedColumns.apply(sighting); // No JPA callbacks here
+        int shard = shards.shardOf(sighting.getLatitude(), sighting.getLongitude());
+
+        if (sighting.getId() == null) {
+            Long id = shards.template(shard).queryForObject("INSERT INTO sightings (" + SightingShards.COLUMNS
+                            + ") VALUES (nextval('sightings_local_id_seq') * " + SightingShards.MAX_SHARDS + " + "
+                            + shard + ", " + PLACEHOLDERS + ") RETURNING id",
+                    Long.class, values(sighting));
+            sighting.setId(id);
+            return sighting;
+        }
+
+        Object[] update = append(values(sighting), sighting.getId());
+        if (shards.template(shard).update("UPDATE sightings SET " + VALUES + " WHERE id = ?", update) == 1) {
+            return sighting;
+        }
+        // Not on the shard owning its coordinates: mark the old copy, copy it over, delete the old copy
+        BitSet others = shards.all();
+        others.clear(shard);
+        Object[] mark = append(append(values(sighting), shard), sighting.getId());
+        shards.scatter(others,
+                jdbc -> jdbc.update("UPDATE sightings SET " + VALUES + ", moved_to = ? WHERE id = ?", mark));
+        shards.template(shard).update(INSERT + " ON CONFLICT (id) DO UPDATE SET " + EXCLUDED_VALUES
+                + ", moved_to = NULL", prepend(sighting.getId(), values(sighting)));
+        int deleted = shards.scatter(others, jdbc -> jdbc.update("DELETE FROM sightings WHERE id = ? AND moved_to = ?",
+                        sighting.getId(), shard))
+                .stream().mapToInt(Integer::intValue).sum();
+        logger.info("Moved sighting {} to shard {} ({} old copies deleted)", sighting.getId(), shard, deleted);
+        return sighting;
+    }
+
+    /**
+     * Completes every interrupted move: steps 2 and 3 again, from the marked old copies.
+     */
+    public void completeMoves() {
+        shards.scatterByShard(shards.all(), shard -> {
+            List<Moving> moving = shards.template(shard).query("SELECT " + SightingShards.COLUMNS
+                    + ", moved_to FROM sightings WHERE moved_to IS NOT NULL", MOVING_MAPPER);
+            moving.forEach(row -> completeMove(shard, row));
+            return moving.size();
+        });
+    }
+
+    // A newer copy on the target (written by a later update) is kept
+    private void completeMove(int shard, Moving row) {
+        Sighting sighting = row.sighting();
+        shards.template(row.target()).update(INSERT + " ON CONFLICT (id) DO NOTHING",
+                prepend(sighting.getId(), values(sighting)));
+        shards.template(shard).update("DELETE FROM sightings WHERE id = ? AND moved_to = ?",
+                sighting.getId(), row.target());
+        logger.info("Completed the move of sighting {} from shard {} to shard {}",
+                sighting.getId(), shard, row.target());
+    }
+
+    private void completeMovesQuietly() {
+        try {
+            completeMoves();
+        } catch (RuntimeException e) {
+            logger.warn("Completing interrupted shard moves failed", e);
+        }
+    }
+
+    private static Object[] values(Sighting sighting) {
+        return new Object[]{
+                timestamp(sighting.getDateTime()), sighting.getCity(), sighting.getState(), sighting.getCountry(),
+                sighting.getShape(), sighting.getDuration(), sighting.getSummary(), sighting.getPosted(),
+                sighting.getLatitude(), sighting.getLongitude(), sighting.getSubmittedBy(),
+                timestamp(sighting.getSubmissionDate()), sighting.isUserSubmitted(),
+                sighting.getSubmissionStatus() == null ? null : sighting.getSubmissionStatus().getStatus(),
+                sighting.getClaimedBy(), timestamp(sighting.getClaimExpiresAt()), sighting.getDurationSeconds(),
+                timestamp(sighting.getPostedAt())
+        };
+    }
+
+    private static Object[] prepend(Object first, Object[] rest) {
+        Object[] all = new Object[rest.length + 1];
+        all[0] = first;
+        System.arraycopy(rest, 0, all, 1, rest.length);
+        return all;
+    }
+
+    private static Object[] append(Object[] first, Object last) {
+        Object[] all = Arrays.copyOf(first, first.length + 1);
+        all[first.length] = last;
+        return all;
+    }
+
+    private static Timestamp timestamp(LocalDateTime dateTime) {
+        return dateTime == null ? null : Timestamp.valueOf(dateTime);
+    }
+
+    // The old copy of a sighting being moved to shard target
+    private record Moving(Sighting sighting, int target) {
+    }
+}
@@ -0,0 +1,72 @@
+package com.ufomap.api.shard;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Geo-partitioned sighting shards ({@code ufomap.sharding.*}), used in the {@code sharded} profile.
+ */
+@Data
+@ConfigurationProperties(prefix = "ufomap.sharding")
+public class ShardingProperties {
+
+    /**
+     * Geohash length used to route sightings, 1 to 3 characters (32, 1024 or 32768 cells).
+     */
+    private int precision = 2;
+
+    /**
+     * Create the schema, table, sequence and indexes on every shard at startup.
+     */
+    private boolean initializeSchema = true;
+
+    /**
+     * Statement timeout of a shard query.
+     */
+    private Duration queryTimeout = Duration.ofSeconds(10);
+
+    /**
+     * Threads running shard queries in parallel, shared by all requests.
+     */
+    private int queryThreads = 16;
+
+    /**
+     * Connections per shard.
+     */
+    private int poolSize = 8;
+
+    /**
+     * How often each instance completes moves between shards that were interrupted, e.g. by a crash.
+     */
+    private Duration moveRecoveryInterval = Duration.ofMinutes(1);
+
+    /**
+     * The shards, in order. A shard's position is part of the ids it assigns; changing the list or
+     * the regions means moving the affected rows, which is not automated.
+     */
+    private List<Shard> shards = new ArrayList<>();
+
+    @Data
+    public static class Shard {
+
+        private String url;
+
+        private String username;
+
+        private String password;
+
+        /**
+         * Schema holding the shard's {@code sightings} table, e.g. to run several shards in one database.
+         */
+        private String schema;
+
+        /**
+         * Geohash prefixes of the region this shard owns; leave empty on every shard for an even split.
+         */
+        private List<String> geohashPrefixes = new ArrayList<>();
+    }
+}
@@ -0,0 +1,228 @@
+package com.ufomap.api.shard;
+
+import com.ufomap.api.model.Sighting;
+import com.ufomap.api.model.SubmissionStatus;
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Component;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.IntFunction;
+
+/**
+ * The sighting shards of the {@code sharded} profile: one connection pool and {@link JdbcTemplate}
+ * per shard, the {@link ShardRouter} placing sightings by geohash, and a thread pool running a
+ * query on several shards in parallel.
+ * <p>
+ * Each shard has its own {@code sightings} table, with the same columns as the JPA entity, and
+ * its own id sequence. A shard assigns ids {@code sequence * MAX_SHARDS + shard}, so ids are
+ * unique across shards and tell which shard created a sighting.
+ * <p>
+ * A row whose {@code moved_to} is set is the old copy of a sighting being moved to that shard
+ * (see {@link ShardedSightingStore}); queries ignore it.
+ */
+@Component
+@Profile("sharded")
+@EnableConfigurationProperties(ShardingProperties.class)
+public class SightingShards {
+
+    public static final int MAX_SHARDS = 64;
+
+    static final String COLUMNS = "id, date_time, city, state, country, shape, duration, summary, posted, "
+            + "latitude, longitude, submitted_by, submission_date, user_submitted, submission_status, "
+            + "claimed_by, claim_expires_at, duration_seconds, posted_at";
+
+    static final RowMapper<Sighting> SIGHTING_MAPPER = SightingShards::mapSighting;
+
+    private static final Logger logger = LoggerFactory.getLogger(SightingShards.class);
+
+    private static final String[] SCHEMA = {
+            "CREATE SEQUENCE IF NOT EXISTS sightings_local_id_seq",
+            "CREATE TABLE IF NOT EXISTS sightings ("
+                    + "id BIGINT PRIMARY KEY, date_time TIMESTAMP, city VARCHAR(100), state VARCHAR(50), "
+                    + "country VARCHAR(100), shape VARCHAR(255), duration VARCHAR(255), summary TEXT, "
+                    + "posted VARCHAR(255), latitude DOUBLE PRECISION, longitude DOUBLE PRECISION, "
+                    + "submitted_by VARCHAR(255), submission_date TIMESTAMP, user_submitted BOOLEAN NOT NULL, "
+                    + "submission_status VARCHAR(255), claimed_by VARCHAR(100), claim_expires_at TIMESTAMP, "
+                    + "duration_seconds BIGINT, posted_at TIMESTAMP, moved_to INTEGER)",
+            "ALTER TABLE sightings ADD COLUMN IF NOT EXISTS moved_to INTEGER",
+            "CREATE INDEX IF NOT EXISTS idx_sightings_moved_to ON sightings (moved_to) WHERE moved_to IS NOT NULL",
+            "CREATE INDEX IF NOT EXISTS idx_sightings_latitude_longitude ON sightings (latitude, longitude)",
+            "CREATE INDEX IF NOT EXISTS idx_sightings_duration_seconds ON sightings (duration_seconds)",
+            "CREATE INDEX IF NOT EXISTS idx_sightings_posted_at ON sightings (posted_at)",
+            "CREATE INDEX IF NOT EXISTS idx_sightings_date_time ON sightings (date_time, id)"
+    };
+
+    private final ShardRouter router;
+    private final List<HikariDataSource> dataSources = new ArrayList<>();
+    private final List<JdbcTemplate> templates = new ArrayList<>();
+    private final ExecutorService executor;
+    private final long timeoutMillis;
+
+    public SightingShards(ShardingProperties properties) {
+        List<ShardingProperties.Shard> shards = properties.getShards();
+        if (shards.isEmpty() || shards.size() > MAX_SHARDS) {
+            throw new IllegalStateException("ufomap.sharding.shards must list 1 to " + MAX_SHARDS + " shards");
+        }
+        this.router = new ShardRouter(properties.getPrecision(),
+                shards.stream().map(ShardingProperties.Shard::getGeohashPrefixes).toList());
+        this.timeoutMillis = properties.getQueryTimeout().toMillis();
+
+        for (int index = 0; index < shards.size(); index++) {
+            ShardingProperties.Shard shard = shards.get(index);
+            HikariDataSource dataSource = new HikariDataSource();
+            dataSource.setPoolName("shard-" + index);
+            dataSource.setJdbcUrl(shard.getUrl());
+            dataSource.setUsername(shard.getUsername());
+            dataSource.setPassword(shard.getPassword());
+            dataSource.setMaximumPoolSize(properties.getPoolSize());
+            // Connections use the schema even before it is created below
+            dataSource.setSchema(shard.getSchema());
+            dataSources.add(dataSource);
+
+            JdbcTemplate template = new JdbcTemplate(dataSource);
+            template.setQueryTimeout((int) Math.max(1, properties.getQueryTimeout().toSeconds()));
+            if (properties.isInitializeSchema()) {
+                if (shard.getSchema() != null) {
+                    template.execute("CREATE SCHEMA IF NOT EXISTS " + shard.getSchema());
+                }
+                template.batchUpdate(SCHEMA);
+            }
+            templates.add(template);
+        }
+
+        AtomicInteger threads = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(properties.getQueryThreads(), runnable -> {
+            Thread thread = new Thread(runnable, "shard-query-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        logger.info("Sighting shards ready: {} shards, routing cells per shard {}",
+                shards.size(), Arrays.toString(router.cellsPerShard()));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+        dataSources.forEach(HikariDataSource::close);
+    }
+
+    public int getShardCount() {
+        return templates.size();
+    }
+
+    public JdbcTemplate template(int shard) {
+        return templates.get(shard);
+    }
+
+    /**
+     * The shard a sighting with these coordinates belongs on.
+     */
+    public int shardOf(Double latitude, Double longitude) {
+        return router.shardOf(latitude, longitude);
+    }
+
+    /**
+     * The shard that assigned an id, or -1 if no configured shard could have.
+     */
+    public int shardOfId(long id) {
+        int shard = (int) Math.floorMod(id, (long) MAX_SHARDS);
+        return id > 0 && shard < templates.size() ? shard : -1;
+    }
+
+    public BitSet all() {
+        BitSet shards = new BitSet();
+        shards.set(0, templates.size());
+        return shards;
+    }
+
+    public BitSet shardsIn(double north, double south, double east, double west) {
+        return router.shardsIn(north, south, east, west);
+    }
+
+    /**
+     * Runs a query on each of the given shards in parallel (on the calling thread if there is only one).
+     *
+     * @return The results, in shard order.
+     * @throws IllegalStateException if a shard does not answer within the query timeout.
+     */
+    public <T> List<T> scatter(BitSet shards, Function<JdbcTemplate, T> query) {
+        return scatterByShard(shards, shard -> query.apply(templates.get(shard)));
+    }
+
+    /**
+     * Like {@link #scatter}, for queries that depend on the shard index.
+     */
+    public <T> List<T> scatterByShard(BitSet shards, IntFunction<T> query) {
+        if (shards.cardinality() == 1) {
+            return List.of(query.apply(shards.nextSetBit(0)));
+        }
+        List<Future<T>> futures = new ArrayList<>();
+        shards.stream().forEach(shard -> futures.add(executor.submit(() -> query.apply(shard))));
+        List<T> results = new ArrayList<>(futures.size());
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        try {
+            for (Future<T> future : futures) {
+                results.add(future.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while querying the shards", e);
+        } catch (TimeoutException e) {
+            throw new IllegalStateException("A shard did not answer within " + timeoutMillis + " ms", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        } finally {
+            futures.forEach(future -> future.cancel(true));
+        }
+        return results;
+    }
+
+    private static Sighting mapSighting(ResultSet rs, int row) throws SQLException {
+        String status = rs.getString("submission_status");
+        return Sighting.builder()
+                .id(rs.getLong("id"))
+                .dateTime(rs.getObject("date_time", LocalDateTime.class))
+                .city(rs.getString("city"))
+                .state(rs.getString("state"))
+                .country(rs.getString("country"))
+                .shape(rs.getString("shape"))
+                .duration(rs.getString("duration"))
+                .summary(rs.getString("summary"))
+                .posted(rs.getString("posted"))
+                .latitude(rs.getObject("latitude", Double.class))
+                .longitude(rs.getObject("longitude", Double.class))
+                .submittedBy(rs.getString("submitted_by"))
+                .submissionDate(rs.getObject("submission_date", LocalDateTime.class))
+                .userSubmitted(rs.getBoolean("user_submitted"))
+                .submissionStatus(status == null ? null : SubmissionStatus.fromString(status))
+                .claimedBy(rs.getString("claimed_by"))
+                .claimExpiresAt(rs.getObject("claim_expires_at", LocalDateTime.class))
+                .durationSeconds(rs.getObject("duration_seconds", Long.class))
+                .postedAt(rs.getObject("posted_at", LocalDateTime.class))
+                .build();
+    }
+}
@@ -0,0 +1,333 @@
+package com.ufomap.api.snapshot;
+
+import com.ufomap.api.model.Sighting;
+import com.ufomap.api.model.SubmissionStatus;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Predicate;
+
+/**
+ * Read-only view of a {@link SnapshotFormat} file mapped into memory (as several regions when it
+ * exceeds 2 GB, see {@link SnapshotBuffer}).
+ * <p>
+ * Opening only validates the header and reads the column directory; row values are read from the
+ * mapping on access, so startup cost does not depend on the number of sightings. Dictionary
+ * strings of low-cardinality columns are decoded once and cached. Instances are thread-safe.
+ */
+public final class SightingSnapshot {
+
+    // Dictionaries up to this size are cached decoded; larger ones (e.g. summaries) are decoded per access
+    private static final int DECODED_CACHE_LIMIT = 1 << 16;
+
+    private final Path path;
+    private final SnapshotBuffer buffer;
+    private final int version;
+    private final int rowCount;
+
+    final LongColumn ids;
+    final LongColumn dateTimes;
+    final DictionaryColumn cities;
+    final DictionaryColumn states;
+    final DictionaryColumn countries;
+    final DictionaryColumn shapes;
+    final DictionaryColumn durations;
+    final DictionaryColumn summaries;
+    final DictionaryColumn posted;
+    final DoubleColumn latitudes;
+    final DoubleColumn longitudes;
+    final DictionaryColumn submittedBy;
+    final LongColumn submissionDates;
+    final BooleanColumn userSubmitted;
+    final DictionaryColumn submissionStatuses;
+
+    private SightingSnapshot(Path path, SnapshotBuffer buffer) {
+        this.path = path;
+        this.buffer = buffer;
+        long limit = buffer.size();
+        if (limit < 2 * Integer.BYTES + SnapshotFormat.FOOTER_BYTES
+                || buffer.getInt(0) != SnapshotFormat.MAGIC
+                || buffer.getInt(limit - Integer.BYTES) != SnapshotFormat.MAGIC) {
+            throw new IllegalStateException("Not a sightings snapshot: " + path);
+        }
+        this.version = buffer.getInt(Integer.BYTES);
+        if (version > SnapshotFormat.VERSION) {
+            throw new IllegalStateException("Snapshot " + path + " has version " + version
+                    + "; this build reads up to version " + SnapshotFormat.VERSION);
+        }
+
+        long position = buffer.getLong(limit - SnapshotFormat.FOOTER_BYTES);
+        this.rowCount = buffer.getInt(position);
+        int columnCount = buffer.getInt(position + Integer.BYTES);
+        position += 2 * Integer.BYTES;
+        Map<String, Long> offsets = new HashMap<>();
+        Map<String, Byte> types = new HashMap<>();
+        for (int i = 0; i < columnCount; i++) {
+            byte[] name = new byte[buffer.getShort(position) & 0xFFFF];
+            buffer.get(position + Short.BYTES, name);
+            position += Short.BYTES + name.length;
+            // Column names are ASCII, where modified UTF-8 and UTF-8 agree
+            String column = new String(name, StandardCharsets.UTF_8);
+            types.put(column, buffer.get(position));
+            offsets.put(column, buffer.getLong(position + 1));
+            position += 1 + Long.BYTES;
+        }
+
+        ColumnDirectory columns = new ColumnDirectory(offsets, types);
+        this.ids = new LongColumn(columns.offset(SnapshotFormat.ID, SnapshotFormat.LONG));
+        this.dateTimes = new LongColumn(columns.offset(SnapshotFormat.DATE_TIME, SnapshotFormat.LONG));
+        this.cities = new DictionaryColumn(columns.offset(SnapshotFormat.CITY, SnapshotFormat.DICTIONARY));
+        this.states = new DictionaryColumn(columns.offset(SnapshotFormat.STATE, SnapshotFormat.DICTIONARY));
+        this.countries = new DictionaryColumn(columns.offset(SnapshotFormat.COUNTRY, SnapshotFormat.DICTIONARY));
+        this.shapes = new DictionaryColumn(columns.offset(SnapshotFormat.SHAPE, SnapshotFormat.DICTIONARY));
+        this.durations = new DictionaryColumn(columns.offset(SnapshotFormat.DURATION, SnapshotFormat.DICTIONARY));
+        this.summaries = new DictionaryColumn(columns.offset(SnapshotFormat.SUMMARY, SnapshotFormat.DICTIONARY));
+        this.posted = new DictionaryColumn(columns.offset(SnapshotFormat.POSTED, SnapshotFormat.DICTIONARY));
+        this.latitudes = new DoubleColumn(columns.offset(SnapshotFormat.LATITUDE, SnapshotFormat.DOUBLE));
+        this.longitudes = new DoubleColumn(columns.offset(SnapshotFormat.LONGITUDE, SnapshotFormat.DOUBLE));
+        this.submittedBy = new DictionaryColumn(columns.offset(SnapshotFormat.SUBMITTED_BY, SnapshotFormat.DICTIONARY));
+        this.submissionDates = new LongColumn(columns.offset(SnapshotFormat.SUBMISSION_DATE, SnapshotFormat.LONG));
+        this.userSubmitted = new BooleanColumn(columns.offset(SnapshotFormat.USER_SUBMITTED, SnapshotFormat.BOOLEAN));
+        this.submissionStatuses = new DictionaryColumn(
+                columns.offset(SnapshotFormat.SUBMISSION_STATUS, SnapshotFormat.DICTIONARY));
+    }
+
+    /**
+     * Maps the snapshot at {@code path}. The file must not be modified while it is open;
+     * {@link SnapshotWriter} replaces files by renaming, which is safe.
+     */
+    public static SightingSnapshot open(Path path) throws IOException {
+        return open(path, SnapshotBuffer.REGION_SHIFT);
+    }
+
+    static SightingSnapshot open(Path path, int regionShift) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            return new SightingSnapshot(path, SnapshotBuffer.map(channel, regionShift));
+        }
+    }
+
+    /**
+     * Reads a snapshot held in memory, e.g. one decompressed from an archive segment.
+     *
+     * @param source Where the bytes came from, for error messages.
+     */
+    public static SightingSnapshot wrap(Path source, ByteBuffer buffer) {
+        return new SightingSnapshot(source, SnapshotBuffer.wrap(buffer));
+    }
+
+    public Path getPath() {
+        return path;
+    }
+
+    public int getVersion() {
+        return version;
+    }
+
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    /**
+     * Row holding {@code id}, or a negative value if there is none (ids are stored ascending).
+     */
+    public int rowOf(long id) {
+        int low = 0;
+        int high = rowCount - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            long midId = ids.get(mid);
+            if (midId < id) {
+                low = mid + 1;
+            } else if (midId > id) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -(low + 1);
+    }
+
+    public Sighting toSighting(int row) {
+        return Sighting.builder()
+                .id(ids.get(row))
+                .dateTime(dateTimes.getDateTime(row))
+                .city(cities.get(row))
+                .state(states.get(row))
+                .country(countries.get(row))
+                .shape(shapes.get(row))
+                .duration(durations.get(row))
+                .summary(summaries.get(row))
+                .posted(posted.get(row))
+                .latitude(latitudes.get(row))
+                .longitude(longitudes.get(row))
+                .submittedBy(submittedBy.get(row))
+                .submissionDate(submissionDates.getDateTime(row))
+                .userSubmitted(userSubmitted.get(row))
+                .submissionStatus(submissionStatus(row))
+                .build();
+    }
+
+    /**
+     * Value of one {@code Sighting} property, typed like the entity attribute.
+     *
+     * @throws IllegalArgumentException if {@code field} is not a sighting property.
+     */
+    public Object value(int row, String field) {
+        return switch (field) {
+            case SnapshotFormat.ID -> ids.get(row);
+            case SnapshotFormat.DATE_TIME -> dateTimes.getDateTime(row);
+            case SnapshotFormat.CITY -> cities.get(row);
+            case SnapshotFormat.STATE -> states.get(row);
+            case SnapshotFormat.COUNTRY -> countries.get(row);
+            case SnapshotFormat.SHAPE -> shapes.get(row);
+            case SnapshotFormat.DURATION -> durations.get(row);
+            case SnapshotFormat.SUMMARY -> summaries.get(row);
+            case SnapshotFormat.POSTED -> posted.get(row);
+            case SnapshotFormat.LATITUDE -> latitudes.get(row);
+            case SnapshotFormat.LONGITUDE -> longitudes.get(row);
+            case SnapshotFormat.SUBMITTED_BY -> submittedBy.get(row);
+            case SnapshotFormat.SUBMISSION_DATE -> submissionDates.getDateTime(row);
+            case SnapshotFormat.USER_SUBMITTED -> userSubmitted.get(row);
+            case SnapshotFormat.SUBMISSION_STATUS -> submissionStatus(row);
+            default -> throw new IllegalArgumentException("Unknown field: " + field);
+        };
+    }
+
+    private SubmissionStatus submissionStatus(int row) {
+        String status = submissionStatuses.get(row);
+        return status == null ? null : SubmissionStatus.fromString(status);
+    }
+
+    private record ColumnDirectory(Map<String, Long> offsets, Map<String, Byte> types) {
+        long offset(String name, byte type) {
+            Long offset = offsets.get(name);
+            if (offset == null || types.get(name) != type) {
+                throw new IllegalStateException("Snapshot has no " + name + " column of type " + type);
+            }
+            return offset;
+        }
+    }
+
+    final class LongColumn {
+        private final long offset;
+
+        LongColumn(long offset) {
+            this.offset = offset;
+        }
+
+        long get(int row) {
+            return buffer.getLong(offset + (long) row * Long.BYTES);
+        }
+
+        LocalDateTime getDateTime(int row) {
+            long micros = get(row);
+            if (micros == SnapshotFormat.NULL_LONG) {
+                return null;
+            }
+            return LocalDateTime.ofEpochSecond(Math.floorDiv(micros, 1_000_000),
+                    (int) Math.floorMod(micros, 1_000_000) * 1_000, ZoneOffset.UTC);
+        }
+    }
+
+    final class DoubleColumn {
+        private final long offset;
+
+        DoubleColumn(long offset) {
+            this.offset = offset;
+        }
+
+        /**
+         * Raw value, NaN for null; avoids boxing in scans.
+         */
+        double getDouble(int row) {
+            return buffer.getDouble(offset + (long) row * Double.BYTES);
+        }
+
+        Double get(int row) {
+            double value = getDouble(row);
+            return Double.isNaN(value) ? null : value;
+        }
+    }
+
+    final class BooleanColumn {
+        private final long offset;
+
+        BooleanColumn(long offset) {
+            this.offset = offset;
+        }
+
+        boolean get(int row) {
+            return buffer.get(offset + row) != 0;
+        }
+    }
+
+    final class DictionaryColumn {
+        private final int dictionarySize;
+        private final long codesOffset;
+        private final long byteOffsetsOffset;
+        private final long bytesOffset;
+        private final String[] decoded; // Lazily filled; racing writers store equal strings
+
+        DictionaryColumn(long offset) {
+            this.dictionarySize = buffer.getInt(offset);
+            this.codesOffset = offset + Integer.BYTES;
+            this.byteOffsetsOffset = codesOffset + (long) rowCount * Integer.BYTES;
+            this.bytesOffset = byteOffsetsOffset + (dictionarySize + 1L) * Integer.BYTES;
+            this.decoded = dictionarySize <= DECODED_CACHE_LIMIT ? new String[dictionarySize] : null;
+        }
+
+        int size() {
+            return dictionarySize;
+        }
+
+        int code(int row) {
+            return buffer.getInt(codesOffset + (long) row * Integer.BYTES);
+        }
+
+        String get(int row) {
+            int code = code(row);
+            return code == SnapshotFormat.NULL_CODE ? null : value(code);
+        }
+
+        String value(int code) {
+            if (decoded != null && decoded[code] != null) {
+                return decoded[code];
+            }
+            // Offsets within one dictionary's bytes are ints (SnapshotWriter enforces the limit)
+            int start = buffer.getInt(byteOffsetsOffset + (long) code * Integer.BYTES);
+            int end = buffer.getInt(byteOffsetsOffset + (code + 1L) * Integer.BYTES);
+            byte[] bytes = new byte[end - start];
+            buffer.get(bytesOffset + start, bytes);
+            String value = new String(bytes, StandardCharsets.UTF_8);
+            if (decoded != null) {
+                decoded[code] = value;
+            }
+            return value;
+        }
+
+        /**
+         * Flags the dictionary entries satisfying {@code predicate}, indexed by code; one pass over
+         * the distinct values instead of one test per row.
+         */
+        boolean[] matching(Predicate<String> predicate) {
+            boolean[] matches = new boolean[dictionarySize];
+            for (int code = 0; code < dictionarySize; code++) {
+                matches[code] = predicate.test(value(code));
+            }
+            return matches;
+        }
+
+        boolean matches(int row, boolean[] codes) {
+            int code = code(row);
+            return code != SnapshotFormat.NULL_CODE && codes[code];
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package com.ufomap.api.snapshot;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * Read access by {@code long} position to the bytes of a snapshot, which may exceed the 2 GB a
+ * single {@link ByteBuffer} can address.
+ * <p>
+ * A file is mapped as consecutive regions of {@value #REGION_BYTES} bytes, each extended by
+ * {@link Long#BYTES} into the next, so a primitive value is always read from one region. Only byte
+ * ranges (dictionary strings) may span two regions; they are copied piecewise.
+ */
+final class SnapshotBuffer {
+
+    static final int REGION_SHIFT = 30;
+    static final long REGION_BYTES = 1L << REGION_SHIFT;
+
+    private final ByteBuffer[] regions;
+    private final int shift;
+    private final long mask;
+    private final long size;
+
+    private SnapshotBuffer(ByteBuffer[] regions, int shift, long size) {
+        this.regions = regions;
+        this.shift = shift;
+        this.mask = (1L << shift) - 1;
+        this.size = size;
+    }
+
+    /**
+     * Maps a file as regions of {@code 2^shift} bytes; {@link #REGION_SHIFT} outside tests.
+     */
+    static SnapshotBuffer map(FileChannel channel, int shift) throws IOException {
+        long size = channel.size();
+        long regionBytes = 1L << shift;
+        int count = (int) Math.max(1, (size + regionBytes - 1) >>> shift);
+        ByteBuffer[] regions = new ByteBuffer[count];
+        for (int i = 0; i < count; i++) {
+            long start = i * regionBytes;
+            regions[i] = channel.map(FileChannel.MapMode.READ_ONLY, start,
+                    Math.min(regionBytes + Long.BYTES, size - start));
+        }
+        return new SnapshotBuffer(regions, shift, size);
+    }
+
+    /**
+     * A single buffer; every int position falls in its one region.
+     */
+    static SnapshotBuffer wrap(ByteBuffer buffer) {
+        return new SnapshotBuffer(new ByteBuffer[]{buffer}, Integer.SIZE - 1, buffer.limit());
+    }
+
+    long size() {
+        return size;
+    }
+
+    byte get(long position) {
+        return regions[(int) (position >>> shift)].get((int) (position & mask));
+    }
+
+    short getShort(long position) {
+        return regions[(int) (position >>> shift)].getShort((int) (position & mask));
+    }
+
+    int getInt(long position) {
+        return regions[(int) (position >>> shift)].getInt((int) (position & mask));
+    }
+
+    long getLong(long position) {
+        return regions[(int) (position >>> shift)].getLong((int) (position & mask));
+    }
+
+    double getDouble(long position) {
+        return regions[(int) (position >>> shift)].getDouble((int) (position & mask));
+    }
+
+    void get(long position, byte[] destination) {
+        int copied = 0;
+        while (copied < destination.length) {
+            long at = position + copied;
+            int offset = (int) (at & mask);
+            int length = (int) Math.min(destination.length - copied, (1L << shift) - offset);
+            regions[(int) (at >>> shift)].get(offset, destination, copied, length);
+            copied += length;
+        }
+    }
+}
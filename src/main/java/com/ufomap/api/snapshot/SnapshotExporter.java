@@ -0,0 +1,60 @@
+package com.ufomap.api.snapshot;
+
+import com.ufomap.api.model.Sighting;
+import com.ufomap.api.repository.SightingRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Export command: writes the {@code sightings} table to a snapshot file. The profile starts no web
+ * server and all background threads are daemons, so the JVM exits once the export returns; a
+ * failed export fails startup, which exits with a non-zero status.
+ * <pre>
+ * java -jar ufo-sighting-api.jar --spring.profiles.active=snapshot-export --ufomap.snapshot.path=sightings.snapshot
+ * </pre>
+ */
+@Component
+@Profile("snapshot-export")
+public class SnapshotExporter implements CommandLineRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(SnapshotExporter.class);
+
+    private final SightingRepository sightingRepository;
+    private final Path path;
+    private final int batchSize;
+
+    public SnapshotExporter(SightingRepository sightingRepository,
+                            @Value("${ufomap.snapshot.path}") String path,
+                            @Value("${ufomap.snapshot.export-batch-size:5000}") int batchSize) {
+        this.sightingRepository = sightingRepository;
+        this.path = Path.of(path);
+        this.batchSize = batchSize;
+    }
+
+    @Override
+    public void run(String... args) throws Exception {
+        long start = System.currentTimeMillis();
+        SnapshotWriter writer = new SnapshotWriter();
+        long lastId = 0;
+        List<Sighting> batch;
+        do {
+            batch = sightingRepository.findByIdGreaterThanOrderByIdAsc(lastId, PageRequest.of(0, batchSize));
+            for (Sighting sighting : batch) {
+                writer.add(sighting);
+                lastId = sighting.getId();
+            }
+        } while (batch.size() == batchSize);
+
+        writer.writeTo(path);
+        logger.info("Exported {} sightings to {} in {} ms", writer.getRowCount(), path.toAbsolutePath(),
+                System.currentTimeMillis() - start);
+    }
+}
@@ -0,0 +1,55 @@
+package com.ufomap.api.snapshot;
+
+/**
+ * Layout of a sightings snapshot file (all values big-endian):
+ * <pre>
+ * header     int MAGIC, int VERSION
+ * columns    one section per column, rows in ascending id order
+ * directory  int rowCount, int columnCount, then per column: UTF name, byte type, long offset
+ * footer     long directoryOffset, int MAGIC
+ * </pre>
+ * Column sections by type:
+ * <ul>
+ *     <li>{@link #LONG}: {@code long[rowCount]}, {@link #NULL_LONG} for null. Timestamps are UTC epoch microseconds.</li>
+ *     <li>{@link #DOUBLE}: {@code double[rowCount]}, NaN for null.</li>
+ *     <li>{@link #BOOLEAN}: {@code byte[rowCount]}, 0 or 1.</li>
+ *     <li>{@link #DICTIONARY}: {@code int dictionarySize, int[rowCount] codes (-1 for null),
+ *     int[dictionarySize + 1] byte offsets, UTF-8 bytes} of the distinct values.</li>
+ * </ul>
+ * Columns are looked up by name, so a reader ignores columns it does not know. The version is
+ * bumped whenever an existing column changes meaning or layout.
+ */
+final class SnapshotFormat {
+
+    static final int MAGIC = 0x55464F53; // "UFOS"
+    static final int VERSION = 1;
+    static final int FOOTER_BYTES = Long.BYTES + Integer.BYTES;
+
+    static final byte LONG = 1;
+    static final byte DOUBLE = 2;
+    static final byte BOOLEAN = 3;
+    static final byte DICTIONARY = 4;
+
+    static final long NULL_LONG = Long.MIN_VALUE;
+    static final int NULL_CODE = -1;
+
+    // Column names match the Sighting / SightingDTO properties
+    static final String ID = "id";
+    static final String DATE_TIME = "dateTime";
+    static final String CITY = "city";
+    static final String STATE = "state";
+    static final String COUNTRY = "country";
+    static final String SHAPE = "shape";
+    static final String DURATION = "duration";
+    static final String SUMMARY = "summary";
+    static final String POSTED = "posted";
+    static final String LATITUDE = "latitude";
+    static final String LONGITUDE = "longitude";
+    static final String SUBMITTED_BY = "submittedBy";
+    static final String SUBMISSION_DATE = "submissionDate";
+    static final String USER_SUBMITTED = "userSubmitted";
+    static final String SUBMISSION_STATUS = "submissionStatus";
+
+    private SnapshotFormat() {
+    }
+}
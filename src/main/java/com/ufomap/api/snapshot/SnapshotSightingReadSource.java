@@ -0,0 +1,347 @@
+package com.ufomap.api.snapshot;
+
+import com.ufomap.api.model.Sighting;
+import com.ufomap.api.model.SightingDerivedColumns;
+import com.ufomap.api.repository.SightingFields;
+import com.ufomap.api.repository.SightingPoint;
+import com.ufomap.api.repository.SightingReadSource;
+import com.ufomap.api.repository.ValueCount;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.IntFunction;
+import java.util.function.IntPredicate;
+import java.util.function.LongConsumer;
+import java.util.stream.IntStream;
+
+/**
+ * {@link SightingReadSource} for the {@code snapshot} profile: serves reads from a memory-mapped
+ * {@link SightingSnapshot} without a database.
+ * <p>
+ * Filters run as column scans; string equality and substring filters are first resolved against
+ * each column's dictionary, so a row test is an int lookup. Only the rows of the requested page
+ * are materialized.
+ */
+@Component
+@Profile("snapshot")
+public class SnapshotSightingReadSource implements SightingReadSource {
+
+    private static final Logger logger = LoggerFactory.getLogger(SnapshotSightingReadSource.class);
+
+    private final SightingSnapshot snapshot;
+
+    public SnapshotSightingReadSource(@Value("${ufomap.snapshot.path}") String path) throws IOException {
+        this(SightingSnapshot.open(Path.of(path)));
+        logger.info("Serving {} sightings from snapshot {} (format version {})",
+                snapshot.getRowCount(), snapshot.getPath(), snapshot.getVersion());
+    }
+
+    public SnapshotSightingReadSource(SightingSnapshot snapshot) {
+        this.snapshot = snapshot;
+    }
+
+    @Override
+    public Page<Sighting> findAll(Pageable pageable) {
+        return page(IntStream.range(0, snapshot.getRowCount()).toArray(), pageable, snapshot::toSighting);
+    }
+
+    @Override
+    public Optional<Sighting> findById(Long id) {
+        int row = snapshot.rowOf(id);
+        return row < 0 ? Optional.empty() : Optional.of(snapshot.toSighting(row));
+    }
+
+    @Override
+    public List<Sighting> findAllById(Iterable<Long> ids) {
+        List<Sighting> sightings = new ArrayList<>();
+        for (Long id : ids) {
+            findById(id).ifPresent(sightings::add);
+        }
+        return sightings;
+    }
+
+    @Override
+    public Page<Sighting> findWithFilters(String shape, String city, String country, String state,
+                                          String searchText, Long minDuration, Long maxDuration,
+                                          Pageable pageable) {
+        return page(matching(filter(shape, city, country, state, searchText, minDuration, maxDuration)),
+                pageable, snapshot::toSighting);
+    }
+
+    @Override
+    public void forEachIdWithFilters(String shape, String city, String country, String state,
+                                     String searchText, Long minDuration, Long maxDuration, LongConsumer consumer) {
+        for (int row : matching(filter(shape, city, country, state, searchText, minDuration, maxDuration))) {
+            consumer.accept(snapshot.ids.get(row));
+        }
+    }
+
+    @Override
+    public void forEachLocationSince(LocalDateTime since, LocationConsumer consumer) {
+        long sinceMicros = SnapshotWriter.toEpochMicros(since);
+        for (int row = 0; row < snapshot.getRowCount(); row++) {
+            // Null times are Long.MIN_VALUE, and null coordinates NaN
+            double latitude = snapshot.latitudes.getDouble(row);
+            double longitude = snapshot.longitudes.getDouble(row);
+            if (snapshot.dateTimes.get(row) >= sinceMicros && !Double.isNaN(latitude) && !Double.isNaN(longitude)) {
+                consumer.accept(latitude, longitude);
+            }
+        }
+    }
+
+    @Override
+    public Page<Sighting> findInBounds(Double north, Double south, Double east, Double west, Pageable pageable) {
+        return page(matching(bounds(north, south, east, west)), pageable, snapshot::toSighting);
+    }
+
+    @Override
+    public List<SightingPoint> findPointsInBounds(Double north, Double south, Double east, Double west,
+                                                  Pageable pageable) {
+        return page(matching(bounds(north, south, east, west)), pageable, row -> (SightingPoint) new Point(
+                snapshot.ids.get(row), snapshot.latitudes.get(row), snapshot.longitudes.get(row),
+                snapshot.shapes.get(row))).getContent();
+    }
+
+    @Override
+    public Page<Map<String, Object>> findAllFields(List<String> fields, Pageable pageable) {
+        List<String> selected = SightingFields.validate(fields);
+        return page(IntStream.range(0, snapshot.getRowCount()).toArray(), pageable, row -> fieldsOf(row, selected));
+    }
+
+    @Override
+    public Optional<Map<String, Object>> findFieldsById(List<String> fields, Long id) {
+        List<String> selected = SightingFields.validate(fields);
+        int row = snapshot.rowOf(id);
+        return row < 0 ? Optional.empty() : Optional.of(fieldsOf(row, selected));
+    }
+
+    @Override
+    public Page<Map<String, Object>> findFieldsWithFilters(List<String> fields, String shape, String city,
+                                                           String country, String state, String searchText,
+                                                           Long minDuration, Long maxDuration,
+                                                           Pageable pageable) {
+        List<String> selected = SightingFields.validate(fields);
+        return page(matching(filter(shape, city, country, state, searchText, minDuration, maxDuration)),
+                pageable, row -> fieldsOf(row, selected));
+    }
+
+    @Override
+    public Page<Map<String, Object>> findFieldsInBounds(List<String> fields, Double north, Double south,
+                                                        Double east, Double west, Pageable pageable) {
+        List<String> selected = SightingFields.validate(fields);
+        return page(matching(bounds(north, south, east, west)), pageable, row -> fieldsOf(row, selected));
+    }
+
+    @Override
+    public boolean isWritable() {
+        return false;
+    }
+
+    /**
+     * Distinct values of the {@code city}, {@code state}, {@code country} or {@code shape} column with
+     * their number of sightings, like the GROUP BY counts of {@code SightingRepository}; one pass over
+     * the column's codes.
+     *
+     * @throws IllegalArgumentException for any other column.
+     */
+    public List<ValueCount> countValues(String field) {
+        SightingSnapshot.DictionaryColumn column = switch (field) {
+            case SnapshotFormat.CITY -> snapshot.cities;
+            case SnapshotFormat.STATE -> snapshot.states;
+            case SnapshotFormat.COUNTRY -> snapshot.countries;
+            case SnapshotFormat.SHAPE -> snapshot.shapes;
+            default -> throw new IllegalArgumentException("Values of " + field + " are not counted");
+        };
+        long[] counts = new long[column.size()];
+        for (int row = 0; row < snapshot.getRowCount(); row++) {
+            int code = column.code(row);
+            if (code != SnapshotFormat.NULL_CODE) {
+                counts[code]++;
+            }
+        }
+        List<ValueCount> values = new ArrayList<>();
+        for (int code = 0; code < counts.length; code++) {
+            if (counts[code] > 0) {
+                values.add(new Count(column.value(code), counts[code]));
+            }
+        }
+        return values;
+    }
+
+    // Same semantics as SightingRepository.findWithFilters: case-insensitive equality, and a
+    // case-insensitive "contains" over city, state, country, summary and shape. The snapshot has no
+    // durationSeconds column, so duration bounds parse each distinct duration string once instead.
+    private IntPredicate filter(String shape, String city, String country, String state, String searchText,
+                                Long minDuration, Long maxDuration) {
+        IntPredicate predicate = row -> true;
+        predicate = and(predicate, snapshot.shapes, shape);
+        predicate = and(predicate, snapshot.cities, city);
+        predicate = and(predicate, snapshot.countries, country);
+        predicate = and(predicate, snapshot.states, state);
+        if (searchText != null) {
+            String needle = searchText.toLowerCase(Locale.ROOT);
+            List<SightingSnapshot.DictionaryColumn> columns = List.of(snapshot.cities, snapshot.states,
+                    snapshot.countries, snapshot.summaries, snapshot.shapes);
+            List<boolean[]> codes = new ArrayList<>(columns.size());
+            for (SightingSnapshot.DictionaryColumn column : columns) {
+                codes.add(column.matching(value -> value.toLowerCase(Locale.ROOT).contains(needle)));
+            }
+            predicate = predicate.and(row -> {
+                for (int i = 0; i < columns.size(); i++) {
+                    if (columns.get(i).matches(row, codes.get(i))) {
+                        return true;
+                    }
+                }
+                return false;
+            });
+        }
+        if (minDuration != null || maxDuration != null) {
+            boolean[] codes = snapshot.durations.matching(value -> {
+                Long seconds = SightingDerivedColumns.durationSeconds(value);
+                return seconds != null && (minDuration == null || seconds >= minDuration)
+                        && (maxDuration == null || seconds <= maxDuration);
+            });
+            predicate = predicate.and(row -> snapshot.durations.matches(row, codes));
+        }
+        return predicate;
+    }
+
+    private static IntPredicate and(IntPredicate predicate, SightingSnapshot.DictionaryColumn column, String value) {
+        if (value == null) {
+            return predicate;
+        }
+        String expected = value.toLowerCase(Locale.ROOT);
+        boolean[] codes = column.matching(candidate -> candidate.toLowerCase(Locale.ROOT).equals(expected));
+        return predicate.and(row -> column.matches(row, codes));
+    }
+
+    // BETWEEN is inclusive; null (NaN) coordinates never match
+    private IntPredicate bounds(Double north, Double south, Double east, Double west) {
+        return row -> {
+            double latitude = snapshot.latitudes.getDouble(row);
+            double longitude = snapshot.longitudes.getDouble(row);
+            return latitude >= south && latitude <= north && longitude >= west && longitude <= east;
+        };
+    }
+
+    private int[] matching(IntPredicate predicate) {
+        return IntStream.range(0, snapshot.getRowCount()).filter(predicate).toArray();
+    }
+
+    private <T> Page<T> page(int[] rows, Pageable pageable, IntFunction<T> mapper) {
+        int[] ordered = sort(rows, pageable.getSort());
+        int from = 0;
+        int to = ordered.length;
+        if (pageable.isPaged()) {
+            from = (int) Math.min(pageable.getOffset(), ordered.length);
+            to = Math.min(from + pageable.getPageSize(), ordered.length);
+        }
+        List<T> content = new ArrayList<>(to - from);
+        for (int i = from; i < to; i++) {
+            content.add(mapper.apply(ordered[i]));
+        }
+        return new PageImpl<>(content, pageable, ordered.length);
+    }
+
+    // Rows are stored in id order, so unsorted and id-ascending requests need no sort
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private int[] sort(int[] rows, Sort sort) {
+        List<Sort.Order> orders = sort.toList();
+        if (orders.isEmpty() || (orders.size() == 1 && orders.get(0).getProperty().equals("id")
+                && orders.get(0).isAscending())) {
+            return rows;
+        }
+
+        // Extract each sort key once, then sort row positions
+        Comparable[][] keys = new Comparable[orders.size()][rows.length];
+        // NULLS LAST ascending, NULLS FIRST descending, as in PostgreSQL
+        Comparator<Comparable> keyOrder = Comparator.nullsLast(Comparator.naturalOrder());
+        Comparator<Integer> comparator = null;
+        for (int o = 0; o < orders.size(); o++) {
+            Sort.Order order = orders.get(o);
+            if (!SightingFields.SELECTABLE.contains(order.getProperty())) {
+                throw new IllegalArgumentException("Unknown sort property: " + order.getProperty());
+            }
+            Comparable[] column = keys[o];
+            for (int i = 0; i < rows.length; i++) {
+                column[i] = (Comparable) snapshot.value(rows[i], order.getProperty());
+            }
+            Comparator<Integer> byKey = (a, b) -> keyOrder.compare(column[a], column[b]);
+            if (order.isDescending()) {
+                byKey = byKey.reversed();
+            }
+            comparator = comparator == null ? byKey : comparator.thenComparing(byKey);
+        }
+
+        Integer[] positions = new Integer[rows.length];
+        Arrays.setAll(positions, i -> i);
+        Arrays.sort(positions, comparator);
+        int[] sorted = new int[rows.length];
+        for (int i = 0; i < positions.length; i++) {
+            sorted[i] = rows[positions[i]];
+        }
+        return sorted;
+    }
+
+    private Map<String, Object> fieldsOf(int row, List<String> fields) {
+        Map<String, Object> values = new LinkedHashMap<>();
+        for (String field : fields) {
+            values.put(field, SightingFields.responseValue(snapshot.value(row, field)));
+        }
+        return values;
+    }
+
+    private record Count(String value, Long count) implements ValueCount {
+
+        @Override
+        public String getValue() {
+            return value;
+        }
+
+        @Override
+        public Long getCount() {
+            return count;
+        }
+    }
+
+    private record Point(Long id, Double latitude, Double longitude, String shape) implements SightingPoint {
+
+        @Override
+        public Long getId() {
+            return id;
+        }
+
+        @Override
+        public Double getLatitude() {
+            return latitude;
+        }
+
+        @Override
+        public Double getLongitude() {
+            return longitude;
+        }
+
+        @Override
+        public String getShape() {
+            return shape;
+        }
+    }
+}
@@ -0,0 +1,290 @@
+package com.ufomap.api.snapshot;
+
+import com.ufomap.api.model.Sighting;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Builds a {@link SnapshotFormat} file from sightings added in ascending id order.
+ * Columns are buffered in memory (primitives, and one code per row for strings) and written
+ * in one pass; the file is written next to the target and moved into place when complete.
+ */
+public class SnapshotWriter {
+
+    private final Map<String, ColumnBuilder> columns = new LinkedHashMap<>();
+    private int rowCount;
+    private long lastId = Long.MIN_VALUE;
+
+    public SnapshotWriter() {
+        columns.put(SnapshotFormat.ID, new LongColumnBuilder());
+        columns.put(SnapshotFormat.DATE_TIME, new LongColumnBuilder());
+        columns.put(SnapshotFormat.CITY, new DictionaryColumnBuilder());
+        columns.put(SnapshotFormat.STATE, new DictionaryColumnBuilder());
+        columns.put(SnapshotFormat.COUNTRY, new DictionaryColumnBuilder());
+        columns.put(SnapshotFormat.SHAPE, new DictionaryColumnBuilder());
+        columns.put(SnapshotFormat.DURATION, new DictionaryColumnBuilder());
+        columns.put(SnapshotFormat.SUMMARY, new DictionaryColumnBuilder());
+        columns.put(SnapshotFormat.POSTED, new DictionaryColumnBuilder());
+        columns.put(SnapshotFormat.LATITUDE, new DoubleColumnBuilder());
+        columns.put(SnapshotFormat.LONGITUDE, new DoubleColumnBuilder());
+        columns.put(SnapshotFormat.SUBMITTED_BY, new DictionaryColumnBuilder());
+        columns.put(SnapshotFormat.SUBMISSION_DATE, new LongColumnBuilder());
+        columns.put(SnapshotFormat.USER_SUBMITTED, new BooleanColumnBuilder());
+        columns.put(SnapshotFormat.SUBMISSION_STATUS, new DictionaryColumnBuilder());
+    }
+
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    /**
+     * Appends a sighting; ids must be strictly ascending so the reader can binary-search them.
+     */
+    public void add(Sighting sighting) {
+        if (sighting.getId() == null || sighting.getId() <= lastId) {
+            throw new IllegalArgumentException("Sightings must be added in ascending id order");
+        }
+        lastId = sighting.getId();
+        longColumn(SnapshotFormat.ID).add(sighting.getId());
+        longColumn(SnapshotFormat.DATE_TIME).add(toEpochMicros(sighting.getDateTime()));
+        stringColumn(SnapshotFormat.CITY).add(sighting.getCity());
+        stringColumn(SnapshotFormat.STATE).add(sighting.getState());
+        stringColumn(SnapshotFormat.COUNTRY).add(sighting.getCountry());
+        stringColumn(SnapshotFormat.SHAPE).add(sighting.getShape());
+        stringColumn(SnapshotFormat.DURATION).add(sighting.getDuration());
+        stringColumn(SnapshotFormat.SUMMARY).add(sighting.getSummary());
+        stringColumn(SnapshotFormat.POSTED).add(sighting.getPosted());
+        doubleColumn(SnapshotFormat.LATITUDE).add(sighting.getLatitude());
+        doubleColumn(SnapshotFormat.LONGITUDE).add(sighting.getLongitude());
+        stringColumn(SnapshotFormat.SUBMITTED_BY).add(sighting.getSubmittedBy());
+        longColumn(SnapshotFormat.SUBMISSION_DATE).add(toEpochMicros(sighting.getSubmissionDate()));
+        ((BooleanColumnBuilder) columns.get(SnapshotFormat.USER_SUBMITTED)).add(sighting.isUserSubmitted());
+        stringColumn(SnapshotFormat.SUBMISSION_STATUS).add(
+                sighting.getSubmissionStatus() == null ? null : sighting.getSubmissionStatus().getStatus());
+        rowCount++;
+    }
+
+    /**
+     * Writes the snapshot to {@code target}, replacing any existing file atomically.
+     */
+    public void writeTo(Path target) throws IOException {
+        Path absolute = target.toAbsolutePath();
+        Path temp = absolute.resolveSibling(absolute.getFileName() + ".tmp");
+        try (OutputStream file = Files.newOutputStream(temp)) {
+            write(file);
+        }
+        Files.move(temp, absolute, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Writes the snapshot to a stream, which is flushed but not closed.
+     */
+    public void write(OutputStream target) throws IOException {
+        // DataOutputStream.size() stops counting at 2 GB, so positions are counted separately
+        CountingOutputStream counter = new CountingOutputStream(new BufferedOutputStream(target, 1 << 16));
+        DataOutputStream out = new DataOutputStream(counter);
+        out.writeInt(SnapshotFormat.MAGIC);
+        out.writeInt(SnapshotFormat.VERSION);
+
+        Map<String, Long> offsets = new LinkedHashMap<>();
+        for (Map.Entry<String, ColumnBuilder> column : columns.entrySet()) {
+            offsets.put(column.getKey(), counter.count);
+            column.getValue().write(out, rowCount);
+        }
+
+        long directoryOffset = counter.count;
+        out.writeInt(rowCount);
+        out.writeInt(columns.size());
+        for (Map.Entry<String, ColumnBuilder> column : columns.entrySet()) {
+            out.writeUTF(column.getKey());
+            out.writeByte(column.getValue().type());
+            out.writeLong(offsets.get(column.getKey()));
+        }
+        out.writeLong(directoryOffset);
+        out.writeInt(SnapshotFormat.MAGIC);
+        out.flush();
+    }
+
+    private LongColumnBuilder longColumn(String name) {
+        return (LongColumnBuilder) columns.get(name);
+    }
+
+    private DoubleColumnBuilder doubleColumn(String name) {
+        return (DoubleColumnBuilder) columns.get(name);
+    }
+
+    private DictionaryColumnBuilder stringColumn(String name) {
+        return (DictionaryColumnBuilder) columns.get(name);
+    }
+
+    static long toEpochMicros(LocalDateTime dateTime) {
+        if (dateTime == null) {
+            return SnapshotFormat.NULL_LONG;
+        }
+        return dateTime.toEpochSecond(ZoneOffset.UTC) * 1_000_000 + dateTime.getNano() / 1_000;
+    }
+
+    private interface ColumnBuilder {
+        byte type();
+
+        void write(DataOutputStream out, int rowCount) throws IOException;
+    }
+
+    private static final class LongColumnBuilder implements ColumnBuilder {
+        private long[] values = new long[1024];
+        private int size;
+
+        void add(long value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        @Override
+        public byte type() {
+            return SnapshotFormat.LONG;
+        }
+
+        @Override
+        public void write(DataOutputStream out, int rowCount) throws IOException {
+            for (int i = 0; i < rowCount; i++) {
+                out.writeLong(values[i]);
+            }
+        }
+    }
+
+    private static final class DoubleColumnBuilder implements ColumnBuilder {
+        private double[] values = new double[1024];
+        private int size;
+
+        void add(Double value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value == null ? Double.NaN : value;
+        }
+
+        @Override
+        public byte type() {
+            return SnapshotFormat.DOUBLE;
+        }
+
+        @Override
+        public void write(DataOutputStream out, int rowCount) throws IOException {
+            for (int i = 0; i < rowCount; i++) {
+                out.writeDouble(values[i]);
+            }
+        }
+    }
+
+    private static final class BooleanColumnBuilder implements ColumnBuilder {
+        private byte[] values = new byte[1024];
+        private int size;
+
+        void add(boolean value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = (byte) (value ? 1 : 0);
+        }
+
+        @Override
+        public byte type() {
+            return SnapshotFormat.BOOLEAN;
+        }
+
+        @Override
+        public void write(DataOutputStream out, int rowCount) throws IOException {
+            out.write(values, 0, rowCount);
+        }
+    }
+
+    private static final class DictionaryColumnBuilder implements ColumnBuilder {
+        private final Map<String, Integer> codes = new HashMap<>();
+        private final List<String> dictionary = new ArrayList<>();
+        private int[] values = new int[1024];
+        private int size;
+
+        void add(String value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value == null ? SnapshotFormat.NULL_CODE : codes.computeIfAbsent(value, v -> {
+                dictionary.add(v);
+                return dictionary.size() - 1;
+            });
+        }
+
+        @Override
+        public byte type() {
+            return SnapshotFormat.DICTIONARY;
+        }
+
+        @Override
+        public void write(DataOutputStream out, int rowCount) throws IOException {
+            List<byte[]> encoded = new ArrayList<>(dictionary.size());
+            long totalBytes = 0;
+            for (String value : dictionary) {
+                byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+                encoded.add(bytes);
+                totalBytes += bytes.length;
+            }
+            if (totalBytes > Integer.MAX_VALUE) {
+                throw new IllegalStateException("The distinct values of a snapshot column hold " + totalBytes
+                        + " bytes; the format limits one column's dictionary to 2 GB");
+            }
+
+            out.writeInt(dictionary.size());
+            for (int i = 0; i < rowCount; i++) {
+                out.writeInt(values[i]);
+            }
+            int offset = 0;
+            out.writeInt(offset);
+            for (byte[] bytes : encoded) {
+                offset += bytes.length;
+                out.writeInt(offset);
+            }
+            for (byte[] bytes : encoded) {
+                out.write(bytes);
+            }
+        }
+    }
+
+    // Counts the bytes written, as a long
+    private static final class CountingOutputStream extends FilterOutputStream {
+        private long count;
+
+        CountingOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            count += len;
+        }
+    }
+}
@@ -1,5 +1,7 @@
 package com.ufomap.api.sync;
 
+import com.ufomap.api.model.SubmissionStatus;
+
 import java.time.LocalDateTime;
 import java.util.Optional; // For optional update fields
 
@@ -15,7 +17,7 @@ record SightingUpdateData(
         Optional<String> summary,
         Optional<Double> latitude,
         Optional<Double> longitude,
-        Optional<String> submissionStatus // e.g., "approved", "rejected"
+        Optional<SubmissionStatus> submissionStatus // e.g., APPROVED, REJECTED
         // Add other fields from Sighting.java or SightingDTO.java that are updatable
         // For example, you might not want to allow direct updates to 'id', 'submittedBy', or 'submissionDate' via this mechanism.
 ) {
@@ -99,4 +101,4 @@ class SightingUpdateEvent implements Update<SightingUpdateData, Long> {
     //     // ... apply other fields
     //     return target;
     // }
-}
\ No newline at end of file
+}
\ No newline at end of file
@@ -2,6 +2,7 @@ package com.ufomap.api.sync;
 
 import com.ufomap.api.dto.SightingDTO; // For the convertToDTO helper, if SightingService.updateSighting expects DTO
 import com.ufomap.api.model.Sighting;
+import com.ufomap.api.profiling.UpdateHandlerEvent;
 import com.ufomap.api.service.SightingService;
 import com.ufomap.api.exception.ResourceNotFoundException;
 import org.slf4j.Logger;
@@ -41,45 +42,38 @@ public class UpdateHandler {
             return;
         }
 
+        UpdateHandlerEvent.timed(sightingId, sourceInfo != null ? sourceInfo.sourceSystem() : null,
+                payload.submissionStatus().isPresent(), () -> apply(sightingId, payload, sourceInfo));
+    }
+
+    private void apply(Long sightingId, SightingUpdateData payload, UpdateSource sourceInfo) {
         logger.info("Processing update for sighting ID: {} from source: {}. Timestamp: {}",
                 sightingId,
                 sourceInfo != null ? sourceInfo.sourceSystem() : "Unknown",
                 sourceInfo != null ? sourceInfo.updateTimestamp() : "N/A");
 
-        // Fetch the existing sighting entity
-        Sighting sightingToUpdate = sightingService.getSightingEntityById(sightingId);
+        // Fetch the existing sighting and apply the payload to a DTO copy, so the managed entity
+        // is only changed through SightingService (which records the before/after state)
+        Sighting existingSighting = sightingService.getSightingEntityById(sightingId);
+        SightingDTO updatedSightingDTO = convertToDTO(existingSighting);
 
         // Apply updates from the payload
-        payload.city().ifPresent(sightingToUpdate::setCity);
-        payload.state().ifPresent(sightingToUpdate::setState);
-        payload.country().ifPresent(sightingToUpdate::setCountry);
-        payload.shape().ifPresent(sightingToUpdate::setShape);
-        payload.duration().ifPresent(sightingToUpdate::setDuration);
-        payload.summary().ifPresent(sightingToUpdate::setSummary);
-        payload.latitude().ifPresent(sightingToUpdate::setLatitude);
-        payload.longitude().ifPresent(sightingToUpdate::setLongitude);
-
-        // If submissionStatus is part of SightingUpdateData and should be updatable here:
-        payload.submissionStatus().ifPresent(status -> {
-            // You might want to use the dedicated service method for status updates
-            // to keep logic consistent, or update directly if appropriate.
-            // For direct update:
-            sightingToUpdate.setSubmissionStatus(status);
-            // Or call:
-            // sightingService.updateSightingStatus(sightingId, status);
-            // However, the current flow will save sightingToUpdate which includes this change.
-        });
+        payload.city().ifPresent(updatedSightingDTO::setCity);
+        payload.state().ifPresent(updatedSightingDTO::setState);
+        payload.country().ifPresent(updatedSightingDTO::setCountry);
+        payload.shape().ifPresent(updatedSightingDTO::setShape);
+        payload.duration().ifPresent(updatedSightingDTO::setDuration);
+        payload.summary().ifPresent(updatedSightingDTO::setSummary);
+        payload.latitude().ifPresent(updatedSightingDTO::setLatitude);
+        payload.longitude().ifPresent(updatedSightingDTO::setLongitude);
         // Potentially update a "lastModifiedDate" or similar audit field on Sighting entity
         // sightingToUpdate.setLastModifiedDate(LocalDateTime.now());
         // sightingToUpdate.setLastModifiedBy(sourceInfo.updatedByUserId().orElse("sync-process"));
 
-        // Save the updated sighting using the Sighting entity itself
-        // We need a service method that accepts the entity or updates based on DTO like we added.
-        // Let's use the SightingService.updateSighting(Long id, SightingDTO dto) method.
-        // This requires converting the modified entity back to DTO or enhancing SightingService.
-        // For simplicity with the added SightingService.updateSighting:
-        SightingDTO updatedSightingDTO = convertToDTO(sightingToUpdate); // Convert the *modified* entity
-        sightingService.updateSighting(sightingId, updatedSightingDTO); // Call the new service method
+        sightingService.updateSighting(sightingId, updatedSightingDTO);
+
+        // Status changes go through the dedicated service method (it also ends moderation claims)
+        payload.submissionStatus().ifPresent(status -> sightingService.updateSightingStatus(sightingId, status));
 
         logger.info("Successfully updated sighting ID: {}. Details: {}", sightingId, payload);
     }
@@ -105,4 +99,4 @@ public class UpdateHandler {
                 .submissionStatus(sighting.getSubmissionStatus())
                 .build();
     }
-}
\ No newline at end of file
+}
\ No newline at end of file
@@ -1,5 +1,6 @@
 package com.ufomap.api;
 
+import com.ufomap.api.archive.SightingArchive;
 import com.ufomap.api.config.DataLoader;
 import com.ufomap.api.repository.SightingRepository;
 import com.ufomap.api.service.SightingService;
@@ -8,6 +9,7 @@ import org.junit.jupiter.api.Test;
 import org.mockito.Mockito; // Import Mockito
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean; // For proper mocking in Spring Boot tests
+import org.springframework.test.context.ActiveProfiles;
 import org.springframework.core.io.ClassPathResource; // For mocking resource
 
 import java.io.ByteArrayInputStream;
@@ -20,6 +22,7 @@ import static org.mockito.Mockito.when;
 
 @Slf4j
 @SpringBootTest // This annotation is powerful and sets up a Spring context
+@ActiveProfiles("dev") // Token signing secret
 class UfoSightingApiApplicationTests {
 
     // Use @MockBean for dependencies that DataLoader needs.
@@ -40,8 +43,9 @@ class UfoSightingApiApplicationTests {
     @Test
     void testLoadMarker_doesNotLoadIfDataExists() {
         // Instantiate DataLoader with mocked dependencies
-        // DataLoader constructor now expects SightingService as well due to @RequiredArgsConstructor
-        DataLoader dataLoader = new DataLoader(sightingRepository, sightingService);
+        // DataLoader constructor also expects SightingService and the archive
+        DataLoader dataLoader = new DataLoader(sightingRepository, sightingService,
+                Mockito.mock(SightingArchive.class));
 
         // Mock the resource loading part
         org.springframework.core.io.Resource mockResource = Mockito.mock(org.springframework.core.io.Resource.class);
@@ -50,7 +54,7 @@ class UfoSightingApiApplicationTests {
         // Or, make sightingsResource package-private for testing if absolutely necessary.
 
         // Given: repository already has data
-        when(sightingRepository.count()).thenReturn(1L);
+        when(sightingRepository.existsByIdNotNull()).thenReturn(true);
 
         // When
         dataLoader.loadData(); // Call the method to test
@@ -62,7 +66,8 @@ class UfoSightingApiApplicationTests {
 
     @Test
     void testLoadMarker_loadsDataWhenRepositoryIsEmpty() throws IOException {
-        DataLoader dataLoader = new DataLoader(sightingRepository, sightingService);
+        DataLoader dataLoader = new DataLoader(sightingRepository, sightingService,
+                Mockito.mock(SightingArchive.class));
 
         // Mock the resource used by DataLoader
         org.springframework.core.io.Resource mockResource = Mockito.mock(org.springframework.core.io.Resource.class);
@@ -77,7 +82,7 @@ class UfoSightingApiApplicationTests {
         // Let's assume for now we test the logic after resource loading.
 
         // Given: repository is empty
-        when(sightingRepository.count()).thenReturn(0L);
+        when(sightingRepository.existsByIdNotNull()).thenReturn(false);
 
         // When
         // To properly test, we need to ensure `sightingsResource` in DataLoader is mocked.
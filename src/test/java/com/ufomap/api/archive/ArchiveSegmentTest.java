@@ -0,0 +1,80 @@
+package com.ufomap.api.archive;
+
+import com.ufomap.api.model.Sighting;
+import com.ufomap.api.snapshot.SightingSnapshot;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static com.ufomap.api.model.SightingFixtures.sighting;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ArchiveSegmentTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void roundTripsSightingsAndRecordsZoneMaps() throws Exception {
+        Sighting phoenix = sighting(3L, "Phoenix", "light", null, 33.45, -112.07);
+        phoenix.setDateTime(LocalDateTime.of(1999, 3, 13, 22, 0));
+        Sighting tucson = sighting(7L, "Tucson", "light", null, 32.22, -110.97);
+        tucson.setDateTime(LocalDateTime.of(1997, 3, 13, 19, 30));
+        Sighting noCoordinates = sighting(8L, null, "light", null, null, null);
+        noCoordinates.setDateTime(null);
+
+        Path file = directory.resolve("segment.seg");
+        ArchiveSegment.write(List.of(phoenix, tucson, noCoordinates), file);
+
+        ArchiveSegment segment = ArchiveSegment.open(file);
+        assertEquals(3, segment.getRowCount());
+        assertEquals(3L, segment.getMinId());
+        assertEquals(8L, segment.getMaxId());
+        assertEquals(tucson.getDateTime(), segment.getMinDateTime());
+        assertEquals(phoenix.getDateTime(), segment.getMaxDateTime());
+        assertEquals(32.22, segment.getMinLatitude());
+        assertEquals(-110.97, segment.getMaxLongitude());
+
+        assertTrue(segment.mayContainId(5));
+        assertFalse(segment.mayContainId(9));
+        assertTrue(segment.mayOverlap(34.0, 33.0, -112.0, -113.0));
+        assertFalse(segment.mayOverlap(50.0, 40.0, -70.0, -80.0));
+
+        SightingSnapshot snapshot = segment.load();
+        assertEquals(3, snapshot.getRowCount());
+        assertEquals("Phoenix", snapshot.toSighting(snapshot.rowOf(3)).getCity());
+        assertNull(snapshot.toSighting(snapshot.rowOf(8)).getLatitude());
+    }
+
+    @Test
+    void skipsSegmentsByValueFilterAndDurationZoneMap() throws Exception {
+        Sighting phoenix = sighting(1L, "Phoenix", "Triangle", null, 33.45, -112.07);
+        Sighting tucson = sighting(2L, "Tucson", "light", null, 32.22, -110.97);
+        tucson.setDuration("2 hours");
+        Sighting unknownDuration = sighting(3L, "Mesa", "Disk", null, null, null);
+        unknownDuration.setDuration("unknown");
+
+        Path file = directory.resolve("segment.seg");
+        ArchiveSegment.write(List.of(phoenix, tucson, unknownDuration), file);
+        ArchiveSegment segment = ArchiveSegment.open(file);
+
+        assertTrue(segment.mayMatch(null, null, null, null, null, null));
+        assertTrue(segment.mayMatch("TRIANGLE", "phoenix", "usa", "az", null, null));
+        assertFalse(segment.mayMatch("cigar", null, null, null, null, null));
+        assertFalse(segment.mayMatch(null, "Sedona", null, null, null, null));
+        assertFalse(segment.mayMatch(null, null, "Canada", null, null, null));
+
+        // Durations span 300 to 7200 seconds
+        assertTrue(segment.mayMatch(null, null, null, null, 7200L, null));
+        assertTrue(segment.mayMatch(null, null, null, null, null, 300L));
+        assertFalse(segment.mayMatch(null, null, null, null, 7201L, null));
+        assertFalse(segment.mayMatch(null, null, null, null, 60L, 299L));
+        assertEquals(3, segment.load().getRowCount());
+    }
+}
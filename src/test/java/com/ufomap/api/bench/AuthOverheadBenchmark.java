@@ -0,0 +1,70 @@
+package com.ufomap.api.bench;
+
+import com.nimbusds.jose.jwk.source.ImmutableSecret;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.oauth2.jose.jws.MacAlgorithm;
+import org.springframework.security.oauth2.jwt.JwsHeader;
+import org.springframework.security.oauth2.jwt.JwtClaimsSet;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
+import org.springframework.security.oauth2.jwt.NimbusJwtEncoder;
+import org.springframework.security.oauth2.jwt.JwtEncoderParameters;
+
+import javax.crypto.SecretKey;
+import javax.crypto.spec.SecretKeySpec;
+import java.security.SecureRandom;
+import java.time.Instant;
+
+/**
+ * Per-request authentication cost: HTTP Basic (a BCrypt cost-10 password check on every request)
+ * versus verifying an HS256 bearer token as done by the resource server.
+ * <pre>
+ *   java ... AuthOverheadBenchmark [iterations]
+ * </pre>
+ */
+public class AuthOverheadBenchmark {
+
+    public static void main(String[] args) {
+        int iterations = args.length > 0 ? Integer.parseInt(args[0]) : 200;
+
+        BCryptPasswordEncoder passwordEncoder = new BCryptPasswordEncoder(10);
+        String hash = passwordEncoder.encode("password");
+
+        byte[] secret = new byte[32];
+        new SecureRandom().nextBytes(secret);
+        SecretKey key = new SecretKeySpec(secret, "HmacSHA256");
+        String token = new NimbusJwtEncoder(new ImmutableSecret<>(key))
+                .encode(JwtEncoderParameters.from(JwsHeader.with(MacAlgorithm.HS256).build(), JwtClaimsSet.builder()
+                        .subject("admin")
+                        .issuedAt(Instant.now())
+                        .expiresAt(Instant.now().plusSeconds(3600))
+                        .build()))
+                .getTokenValue();
+        JwtDecoder decoder = NimbusJwtDecoder.withSecretKey(key).macAlgorithm(MacAlgorithm.HS256).build();
+
+        // Warm-up
+        for (int i = 0; i < 20; i++) {
+            passwordEncoder.matches("password", hash);
+        }
+        for (int i = 0; i < 20_000; i++) {
+            decoder.decode(token);
+        }
+
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            passwordEncoder.matches("password", hash);
+        }
+        double bcryptMicros = (System.nanoTime() - start) / 1000.0 / iterations;
+
+        int tokenIterations = iterations * 1000;
+        start = System.nanoTime();
+        for (int i = 0; i < tokenIterations; i++) {
+            decoder.decode(token);
+        }
+        double jwtMicros = (System.nanoTime() - start) / 1000.0 / tokenIterations;
+
+        System.out.printf("HTTP Basic (BCrypt, cost 10): %10.1f us/request%n", bcryptMicros);
+        System.out.printf("Bearer token (HS256 verify):  %10.1f us/request%n", jwtMicros);
+        System.out.printf("Speed-up:                     %10.0fx%n", bcryptMicros / jwtMicros);
+    }
+}
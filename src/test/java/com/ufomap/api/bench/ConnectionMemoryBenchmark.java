@@ -0,0 +1,146 @@
+package com.ufomap.api.bench;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares memory held per in-flight connection between the MVC API and the reactive API.
+ * <p>
+ * Opens {@code connections} concurrent streaming {@code /bounds} requests, keeps them open
+ * (only the first bytes of each body are read) and measures the server process before and while
+ * they are held: its live heap after a full GC (forced with {@code jcmd <pid> GC.run}, then read
+ * from actuator's {@code jvm.memory.used} for the heap), its resident set size from
+ * {@code /proc/<pid>/status} (which includes thread stacks and direct buffers) and its live
+ * threads. Run it on the server's host, once against each application:
+ * <pre>
+ *   java ... ConnectionMemoryBenchmark http://localhost:8080 &lt;mvc-pid&gt; 500 admin password
+ *   java ... ConnectionMemoryBenchmark http://localhost:8081 &lt;reactive-pid&gt; 500 admin password
+ * </pre>
+ * Not a unit test: it needs both applications, a populated database, {@code jcmd} and Linux.
+ */
+public class ConnectionMemoryBenchmark {
+
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 2) {
+            System.err.println("Usage: ConnectionMemoryBenchmark <url> <server-pid> [connections] [user] [password]");
+            System.exit(1);
+        }
+        String baseUrl = args[0];
+        long pid = Long.parseLong(args[1]);
+        int connections = args.length > 2 ? Integer.parseInt(args[2]) : 200;
+        String user = args.length > 3 ? args[3] : "admin";
+        String password = args.length > 4 ? args[4] : "password";
+        String auth = "Basic " + Base64.getEncoder()
+                .encodeToString((user + ":" + password).getBytes(StandardCharsets.UTF_8));
+
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1) // one TCP connection per request
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+
+        double heapBefore = liveHeap(client, baseUrl, auth, pid);
+        long rssBefore = residentBytes(pid);
+        double threadsBefore = metric(client, baseUrl, auth, "jvm.threads.live");
+
+        CountDownLatch started = new CountDownLatch(connections);
+        List<InputStream> openBodies = new ArrayList<>();
+        List<CompletableFuture<Void>> futures = new ArrayList<>();
+        for (int i = 0; i < connections; i++) {
+            HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl
+                            + "/api/sightings/bounds?north=90&south=-90&east=180&west=-180&size=2000"))
+                    .header("Accept", "application/x-ndjson, application/json")
+                    .build();
+            futures.add(client.sendAsync(request, HttpResponse.BodyHandlers.ofInputStream())
+                    .thenAccept(response -> {
+                        try {
+                            InputStream body = response.body();
+                            body.read(); // Wait for the first byte, then stall the stream
+                            synchronized (openBodies) {
+                                openBodies.add(body);
+                            }
+                        } catch (Exception e) {
+                            System.err.println("Connection failed: " + e.getMessage());
+                        } finally {
+                            started.countDown();
+                        }
+                    }));
+        }
+
+        if (!started.await(60, TimeUnit.SECONDS)) {
+            System.err.println("Not all connections started within 60s");
+        }
+        Thread.sleep(2000); // Let the server settle with all connections held
+        double heapDuring = liveHeap(client, baseUrl, auth, pid);
+        long rssDuring = residentBytes(pid);
+        double threadsDuring = metric(client, baseUrl, auth, "jvm.threads.live");
+
+        int held;
+        synchronized (openBodies) {
+            held = openBodies.size();
+            for (InputStream body : openBodies) {
+                body.close();
+            }
+        }
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).join();
+
+        System.out.printf("Target:                 %s%n", baseUrl);
+        System.out.printf("Connections held:       %d%n", held);
+        System.out.printf("Live heap after GC:     %.1f -> %.1f MiB%n",
+                heapBefore / (1024 * 1024), heapDuring / (1024 * 1024));
+        System.out.printf("Resident set size:      %.1f -> %.1f MiB%n",
+                rssBefore / (1024.0 * 1024), rssDuring / (1024.0 * 1024));
+        System.out.printf("Live threads:           %.0f -> %.0f%n", threadsBefore, threadsDuring);
+        if (held > 0) {
+            System.out.printf("Heap per connection:    %.1f KiB%n", (heapDuring - heapBefore) / held / 1024);
+            System.out.printf("RSS per connection:     %.1f KiB%n", (double) (rssDuring - rssBefore) / held / 1024);
+        }
+    }
+
+    // Server heap in use right after a full GC of the server process
+    private static double liveHeap(HttpClient client, String baseUrl, String auth, long pid) throws Exception {
+        Process gc = new ProcessBuilder("jcmd", Long.toString(pid), "GC.run")
+                .redirectErrorStream(true)
+                .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+                .start();
+        if (!gc.waitFor(60, TimeUnit.SECONDS) || gc.exitValue() != 0) {
+            throw new IllegalStateException("jcmd " + pid + " GC.run failed");
+        }
+        return metric(client, baseUrl, auth, "jvm.memory.used?tag=area:heap");
+    }
+
+    private static long residentBytes(long pid) throws Exception {
+        for (String line : Files.readAllLines(Path.of("/proc", Long.toString(pid), "status"))) {
+            if (line.startsWith("VmRSS:")) {
+                return Long.parseLong(line.replaceAll("\\D", "")) * 1024;
+            }
+        }
+        throw new IllegalStateException("No VmRSS for process " + pid);
+    }
+
+    private static double metric(HttpClient client, String baseUrl, String auth, String name) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/actuator/metrics/" + name))
+                .header("Authorization", auth)
+                .build();
+        HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+        JsonNode json = objectMapper.readTree(response.body());
+        return json.path("measurements").path(0).path("value").asDouble();
+    }
+}
@@ -0,0 +1,81 @@
+package com.ufomap.api.bench;
+
+import com.ufomap.api.dto.HotspotDTO;
+import com.ufomap.api.hotspot.HotspotAlertStream;
+import com.ufomap.api.hotspot.HotspotDetector;
+import com.ufomap.api.hotspot.HotspotProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Recording throughput of {@link HotspotDetector}: {@code threads} threads report sightings for
+ * {@code seconds} seconds, uniformly over the continental US, and during the last quarter also
+ * around Phoenix in one report out of 1000. Time is compressed (1 s buckets, a 5 s window and a
+ * 30 s baseline half-life) so the baseline settles within the run. Prints reports per second and
+ * the hotspots found, which should be the Phoenix cell.
+ * <pre>
+ *   java ... HotspotDetectorBenchmark [threads] [seconds]
+ * </pre>
+ */
+public class HotspotDetectorBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        int threads = args.length > 0 ? Integer.parseInt(args[0]) : Runtime.getRuntime().availableProcessors();
+        int seconds = args.length > 1 ? Integer.parseInt(args[1]) : 40;
+
+        HotspotProperties properties = new HotspotProperties();
+        properties.setBucket(Duration.ofSeconds(1));
+        properties.setWindow(Duration.ofSeconds(5));
+        properties.setBaselineHalfLife(Duration.ofSeconds(30));
+        properties.setEvaluateInterval(Duration.ofSeconds(1));
+        properties.setMinScore(10);
+        HotspotAlertStream alerts = new HotspotAlertStream(1, 1, 256, 1, Duration.ofMinutes(1));
+        HotspotDetector detector = new HotspotDetector(properties, null, alerts, new SimpleMeterRegistry());
+        detector.start();
+
+        LongAdder reports = new LongAdder();
+        long start = System.nanoTime();
+        long burst = start + Duration.ofSeconds(seconds).toNanos() * 3 / 4;
+        long deadline = start + Duration.ofSeconds(seconds).toNanos();
+        List<Thread> workers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            SplittableRandom random = new SplittableRandom(t);
+            Thread worker = new Thread(() -> {
+                long count = 0;
+                boolean bursting = false;
+                while ((count & 1023) != 0 || System.nanoTime() < deadline) {
+                    if ((count & 1023) == 0) {
+                        bursting = System.nanoTime() >= burst;
+                    }
+                    if (bursting && random.nextInt(1000) == 0) {
+                        detector.record(33.45 + random.nextDouble(0.05), -112.07 + random.nextDouble(0.05));
+                    } else {
+                        detector.record(random.nextDouble(25, 49), random.nextDouble(-125, -67));
+                    }
+                    count++;
+                }
+                reports.add(count);
+            });
+            workers.add(worker);
+            worker.start();
+        }
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        Thread.sleep(1000); // Let the detector evaluate the last reports
+
+        System.out.printf("%d threads, %d s: %,d reports, %,.0f reports/s%n",
+                threads, seconds, reports.sum(), reports.sum() / (double) seconds);
+        for (HotspotDTO hotspot : detector.getHotspots().subList(0, Math.min(5, detector.getHotspots().size()))) {
+            System.out.printf("  %s: %d reports, expected %.1f, score %.1f%n",
+                    hotspot.getGeohash(), hotspot.getCount(), hotspot.getExpected(), hotspot.getScore());
+        }
+        detector.shutdown();
+        alerts.shutdown();
+    }
+}
@@ -0,0 +1,93 @@
+package com.ufomap.api.bench;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.ufomap.api.config.BinaryObjectMappers;
+import com.ufomap.api.dto.SightingDTO;
+import com.ufomap.api.model.SubmissionStatus;
+import com.ufomap.api.repository.SightingPoint;
+import com.ufomap.api.service.SightingPointsEncoder;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Payload size and serialization CPU of a {@code /bounds} response in JSON, Smile and CBOR,
+ * for both the full {@code Page<SightingDTO>} and the columnar points projection.
+ * <pre>
+ *   java ... SerializationFormatBenchmark [rows] [iterations]
+ * </pre>
+ */
+public class SerializationFormatBenchmark {
+
+    private static final String[] SHAPES = {"light", "circle", "triangle", "disk", "fireball", "sphere", "unknown"};
+
+    record Point(Long getId, Double getLatitude, Double getLongitude, String getShape) implements SightingPoint {
+    }
+
+    public static void main(String[] args) throws Exception {
+        int rows = args.length > 0 ? Integer.parseInt(args[0]) : 2000;
+        int iterations = args.length > 1 ? Integer.parseInt(args[1]) : 500;
+
+        Random random = new Random(42);
+        List<SightingDTO> sightings = new ArrayList<>(rows);
+        List<Point> points = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            double latitude = 33.0 + random.nextGaussian() * 2;
+            double longitude = -112.0 + random.nextGaussian() * 2;
+            String shape = SHAPES[random.nextInt(SHAPES.length)];
+            long id = 1000 + i * 3L;
+            sightings.add(SightingDTO.builder()
+                    .id(id)
+                    .dateTime(LocalDateTime.of(2010, 1, 1, 0, 0).plusMinutes(random.nextInt(5_000_000)))
+                    .city("Phoenix").state("AZ").country("USA")
+                    .shape(shape)
+                    .duration("5 minutes")
+                    .summary("Bright " + shape + " moving slowly to the north, then vanished.")
+                    .posted("2015-01-01")
+                    .latitude(latitude).longitude(longitude)
+                    .submissionStatus(SubmissionStatus.APPROVED)
+                    .build());
+            points.add(new Point(id, latitude, longitude, shape));
+        }
+        PageImpl<SightingDTO> page = new PageImpl<>(sightings, PageRequest.of(0, rows), rows * 10L);
+
+        ObjectMapper json = new ObjectMapper()
+                .registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        ObjectMapper smile = BinaryObjectMappers.smile();
+        ObjectMapper cbor = BinaryObjectMappers.cbor();
+
+        System.out.printf("%-22s %12s %14s%n", "format", "bytes", "us/response");
+        run("page / json", json, page, iterations);
+        run("page / smile", smile, page, iterations);
+        run("page / cbor", cbor, page, iterations);
+        run("points / json", json, null, points, iterations);
+        run("points / smile", smile, null, points, iterations);
+        run("points / cbor", cbor, null, points, iterations);
+    }
+
+    private static void run(String name, ObjectMapper mapper, Object value, int iterations) throws Exception {
+        run(name, mapper, value, null, iterations);
+    }
+
+    // When points are given, encoding them is part of the measured work
+    private static void run(String name, ObjectMapper mapper, Object value, List<Point> points, int iterations)
+            throws Exception {
+        int size = 0;
+        for (int i = 0; i < iterations / 5; i++) { // warm-up
+            size = mapper.writeValueAsBytes(points != null ? SightingPointsEncoder.encode(points) : value).length;
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            size = mapper.writeValueAsBytes(points != null ? SightingPointsEncoder.encode(points) : value).length;
+        }
+        double micros = (System.nanoTime() - start) / 1000.0 / iterations;
+        System.out.printf("%-22s %12d %14.1f%n", name, size, micros);
+    }
+}
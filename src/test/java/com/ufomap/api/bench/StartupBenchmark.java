@@ -0,0 +1,96 @@
+package com.ufomap.api.bench;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time to first successful request: starts the application {@code runs} times with the given
+ * command and measures from process start until {@code url} first answers 200. Compare the
+ * builds of the {@code aot}, {@code cds} and {@code native} Maven profiles:
+ * <pre>
+ *   java ... StartupBenchmark 5 http://localhost:8080/api/sightings?size=1 java -jar target/ufo-sighting-api-0.0.1-SNAPSHOT.jar
+ *   java ... StartupBenchmark 5 http://localhost:8080/api/sightings?size=1 java -Dspring.aot.enabled=true -XX:SharedArchiveFile=target/cds/application.jsa -jar target/cds/ufo-sighting-api-0.0.1-SNAPSHOT-cds.jar
+ *   java ... StartupBenchmark 5 http://localhost:8080/api/sightings?size=1 target/ufo-sighting-api
+ * </pre>
+ * Not a unit test: it needs the database the application connects to, and nothing else
+ * listening on the URL's port. Application output goes to {@code startup-benchmark.log}.
+ */
+public class StartupBenchmark {
+
+    private static final Duration TIMEOUT = Duration.ofMinutes(3);
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 3) {
+            System.err.println("Usage: StartupBenchmark <runs> <url> <command> [args...]");
+            System.exit(1);
+        }
+        int runs = Integer.parseInt(args[0]);
+        URI url = URI.create(args[1]);
+        List<String> command = Arrays.asList(args).subList(2, args.length);
+
+        HttpClient client = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofMillis(200))
+                .build();
+        HttpRequest request = HttpRequest.newBuilder(url).timeout(Duration.ofSeconds(5)).build();
+        if (status(client, request) > 0) {
+            System.err.println("Something is already answering on " + url);
+            System.exit(1);
+        }
+
+        List<Long> millis = new ArrayList<>();
+        for (int run = 1; run <= runs; run++) {
+            long elapsed = measure(command, client, request);
+            millis.add(elapsed);
+            System.out.printf("Run %d: %6d ms%n", run, elapsed);
+        }
+
+        Collections.sort(millis);
+        System.out.printf("Time to first successful request over %d runs: min %d ms, median %d ms, max %d ms%n",
+                runs, millis.get(0), millis.get(millis.size() / 2), millis.get(millis.size() - 1));
+    }
+
+    private static long measure(List<String> command, HttpClient client, HttpRequest request) throws Exception {
+        ProcessBuilder builder = new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(ProcessBuilder.Redirect.appendTo(new File("startup-benchmark.log")));
+        long start = System.nanoTime();
+        Process process = builder.start();
+        try {
+            while (System.nanoTime() - start < TIMEOUT.toNanos()) {
+                if (!process.isAlive()) {
+                    throw new IllegalStateException("Application exited with " + process.exitValue()
+                            + " before answering; see startup-benchmark.log");
+                }
+                if (status(client, request) == 200) {
+                    return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+                }
+                Thread.sleep(10);
+            }
+            throw new IllegalStateException("No successful request within " + TIMEOUT);
+        } finally {
+            process.destroy();
+            if (!process.waitFor(30, TimeUnit.SECONDS)) {
+                process.destroyForcibly().waitFor();
+            }
+        }
+    }
+
+    // The response status, or -1 while nothing accepts connections
+    private static int status(HttpClient client, HttpRequest request) throws InterruptedException {
+        try {
+            return client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+        } catch (IOException e) {
+            return -1;
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.ufomap.api.cache;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HotResponseCacheFilterTest {
+
+    @Test
+    void choosesTheEncodingByQuality() {
+        assertEquals("gzip", HotResponseCacheFilter.preferredEncoding("gzip, deflate, br"));
+        assertEquals("deflate", HotResponseCacheFilter.preferredEncoding("gzip;q=0, deflate"));
+        assertEquals("deflate", HotResponseCacheFilter.preferredEncoding("gzip;q=0.5, deflate;q=0.8"));
+        assertEquals("gzip", HotResponseCacheFilter.preferredEncoding("*"));
+        assertNull(HotResponseCacheFilter.preferredEncoding("gzip;q=0"));
+        assertNull(HotResponseCacheFilter.preferredEncoding("identity, gzip;q=0.5"));
+        assertNull(HotResponseCacheFilter.preferredEncoding("br"));
+        assertNull(HotResponseCacheFilter.preferredEncoding(null));
+    }
+
+    @Test
+    void servesCachedJsonOnlyWhenJsonIsPreferred() {
+        assertTrue(HotResponseCacheFilter.prefersJson(null));
+        assertTrue(HotResponseCacheFilter.prefersJson("*/*"));
+        assertTrue(HotResponseCacheFilter.prefersJson("application/json, */*;q=0.8"));
+        assertTrue(HotResponseCacheFilter.prefersJson("application/cbor;q=0.5, application/json"));
+        assertFalse(HotResponseCacheFilter.prefersJson("application/cbor, */*"));
+        assertFalse(HotResponseCacheFilter.prefersJson("application/json;q=0, */*;q=0.1"));
+        assertFalse(HotResponseCacheFilter.prefersJson("application/x-ndjson"));
+        assertFalse(HotResponseCacheFilter.prefersJson("not a type"));
+    }
+}
@@ -0,0 +1,262 @@
+package com.ufomap.api.changebus;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ufomap.api.dto.SightingDTO;
+import com.ufomap.api.event.SightingChangedEvent;
+import com.ufomap.api.event.SightingsResyncEvent;
+import com.ufomap.api.model.SightingChange;
+import com.ufomap.api.repository.SightingChangeRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.invocation.InvocationOnMock;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.CannotCreateTransactionException;
+
+import java.sql.Connection;
+import java.sql.Statement;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Drives the catch-up logic against an in-memory change log; the listener thread only runs, on a
+ * mock connection, where a test says so.
+ */
+class ChangeBusSubscriberTest {
+
+    private static final String THIS_NODE = "node-a";
+    private static final String OTHER_NODE = "node-b";
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    private final List<SightingChange> changeLog = new ArrayList<>();
+    private final List<Object> events = new CopyOnWriteArrayList<>();
+    private SightingChangeRepository changeRepository;
+    private ChangeBusPublisher publisher;
+    private ChangeBusSubscriber subscriber;
+    private volatile boolean failResync;
+
+    @BeforeEach
+    void setUp() {
+        changeRepository = mock(SightingChangeRepository.class);
+        when(changeRepository.findChanges(anyLong(), any(), any())).thenAnswer(this::findChanges);
+        when(changeRepository.findSeqsAfter(anyLong())).thenAnswer(invocation -> changeLog.stream()
+                .map(SightingChange::getSeq)
+                .filter(seq -> seq > (long) invocation.getArgument(0))
+                .sorted()
+                .toList());
+        publisher = mock(ChangeBusPublisher.class);
+        when(publisher.getNodeId()).thenReturn(THIS_NODE);
+        subscriber = subscriber(null);
+        subscriber.resumeFrom(0);
+    }
+
+    @Test
+    void appliesChangesCommittedOutOfOrder() throws Exception {
+        changeLog.add(change(1, OTHER_NODE, 101));
+        changeLog.add(change(3, OTHER_NODE, 103));
+        subscriber.catchUp();
+
+        // Sequence 2 was taken before 3 but committed after it
+        changeLog.add(change(2, OTHER_NODE, 102));
+        subscriber.catchUp();
+        subscriber.catchUp();
+
+        assertEquals(List.of(101L, 103L, 102L), appliedIds());
+        assertEquals(3, subscriber.getLastSeq());
+    }
+
+    @Test
+    void skipsChangesMadeByThisInstance() throws Exception {
+        changeLog.add(change(1, THIS_NODE, 101));
+        changeLog.add(change(2, OTHER_NODE, 102));
+        subscriber.catchUp();
+
+        assertEquals(List.of(102L), appliedIds());
+        assertEquals(2, subscriber.getLastSeq());
+    }
+
+    @Test
+    void catchesUpOnMissedNotifications() throws Exception {
+        assertTrue(subscriber.fromThisNodeOnly(List.of(THIS_NODE + ":4")));
+        assertFalse(subscriber.fromThisNodeOnly(List.of(THIS_NODE + ":4", OTHER_NODE + ":5")));
+
+        // Committed by another instance whose notification never arrived: the poll timeout reads it
+        for (long seq = 1; seq <= 5; seq++) {
+            changeLog.add(change(seq, OTHER_NODE, 100 + seq));
+        }
+        subscriber.catchUp();
+
+        assertEquals(List.of(101L, 102L, 103L, 104L, 105L), appliedIds());
+    }
+
+    @Test
+    void catchesUpAfterReconnecting() throws Exception {
+        changeLog.add(change(1, OTHER_NODE, 101));
+        subscriber.connected(false);
+
+        // Made while the connection was down
+        changeLog.add(change(2, OTHER_NODE, 102));
+        changeLog.add(change(3, OTHER_NODE, 103));
+        when(changeRepository.findMinSeq()).thenReturn(1L);
+        subscriber.connected(true);
+
+        assertEquals(List.of(101L, 102L, 103L), appliedIds());
+        assertEquals(3, subscriber.getLastSeq());
+    }
+
+    @Test
+    void resyncsWhenTheLogWasPrunedWhileDisconnected() throws Exception {
+        subscriber.resumeFrom(3);
+        changeLog.add(change(10, OTHER_NODE, 110));
+        when(changeRepository.findMinSeq()).thenReturn(10L);
+        when(changeRepository.findMaxSeq()).thenReturn(10L);
+
+        subscriber.connected(true);
+
+        assertEquals(1, events.size());
+        assertInstanceOf(SightingsResyncEvent.class, events.get(0));
+        assertEquals(10, subscriber.getLastSeq());
+    }
+
+    @Test
+    void startsWithGapsForTransactionsInFlight() {
+        changeLog.add(change(1, OTHER_NODE, 101));
+        changeLog.add(change(2, OTHER_NODE, 102));
+        changeLog.add(change(4, OTHER_NODE, 104));
+        when(changeRepository.findMaxSeq()).thenReturn(4L);
+
+        // Read before the indexes scan the database; 3 has not committed yet
+        subscriber.init();
+        assertEquals(Set.of(3L), subscriber.getGaps());
+        changeLog.add(change(3, OTHER_NODE, 103));
+        changeLog.add(change(5, OTHER_NODE, 105));
+        subscriber.catchUp();
+
+        assertEquals(List.of(103L, 105L), appliedIds());
+        assertEquals(5, subscriber.getLastSeq());
+    }
+
+    @Test
+    void retriesAResyncWhoseListenerFailed() throws Exception {
+        subscriber.resumeFrom(3);
+        changeLog.add(change(10, OTHER_NODE, 110));
+        when(changeRepository.findMinSeq()).thenReturn(10L);
+        when(changeRepository.findMaxSeq()).thenReturn(10L);
+        failResync = true;
+
+        assertThrows(IllegalStateException.class, () -> subscriber.connected(true));
+        assertEquals(3, subscriber.getLastSeq());
+
+        failResync = false;
+        subscriber.connected(true);
+
+        assertEquals(1, events.size());
+        assertInstanceOf(SightingsResyncEvent.class, events.get(0));
+        assertEquals(10, subscriber.getLastSeq());
+    }
+
+    @Test
+    void keepsListeningWhenTheRepositoryFails() throws Exception {
+        changeLog.add(change(1, OTHER_NODE, 101));
+        // No pooled connection for Spring Data's read-only transaction: not a DataAccessException
+        doThrow(new CannotCreateTransactionException("Connection pool exhausted"))
+                .doAnswer(this::findChanges)
+                .when(changeRepository).findChanges(anyLong(), any(), any());
+        ChangeBusSubscriber listening = subscriber(listenConnection());
+        listening.resumeFrom(0);
+
+        listening.start();
+        try {
+            long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+            while (events.isEmpty() && System.nanoTime() < deadline) {
+                Thread.sleep(10);
+            }
+        } finally {
+            listening.stop();
+        }
+
+        assertEquals(List.of(101L), appliedIds());
+    }
+
+    private ChangeBusSubscriber subscriber(Connection connection) {
+        return new ChangeBusSubscriber(changeRepository, publisher, event -> {
+            if (failResync && event instanceof SightingsResyncEvent) {
+                throw new IllegalStateException("Rebuild failed");
+            }
+            events.add(event);
+        }, objectMapper, new DataSourceProperties(), Duration.ofMillis(10), Duration.ofMinutes(1),
+                Duration.ofMillis(10), 2) {
+
+            @Override
+            Connection connect() {
+                return connection;
+            }
+        };
+    }
+
+    // A LISTEN connection on which no notification ever arrives
+    private static Connection listenConnection() throws Exception {
+        PGConnection pgConnection = mock(PGConnection.class);
+        when(pgConnection.getNotifications(anyInt())).thenAnswer(invocation -> {
+            Thread.sleep((int) invocation.getArgument(0));
+            return new PGNotification[0];
+        });
+        Connection connection = mock(Connection.class);
+        when(connection.unwrap(PGConnection.class)).thenReturn(pgConnection);
+        when(connection.createStatement()).thenReturn(mock(Statement.class));
+        return connection;
+    }
+
+    // Committed rows after afterSeq, plus the listed gaps, in sequence order
+    private List<SightingChange> findChanges(InvocationOnMock invocation) {
+        long afterSeq = invocation.getArgument(0);
+        Collection<Long> gaps = invocation.getArgument(1);
+        Pageable pageable = invocation.getArgument(2);
+        return changeLog.stream()
+                .filter(change -> change.getSeq() > afterSeq || gaps.contains(change.getSeq()))
+                .sorted(Comparator.comparing(SightingChange::getSeq))
+                .limit(pageable.getPageSize())
+                .toList();
+    }
+
+    private List<Long> appliedIds() {
+        return events.stream().map(event -> ((SightingChangedEvent) event).sightingId()).toList();
+    }
+
+    private SightingChange change(long seq, String origin, long sightingId) {
+        SightingDTO sighting = SightingDTO.builder().id(sightingId).build();
+        try {
+            return SightingChange.builder()
+                    .seq(seq)
+                    .origin(origin)
+                    .kind(SightingChange.Kind.UPDATED)
+                    .sightingId(sightingId)
+                    .payload(objectMapper.writeValueAsString(ChangePayload.single(null, sighting)))
+                    .createdAt(LocalDateTime.now())
+                    .build();
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
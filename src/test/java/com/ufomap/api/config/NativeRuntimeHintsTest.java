@@ -0,0 +1,26 @@
+package com.ufomap.api.config;
+
+import com.ufomap.api.dto.SightingDTO;
+import org.junit.jupiter.api.Test;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.predicate.RuntimeHintsPredicates;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class NativeRuntimeHintsTest {
+
+    private final RuntimeHints hints = new RuntimeHints();
+
+    @Test
+    void registersTheBinaryMappersMixinAndItsSerializers() throws Exception {
+        new NativeRuntimeHints().registerHints(hints, getClass().getClassLoader());
+
+        assertTrue(RuntimeHintsPredicates.reflection()
+                .onField(BinaryObjectMappers.EpochSecondsSightingMixin.class.getDeclaredField("dateTime")).test(hints));
+        assertTrue(RuntimeHintsPredicates.reflection()
+                .onField(SightingDTO.class.getDeclaredField("submissionDate")).test(hints));
+        assertTrue(RuntimeHintsPredicates.reflection()
+                .onConstructor(BinaryObjectMappers.EpochSecondsSerializer.class.getDeclaredConstructor()).test(hints));
+        assertTrue(RuntimeHintsPredicates.resource().forResource("data/sightings.json").test(hints));
+    }
+}
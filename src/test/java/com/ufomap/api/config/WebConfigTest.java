@@ -0,0 +1,87 @@
+package com.ufomap.api.config;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.ufomap.api.dto.SightingDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.http.HttpMessageConverters;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+/**
+ * Checks the bytes sent for each format, starting from Spring Boot's default converters (which
+ * already contain Smile and CBOR converters) as the application does.
+ */
+class WebConfigTest {
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        List<HttpMessageConverter<?>> converters = new ArrayList<>(new HttpMessageConverters().getConverters());
+        new WebConfig().extendMessageConverters(converters);
+        mockMvc = MockMvcBuilders.standaloneSetup(new SightingStubController())
+                .setMessageConverters(converters.toArray(new HttpMessageConverter<?>[0]))
+                .build();
+    }
+
+    @Test
+    void smileWritesDatesAsEpochSeconds() throws Exception {
+        JsonNode body = read("application/x-jackson-smile", new ObjectMapper(new SmileFactory()));
+
+        assertEquals(921362400L, body.get("dateTime").asLong());
+        assertTrue(body.get("dateTime").isNumber());
+        assertEquals("Phoenix", body.get("city").asText());
+    }
+
+    @Test
+    void cborWritesDatesAsEpochSeconds() throws Exception {
+        JsonNode body = read("application/cbor", new ObjectMapper(new CBORFactory()));
+
+        assertEquals(921362400L, body.get("dateTime").asLong());
+        assertTrue(body.get("dateTime").isNumber());
+        assertEquals("Phoenix", body.get("city").asText());
+    }
+
+    @Test
+    void jsonKeepsTheDtoDateFormat() throws Exception {
+        JsonNode body = read("application/json", new ObjectMapper());
+
+        assertEquals("1999-03-13T22:00:00", body.get("dateTime").asText());
+    }
+
+    private JsonNode read(String mediaType, ObjectMapper reader) throws Exception {
+        MvcResult result = mockMvc.perform(get("/sighting").accept(mediaType)).andReturn();
+        assertEquals(200, result.getResponse().getStatus());
+        assertTrue(result.getResponse().getContentType().startsWith(mediaType));
+        return reader.readTree(result.getResponse().getContentAsByteArray());
+    }
+
+    @RestController
+    static class SightingStubController {
+
+        @GetMapping("/sighting")
+        SightingDTO sighting() {
+            return SightingDTO.builder()
+                    .id(1L)
+                    .dateTime(LocalDateTime.of(1999, 3, 13, 22, 0))
+                    .city("Phoenix")
+                    .build();
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.ufomap.api.hotspot;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class WindowedCellCounterTest {
+
+    @Test
+    void countsPerCellOverASlidingWindow() {
+        WindowedCellCounter counter = new WindowedCellCounter(4, 1000, 8, 64, 2);
+        counter.add(5, 0);
+        counter.add(5, 999);
+        counter.add(5, 1000);
+        counter.add(7, 1500);
+
+        assertEquals(3, counter.count(5, 1500, 2));
+        assertEquals(1, counter.count(5, 2500, 2));
+        assertEquals(1, counter.count(7, 2500, 2));
+        assertArrayEquals(new int[]{5, 7}, counter.cellsInWindow(1500, 2));
+
+        // Bucket 5 reuses the slot of bucket 1, so events from bucket 1 are now too late
+        assertTrue(counter.add(5, 5000));
+        assertFalse(counter.add(5, 1000));
+        assertEquals(1, counter.count(5, 5000, 3));
+        assertEquals(0, counter.bucketCount(7, 1));
+    }
+
+    @Test
+    void sendsCellsBeyondTheTableToTheSketch() {
+        WindowedCellCounter counter = new WindowedCellCounter(2, 1000, 8, 64, 4);
+        for (int cell = 0; cell < 8; cell++) {
+            counter.add(cell, 0);
+        }
+        for (int i = 0; i < 3; i++) {
+            counter.add(100, 0);
+        }
+
+        assertEquals(8, counter.cellsInWindow(0, 1).length);
+        assertEquals(1, counter.count(0, 0, 1));
+        assertTrue(counter.count(100, 0, 1) >= 3); // Never underestimated
+    }
+
+    @Test
+    void baselineAveragesAndDecays() {
+        DecayedBaseline baseline = new DecayedBaseline(10, 64);
+        for (long epoch = 0; epoch < 500; epoch++) {
+            baseline.fold(1, 10, epoch);
+        }
+
+        assertEquals(10, baseline.rate(1, 499), 0.01);
+        assertEquals(5, baseline.rate(1, 509), 0.01); // Ten empty buckets: one half-life
+        assertEquals(0, baseline.rate(2, 499));
+    }
+}
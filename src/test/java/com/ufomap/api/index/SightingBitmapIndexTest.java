@@ -0,0 +1,138 @@
+package com.ufomap.api.index;
+
+import com.ufomap.api.archive.SightingArchive;
+import com.ufomap.api.dto.SightingDTO;
+import com.ufomap.api.event.SightingsStatusChangedEvent;
+import com.ufomap.api.model.SubmissionStatus;
+import com.ufomap.api.repository.SightingIndexRow;
+import com.ufomap.api.repository.SightingRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class SightingBitmapIndexTest {
+
+    private static final List<SightingIndexRow> ROWS = List.of(
+            new Row(1L, "Light", "us", "az", SubmissionStatus.APPROVED),
+            new Row(2L, "light", "us", "ca", SubmissionStatus.APPROVED),
+            new Row(3L, "Disk", "us", "az", SubmissionStatus.PENDING),
+            new Row(4L, "Light", "ca", null, SubmissionStatus.PENDING),
+            new Row(5L, "Triangle", "us", "AZ", SubmissionStatus.APPROVED));
+
+    private SightingRepository repository;
+    private SightingBitmapIndex index;
+
+    @BeforeEach
+    void setUp() {
+        repository = mock(SightingRepository.class);
+        when(repository.findIndexRowsAfter(eq(0L), any())).thenReturn(ROWS);
+        index = new SightingBitmapIndex(repository, mock(SightingArchive.class), true, 100);
+    }
+
+    @Test
+    void matchesEqualityFiltersIgnoringCase() {
+        index.rebuild();
+
+        assertTrue(index.isReady());
+        assertArrayEquals(new int[]{1, 2, 4}, index.match("LIGHT", null, null).toArray());
+        assertArrayEquals(new int[]{1, 3, 5}, index.match(null, "US", "az").toArray());
+        assertArrayEquals(new int[]{1}, index.match("light", "us", "az").toArray());
+        assertArrayEquals(new int[]{1, 2, 3, 4, 5}, index.match(null, null, null).toArray());
+        assertTrue(index.match("cigar", null, null).isEmpty());
+    }
+
+    @Test
+    void countsFacetsWithinTheResultHighestFirst() {
+        index.rebuild();
+
+        Map<String, Map<String, Integer>> facets = index.facets(index.match(null, "us", null),
+                IndexedField.SHAPE, IndexedField.STATE);
+
+        assertEquals("Light", facets.get("shape").keySet().iterator().next());
+        assertEquals(Map.of("Light", 2, "Disk", 1, "Triangle", 1), facets.get("shape"));
+        assertEquals(Map.of("az", 3, "ca", 1), facets.get("state"));
+    }
+
+    @Test
+    void movesChangedSightingsBetweenValues() {
+        index.rebuild();
+
+        index.apply(dto(3L, "Disk", "az", SubmissionStatus.PENDING), dto(3L, "Light", "az", SubmissionStatus.PENDING));
+        index.apply(dto(5L, "Triangle", "AZ", SubmissionStatus.APPROVED), null);
+
+        assertArrayEquals(new int[]{1, 2, 3, 4}, index.match("light", null, null).toArray());
+        assertTrue(index.match("disk", null, null).isEmpty());
+        assertFalse(index.match(null, null, null).contains(5));
+        assertFalse(index.facets(index.match(null, null, null), IndexedField.SHAPE).get("shape").containsKey("Disk"));
+    }
+
+    @Test
+    void appliesBulkStatusChanges() {
+        index.rebuild();
+
+        index.onSightingsStatusChanged(new SightingsStatusChangedEvent(List.of(3L, 4L), SubmissionStatus.REJECTED, false));
+
+        Map<String, Integer> statuses = index.facets(index.match(null, null, null), IndexedField.SUBMISSION_STATUS)
+                .get("submissionStatus");
+        assertEquals(Map.of("approved", 3, "rejected", 2), statuses);
+    }
+
+    @Test
+    void keepsChangesMadeWhileRebuilding() {
+        index.rebuild();
+        // The scan returns the rows as they were before the change made while it ran
+        when(repository.findIndexRowsAfter(eq(0L), any())).thenAnswer(invocation -> {
+            index.apply(dto(2L, "light", "ca", SubmissionStatus.APPROVED), dto(2L, "Orb", "ca", SubmissionStatus.APPROVED));
+            return ROWS;
+        });
+
+        index.rebuild();
+
+        assertArrayEquals(new int[]{2}, index.match("orb", null, null).toArray());
+        assertArrayEquals(new int[]{1, 4}, index.match("light", null, null).toArray());
+    }
+
+    private static SightingDTO dto(Long id, String shape, String state, SubmissionStatus status) {
+        return SightingDTO.builder().id(id).shape(shape).country("us").state(state).submissionStatus(status).build();
+    }
+
+    private record Row(Long id, String shape, String country, String state, SubmissionStatus submissionStatus)
+            implements SightingIndexRow {
+
+        @Override
+        public Long getId() {
+            return id;
+        }
+
+        @Override
+        public String getShape() {
+            return shape;
+        }
+
+        @Override
+        public String getCountry() {
+            return country;
+        }
+
+        @Override
+        public String getState() {
+            return state;
+        }
+
+        @Override
+        public SubmissionStatus getSubmissionStatus() {
+            return submissionStatus;
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.ufomap.api.index;
+
+import com.ufomap.api.dto.SuggestionDTO;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class WeightedRadixTrieTest {
+
+    @Test
+    void returnsMostFrequentValuesForPrefix() {
+        WeightedRadixTrie trie = new WeightedRadixTrie();
+        trie.add("phoenix", "Phoenix", 40);
+        trie.add("philadelphia", "Philadelphia", 25);
+        trie.add("phoenixville", "Phoenixville", 3);
+        trie.add("portland", "Portland", 30);
+
+        List<SuggestionDTO> suggestions = trie.topK("ph", 2);
+
+        assertEquals(List.of(new SuggestionDTO("Phoenix", 40), new SuggestionDTO("Philadelphia", 25)), suggestions);
+        assertEquals(List.of(new SuggestionDTO("Phoenix", 40), new SuggestionDTO("Phoenixville", 3)), trie.topK("phoe", 5));
+        assertEquals(List.of(new SuggestionDTO("Portland", 30)), trie.topK("po", 5));
+        assertTrue(trie.topK("px", 5).isEmpty());
+    }
+
+    @Test
+    void removesValuesWhoseCountDropsToZero() {
+        WeightedRadixTrie trie = new WeightedRadixTrie();
+        trie.add("phoenix", "Phoenix", 1);
+        trie.add("phoenixville", "Phoenixville", 2);
+        trie.add("phoenix", "Phoenix", -1);
+        trie.add("tucson", "Tucson", -1); // Absent values are ignored
+
+        assertEquals(1, trie.size());
+        assertEquals(List.of(new SuggestionDTO("Phoenixville", 2)), trie.topK("pho", 5));
+
+        trie.add("phoenixville", "Phoenixville", -2);
+
+        assertEquals(0, trie.size());
+        assertTrue(trie.topK("", 5).isEmpty());
+    }
+}
@@ -0,0 +1,363 @@
+package com.ufomap.api.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PrintStream;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Queue;
+import java.util.Random;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Open-loop HTTP load driver: sends a weighted mix of map pans ({@code /bounds}), searches
+ * ({@code /filter}), {@code /{id}} lookups, submissions ({@code POST}) and status changes
+ * ({@code PATCH}) at a fixed target rate, and reports latency percentiles (HdrHistogram) and
+ * errors per endpoint.
+ * <p>
+ * Requests are scheduled on a fixed timetable and sent asynchronously, and latency is measured
+ * from each request's scheduled start, so a slow server cannot lower the offered load or hide
+ * queueing delay (no coordinated omission). Requests are spread over the API keys in
+ * {@code apiKeys}, a properties file in the server's {@code ufomap.rate-limit.api-keys.<client>=<key>}
+ * format that the server must also load, so per-client rate limits apply as they would to real
+ * users; with {@code -} no key is sent and the whole run counts as one client.
+ * <pre>
+ *   java ... LoadDriver [baseUrl] [rps] [durationSeconds] [apiKeys] [user] [password] [seed] [max4xxPercent]
+ *   java ... LoadDriver http://localhost:8080 500 120 loadtest-keys.properties admin password 42 1
+ * </pre>
+ * Full percentile distributions are written to {@code target/loadtest/<endpoint>.hgrm}. The run
+ * fails (exit status 1) when more than {@code max4xxPercent} of the requests got a 4xx response
+ * other than 429, as that means the driver sends requests the API rejects.
+ */
+public class LoadDriver {
+
+    enum Endpoint {
+        BOUNDS("GET /api/sightings/bounds", 40),
+        FILTER("GET /api/sightings/filter", 25),
+        BY_ID("GET /api/sightings/{id}", 20),
+        CREATE("POST /api/sightings", 10),
+        STATUS("PATCH /api/sightings/{id}/status", 5);
+
+        final String label;
+        final int weight;
+
+        Endpoint(String label, int weight) {
+            this.label = label;
+            this.weight = weight;
+        }
+    }
+
+    static final class Stats {
+        final Histogram latencyMicros = new ConcurrentHistogram(TimeUnit.MINUTES.toMicros(1), 3);
+        final LongAdder ok = new LongAdder();
+        final LongAdder clientErrors = new LongAdder();
+        final LongAdder throttled = new LongAdder(); // 429 and 503 (rate and concurrency limits)
+        final LongAdder serverErrors = new LongAdder();
+        final LongAdder failures = new LongAdder(); // Timeouts, connection errors
+    }
+
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+    private static final int MAX_TRACKED_IDS = 10_000;
+    private static final DateTimeFormatter DATE_TIME = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss");
+    private static final String API_KEY_PREFIX = "ufomap.rate-limit.api-keys.";
+
+    private final String baseUrl;
+    private final List<String> apiKeys;
+    private final Random random;
+    private final HttpClient httpClient = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Map<Endpoint, Stats> stats = new EnumMap<>(Endpoint.class);
+    private final Queue<Long> createdIds = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final int totalWeight;
+    private String token;
+    private long maxId;
+
+    LoadDriver(String baseUrl, List<String> apiKeys, long seed) {
+        this.baseUrl = baseUrl;
+        this.apiKeys = apiKeys;
+        this.random = new Random(seed);
+        int weights = 0;
+        for (Endpoint endpoint : Endpoint.values()) {
+            stats.put(endpoint, new Stats());
+            weights += endpoint.weight;
+        }
+        this.totalWeight = weights;
+    }
+
+    public static void main(String[] args) throws Exception {
+        String baseUrl = args.length > 0 ? args[0] : "http://localhost:8080";
+        int rps = args.length > 1 ? Integer.parseInt(args[1]) : 200;
+        int durationSeconds = args.length > 2 ? Integer.parseInt(args[2]) : 60;
+        List<String> apiKeys = args.length > 3 ? readApiKeys(args[3]) : List.of();
+        String user = args.length > 4 ? args[4] : "admin";
+        String password = args.length > 5 ? args[5] : "password";
+        long seed = args.length > 6 ? Long.parseLong(args[6]) : 42;
+        double max4xxPercent = args.length > 7 ? Double.parseDouble(args[7]) : 1.0;
+
+        LoadDriver driver = new LoadDriver(baseUrl, apiKeys, seed);
+        driver.prepare(user, password);
+        System.out.printf("Driving %d req/s for %d s against %s (%s, max id %d)%n", rps, durationSeconds, baseUrl,
+                apiKeys.isEmpty() ? "no API keys: one client" : apiKeys.size() + " API keys", driver.maxId);
+        driver.run(rps, Duration.ofSeconds(durationSeconds));
+        driver.report(System.out, durationSeconds);
+        driver.writeHistograms(Path.of("target", "loadtest"));
+
+        double clientErrorPercent = driver.clientErrorPercent();
+        if (clientErrorPercent > max4xxPercent) {
+            System.out.printf("FAILED: %.2f%% of requests got a 4xx response (limit %.2f%%)%n",
+                    clientErrorPercent, max4xxPercent);
+            System.exit(1);
+        }
+    }
+
+    // Keys the server knows (unknown keys are rate limited by address, see RateLimitFilter)
+    static List<String> readApiKeys(String file) throws IOException {
+        if (file.equals("-")) {
+            return List.of();
+        }
+        Properties properties = new Properties();
+        try (InputStream in = Files.newInputStream(Path.of(file))) {
+            properties.load(in);
+        }
+        List<String> keys = new ArrayList<>();
+        for (String name : properties.stringPropertyNames()) {
+            if (name.startsWith(API_KEY_PREFIX)) {
+                keys.add(properties.getProperty(name));
+            }
+        }
+        if (keys.isEmpty()) {
+            throw new IllegalArgumentException("No " + API_KEY_PREFIX + "* entries in " + file);
+        }
+        keys.sort(null); // Independent of property order, so runs with the same seed match
+        return keys;
+    }
+
+    // The token (default TTL one hour) is fetched once; keep runs shorter than its lifetime
+    void prepare(String user, String password) throws IOException, InterruptedException {
+        String basic = Base64.getEncoder().encodeToString((user + ":" + password).getBytes(StandardCharsets.UTF_8));
+        HttpResponse<String> tokenResponse = httpClient.send(HttpRequest.newBuilder(URI.create(baseUrl + "/api/auth/token"))
+                .header("Authorization", "Basic " + basic)
+                .POST(HttpRequest.BodyPublishers.noBody())
+                .build(), HttpResponse.BodyHandlers.ofString());
+        if (tokenResponse.statusCode() != 200) {
+            throw new IllegalStateException("Could not obtain a token: HTTP " + tokenResponse.statusCode());
+        }
+        token = objectMapper.readTree(tokenResponse.body()).path("access_token").asText();
+
+        HttpResponse<String> latest = httpClient.send(HttpRequest.newBuilder(
+                URI.create(baseUrl + "/api/sightings?size=1&sort=id,desc")).GET().build(),
+                HttpResponse.BodyHandlers.ofString());
+        JsonNode content = objectMapper.readTree(latest.body()).path("content");
+        maxId = content.isArray() && !content.isEmpty() ? content.get(0).path("id").asLong(1) : 1;
+    }
+
+    void run(int rps, Duration duration) throws InterruptedException {
+        long intervalNanos = TimeUnit.SECONDS.toNanos(1) / rps;
+        long start = System.nanoTime();
+        long end = start + duration.toNanos();
+        for (long i = 0; ; i++) {
+            long scheduled = start + i * intervalNanos;
+            if (scheduled >= end) {
+                break;
+            }
+            long wait = scheduled - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            send(pick(), scheduled);
+        }
+
+        long drainDeadline = System.nanoTime() + REQUEST_TIMEOUT.toNanos();
+        while (inFlight.get() > 0 && System.nanoTime() < drainDeadline) {
+            Thread.sleep(50);
+        }
+    }
+
+    private Endpoint pick() {
+        int target = random.nextInt(totalWeight);
+        for (Endpoint endpoint : Endpoint.values()) {
+            target -= endpoint.weight;
+            if (target < 0) {
+                return endpoint;
+            }
+        }
+        return Endpoint.BY_ID;
+    }
+
+    private void send(Endpoint endpoint, long scheduledNanos) {
+        HttpRequest request;
+        try {
+            request = request(endpoint);
+        } catch (IOException e) {
+            stats.get(endpoint).failures.increment();
+            return;
+        }
+        inFlight.incrementAndGet();
+        httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofString())
+                .whenComplete((response, error) -> {
+                    inFlight.decrementAndGet();
+                    record(endpoint, scheduledNanos, response, error);
+                });
+    }
+
+    private HttpRequest request(Endpoint endpoint) throws IOException {
+        HttpRequest.Builder builder = switch (endpoint) {
+            case BOUNDS -> {
+                // A viewport around a populated area, zoomed anywhere from street to region level
+                SyntheticSightings.Cluster cluster = SyntheticSightings.cluster(random);
+                double span = 0.05 * Math.pow(2, random.nextInt(8));
+                double latitude = cluster.latitude() + random.nextGaussian() * cluster.spreadDegrees();
+                double longitude = cluster.longitude() + random.nextGaussian() * cluster.spreadDegrees();
+                yield get(String.format(Locale.ROOT, "/api/sightings/bounds?north=%.4f&south=%.4f&east=%.4f&west=%.4f&size=100",
+                        latitude + span / 2, latitude - span / 2, longitude + span, longitude - span));
+            }
+            case FILTER -> {
+                double kind = random.nextDouble();
+                String query;
+                if (kind < 0.4) {
+                    query = "shape=" + SyntheticSightings.shape(random);
+                } else if (kind < 0.7) {
+                    SyntheticSightings.Cluster cluster = SyntheticSightings.cluster(random);
+                    query = cluster.state() != null ? "state=" + cluster.state() : "country=" + encode(cluster.country());
+                } else {
+                    query = "searchText=" + encode(SyntheticSightings.searchWord(random));
+                }
+                yield get("/api/sightings/filter?" + query + "&size=20");
+            }
+            case BY_ID -> get("/api/sightings/" + (1 + (long) (random.nextDouble() * maxId)));
+            case CREATE -> authorized("/api/sightings")
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(submission()));
+            case STATUS -> {
+                Long id = createdIds.poll();
+                long target = id != null ? id : 1 + (long) (random.nextDouble() * maxId);
+                // Bound to the SubmissionStatus constant names, which are case-sensitive
+                String status = random.nextDouble() < 0.8 ? "APPROVED" : "REJECTED";
+                yield authorized("/api/sightings/" + target + "/status?status=" + status)
+                        .method("PATCH", HttpRequest.BodyPublishers.noBody());
+            }
+        };
+        if (!apiKeys.isEmpty()) {
+            builder.header("X-API-Key", apiKeys.get(random.nextInt(apiKeys.size())));
+        }
+        return builder.timeout(REQUEST_TIMEOUT).build();
+    }
+
+    private HttpRequest.Builder get(String path) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path)).GET();
+    }
+
+    private HttpRequest.Builder authorized(String path) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path)).header("Authorization", "Bearer " + token);
+    }
+
+    private String submission() throws IOException {
+        SyntheticSightings.Sighting sighting = SyntheticSightings.next(random);
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("dateTime", DATE_TIME.format(sighting.dateTime()));
+        body.put("city", sighting.city());
+        body.put("state", sighting.state());
+        body.put("country", sighting.country());
+        body.put("shape", sighting.shape());
+        body.put("duration", sighting.duration());
+        body.put("summary", sighting.summary());
+        body.put("latitude", sighting.latitude());
+        body.put("longitude", sighting.longitude());
+        body.put("submittedBy", "loadtest");
+        return objectMapper.writeValueAsString(body);
+    }
+
+    private void record(Endpoint endpoint, long scheduledNanos, HttpResponse<String> response, Throwable error) {
+        Stats endpointStats = stats.get(endpoint);
+        long micros = (System.nanoTime() - scheduledNanos) / 1000;
+        endpointStats.latencyMicros.recordValue(Math.min(micros, endpointStats.latencyMicros.getHighestTrackableValue()));
+        if (error != null) {
+            endpointStats.failures.increment();
+            return;
+        }
+        int status = response.statusCode();
+        if (status < 400) {
+            endpointStats.ok.increment();
+            if (endpoint == Endpoint.CREATE && createdIds.size() < MAX_TRACKED_IDS) {
+                try {
+                    createdIds.add(objectMapper.readTree(response.body()).path("id").asLong());
+                } catch (IOException ignored) {
+                    // Only used to pick PATCH targets
+                }
+            }
+        } else if (status == 429 || status == 503) {
+            endpointStats.throttled.increment();
+        } else if (status < 500) {
+            endpointStats.clientErrors.increment();
+        } else {
+            endpointStats.serverErrors.increment();
+        }
+    }
+
+    void report(PrintStream out, int durationSeconds) {
+        out.printf("%n%-34s %9s %8s %8s %8s %8s %8s %9s %9s %9s %9s %9s%n", "endpoint", "requests", "req/s",
+                "4xx", "throttle", "5xx", "failed", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms");
+        for (Map.Entry<Endpoint, Stats> entry : stats.entrySet()) {
+            Stats s = entry.getValue();
+            Histogram h = s.latencyMicros;
+            out.printf("%-34s %9d %8.1f %8d %8d %8d %8d %9.2f %9.2f %9.2f %9.2f %9.2f%n", entry.getKey().label,
+                    h.getTotalCount(), h.getTotalCount() / (double) durationSeconds,
+                    s.clientErrors.sum(), s.throttled.sum(), s.serverErrors.sum(), s.failures.sum(),
+                    h.getValueAtPercentile(50) / 1000.0, h.getValueAtPercentile(90) / 1000.0,
+                    h.getValueAtPercentile(99) / 1000.0, h.getValueAtPercentile(99.9) / 1000.0,
+                    h.getMaxValue() / 1000.0);
+        }
+    }
+
+    // 429s are throttling, reported separately
+    double clientErrorPercent() {
+        long requests = 0;
+        long clientErrors = 0;
+        for (Stats s : stats.values()) {
+            requests += s.latencyMicros.getTotalCount();
+            clientErrors += s.clientErrors.sum();
+        }
+        return requests == 0 ? 0 : 100.0 * clientErrors / requests;
+    }
+
+    void writeHistograms(Path directory) throws IOException {
+        Files.createDirectories(directory);
+        for (Map.Entry<Endpoint, Stats> entry : stats.entrySet()) {
+            Path file = directory.resolve(entry.getKey().name().toLowerCase(Locale.ROOT) + ".hgrm");
+            try (PrintStream out = new PrintStream(Files.newOutputStream(file), false, StandardCharsets.UTF_8)) {
+                entry.getValue().latencyMicros.outputPercentileDistribution(out, 1000.0); // In milliseconds
+            }
+        }
+        System.out.println("Percentile distributions written to " + directory.toAbsolutePath());
+    }
+
+    private static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,175 @@
+package com.ufomap.api.loadtest;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+/**
+ * Realistic-looking random sightings shared by {@link SyntheticDataGenerator} and {@link LoadDriver}:
+ * locations clustered around populated areas, a skewed (roughly Zipfian) shape distribution,
+ * mostly-evening timestamps with more reports in recent years, and template-built summaries.
+ * Deterministic for a given {@link Random} seed.
+ */
+final class SyntheticSightings {
+
+    record Cluster(String city, String state, String country, double latitude, double longitude,
+                   double weight, double spreadDegrees) {
+    }
+
+    record Sighting(LocalDateTime dateTime, String city, String state, String country, String shape,
+                    String duration, String summary, LocalDateTime posted, double latitude, double longitude,
+                    String submittedBy, boolean userSubmitted, String submissionStatus) {
+    }
+
+    // Weights loosely follow metro population and reporting hot spots
+    static final List<Cluster> CLUSTERS = List.of(
+            new Cluster("Phoenix", "AZ", "USA", 33.4484, -112.0740, 9, 0.35),
+            new Cluster("Los Angeles", "CA", "USA", 34.0522, -118.2437, 12, 0.45),
+            new Cluster("San Diego", "CA", "USA", 32.7157, -117.1611, 5, 0.25),
+            new Cluster("San Francisco", "CA", "USA", 37.7749, -122.4194, 5, 0.30),
+            new Cluster("Sacramento", "CA", "USA", 38.5816, -121.4944, 3, 0.25),
+            new Cluster("Seattle", "WA", "USA", 47.6062, -122.3321, 8, 0.35),
+            new Cluster("Portland", "OR", "USA", 45.5152, -122.6784, 5, 0.30),
+            new Cluster("Las Vegas", "NV", "USA", 36.1699, -115.1398, 4, 0.25),
+            new Cluster("Salt Lake City", "UT", "USA", 40.7608, -111.8910, 2, 0.25),
+            new Cluster("Denver", "CO", "USA", 39.7392, -104.9903, 4, 0.35),
+            new Cluster("Albuquerque", "NM", "USA", 35.0844, -106.6504, 2, 0.30),
+            new Cluster("Roswell", "NM", "USA", 33.3943, -104.5230, 1, 0.20),
+            new Cluster("Tucson", "AZ", "USA", 32.2226, -110.9747, 2, 0.25),
+            new Cluster("Dallas", "TX", "USA", 32.7767, -96.7970, 6, 0.40),
+            new Cluster("Houston", "TX", "USA", 29.7604, -95.3698, 6, 0.40),
+            new Cluster("Austin", "TX", "USA", 30.2672, -97.7431, 3, 0.25),
+            new Cluster("Chicago", "IL", "USA", 41.8781, -87.6298, 8, 0.40),
+            new Cluster("Detroit", "MI", "USA", 42.3314, -83.0458, 4, 0.35),
+            new Cluster("Minneapolis", "MN", "USA", 44.9778, -93.2650, 3, 0.30),
+            new Cluster("Columbus", "OH", "USA", 39.9612, -82.9988, 3, 0.30),
+            new Cluster("Kansas City", "MO", "USA", 39.0997, -94.5786, 2, 0.30),
+            new Cluster("Nashville", "TN", "USA", 36.1627, -86.7816, 2, 0.30),
+            new Cluster("Atlanta", "GA", "USA", 33.7490, -84.3880, 4, 0.35),
+            new Cluster("Charlotte", "NC", "USA", 35.2271, -80.8431, 2, 0.30),
+            new Cluster("Miami", "FL", "USA", 25.7617, -80.1918, 4, 0.25),
+            new Cluster("Orlando", "FL", "USA", 28.5383, -81.3792, 3, 0.30),
+            new Cluster("Tampa", "FL", "USA", 27.9506, -82.4572, 3, 0.25),
+            new Cluster("New York", "NY", "USA", 40.7128, -74.0060, 9, 0.35),
+            new Cluster("Philadelphia", "PA", "USA", 39.9526, -75.1652, 4, 0.30),
+            new Cluster("Boston", "MA", "USA", 42.3601, -71.0589, 4, 0.30),
+            new Cluster("Toronto", "ON", "Canada", 43.6532, -79.3832, 3, 0.35),
+            new Cluster("Vancouver", "BC", "Canada", 49.2827, -123.1207, 2, 0.30),
+            new Cluster("London", null, "United Kingdom", 51.5074, -0.1278, 2, 0.40),
+            new Cluster("Paris", null, "France", 48.8566, 2.3522, 1, 0.35),
+            new Cluster("Sydney", "NSW", "Australia", -33.8688, 151.2093, 1, 0.35),
+            new Cluster("Mexico City", null, "Mexico", 19.4326, -99.1332, 1, 0.35)
+    );
+
+    static final List<String> SHAPES = List.of(
+            "Light", "Circle", "Triangle", "Fireball", "Unknown", "Sphere", "Other", "Disk", "Oval",
+            "Formation", "Changing", "Cigar", "Flash", "Rectangle", "Cylinder", "Diamond", "Chevron",
+            "Teardrop", "Egg", "Cone", "Cross"
+    );
+
+    private static final double[] CLUSTER_CUMULATIVE = cumulative(CLUSTERS.stream().mapToDouble(Cluster::weight).toArray());
+    private static final double[] SHAPE_CUMULATIVE = zipf(SHAPES.size(), 1.1);
+    // Share of reports by hour of day: mostly after dusk
+    private static final double[] HOUR_CUMULATIVE = cumulative(new double[]{
+            4, 3, 2, 1.5, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1.5, 2, 3, 5, 8, 11, 12, 10, 7});
+
+    private static final String[] COUNTS = {"A", "One", "Two", "Three", "Several", "A group of", "Dozens of"};
+    private static final String[] COLORS = {"bright white", "orange", "red", "green", "blue", "silver",
+            "pulsating", "dim", "amber", "multicolored"};
+    private static final String[] MOTIONS = {"hovered silently", "moved slowly", "zigzagged", "accelerated rapidly",
+            "drifted", "stopped and reversed direction", "descended", "rose vertically", "blinked in sequence"};
+    private static final String[] PLACES = {"the city", "the highway", "the mountains", "the lake", "our house",
+            "the airport", "the desert", "the ocean", "the tree line", "the neighborhood"};
+    private static final String[] ENDINGS = {"before vanishing", "then shot upward out of sight",
+            "and made no sound", "while aircraft passed nearby", "and my neighbors saw it too",
+            "before splitting into two", "then faded out", "and returned the next night"};
+    private static final String[] UNITS = {"seconds", "minutes", "minutes", "minutes", "hours"};
+
+    private SyntheticSightings() {
+    }
+
+    static Sighting next(Random random) {
+        Cluster cluster = cluster(random);
+        double latitude = clamp(cluster.latitude() + random.nextGaussian() * cluster.spreadDegrees(), -90, 90);
+        double longitude = clamp(cluster.longitude() + random.nextGaussian() * cluster.spreadDegrees(), -180, 180);
+        String shape = shape(random);
+
+        // Reporting grows over the years
+        int year = 1995 + (int) (30 * Math.sqrt(random.nextDouble()));
+        int hour = pick(HOUR_CUMULATIVE, random);
+        LocalDateTime dateTime = LocalDateTime.of(year, 1 + random.nextInt(12), 1 + random.nextInt(28),
+                hour, random.nextInt(60));
+        if (random.nextDouble() < 0.02) {
+            dateTime = dateTime.withMonth(7).withDayOfMonth(4); // Fireworks
+        }
+        LocalDateTime posted = dateTime.plusDays(1 + random.nextInt(30)).plusMinutes(random.nextInt(1440));
+
+        boolean userSubmitted = random.nextDouble() < 0.15;
+        double status = random.nextDouble();
+        String submissionStatus = status < 0.9 ? "approved" : status < 0.97 ? "pending" : "rejected";
+        return new Sighting(dateTime, cluster.city(), cluster.state(), cluster.country(), shape,
+                duration(random), summary(random, shape), posted, latitude, longitude,
+                userSubmitted ? "user" + random.nextInt(50_000) : "anonymous", userSubmitted, submissionStatus);
+    }
+
+    static Cluster cluster(Random random) {
+        return CLUSTERS.get(pick(CLUSTER_CUMULATIVE, random));
+    }
+
+    static String shape(Random random) {
+        return SHAPES.get(pick(SHAPE_CUMULATIVE, random));
+    }
+
+    /**
+     * A word that occurs in generated summaries, for free-text searches.
+     */
+    static String searchWord(Random random) {
+        String[][] sources = {COLORS, MOTIONS, PLACES};
+        String[] source = sources[random.nextInt(sources.length)];
+        String[] words = source[random.nextInt(source.length)].split(" ");
+        return words[words.length - 1];
+    }
+
+    private static String duration(Random random) {
+        String unit = UNITS[random.nextInt(UNITS.length)];
+        int amount = unit.equals("hours") ? 1 + random.nextInt(3) : 1 + random.nextInt(unit.equals("seconds") ? 59 : 30);
+        return amount + " " + unit;
+    }
+
+    private static String summary(Random random, String shape) {
+        int count = random.nextInt(COUNTS.length);
+        return COUNTS[count] + " " + COLORS[random.nextInt(COLORS.length)] + " "
+                + shape.toLowerCase(Locale.ROOT) + (count < 2 ? "-shaped object " : "-shaped objects ") + MOTIONS[random.nextInt(MOTIONS.length)] + " over "
+                + PLACES[random.nextInt(PLACES.length)] + " " + ENDINGS[random.nextInt(ENDINGS.length)] + ".";
+    }
+
+    private static int pick(double[] cumulative, Random random) {
+        double target = random.nextDouble() * cumulative[cumulative.length - 1];
+        int index = Arrays.binarySearch(cumulative, target);
+        return Math.min(index >= 0 ? index + 1 : -(index + 1), cumulative.length - 1);
+    }
+
+    private static double[] cumulative(double[] weights) {
+        double[] cumulative = new double[weights.length];
+        double sum = 0;
+        for (int i = 0; i < weights.length; i++) {
+            sum += weights[i];
+            cumulative[i] = sum;
+        }
+        return cumulative;
+    }
+
+    private static double[] zipf(int n, double exponent) {
+        double[] weights = new double[n];
+        for (int rank = 1; rank <= n; rank++) {
+            weights[rank - 1] = 1 / Math.pow(rank, exponent);
+        }
+        return cumulative(weights);
+    }
+
+    private static double clamp(double value, double min, double max) {
+        return Math.max(min, Math.min(max, value));
+    }
+}
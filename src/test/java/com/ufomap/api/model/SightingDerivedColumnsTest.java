@@ -0,0 +1,54 @@
+package com.ufomap.api.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class SightingDerivedColumnsTest {
+
+    @Test
+    void parsesDurationsWithUnits() {
+        assertEquals(600L, SightingDerivedColumns.durationSeconds("10 minutes"));
+        assertEquals(2700L, SightingDerivedColumns.durationSeconds("45 mins"));
+        assertEquals(30L, SightingDerivedColumns.durationSeconds("30s"));
+        assertEquals(5400L, SightingDerivedColumns.durationSeconds("about 1.5 Hours"));
+        assertEquals(172800L, SightingDerivedColumns.durationSeconds("2 days"));
+    }
+
+    @Test
+    void takesTheMidpointOfRanges() {
+        assertEquals(450L, SightingDerivedColumns.durationSeconds("5-10 min"));
+        assertEquals(9000L, SightingDerivedColumns.durationSeconds("2 to 3 hrs"));
+    }
+
+    @Test
+    void readsNumberWords() {
+        assertEquals(3L, SightingDerivedColumns.durationSeconds("a few seconds"));
+        assertEquals(120L, SightingDerivedColumns.durationSeconds("a couple of minutes"));
+        assertEquals(3600L, SightingDerivedColumns.durationSeconds("an hour"));
+        assertEquals(1800L, SightingDerivedColumns.durationSeconds("half an hour"));
+    }
+
+    @Test
+    void leavesDurationsWithoutAmountAndUnitNull() {
+        assertNull(SightingDerivedColumns.durationSeconds(null));
+        assertNull(SightingDerivedColumns.durationSeconds("  "));
+        assertNull(SightingDerivedColumns.durationSeconds("unknown"));
+        assertNull(SightingDerivedColumns.durationSeconds("10"));
+    }
+
+    @Test
+    void parsesPostedTimestampsAndDates() {
+        assertEquals(LocalDateTime.of(2004, 7, 6, 10, 15, 30),
+                SightingDerivedColumns.postedAt("2004-07-06T10:15:30"));
+        assertEquals(LocalDateTime.of(2004, 7, 6, 10, 15), SightingDerivedColumns.postedAt("2004-07-06 10:15"));
+        assertEquals(LocalDateTime.of(2004, 7, 6, 0, 0), SightingDerivedColumns.postedAt(" 7/6/2004 "));
+        assertEquals(LocalDateTime.of(2024, 4, 16, 0, 0), SightingDerivedColumns.postedAt("4/16/24"));
+        assertEquals(LocalDateTime.of(1951, 4, 16, 0, 0), SightingDerivedColumns.postedAt("4/16/51"));
+        assertNull(SightingDerivedColumns.postedAt("yesterday"));
+        assertNull(SightingDerivedColumns.postedAt(null));
+    }
+}
@@ -0,0 +1,33 @@
+package com.ufomap.api.model;
+
+import java.time.LocalDateTime;
+
+/**
+ * Sightings for tests that write and read snapshot and archive files.
+ */
+public final class SightingFixtures {
+
+    private SightingFixtures() {
+    }
+
+    /**
+     * An approved Arizona sighting of 2004-07-04, lasting "5 minutes".
+     */
+    public static Sighting sighting(Long id, String city, String shape, String summary,
+                                    Double latitude, Double longitude) {
+        return Sighting.builder()
+                .id(id)
+                .dateTime(LocalDateTime.of(2004, 7, 4, 21, 30, 15, 250_000_000))
+                .city(city)
+                .state("AZ")
+                .country("USA")
+                .shape(shape)
+                .duration("5 minutes")
+                .summary(summary)
+                .posted("7/6/2004")
+                .latitude(latitude)
+                .longitude(longitude)
+                .submissionStatus(SubmissionStatus.APPROVED)
+                .build();
+    }
+}
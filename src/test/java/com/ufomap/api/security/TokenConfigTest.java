@@ -0,0 +1,63 @@
+package com.ufomap.api.security;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtValidationException;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationConverter;
+
+import javax.crypto.SecretKey;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class TokenConfigTest {
+
+    private static final String SECRET = Base64.getEncoder().encodeToString(new byte[32]);
+    private static final Authentication ADMIN = new UsernamePasswordAuthenticationToken(
+            "admin", null, AuthorityUtils.createAuthorityList("ROLE_ADMIN"));
+
+    private final TokenConfig config = new TokenConfig();
+    private final SecretKey key = config.jwtSigningKey(SECRET);
+    private final JwtDecoder decoder = config.jwtDecoder(key, "ufo-sighting-api", "ufo-sighting-api");
+
+    @Test
+    void acceptsTokensIssuedForThisApi() {
+        Jwt jwt = decoder.decode(issue("ufo-sighting-api", "ufo-sighting-api"));
+
+        assertEquals("admin", jwt.getSubject());
+        assertEquals(List.of("ufo-sighting-api"), jwt.getAudience());
+    }
+
+    @Test
+    void rejectsTokensForAnotherAudienceOrIssuer() {
+        assertThrows(JwtValidationException.class, () -> decoder.decode(issue("ufo-sighting-api", "other-api")));
+        assertThrows(JwtValidationException.class, () -> decoder.decode(issue("other-issuer", "ufo-sighting-api")));
+    }
+
+    @Test
+    void grantsTheIssuingUsersRoles() {
+        JwtAuthenticationConverter converter = config.jwtAuthenticationConverter();
+
+        Authentication authentication = converter.convert(decoder.decode(issue("ufo-sighting-api", "ufo-sighting-api")));
+
+        assertEquals(List.of("ROLE_ADMIN"), AuthorityUtils.authorityListToSet(authentication.getAuthorities())
+                .stream().toList());
+    }
+
+    @Test
+    void refusesToStartWithoutASecret() {
+        assertThrows(IllegalStateException.class, () -> config.jwtSigningKey(""));
+        assertThrows(IllegalStateException.class, () -> config.jwtSigningKey(Base64.getEncoder().encodeToString(new byte[16])));
+    }
+
+    private String issue(String issuer, String audience) {
+        return new JwtTokenService(config.jwtEncoder(key), Duration.ofMinutes(5), issuer, audience).issueToken(ADMIN);
+    }
+}
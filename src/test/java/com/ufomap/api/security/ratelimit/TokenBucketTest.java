@@ -0,0 +1,43 @@
+package com.ufomap.api.security.ratelimit;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TokenBucketTest {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    @Test
+    void allowsBurstUpToCapacityThenThrottles() {
+        TokenBucket bucket = new TokenBucket(5, 1, 0);
+
+        for (int i = 0; i < 5; i++) {
+            assertEquals(0, bucket.tryAcquire(0), "request " + i + " should be allowed");
+        }
+        long wait = bucket.tryAcquire(0);
+        assertTrue(wait > 0 && wait <= SECOND, "sixth request should wait up to one refill interval");
+    }
+
+    @Test
+    void refillsAtConfiguredRate() {
+        TokenBucket bucket = new TokenBucket(1, 2, 0); // one token every 500ms
+
+        assertEquals(0, bucket.tryAcquire(0));
+        assertTrue(bucket.tryAcquire(SECOND / 4) > 0);
+        assertEquals(0, bucket.tryAcquire(SECOND / 2));
+    }
+
+    @Test
+    void becomesIdleOnceFullyRefilled() {
+        TokenBucket bucket = new TokenBucket(10, 10, 0);
+        bucket.tryAcquire(0);
+
+        assertFalse(bucket.isIdle(0));
+        assertTrue(bucket.isIdle(SECOND));
+    }
+}
@@ -0,0 +1,147 @@
+package com.ufomap.api.service;
+
+import com.ufomap.api.dto.BulkStatusUpdateRequest;
+import com.ufomap.api.dto.BulkStatusUpdateResultDTO;
+import com.ufomap.api.event.SightingsStatusChangedEvent;
+import com.ufomap.api.model.Sighting;
+import com.ufomap.api.model.SubmissionStatus;
+import com.ufomap.api.repository.SightingRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.context.event.EventListener;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Bulk status changes run chunk by chunk and leave other moderators' claims alone.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect")
+@Transactional(propagation = Propagation.NOT_SUPPORTED) // Each chunk commits on its own
+@Import({ModerationService.class, ModerationServiceTest.RecordingListener.class})
+class ModerationServiceTest {
+
+    @Autowired
+    private ModerationService moderationService;
+    @Autowired
+    private SightingRepository sightingRepository;
+    @Autowired
+    private RecordingListener listener;
+
+    @MockBean
+    private SightingService sightingService;
+
+    @BeforeEach
+    void setUp() {
+        sightingRepository.deleteAll();
+        listener.events.clear();
+    }
+
+    @Test
+    void updatesEveryFilterMatchInChunks() {
+        int count = ModerationService.UPDATE_CHUNK_SIZE + 5;
+        sightingRepository.saveAll(IntStream.range(0, count).mapToObj(i -> sighting("light")).toList());
+        sightingRepository.save(sighting("disk"));
+
+        BulkStatusUpdateResultDTO result = moderationService.updateStatus(
+                request(SubmissionStatus.PENDING, null), "alice");
+
+        assertEquals(count, result.getUpdated());
+        assertEquals(0, result.getClaimedByOthers());
+        assertEquals(List.of(ModerationService.UPDATE_CHUNK_SIZE, 5),
+                listener.events.stream().map(event -> event.sightingIds().size()).toList());
+        assertEquals(count, sightingRepository.findAll().stream()
+                .filter(sighting -> sighting.getSubmissionStatus() == SubmissionStatus.APPROVED).count());
+    }
+
+    @Test
+    void skipsSightingsClaimedByAnotherModerator() {
+        LocalDateTime now = LocalDateTime.now();
+        Sighting free = sightingRepository.save(sighting("light"));
+        Sighting own = sightingRepository.save(claimed("alice", now.plusMinutes(10)));
+        Sighting expired = sightingRepository.save(claimed("bob", now.minusMinutes(1)));
+        Sighting others = sightingRepository.save(claimed("bob", now.plusMinutes(10)));
+
+        BulkStatusUpdateResultDTO result = moderationService.updateStatus(
+                request(SubmissionStatus.PENDING, null), "alice");
+
+        assertEquals(3, result.getUpdated());
+        assertEquals(1, result.getClaimedByOthers());
+        assertEquals(SubmissionStatus.APPROVED, status(free));
+        assertEquals(SubmissionStatus.APPROVED, status(own));
+        assertEquals(SubmissionStatus.APPROVED, status(expired));
+        assertEquals(SubmissionStatus.PENDING, status(others));
+        assertEquals("bob", sightingRepository.findById(others.getId()).orElseThrow().getClaimedBy());
+    }
+
+    @Test
+    void updatesOnlyRequestedIdsInFromStatus() {
+        Sighting pending = sightingRepository.save(sighting("light"));
+        Sighting rejected = sighting("light");
+        rejected.setSubmissionStatus(SubmissionStatus.REJECTED);
+        rejected = sightingRepository.save(rejected);
+        Sighting notRequested = sightingRepository.save(sighting("light"));
+
+        BulkStatusUpdateResultDTO result = moderationService.updateStatus(
+                request(SubmissionStatus.PENDING, List.of(pending.getId(), rejected.getId())), "alice");
+
+        assertEquals(1, result.getUpdated());
+        assertEquals(List.of(List.of(pending.getId())),
+                listener.events.stream().map(SightingsStatusChangedEvent::sightingIds).toList());
+        assertEquals(SubmissionStatus.REJECTED, status(rejected));
+        assertEquals(SubmissionStatus.PENDING, status(notRequested));
+    }
+
+    private SubmissionStatus status(Sighting sighting) {
+        return sightingRepository.findById(sighting.getId()).orElseThrow().getSubmissionStatus();
+    }
+
+    private static BulkStatusUpdateRequest request(SubmissionStatus fromStatus, List<Long> ids) {
+        BulkStatusUpdateRequest request = new BulkStatusUpdateRequest();
+        request.setStatus(SubmissionStatus.APPROVED);
+        request.setFromStatus(fromStatus);
+        request.setIds(ids);
+        request.setShape(ids == null ? "light" : null);
+        return request;
+    }
+
+    private static Sighting claimed(String moderator, LocalDateTime expiresAt) {
+        Sighting sighting = sighting("light");
+        sighting.setClaimedBy(moderator);
+        sighting.setClaimExpiresAt(expiresAt);
+        return sighting;
+    }
+
+    private static Sighting sighting(String shape) {
+        return Sighting.builder()
+                .dateTime(LocalDateTime.of(2024, 5, 1, 21, 0))
+                .city("Phoenix")
+                .state("az")
+                .country("us")
+                .shape(shape)
+                .latitude(33.45)
+                .longitude(-112.07)
+                .submissionStatus(SubmissionStatus.PENDING)
+                .build();
+    }
+
+    static class RecordingListener {
+
+        final List<SightingsStatusChangedEvent> events = new ArrayList<>();
+
+        @EventListener
+        public void onSightingsStatusChanged(SightingsStatusChangedEvent event) {
+            events.add(event);
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package com.ufomap.api.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ufomap.api.changebus.ChangeBusPublisher;
+import com.ufomap.api.dto.SightingDTO;
+import com.ufomap.api.event.SightingChangedEvent;
+import com.ufomap.api.hotspot.HotspotDetector;
+import com.ufomap.api.index.SightingBitmapIndex;
+import com.ufomap.api.index.SightingSuggestionIndex;
+import com.ufomap.api.repository.JpaSightingStore;
+import com.ufomap.api.repository.SightingChangeRepository;
+import com.ufomap.api.repository.SightingReadSource;
+import com.ufomap.api.repository.SightingRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+/**
+ * A sighting write and its change log row commit or roll back together.
+ */
+@DataJpaTest(properties = {
+        "ufomap.change-bus.enabled=true",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect"
+})
+@Transactional(propagation = Propagation.NOT_SUPPORTED) // Each service call commits on its own
+@Import({SightingService.class, JpaSightingStore.class, ChangeBusPublisher.class,
+        SightingServiceTransactionTest.FailingListener.class})
+class SightingServiceTransactionTest {
+
+    @Autowired
+    private SightingService sightingService;
+    @Autowired
+    private SightingRepository sightingRepository;
+    @Autowired
+    private SightingChangeRepository changeRepository;
+    @Autowired
+    private FailingListener failingListener;
+
+    @MockBean
+    private ObjectMapper objectMapper;
+    @MockBean
+    private SightingReadSource readSource;
+    @MockBean
+    private SightingBitmapIndex bitmapIndex;
+    @MockBean
+    private SightingSuggestionIndex suggestionIndex;
+    @MockBean
+    private HotspotDetector hotspotDetector;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        changeRepository.deleteAll();
+        sightingRepository.deleteAll();
+        failingListener.failing = false;
+        when(readSource.isWritable()).thenReturn(true);
+        when(objectMapper.writeValueAsString(any())).thenReturn("{}");
+    }
+
+    @Test
+    void commitsTheSightingWithItsChange() {
+        sightingService.createSighting(sighting());
+
+        assertEquals(1, sightingRepository.count());
+        assertEquals(1, changeRepository.count());
+    }
+
+    @Test
+    void keepsNoSightingWhenItsChangeCannotBeLogged() throws Exception {
+        when(objectMapper.writeValueAsString(any())).thenThrow(new JsonProcessingException("broken") { });
+
+        assertThrows(IllegalStateException.class, () -> sightingService.createSighting(sighting()));
+
+        assertEquals(0, sightingRepository.count());
+        assertEquals(0, changeRepository.count());
+    }
+
+    @Test
+    void rollsBackTheSightingAndItsChangeTogether() {
+        failingListener.failing = true;
+
+        assertThrows(IllegalStateException.class, () -> sightingService.createSighting(sighting()));
+
+        assertEquals(0, sightingRepository.count());
+        assertEquals(0, changeRepository.count());
+    }
+
+    private static SightingDTO sighting() {
+        return SightingDTO.builder()
+                .dateTime(LocalDateTime.of(2024, 5, 1, 21, 0))
+                .city("Phoenix")
+                .state("az")
+                .country("us")
+                .shape("light")
+                .latitude(33.45)
+                .longitude(-112.07)
+                .build();
+    }
+
+    // Fails after the change log row has been written
+    static class FailingListener {
+
+        volatile boolean failing;
+
+        @EventListener
+        @Order(Ordered.LOWEST_PRECEDENCE)
+        public void onSightingChanged(SightingChangedEvent event) {
+            if (failing) {
+                throw new IllegalStateException("Failed after the change was logged");
+            }
+        }
+    }
+}
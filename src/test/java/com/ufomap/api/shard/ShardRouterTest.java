@@ -0,0 +1,59 @@
+package com.ufomap.api.shard;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.BitSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ShardRouterTest {
+
+    @Test
+    void encodesCellsLikeGeohashStrings() {
+        // Phoenix, AZ is in geohash 9tb
+        int cell = GeoHash.cell(33.45, -112.07, 3);
+        assertEquals("9tb", GeoHash.toString(cell, 3));
+        assertEquals(cell, GeoHash.parse("9TB"));
+
+        double[] bounds = GeoHash.bounds(cell, 3);
+        assertTrue(bounds[0] <= 33.45 && 33.45 < bounds[1]);
+        assertTrue(bounds[2] <= -112.07 && -112.07 < bounds[3]);
+    }
+
+    @Test
+    void routesByLongestPrefix() {
+        ShardRouter router = new ShardRouter(2, List.of(
+                List.of("0", "1", "2", "3", "4", "5", "6", "7", "8", "9", "b", "c", "d", "e", "f", "g",
+                        "h", "j", "k", "m", "n", "p", "q", "r", "s", "t", "u", "v", "w", "x", "y", "z"),
+                List.of("9t")));
+
+        assertEquals(1, router.shardOf(33.45, -112.07)); // Phoenix, 9t
+        assertEquals(0, router.shardOf(40.71, -74.01));  // New York, dr
+        assertEquals(0, router.shardOf(null, -74.01));
+        assertEquals(1, router.cellsPerShard()[1]);
+    }
+
+    @Test
+    void findsTheShardsOfABox() {
+        ShardRouter router = new ShardRouter(1, List.of(List.of(), List.of()));
+
+        BitSet arizona = router.shardsIn(37.0, 31.3, -109.0, -114.8);
+        assertEquals(1, arizona.cardinality());
+        assertTrue(arizona.get(router.shardOf(33.45, -112.07)));
+        assertEquals(2, router.shardsIn(90, -90, 180, -180).cardinality());
+        assertTrue(router.shardsIn(30, 40, 10, 0).isEmpty());
+    }
+
+    @Test
+    void rejectsIncompleteOrOverlappingPrefixes() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new ShardRouter(1, List.of(List.of("9"), List.of("d"))));
+        assertThrows(IllegalArgumentException.class,
+                () -> new ShardRouter(1, List.of(List.of("9"), List.of("9"))));
+        assertArrayEquals(new int[]{16, 16}, new ShardRouter(1, List.of(List.of(), List.of())).cellsPerShard());
+    }
+}
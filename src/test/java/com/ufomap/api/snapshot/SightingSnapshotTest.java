@@ -0,0 +1,97 @@
+package com.ufomap.api.snapshot;
+
+import com.ufomap.api.model.Sighting;
+import com.ufomap.api.repository.ValueCount;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static com.ufomap.api.model.SightingFixtures.sighting;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SightingSnapshotTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void roundTripsSightingsAndAnswersFilters() throws Exception {
+        Sighting phoenix = sighting(1L, "Phoenix", "Triangle", "Lights over the mountains", 33.45, -112.07);
+        Sighting tucson = sighting(5L, "Tucson", "light", "Bright light, no sound", 32.22, -110.97);
+        Sighting noCoordinates = sighting(9L, null, "Triangle", null, null, null);
+        noCoordinates.setDateTime(null);
+
+        SnapshotWriter writer = new SnapshotWriter();
+        List.of(phoenix, tucson, noCoordinates).forEach(writer::add);
+        Path file = directory.resolve("sightings.snapshot");
+        writer.writeTo(file);
+
+        SightingSnapshot snapshot = SightingSnapshot.open(file);
+        assertEquals(3, snapshot.getRowCount());
+        assertEquals(tucson, snapshot.toSighting(snapshot.rowOf(5)));
+        assertEquals(noCoordinates, snapshot.toSighting(snapshot.rowOf(9)));
+        assertTrue(snapshot.rowOf(4) < 0);
+
+        SnapshotSightingReadSource source = new SnapshotSightingReadSource(snapshot);
+        Page<Sighting> triangles = source.findWithFilters("TRIANGLE", null, null, null, null, null, null,
+                PageRequest.of(0, 10, Sort.by(Sort.Direction.DESC, "id")));
+        assertEquals(List.of(9L, 1L), triangles.map(Sighting::getId).getContent());
+
+        Page<Sighting> search = source.findWithFilters(null, null, null, null, "LIGHT", null, null,
+                PageRequest.of(0, 1));
+        assertEquals(2, search.getTotalElements());
+        assertEquals(List.of(phoenix), search.getContent());
+
+        assertEquals(3, source.findWithFilters(null, null, null, null, null, 300L, 300L,
+                PageRequest.of(0, 10)).getTotalElements());
+        assertEquals(0, source.findWithFilters(null, null, null, null, null, 301L, null,
+                PageRequest.of(0, 10)).getTotalElements());
+
+        Page<Sighting> inBounds = source.findInBounds(34.0, 32.0, -110.0, -113.0, PageRequest.of(0, 10));
+        assertEquals(List.of(phoenix, tucson), inBounds.getContent());
+    }
+
+    @Test
+    void readsValuesSpanningMappedRegions() throws Exception {
+        SnapshotWriter writer = new SnapshotWriter();
+        List<Sighting> sightings = List.of(
+                sighting(1L, "Phoenix", "Triangle", "Lights over the mountains", 33.45, -112.07),
+                sighting(2L, "Tucson", "light", "Bright light, no sound, moving slowly to the north", 32.22, -110.97),
+                sighting(3L, "Flagstaff", "Disk", null, 35.2, -111.65));
+        sightings.forEach(writer::add);
+        Path file = directory.resolve("regions.snapshot");
+        writer.writeTo(file);
+
+        // 32-byte regions: primitives fall at region ends and strings cross region boundaries
+        SightingSnapshot snapshot = SightingSnapshot.open(file, 5);
+        for (Sighting sighting : sightings) {
+            assertEquals(sighting, snapshot.toSighting(snapshot.rowOf(sighting.getId())));
+        }
+    }
+
+    @Test
+    void countsDistinctValuesForSuggestions() throws Exception {
+        SnapshotWriter writer = new SnapshotWriter();
+        writer.add(sighting(1L, "Phoenix", "Triangle", null, null, null));
+        writer.add(sighting(2L, "Phoenix", "light", null, null, null));
+        writer.add(sighting(3L, null, "Triangle", null, null, null));
+        Path file = directory.resolve("counts.snapshot");
+        writer.writeTo(file);
+
+        SnapshotSightingReadSource source = new SnapshotSightingReadSource(SightingSnapshot.open(file));
+        assertEquals(Map.of("Phoenix", 2L), counts(source.countValues("city")));
+        assertEquals(Map.of("Triangle", 2L, "light", 1L), counts(source.countValues("shape")));
+    }
+
+    private static Map<String, Long> counts(List<ValueCount> values) {
+        return values.stream().collect(Collectors.toMap(ValueCount::getValue, ValueCount::getCount));
+    }
+}